@@ -117,6 +117,8 @@ public void dispose() {
         if (atlas != null)
             atlas.dispose();
         de.tum.cit.fop.maze.utils.AudioManager.getInstance().dispose();
+        // 退出前确保成就计数已写入磁盘
+        de.tum.cit.fop.maze.utils.AchievementManager.flushNow();
     }
 
     public Skin getSkin() {
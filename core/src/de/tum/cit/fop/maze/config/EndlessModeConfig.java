@@ -88,8 +88,8 @@ private EndlessModeConfig() {
 
     // ========== 敌人配置 ==========
 
-    /** 最大敌人数量 */
-    public static final int MAX_ENEMY_COUNT = 200;
+    /** 最大活跃敌人数量（休眠敌人不计入） */
+    public static final int MAX_ENEMY_COUNT = 500;
 
     /** 敌人刷新最小距离（格子） */
     public static final int SPAWN_MIN_DISTANCE = 20;
@@ -97,8 +97,29 @@ private EndlessModeConfig() {
     /** 敌人刷新最大距离（格子） */
     public static final int SPAWN_MAX_DISTANCE = 50;
 
-    /** 敌人休眠距离（格子） */
-    public static final int ENEMY_DORMANT_DISTANCE = 50;
+    /**
+     * 敌人休眠距离（格子）：超出后冻结到所在区块。
+     * 必须严格大于刷新距离，否则刚在刷新圈边缘生成的敌人（包括 BOSS）下一帧就会被冻结
+     */
+    public static final int ENEMY_DORMANT_DISTANCE = SPAWN_MAX_DISTANCE + 8;
+
+    /** 休眠敌人唤醒距离（格子，小于休眠距离以免在边界反复冻结/唤醒） */
+    public static final int ENEMY_WAKE_DISTANCE = 45;
+
+    /** 全速更新半径（格子，约为半个屏幕宽）；之外到休眠距离之间降频更新 */
+    public static final int ENEMY_FULL_RATE_DISTANCE = 20;
+
+    /** 降频敌人每隔多少帧更新一次（按敌人的更新相位错开） */
+    public static final int ENEMY_REDUCED_TICK_FRAMES = 4;
+
+    /** 每个区块最多保留的休眠敌人数 */
+    public static final int MAX_DORMANT_ENEMIES_PER_CHUNK = 32;
+
+    /** 敌人追踪玩家的半径（格子） */
+    public static final int ENEMY_CHASE_RADIUS = 30;
+
+    /** 共享寻路距离场半径（格子，略大于追踪半径） */
+    public static final int NAV_FIELD_RADIUS = 32;
 
     // ========== 安全期配置（新增）==========
 
@@ -35,14 +35,53 @@ public class CustomElementManager {
     // padding
     private Map<String, TextureRegion> textureCache;
 
+    // Keeps standalone textures under a byte budget by evicting the least
+    // recently drawn animations; evicted animations reload on their next lookup
+    private static final long DEFAULT_TEXTURE_BUDGET_BYTES = 512L * 1024 * 1024;
+    private final TextureResidency residency;
+    // Frames uploaded by the loading pipeline that no animation has claimed yet
+    private final Map<String, Long> preloadedFrames = new HashMap<>();
+    private long preloadedBytes;
+
+    // Packed pages for all local sprite frames; rebuilt when the element set
+    // changes
+    private CustomSpriteAtlas atlas;
+    private boolean atlasDirty = true;
+
+    // Name index: lower-case name -> definition, rebuilt whenever the element set
+    // changes
+    private Map<String, CustomElementDefinition> nameIndex;
+    private Map<String, CustomWeaponStats> weaponIndex;
+    // Resolved lookups keyed by the exact weapon name (avoids toLowerCase per
+    // frame); NO_WEAPON marks names known to have no custom definition
+    private Map<String, CustomWeaponStats> weaponLookupCache;
+    private static final CustomWeaponStats NO_WEAPON = new CustomWeaponStats(new CustomElementDefinition());
+
     private CustomElementManager() {
         elements = new HashMap<>();
         animationCache = new HashMap<>();
         textureCache = new HashMap<>();
+        residency = new TextureResidency(DEFAULT_TEXTURE_BUDGET_BYTES, new TextureResidency.Listener() {
+            @Override
+            public void onAnimationEvicted(String animationKey) {
+                animationCache.remove(animationKey);
+            }
+
+            @Override
+            public void onTextureReleased(String textureKey) {
+                TextureRegion region = textureCache.remove(textureKey);
+                if (region != null)
+                    disposeLater(region.getTexture());
+            }
+        });
+        nameIndex = new HashMap<>();
+        weaponIndex = new HashMap<>();
+        weaponLookupCache = new HashMap<>();
         json = new Json();
         json.setOutputType(JsonWriter.OutputType.json);
         loadElements();
         initializeDefaults();
+        rebuildIndex();
     }
 
     public static CustomElementManager getInstance() {
@@ -62,6 +101,7 @@ public static CustomElementManager getInstance() {
     public void saveElement(CustomElementDefinition element) {
         if (Gdx.files == null) {
             elements.put(element.getId(), element);
+            rebuildIndex();
             return;
         }
         // Process sprite paths to localize them
@@ -98,6 +138,8 @@ public void saveElement(CustomElementDefinition element) {
         }
 
         elements.put(element.getId(), element);
+        rebuildIndex();
+        atlasDirty = true;
         persistToFile();
         GameLogger.info("CustomElementManager", "Saved element: " + element.getName());
     }
@@ -113,12 +155,54 @@ public java.util.Collection<CustomElementDefinition> getAllElements() {
      * Find an element definition by name (case-insensitive)
      */
     public CustomElementDefinition getElementByName(String name) {
+        if (name == null)
+            return null;
+        return nameIndex.get(name.toLowerCase());
+    }
+
+    /**
+     * Resolve a weapon name to its custom weapon definition and pre-parsed stats.
+     *
+     * @return the stats, or null if no custom weapon has this name
+     */
+    public CustomWeaponStats getWeaponStats(String weaponName) {
+        if (weaponName == null)
+            return null;
+        CustomWeaponStats stats = weaponLookupCache.get(weaponName);
+        if (stats == null) {
+            stats = weaponIndex.get(weaponName.toLowerCase());
+            if (stats == null)
+                stats = NO_WEAPON;
+            weaponLookupCache.put(weaponName, stats);
+        }
+        return stats == NO_WEAPON ? null : stats;
+    }
+
+    /**
+     * Find the custom weapon element ID for a weapon name (case-insensitive)
+     */
+    public String findWeaponId(String weaponName) {
+        CustomWeaponStats stats = getWeaponStats(weaponName);
+        return stats != null ? stats.getId() : null;
+    }
+
+    /**
+     * Rebuild the name and weapon indices from the current element set.
+     * The first element encountered wins, like the former linear scans.
+     */
+    private void rebuildIndex() {
+        nameIndex.clear();
+        weaponIndex.clear();
+        weaponLookupCache.clear();
         for (CustomElementDefinition def : elements.values()) {
-            if (def.getName().equalsIgnoreCase(name)) {
-                return def;
+            if (def.getName() == null)
+                continue;
+            String key = def.getName().toLowerCase();
+            nameIndex.putIfAbsent(key, def);
+            if (def.getType() == ElementType.WEAPON && !weaponIndex.containsKey(key)) {
+                weaponIndex.put(key, new CustomWeaponStats(def));
             }
         }
-        return null;
     }
 
     /**
@@ -127,6 +211,9 @@ public CustomElementDefinition getElementByName(String name) {
     public void deleteElement(String id) {
         CustomElementDefinition removed = elements.remove(id);
         if (removed != null) {
+            rebuildIndex();
+            releaseElement(id);
+            atlasDirty = true;
             persistToFile();
 
             // Cleanup local images
@@ -278,48 +365,190 @@ public int getElementCount() {
     }
 
     /**
-     * Creates a TextureRegion that pads non-square textures to square with
-     * transparency.
-     * Preserves all original content without cropping.
+     * Loads a frame that is not in the atlas as its own texture, padding
+     * non-square images to square with transparency.
+     * Preserves all original content without cropping; only the padded texture
+     * is uploaded.
+     */
+    private TextureRegion loadStandaloneRegion(FileHandle file) {
+        com.badlogic.gdx.graphics.Pixmap padded = CustomSpriteAtlas.decodeSquare(file);
+        Texture tex = new Texture(padded);
+        padded.dispose();
+        return new TextureRegion(tex);
+    }
+
+    /**
+     * Normalize a stored sprite path: forward slashes, and paths from another PC
+     * that contain "custom_images" are made relative.
+     */
+    private String normalizeSpritePath(String path) {
+        // Windows path fix: replace backslashes with forward slashes
+        path = path.replace('\\', '/');
+
+        // AUTO-FIX: If path is absolute (from another PC) but contains "custom_images",
+        // make it relative
+        if (path.contains(LOCAL_IMAGE_DIR)) {
+            int idx = path.indexOf(LOCAL_IMAGE_DIR);
+            if (idx > 0) {
+                path = path.substring(idx);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Resolve a normalized sprite path to an existing file, or null.
      */
-    private TextureRegion createCroppedRegion(Texture tex) {
-        int w = tex.getWidth();
-        int h = tex.getHeight();
+    private FileHandle resolveSpriteFile(String path) {
+        FileHandle file = null;
 
-        if (w == h) {
-            return new TextureRegion(tex); // Already square
+        // 1. Try Internal first (for assets packaged with the game)
+        if (path.startsWith(LOCAL_IMAGE_DIR)) {
+            file = Gdx.files.internal(path);
         }
 
-        // Pad to square (use larger dimension)
-        int size = Math.max(w, h);
+        // 2. Try Local Storage (for user-created custom items)
+        if (file == null || !file.exists()) {
+            file = Gdx.files.local(path);
+        }
 
-        // Read original texture data
-        if (!tex.getTextureData().isPrepared()) {
-            tex.getTextureData().prepare();
+        // 3. Try Absolute (for development)
+        if (!file.exists()) {
+            file = Gdx.files.absolute(path);
         }
-        com.badlogic.gdx.graphics.Pixmap original = tex.getTextureData().consumePixmap();
 
-        // Create new square pixmap with transparency
-        com.badlogic.gdx.graphics.Pixmap padded = new com.badlogic.gdx.graphics.Pixmap(
-                size, size, com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
-        padded.setColor(0, 0, 0, 0); // Transparent
-        padded.fill();
+        // 4. Fallback: Try internal again for other paths
+        if (!file.exists()) {
+            file = Gdx.files.internal(path);
+        }
 
-        // Center the original image
-        int offsetX = (size - w) / 2;
-        int offsetY = (size - h) / 2;
-        padded.drawPixmap(original, offsetX, offsetY);
+        return file.exists() ? file : null;
+    }
 
-        // Create new texture from padded pixmap
-        Texture paddedTex = new Texture(padded);
+    /**
+     * Start loading all local sprite frames off the render thread. When the
+     * element set changed since the last load the atlas is rebuilt (or read back
+     * from its disk cache); otherwise only frames that are not resident yet are
+     * decoded. The caller drives the returned pipeline from the render thread.
+     */
+    public SpriteLoadPipeline startSpriteLoad() {
+        Map<String, FileHandle> sources = collectSpriteSources();
+        if (atlasDirty) {
+            atlasDirty = false;
+            // Cached animations may reference the old pages
+            animationCache.clear();
+            releaseStandaloneTextures();
+            if (atlas == null) {
+                atlas = new CustomSpriteAtlas();
+            } else {
+                atlas.dispose();
+            }
+            return new SpriteLoadPipeline(sources, atlas, this::acceptPreloadedFrame);
+        }
+        sources.keySet().removeIf(path -> atlas.findRegion(path) != null || textureCache.containsKey(path));
+        return new SpriteLoadPipeline(sources, null, this::acceptPreloadedFrame);
+    }
 
-        // Cleanup
-        original.dispose();
-        padded.dispose();
+    /**
+     * Upload a standalone frame decoded by the loading pipeline, unless that would
+     * exceed the texture budget; skipped frames load on demand instead.
+     */
+    private void acceptPreloadedFrame(String path, com.badlogic.gdx.graphics.Pixmap square) {
+        long bytes = textureBytes(square.getWidth(), square.getHeight());
+        if (textureCache.containsKey(path)
+                || residency.getResidentBytes() + preloadedBytes + bytes > residency.getBudgetBytes()) {
+            return;
+        }
+        textureCache.put(path, new TextureRegion(new Texture(square)));
+        preloadedFrames.put(path, bytes);
+        preloadedBytes += bytes;
+    }
 
-        GameLogger.info("CustomElementManager",
-                "Auto-padding texture from " + w + "x" + h + " to " + size + "x" + size);
-        return new TextureRegion(paddedTex);
+    /**
+     * Dispose every standalone texture, resident or only preloaded, and drop the
+     * residency tracking. The residency does not notify on clear, so the textures
+     * have to be released here.
+     */
+    private void releaseStandaloneTextures() {
+        for (TextureRegion region : textureCache.values()) {
+            disposeLater(region.getTexture());
+        }
+        textureCache.clear();
+        preloadedFrames.clear();
+        preloadedBytes = 0;
+        residency.clear();
+    }
+
+    private static void disposeLater(Texture texture) {
+        // The batch may still hold quads with this texture this frame;
+        // dispose it at the start of the next one
+        if (Gdx.app != null) {
+            Gdx.app.postRunnable(texture::dispose);
+        } else {
+            texture.dispose();
+        }
+    }
+
+    private static long textureBytes(int width, int height) {
+        return (long) width * height * 4; // RGBA8888
+    }
+
+    /**
+     * Drop all resident animations of an element, releasing textures only they
+     * use.
+     */
+    public void releaseElement(String elementId) {
+        String prefix = elementId + ":";
+        Iterator<String> it = animationCache.keySet().iterator();
+        while (it.hasNext()) {
+            String key = it.next();
+            if (key.startsWith(prefix)) {
+                it.remove();
+                residency.release(key);
+            }
+        }
+    }
+
+    /**
+     * Texture residency statistics (resident bytes, hit rate, evictions).
+     */
+    public TextureResidency getTextureResidency() {
+        int pages = atlas != null ? atlas.getPageCount() : 0;
+        residency.setPinnedBytes(pages * textureBytes(CustomSpriteAtlas.PAGE_SIZE, CustomSpriteAtlas.PAGE_SIZE));
+        return residency;
+    }
+
+    public void setTextureBudgetBytes(long bytes) {
+        residency.setBudgetBytes(bytes);
+    }
+
+    /**
+     * Resolve every local sprite frame of every element.
+     *
+     * @return normalized path -> file, sorted so the atlas content hash does not
+     *         depend on map iteration order
+     */
+    private Map<String, FileHandle> collectSpriteSources() {
+        Map<String, FileHandle> sources = new TreeMap<>();
+        if (Gdx.files == null)
+            return sources;
+        for (CustomElementDefinition def : elements.values()) {
+            for (String[] paths : def.getSpritePaths().values()) {
+                if (paths == null)
+                    continue;
+                for (String path : paths) {
+                    if (path == null || path.isEmpty() || path.startsWith("internal:"))
+                        continue;
+                    String normalized = normalizeSpritePath(path);
+                    if (!sources.containsKey(normalized)) {
+                        FileHandle file = resolveSpriteFile(normalized);
+                        if (file != null)
+                            sources.put(normalized, file);
+                    }
+                }
+            }
+        }
+        return sources;
     }
 
     /**
@@ -328,7 +557,7 @@ private TextureRegion createCroppedRegion(Texture tex) {
      */
     public Animation<TextureRegion> getAnimation(String elementId, String action) {
         String key = elementId + ":" + action;
-        if (animationCache.containsKey(key)) {
+        if (residency.touch(key)) {
             return animationCache.get(key);
         }
 
@@ -341,53 +570,35 @@ public Animation<TextureRegion> getAnimation(String elementId, String action) {
             return null;
 
         Array<TextureRegion> frames = new Array<>();
+        Map<String, Long> standaloneBytes = new HashMap<>();
         for (String path : paths) {
             if (path == null || path.isEmpty())
                 continue;
             try {
-                // Windows path fix: replace backslashes with forward slashes
-                path = path.replace('\\', '/');
-
-                // AUTO-FIX: If path is absolute (from another PC) but contains "custom_images",
-                // make it relative
-                if (path.contains(LOCAL_IMAGE_DIR)) {
-                    int idx = path.indexOf(LOCAL_IMAGE_DIR);
-                    if (idx > 0) {
-                        String fixedPath = path.substring(idx);
-                        path = fixedPath;
-                    }
-                }
-
-                FileHandle file = null;
-
-                // 1. Try Internal first (for assets packaged with the game)
-                if (path.startsWith(LOCAL_IMAGE_DIR)) {
-                    file = Gdx.files.internal(path);
-                }
+                path = normalizeSpritePath(path);
 
-                // 2. Try Local Storage (for user-created custom items)
-                if (file == null || !file.exists()) {
-                    file = Gdx.files.local(path);
-                }
-
-                // 3. Try Absolute (for development)
-                if (!file.exists()) {
-                    file = Gdx.files.absolute(path);
-                }
-
-                // 4. Fallback: Try internal again for other paths
-                if (!file.exists()) {
-                    file = Gdx.files.internal(path);
-                }
-
-                if (file.exists()) {
+                TextureRegion region = atlas != null ? atlas.findRegion(path) : null;
+                if (region == null) {
                     // 使用纹理缓存避免重复加载和 Auto-padding
-                    TextureRegion region = textureCache.get(path);
+                    region = textureCache.get(path);
                     if (region == null) {
-                        Texture tex = new Texture(file);
-                        region = createCroppedRegion(tex);
-                        textureCache.put(path, region);
+                        FileHandle file = resolveSpriteFile(path);
+                        if (file != null) {
+                            region = loadStandaloneRegion(file);
+                            textureCache.put(path, region);
+                        }
+                    }
+                    if (region != null) {
+                        standaloneBytes.put(path,
+                                textureBytes(region.getTexture().getWidth(), region.getTexture().getHeight()));
+                        Long preloaded = preloadedFrames.remove(path);
+                        if (preloaded != null) {
+                            preloadedBytes -= preloaded;
+                        }
                     }
+                }
+
+                if (region != null) {
                     frames.add(region);
                 } else {
                     GameLogger.error("CustomElementManager", "Texture not found: " + path);
@@ -403,6 +614,7 @@ public Animation<TextureRegion> getAnimation(String elementId, String action) {
                     : Animation.PlayMode.LOOP;
             Animation<TextureRegion> anim = new Animation<>(0.15f, frames, mode);
             animationCache.put(key, anim);
+            residency.register(key, standaloneBytes);
             return anim;
         }
 
@@ -459,6 +671,9 @@ public boolean isPreloaded() {
     public void clearAll() {
         elements.clear();
         animationCache.clear();
+        releaseStandaloneTextures();
+        rebuildIndex();
+        atlasDirty = true;
         persistToFile();
     }
 
@@ -0,0 +1,276 @@
+package de.tum.cit.fop.maze.custom;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonWriter;
+import de.tum.cit.fop.maze.utils.GameLogger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Packs custom element sprite frames into a few large atlas pages.
+ *
+ * Frames are padded to square (same as the standalone path) and packed with a
+ * {@link PixmapPacker}. The resulting pages and the region index are written to
+ * {@value #CACHE_DIR}, keyed by a content hash of all source files, so later
+ * launches only upload a handful of PNG pages instead of hundreds of textures.
+ *
+ * Frames larger than {@value #MAX_PACKED_SIZE}px are left out of the atlas;
+ * callers load them as standalone textures.
+ *
+ * The static helpers only touch pixmaps and files and run on the loader's
+ * worker threads (see {@link SpriteLoadPipeline}); the instance methods create
+ * textures and must run on the render thread.
+ */
+public class CustomSpriteAtlas implements Disposable {
+
+    public static final int PAGE_SIZE = 2048;
+    public static final int MAX_PACKED_SIZE = 256;
+    private static final int PADDING = 2;
+    // Bump when the packing layout changes so stale caches are rebuilt
+    private static final int FORMAT_VERSION = 1;
+
+    static final String CACHE_DIR = "custom_elements/atlas_cache/";
+    private static final String INDEX_FILE = "index.json";
+
+    /** Serialized region index, stored next to the page PNGs */
+    public static class AtlasIndex {
+        public String hash;
+        public int pageCount;
+        public ArrayList<RegionEntry> regions = new ArrayList<>();
+    }
+
+    public static class RegionEntry {
+        public String key;
+        public int page;
+        public int x;
+        public int y;
+        public int width;
+        public int height;
+
+        public RegionEntry() {
+        }
+
+        RegionEntry(String key, int page, int x, int y, int width, int height) {
+            this.key = key;
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final Array<Texture> pages = new Array<>();
+    private final Map<String, TextureRegion> regions = new HashMap<>();
+
+    /**
+     * @return the packed region for a normalized sprite path, or null if the frame
+     *         is not part of the atlas
+     */
+    public TextureRegion findRegion(String key) {
+        return regions.get(key);
+    }
+
+    public int getPageCount() {
+        return pages.size;
+    }
+
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * Upload one page. Pages may arrive in any order; the caller keeps ownership
+     * of the pixmap.
+     */
+    public void setPage(int page, Pixmap pixmap) {
+        if (pages.size <= page) {
+            pages.setSize(page + 1);
+        }
+        pages.set(page, new Texture(pixmap));
+    }
+
+    /**
+     * Create the regions of an index once its pages are uploaded. Entries whose
+     * page failed to load are skipped and fall back to standalone loading.
+     */
+    public void installRegions(AtlasIndex index) {
+        for (RegionEntry entry : index.regions) {
+            Texture page = entry.page < pages.size ? pages.get(entry.page) : null;
+            if (page != null) {
+                regions.put(entry.key, new TextureRegion(page, entry.x, entry.y, entry.width, entry.height));
+            }
+        }
+        GameLogger.info("CustomSpriteAtlas",
+                "Installed " + regions.size() + " regions on " + pages.size + " page(s)");
+    }
+
+    /**
+     * Read the cached index if it was written for the given content hash.
+     *
+     * @return the index, or null if there is no complete matching cache
+     */
+    static AtlasIndex readCachedIndex(String hash) {
+        try {
+            FileHandle cacheDir = Gdx.files.local(CACHE_DIR);
+            FileHandle indexFile = cacheDir.child(INDEX_FILE);
+            if (!indexFile.exists()) {
+                return null;
+            }
+            AtlasIndex index = readIndex(indexFile.readString());
+            if (index == null || !hash.equals(index.hash)) {
+                return null;
+            }
+            for (int i = 0; i < index.pageCount; i++) {
+                if (!cacheDir.child(pageFileName(i)).exists()) {
+                    return null;
+                }
+            }
+            return index;
+        } catch (Exception e) {
+            GameLogger.error("CustomSpriteAtlas", "Ignoring unreadable atlas cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static Pixmap readCachedPage(int page) {
+        return new Pixmap(Gdx.files.local(CACHE_DIR).child(pageFileName(page)));
+    }
+
+    static PixmapPacker createPacker() {
+        return new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, true,
+                new PixmapPacker.SkylineStrategy());
+    }
+
+    /**
+     * Describe the packer's current layout as an index.
+     */
+    static AtlasIndex buildIndex(String hash, PixmapPacker packer) {
+        AtlasIndex index = new AtlasIndex();
+        index.hash = hash;
+        Array<PixmapPacker.Page> packedPages = packer.getPages();
+        index.pageCount = packedPages.size;
+        for (int i = 0; i < packedPages.size; i++) {
+            PixmapPacker.Page page = packedPages.get(i);
+            for (String key : page.getRects().keys()) {
+                Rectangle r = page.getRects().get(key);
+                index.regions.add(new RegionEntry(key, i, (int) r.x, (int) r.y, (int) r.width, (int) r.height));
+            }
+        }
+        return index;
+    }
+
+    static void writeCache(PixmapPacker packer, AtlasIndex index) {
+        try {
+            FileHandle cacheDir = Gdx.files.local(CACHE_DIR);
+            if (cacheDir.exists()) {
+                cacheDir.deleteDirectory();
+            }
+            cacheDir.mkdirs();
+            Array<PixmapPacker.Page> packedPages = packer.getPages();
+            for (int i = 0; i < packedPages.size; i++) {
+                PixmapIO.writePNG(cacheDir.child(pageFileName(i)), packedPages.get(i).getPixmap());
+            }
+            // Index is written last: a missing index means an incomplete cache
+            cacheDir.child(INDEX_FILE).writeString(writeIndex(index), false);
+        } catch (Exception e) {
+            GameLogger.error("CustomSpriteAtlas", "Failed to write atlas cache: " + e.getMessage());
+        }
+    }
+
+    static boolean fitsAtlas(Pixmap square) {
+        return square.getWidth() <= MAX_PACKED_SIZE;
+    }
+
+    /**
+     * Decode an image and pad it to a centered, transparent square.
+     *
+     * @return the square pixmap; the caller disposes it
+     */
+    static Pixmap decodeSquare(FileHandle file) {
+        Pixmap original = new Pixmap(file);
+        int w = original.getWidth();
+        int h = original.getHeight();
+        if (w == h && original.getFormat() == Pixmap.Format.RGBA8888) {
+            return original;
+        }
+        int size = Math.max(w, h);
+        Pixmap padded = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        padded.setBlending(Pixmap.Blending.None);
+        padded.setColor(0, 0, 0, 0);
+        padded.fill();
+        padded.drawPixmap(original, (size - w) / 2, (size - h) / 2);
+        original.dispose();
+        return padded;
+    }
+
+    /**
+     * Hash the packing parameters together with every source path and its bytes.
+     * Any added, removed, renamed or edited frame changes the hash.
+     *
+     * @return hex digest, or null if no source could be read
+     */
+    static String computeContentHash(Map<String, FileHandle> sources) {
+        if (sources.isEmpty()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(("v" + FORMAT_VERSION + ":" + PAGE_SIZE + ":" + MAX_PACKED_SIZE + ":" + PADDING)
+                    .getBytes(StandardCharsets.UTF_8));
+            for (Map.Entry<String, FileHandle> source : sources.entrySet()) {
+                digest.update(source.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(source.getValue().readBytes());
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            GameLogger.error("CustomSpriteAtlas", "Failed to hash sprite sources: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static String writeIndex(AtlasIndex index) {
+        Json json = new Json();
+        json.setOutputType(JsonWriter.OutputType.json);
+        return json.toJson(index);
+    }
+
+    static AtlasIndex readIndex(String text) {
+        return new Json().fromJson(AtlasIndex.class, text);
+    }
+
+    private static String pageFileName(int page) {
+        return "page_" + page + ".png";
+    }
+
+    @Override
+    public void dispose() {
+        for (Texture page : pages) {
+            if (page != null) {
+                page.dispose();
+            }
+        }
+        pages.clear();
+        regions.clear();
+    }
+}
@@ -0,0 +1,36 @@
+package de.tum.cit.fop.maze.custom;
+
+/**
+ * Pre-parsed numeric stats of a custom weapon definition.
+ * Built once by {@link CustomElementManager} when the element set changes,
+ * so the attack path and the render loop never parse properties per frame.
+ */
+public class CustomWeaponStats {
+
+    private final CustomElementDefinition definition;
+    private final float energyCost;
+    private final float projectileSize;
+
+    CustomWeaponStats(CustomElementDefinition definition) {
+        this.definition = definition;
+        this.energyCost = definition.getFloatProperty("energyCost");
+        float size = definition.getFloatProperty("projectileSize");
+        this.projectileSize = size > 0 ? size : 1.0f; // Safety fallback
+    }
+
+    public CustomElementDefinition getDefinition() {
+        return definition;
+    }
+
+    public String getId() {
+        return definition.getId();
+    }
+
+    public float getEnergyCost() {
+        return energyCost;
+    }
+
+    public float getProjectileSize() {
+        return projectileSize;
+    }
+}
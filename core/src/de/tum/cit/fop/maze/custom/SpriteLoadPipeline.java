@@ -0,0 +1,300 @@
+package de.tum.cit.fop.maze.custom;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.utils.Disposable;
+import de.tum.cit.fop.maze.utils.GameLogger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads custom sprite frames off the render thread.
+ *
+ * A coordinator thread hashes the sources and either reuses the cached atlas
+ * pages or packs a new atlas. PNG decoding and padding run on a small worker
+ * pool. Only the texture uploads are queued for the render thread, which drains
+ * them in {@link #update(float)} within a per-frame time budget.
+ */
+public class SpriteLoadPipeline implements Disposable {
+
+    /**
+     * Receives decoded standalone (non-atlas) frames on the render thread. The
+     * sink decides whether to upload the frame; the pixmap is disposed afterwards.
+     */
+    public interface FrameSink {
+        void accept(String key, Pixmap square);
+    }
+
+    private final Map<String, FileHandle> sources;
+    /** Atlas to rebuild, or null when only standalone frames are missing */
+    private final CustomSpriteAtlas atlas;
+    private final FrameSink standaloneSink;
+
+    private final ExecutorService decodePool;
+    private final Thread coordinator;
+    private final ConcurrentLinkedQueue<Runnable> uploads = new ConcurrentLinkedQueue<>();
+    private volatile boolean workDone;
+    private volatile boolean cancelled;
+
+    private final long bytesTotal;
+    private final AtomicLong bytesDone = new AtomicLong();
+    private final AtomicInteger framesDone = new AtomicInteger();
+    private int uploadsDone;
+
+    /**
+     * Start loading immediately.
+     *
+     * @param sources        normalized sprite path -> file, in a stable order
+     * @param atlas          atlas to (re)build from all sources, or null to load
+     *                       every source as a standalone frame
+     * @param standaloneSink receives standalone frames on the render thread
+     */
+    public SpriteLoadPipeline(Map<String, FileHandle> sources, CustomSpriteAtlas atlas,
+            FrameSink standaloneSink) {
+        this.sources = sources;
+        this.atlas = atlas;
+        this.standaloneSink = standaloneSink;
+
+        long total = 0;
+        for (FileHandle file : sources.values()) {
+            total += file.length();
+        }
+        this.bytesTotal = total;
+
+        int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadId = new AtomicInteger();
+        this.decodePool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "sprite-decode-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.coordinator = new Thread(this::run, "sprite-load");
+        this.coordinator.setDaemon(true);
+        this.coordinator.start();
+    }
+
+    private void run() {
+        long start = System.currentTimeMillis();
+        try {
+            if (atlas != null) {
+                loadAtlas();
+            } else {
+                decodeAll(sources.keySet(), null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            GameLogger.error("SpriteLoadPipeline", "Sprite loading failed: " + e.getMessage());
+        } finally {
+            decodePool.shutdown();
+            workDone = true;
+        }
+        GameLogger.info("SpriteLoadPipeline", "Decoded " + framesDone.get() + "/" + sources.size()
+                + " frames in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private void loadAtlas() throws Exception {
+        String hash = CustomSpriteAtlas.computeContentHash(sources);
+        if (hash == null) {
+            return;
+        }
+        CustomSpriteAtlas.AtlasIndex index = CustomSpriteAtlas.readCachedIndex(hash);
+        if (index != null) {
+            loadCachedAtlas(index);
+            return;
+        }
+
+        PixmapPacker packer = CustomSpriteAtlas.createPacker();
+        try {
+            decodeAll(sources.keySet(), packer);
+        } catch (Exception e) {
+            packer.dispose();
+            throw e;
+        }
+        if (cancelled) {
+            packer.dispose();
+            return;
+        }
+        CustomSpriteAtlas.AtlasIndex built = CustomSpriteAtlas.buildIndex(hash, packer);
+        CustomSpriteAtlas.writeCache(packer, built);
+        for (int i = 0; i < packer.getPages().size; i++) {
+            final int page = i;
+            uploads.add(() -> atlas.setPage(page, packer.getPages().get(page).getPixmap()));
+        }
+        uploads.add(() -> {
+            atlas.installRegions(built);
+            packer.dispose();
+        });
+    }
+
+    private void loadCachedAtlas(CustomSpriteAtlas.AtlasIndex index) throws Exception {
+        // Credit each page with the bytes and frames of the sources packed on it
+        long[] pageBytes = new long[index.pageCount];
+        int[] pageFrames = new int[index.pageCount];
+        Set<String> packed = new HashSet<>();
+        for (CustomSpriteAtlas.RegionEntry entry : index.regions) {
+            FileHandle source = sources.get(entry.key);
+            if (source != null && entry.page < index.pageCount && packed.add(entry.key)) {
+                pageBytes[entry.page] += source.length();
+                pageFrames[entry.page]++;
+            }
+        }
+
+        List<Future<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < index.pageCount; i++) {
+            final int page = i;
+            jobs.add(decodePool.submit(() -> {
+                Pixmap pixmap = CustomSpriteAtlas.readCachedPage(page);
+                if (cancelled) {
+                    pixmap.dispose();
+                    return;
+                }
+                uploads.add(() -> {
+                    atlas.setPage(page, pixmap);
+                    pixmap.dispose();
+                });
+                bytesDone.addAndGet(pageBytes[page]);
+                framesDone.addAndGet(pageFrames[page]);
+            }));
+        }
+
+        List<String> standalone = new ArrayList<>();
+        for (String key : sources.keySet()) {
+            if (!packed.contains(key)) {
+                standalone.add(key);
+            }
+        }
+        decodeAll(standalone, null);
+        await(jobs);
+        uploads.add(() -> atlas.installRegions(index));
+    }
+
+    /**
+     * Decode and pad the given frames on the pool. Frames small enough go into the
+     * packer when one is given; everything else is queued as a standalone upload.
+     */
+    private void decodeAll(Iterable<String> keys, PixmapPacker packer) throws Exception {
+        List<Future<?>> jobs = new ArrayList<>();
+        for (String key : keys) {
+            FileHandle file = sources.get(key);
+            jobs.add(decodePool.submit(() -> {
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    Pixmap square = CustomSpriteAtlas.decodeSquare(file);
+                    if (packer != null && CustomSpriteAtlas.fitsAtlas(square)) {
+                        packer.pack(key, square);
+                        square.dispose();
+                    } else if (cancelled) {
+                        square.dispose();
+                    } else {
+                        uploads.add(() -> uploadStandalone(key, square));
+                    }
+                } catch (Exception e) {
+                    GameLogger.error("SpriteLoadPipeline", "Failed to decode " + key + ": " + e.getMessage());
+                }
+                bytesDone.addAndGet(file.length());
+                framesDone.incrementAndGet();
+            }));
+        }
+        await(jobs);
+    }
+
+    private void uploadStandalone(String key, Pixmap square) {
+        standaloneSink.accept(key, square);
+        square.dispose();
+    }
+
+    private static void await(List<Future<?>> jobs) throws Exception {
+        for (Future<?> job : jobs) {
+            job.get();
+        }
+    }
+
+    /**
+     * Run queued texture uploads on the render thread until the budget is spent.
+     * At least one upload runs per call so large pages cannot stall progress.
+     *
+     * @return true once all frames are decoded and uploaded
+     */
+    public boolean update(float budgetMillis) {
+        long deadline = System.nanoTime() + (long) (budgetMillis * 1_000_000L);
+        do {
+            Runnable upload = uploads.poll();
+            if (upload == null) {
+                break;
+            }
+            upload.run();
+            uploadsDone++;
+        } while (System.nanoTime() < deadline);
+        return isDone();
+    }
+
+    public boolean isDone() {
+        return workDone && uploads.isEmpty();
+    }
+
+    /** Fraction of source bytes decoded, held below 1 until all uploads finished */
+    public float getProgress() {
+        if (isDone()) {
+            return 1f;
+        }
+        if (bytesTotal == 0) {
+            return 0f;
+        }
+        return Math.min(0.99f, (float) bytesDone.get() / bytesTotal);
+    }
+
+    public long getBytesDone() {
+        return bytesDone.get();
+    }
+
+    public long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    public int getFramesDone() {
+        return framesDone.get();
+    }
+
+    public int getFramesTotal() {
+        return sources.size();
+    }
+
+    public int getUploadsDone() {
+        return uploadsDone;
+    }
+
+    /**
+     * Stop the workers and flush whatever was already decoded. Must be called on
+     * the render thread.
+     */
+    @Override
+    public void dispose() {
+        cancelled = true;
+        decodePool.shutdownNow();
+        coordinator.interrupt();
+        try {
+            coordinator.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Uploads own their pixmaps; running them is the simplest way to release them
+        Runnable upload;
+        while ((upload = uploads.poll()) != null) {
+            upload.run();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package de.tum.cit.fop.maze.custom;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps custom sprite textures under a byte budget.
+ *
+ * Animations are registered with the standalone textures they use (keyed by
+ * sprite path) and touched every time they are looked up for drawing. When the
+ * resident bytes exceed the budget, the least recently drawn animations are
+ * evicted; a texture shared by several animations is only released once no
+ * resident animation references it. Atlas pages are shared by everything and
+ * are reported as pinned bytes instead of being evicted.
+ *
+ * Bookkeeping only; the owner disposes textures in the {@link Listener}.
+ */
+public class TextureResidency {
+
+    public interface Listener {
+        void onAnimationEvicted(String animationKey);
+
+        void onTextureReleased(String textureKey);
+    }
+
+    private static class TextureEntry {
+        final long bytes;
+        int refs;
+
+        TextureEntry(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /** animation key -> texture keys, in least-recently-drawn first order */
+    private final LinkedHashMap<String, String[]> animations = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, TextureEntry> textures = new HashMap<>();
+    private final Listener listener;
+
+    private long budgetBytes;
+    private long residentBytes;
+    private long pinnedBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TextureResidency(long budgetBytes, Listener listener) {
+        this.budgetBytes = budgetBytes;
+        this.listener = listener;
+    }
+
+    /**
+     * Mark an animation as drawn.
+     *
+     * @return true if it is resident (a hit), false if it must be loaded
+     */
+    public boolean touch(String animationKey) {
+        if (animations.get(animationKey) != null) {
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Register a freshly loaded animation as most recently drawn, then evict older
+     * animations until the budget holds again. Each registration counts as a miss;
+     * lookups of animations that do not exist are not counted at all.
+     *
+     * @param textureBytes standalone texture key -> size in bytes; atlas regions are
+     *                     not listed
+     */
+    public void register(String animationKey, Map<String, Long> textureBytes) {
+        misses++;
+        String[] keys = textureBytes.keySet().toArray(new String[0]);
+        for (String key : keys) {
+            TextureEntry entry = textures.get(key);
+            if (entry == null) {
+                entry = new TextureEntry(textureBytes.get(key));
+                textures.put(key, entry);
+                residentBytes += entry.bytes;
+            }
+            entry.refs++;
+        }
+        // Re-registration: drop the old references only after taking the new ones
+        String[] previous = animations.put(animationKey, keys);
+        if (previous != null) {
+            unreference(previous);
+        }
+        enforceBudget(animationKey);
+    }
+
+    /**
+     * Evict least recently drawn animations until resident bytes fit the budget.
+     * The given animation is never evicted, so a single oversized animation may
+     * still exceed the budget on its own.
+     */
+    private void enforceBudget(String keep) {
+        Iterator<Map.Entry<String, String[]>> it = animations.entrySet().iterator();
+        while (residentBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String, String[]> oldest = it.next();
+            if (oldest.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            evictions++;
+            unreference(oldest.getValue());
+            listener.onAnimationEvicted(oldest.getKey());
+        }
+    }
+
+    /**
+     * Drop an animation without counting it as an eviction (e.g. its element was
+     * deleted). Textures it alone used are released.
+     */
+    public void release(String animationKey) {
+        String[] keys = animations.remove(animationKey);
+        if (keys != null) {
+            unreference(keys);
+        }
+    }
+
+    private void unreference(String[] keys) {
+        for (String key : keys) {
+            TextureEntry entry = textures.get(key);
+            if (entry != null && --entry.refs <= 0) {
+                textures.remove(key);
+                residentBytes -= entry.bytes;
+                listener.onTextureReleased(key);
+            }
+        }
+    }
+
+    /**
+     * Forget all tracked animations and textures without notifying the listener.
+     * Used when the owner drops its caches wholesale.
+     */
+    public void clear() {
+        animations.clear();
+        textures.clear();
+        residentBytes = 0;
+    }
+
+    public void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        enforceBudget(null);
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public void setPinnedBytes(long pinnedBytes) {
+        this.pinnedBytes = pinnedBytes;
+    }
+
+    /** Bytes of evictable standalone textures currently resident */
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /** Bytes of atlas pages, always resident */
+    public long getPinnedBytes() {
+        return pinnedBytes;
+    }
+
+    public int getResidentAnimationCount() {
+        return animations.size();
+    }
+
+    public int getResidentTextureCount() {
+        return textures.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public float getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 1f : (float) hits / total;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,288 @@
+package de.tum.cit.fop.maze.effects;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pooled floating combat text (damage numbers, score pop-ups, short messages).
+ *
+ * Numbers are stored as ints and drawn from digit glyphs that are looked up
+ * once per font, so a hit allocates neither an entry nor a string. Repeated
+ * hits on the same target within {@link #MERGE_WINDOW} seconds add up into the
+ * existing number instead of stacking a new one, and at most
+ * {@link #MAX_NEW_PER_FRAME} new numbers are accepted per frame. Text messages
+ * (wave banners, loot names) are never dropped.
+ *
+ * Positions are in tiles; rendering converts with the caller's unit scale.
+ */
+public class CombatText {
+
+    /** Upper bound of live entries; the oldest entry is recycled beyond this. */
+    public static final int MAX_ACTIVE = 96;
+    /** New numbers accepted per frame (merges into existing numbers are free). */
+    public static final int MAX_NEW_PER_FRAME = 12;
+    /** Hits on the same target within this window merge into one number. */
+    public static final float MERGE_WINDOW = 0.35f;
+
+    private static final float LIFETIME = 1.0f;
+    private static final float RISE_SPEED = 2.0f;
+    private static final float TEXT_SCALE = 0.3f;
+    /** Vertical offset in pixels above the anchor position. */
+    private static final float Y_OFFSET = 16f;
+
+    private static final String GLYPH_CHARS = "0123456789+-";
+
+    private static final class Entry implements Pool.Poolable {
+        float x, y;
+        float timer;
+        float age;
+        /** Numeric value, only used when {@code sign != 0}. */
+        int value;
+        /** '+' or '-' for numbers, 0 for plain text. */
+        char sign;
+        String text;
+        Color color;
+        /** Merge key (usually the enemy that was hit), may be null. */
+        Object anchor;
+
+        @Override
+        public void reset() {
+            text = null;
+            color = null;
+            anchor = null;
+        }
+    }
+
+    private final Array<Entry> active = new Array<>(false, MAX_ACTIVE);
+    private final Pool<Entry> pool = new Pool<Entry>(MAX_ACTIVE, MAX_ACTIVE) {
+        @Override
+        protected Entry newObject() {
+            return new Entry();
+        }
+    };
+    private int newThisFrame;
+
+    // Digit glyph cache (per font)
+    private BitmapFont glyphFont;
+    private Texture glyphTexture;
+    private boolean glyphsUsable;
+    private final float[] glyphU = new float[GLYPH_CHARS.length()];
+    private final float[] glyphV = new float[GLYPH_CHARS.length()];
+    private final float[] glyphU2 = new float[GLYPH_CHARS.length()];
+    private final float[] glyphV2 = new float[GLYPH_CHARS.length()];
+    private final float[] glyphWidth = new float[GLYPH_CHARS.length()];
+    private final float[] glyphHeight = new float[GLYPH_CHARS.length()];
+    private final float[] glyphXOffset = new float[GLYPH_CHARS.length()];
+    private final float[] glyphYOffset = new float[GLYPH_CHARS.length()];
+    private final float[] glyphAdvance = new float[GLYPH_CHARS.length()];
+    private float glyphAscent;
+    private final int[] digitScratch = new int[10];
+
+    /**
+     * Shows a damage number ("-N") above a target, merging with a recent number
+     * on the same target.
+     */
+    public void showDamage(Object target, float x, float y, int damage, Color color) {
+        showNumber(target, x, y, '-', damage, color);
+    }
+
+    /**
+     * Shows a signed number such as "+50".
+     *
+     * @param target merge key, or null to never merge
+     * @param sign   '+' or '-'
+     */
+    public void showNumber(Object target, float x, float y, char sign, int value, Color color) {
+        if (target != null) {
+            for (int i = 0; i < active.size; i++) {
+                Entry e = active.get(i);
+                if (e.anchor == target && e.sign == sign && e.color == color && e.age < MERGE_WINDOW) {
+                    e.value += value;
+                    e.x = x;
+                    e.y = Math.max(e.y, y);
+                    e.timer = LIFETIME;
+                    e.age = 0;
+                    return;
+                }
+            }
+        }
+        if (newThisFrame >= MAX_NEW_PER_FRAME) {
+            return;
+        }
+        newThisFrame++;
+        Entry e = obtain(x, y, color);
+        e.sign = sign;
+        e.value = value;
+        e.anchor = target;
+    }
+
+    /**
+     * Shows a short text message (wave banners, loot names). Text entries are
+     * rare and still go through the regular font layout.
+     */
+    public void showText(float x, float y, String text, Color color) {
+        Entry e = obtain(x, y, color);
+        e.sign = 0;
+        e.text = text;
+    }
+
+    private Entry obtain(float x, float y, Color color) {
+        if (active.size >= MAX_ACTIVE) {
+            // Recycle the entry closest to expiring
+            int oldest = 0;
+            for (int i = 1; i < active.size; i++) {
+                if (active.get(i).timer < active.get(oldest).timer) {
+                    oldest = i;
+                }
+            }
+            pool.free(active.removeIndex(oldest));
+        }
+        Entry e = pool.obtain();
+        e.x = x;
+        e.y = y;
+        e.timer = LIFETIME;
+        e.age = 0;
+        e.color = color;
+        active.add(e);
+        return e;
+    }
+
+    public void update(float delta) {
+        newThisFrame = 0;
+        for (int i = active.size - 1; i >= 0; i--) {
+            Entry e = active.get(i);
+            e.y += RISE_SPEED * delta;
+            e.timer -= delta;
+            e.age += delta;
+            if (e.timer <= 0) {
+                pool.free(active.removeIndex(i));
+            }
+        }
+    }
+
+    /**
+     * Draws all entries into an already begun batch.
+     *
+     * @param unitScale pixels per tile
+     */
+    public void render(Batch batch, BitmapFont font, float unitScale) {
+        if (active.size == 0) {
+            return;
+        }
+        if (font != glyphFont) {
+            cacheGlyphs(font);
+        }
+        float previousColor = batch.getPackedColor();
+        boolean hasText = false;
+        for (int i = 0; i < active.size; i++) {
+            Entry e = active.get(i);
+            if (e.sign == 0 || !glyphsUsable) {
+                hasText = true;
+                continue;
+            }
+            batch.setColor(e.color);
+            drawNumber(batch, e.sign, e.value, e.x * unitScale, e.y * unitScale + Y_OFFSET);
+        }
+        batch.setPackedColor(previousColor);
+
+        if (hasText) {
+            // Only plain messages (and numbers without cached glyphs) need the font layout
+            float oldScaleX = font.getData().scaleX;
+            float oldScaleY = font.getData().scaleY;
+            font.getData().setScale(TEXT_SCALE);
+            for (int i = 0; i < active.size; i++) {
+                Entry e = active.get(i);
+                if (e.sign != 0 && glyphsUsable) {
+                    continue;
+                }
+                font.setColor(e.color);
+                String s = e.sign == 0 ? e.text : e.sign + Integer.toString(e.value);
+                font.draw(batch, s, e.x * unitScale, e.y * unitScale + Y_OFFSET);
+            }
+            font.setColor(Color.WHITE);
+            font.getData().setScale(oldScaleX, oldScaleY);
+        }
+    }
+
+    private void drawNumber(Batch batch, char sign, int value, float x, float y) {
+        int digits = 0;
+        int v = Math.abs(value);
+        do {
+            digitScratch[digits++] = v % 10;
+            v /= 10;
+        } while (v > 0 && digits < digitScratch.length);
+
+        float baseline = y + glyphAscent;
+        int first = GLYPH_CHARS.indexOf(sign);
+        float pen = x - glyphXOffset[first];
+        pen = drawGlyph(batch, first, pen, baseline);
+        for (int d = digits - 1; d >= 0; d--) {
+            pen = drawGlyph(batch, digitScratch[d], pen, baseline);
+        }
+    }
+
+    private float drawGlyph(Batch batch, int g, float pen, float baseline) {
+        batch.draw(glyphTexture, pen + glyphXOffset[g], baseline + glyphYOffset[g], glyphWidth[g], glyphHeight[g],
+                glyphU[g], glyphV[g], glyphU2[g], glyphV2[g]);
+        return pen + glyphAdvance[g];
+    }
+
+    /**
+     * Looks up the digit and sign glyphs once and pre-scales their metrics.
+     * Falls back to font layout if any glyph is missing or on another page.
+     */
+    private void cacheGlyphs(BitmapFont font) {
+        glyphFont = font;
+        glyphsUsable = false;
+        BitmapFont.BitmapFontData data = font.getData();
+        int page = -1;
+        for (int i = 0; i < GLYPH_CHARS.length(); i++) {
+            BitmapFont.Glyph glyph = data.getGlyph(GLYPH_CHARS.charAt(i));
+            if (glyph == null || (page != -1 && glyph.page != page)) {
+                return;
+            }
+            page = glyph.page;
+            glyphU[i] = glyph.u;
+            glyphV[i] = glyph.v;
+            glyphU2[i] = glyph.u2;
+            glyphV2[i] = glyph.v2;
+            // Glyph metrics are unscaled font pixels
+            glyphWidth[i] = glyph.width * TEXT_SCALE;
+            glyphHeight[i] = glyph.height * TEXT_SCALE;
+            glyphXOffset[i] = glyph.xoffset * TEXT_SCALE;
+            glyphYOffset[i] = glyph.yoffset * TEXT_SCALE;
+            glyphAdvance[i] = glyph.xadvance * TEXT_SCALE;
+        }
+        // ascent follows the font's current scale
+        glyphAscent = data.ascent / data.scaleY * TEXT_SCALE;
+        glyphTexture = font.getRegion(page).getTexture();
+        glyphsUsable = true;
+    }
+
+    public int getActiveCount() {
+        return active.size;
+    }
+
+    /**
+     * Value of the newest number shown for a target, or 0 if none is live.
+     */
+    public int getValueFor(Object target) {
+        for (int i = active.size - 1; i >= 0; i--) {
+            Entry e = active.get(i);
+            if (e.anchor == target && e.sign != 0) {
+                return e.value;
+            }
+        }
+        return 0;
+    }
+
+    public void clear() {
+        pool.freeAll(active);
+        active.clear();
+        newThisFrame = 0;
+    }
+}
@@ -8,16 +8,26 @@
  * CollisionManager - 重构版
  * 
  * 核心改进：
- * 1. 使用 GameMap.isOccupied() 进行 O(1) 碰撞检测
+ * 1. 直接读取 GameMap 的 OccupancyGrid 位图进行 O(1) 碰撞检测
  * 2. 正确处理边界（地图边界外=不可行走）
  * 3. 支持多格墙体的完整碰撞
+ * 4. 提供以玩家为源点的流场（FlowField），供敌人 O(1) 寻路
  */
 public class CollisionManager {
 
     private GameMap gameMap;
 
+    // 缓存占用位图引用（GameMap 内部原地扩容，引用保持有效）
+    private OccupancyGrid occupancy;
+
+    /** 流场覆盖的最大路径步数（略大于敌人更新范围 40 格） */
+    public static final int FLOW_FIELD_RANGE = 48;
+
+    private final FlowField flowField = new FlowField(FLOW_FIELD_RANGE);
+
     public CollisionManager(GameMap gameMap) {
         this.gameMap = gameMap;
+        this.occupancy = gameMap.getOccupancyGrid();
     }
 
     /**
@@ -32,7 +42,7 @@ public boolean isWalkable(int x, int y) {
         }
 
         // 检查是否被墙体占用
-        return !gameMap.isOccupied(x, y);
+        return !occupancy.get(x, y);
     }
 
     /**
@@ -116,5 +126,21 @@ public GameObject checkCollision(GameObject mover) {
      */
     public void setGameMap(GameMap gameMap) {
         this.gameMap = gameMap;
+        this.occupancy = gameMap.getOccupancyGrid();
+        flowField.invalidate();
+    }
+
+    /**
+     * 玩家所在格子变化时重建流场（格子不变时为 O(1) 空操作）
+     */
+    public void updateFlowField(int playerX, int playerY) {
+        flowField.update(this, gameMap.getWidth(), gameMap.getHeight(), playerX, playerY);
+    }
+
+    /**
+     * 获取朝向玩家的流场
+     */
+    public FlowField getFlowField() {
+        return flowField;
     }
 }
@@ -76,6 +76,9 @@ public class EndlessGameState {
     /** 当前区块Y */
     public int currentChunkY;
 
+    /** 世界种子（区块按此种子重新生成，改动过的区块从 saves/endless/world_&lt;种子&gt;/ 恢复）；0 表示旧存档 */
+    public long worldSeed;
+
     // ========== 收集物 ==========
 
     /** 已收集的金币 */
@@ -90,7 +93,7 @@ public class EndlessGameState {
     public long saveTimestamp;
 
     /** 存档版本（用于兼容性检查） */
-    public int saveVersion = 1;
+    public int saveVersion = 2;
 
     /**
      * 默认构造函数 (JSON反序列化需要)
@@ -3,8 +3,10 @@
 import de.tum.cit.fop.maze.config.GameConfig;
 import de.tum.cit.fop.maze.config.GameSettings;
 import de.tum.cit.fop.maze.model.weapons.WeaponEffect;
-import de.tum.cit.fop.maze.utils.BloodParticleSystem;
 import de.tum.cit.fop.maze.utils.GameLogger;
+import de.tum.cit.fop.maze.utils.ParticleEngine;
+import de.tum.cit.fop.maze.utils.SpatialHashGrid;
+import com.badlogic.gdx.utils.Pool;
 import java.util.Random;
 
 /*
@@ -34,7 +36,7 @@
 /**
  * 代表一个可以巡逻和追逐玩家的敌人。
  */
-public class Enemy extends GameObject {
+public class Enemy extends GameObject implements SpatialHashGrid.Entry, Pool.Poolable {
     public enum EnemyState {
         PATROL,
         CHASE,
@@ -54,7 +56,11 @@ public enum EnemyType {
     private EnemyType type = EnemyType.SLIME; // Default to Slime (will fallback to Boar if resources missing)
 
     private EnemyState state;
-    private Random random;
+
+    // 所有敌人共享的随机数流（巡逻方向），可设种子以复现
+    private static final Random RANDOM = new Random();
+    /** 下一个生成的敌人的更新相位（递增分配，不随列表下标变化） */
+    private static int nextTickPhase;
 
     // Stun logic
     private float stunTimer = 0f;
@@ -63,6 +69,7 @@ public enum EnemyType {
     private float lastDamageSourceX = 0f; // 最后一次伤害来源 X
     private float lastDamageSourceY = 0f; // 最后一次伤害来源 Y
     private float lastKnockbackStrength = 1.0f; // 最后一次击退强度
+    private float deferredDelta = 0f; // 降频更新时累积的时间（无尽模式）
 
     // Knockback
     private float knockbackVx = 0f;
@@ -95,8 +102,8 @@ public enum EnemyType {
     private static final float SIZE = 0.99f;
 
     // 出生点 (领地中心)
-    private final float homeX;
-    private final float homeY;
+    private float homeX;
+    private float homeY;
 
     private int health = GameConfig.ENEMY_DEFAULT_HEALTH;
     private int maxHealth = GameConfig.ENEMY_DEFAULT_HEALTH;
@@ -111,7 +118,27 @@ public enum EnemyType {
     private String customElementId = null;
 
     // Blood particle listener (for visual damage feedback)
-    private BloodParticleSystem.DamageListener damageListener = null;
+    private ParticleEngine.DamageListener damageListener = null;
+
+    // Slot in the endless-mode SpatialHashGrid (-1 = not tracked)
+    private int spatialSlot = -1;
+
+    // Stable stagger phase for reduced-rate updates, assigned on (re)spawn
+    private int tickPhase;
+
+    public int getTickPhase() {
+        return tickPhase;
+    }
+
+    @Override
+    public int getSpatialSlot() {
+        return spatialSlot;
+    }
+
+    @Override
+    public void setSpatialSlot(int slot) {
+        this.spatialSlot = slot;
+    }
 
     public void setCustomElementId(String id) {
         this.customElementId = id;
@@ -125,7 +152,7 @@ public String getCustomElementId() {
         return customElementId;
     }
 
-    public void setDamageListener(BloodParticleSystem.DamageListener listener) {
+    public void setDamageListener(ParticleEngine.DamageListener listener) {
         this.damageListener = listener;
     }
 
@@ -138,16 +165,17 @@ public void setDamageSource(float sourceX, float sourceY, float knockbackStrengt
         this.lastKnockbackStrength = knockbackStrength;
     }
 
+    /**
+     * 仅供对象池使用：不初始化状态、不消耗随机数，取出后必须调用 {@link #respawn}
+     * （否则同一种子下冷池和热池会消耗不同数量的随机数）
+     */
+    public Enemy() {
+        super(0, 0);
+    }
+
     public Enemy(float x, float y) {
         super(x, y);
-        // 记录出生点
-        this.homeX = x;
-        this.homeY = y;
-
-        this.state = EnemyState.PATROL;
-        this.random = new Random();
-        this.changeDirTimer = 0;
-        pickRandomDirection();
+        respawn(x, y, GameConfig.ENEMY_DEFAULT_HEALTH, DamageType.PHYSICAL, null, 0);
     }
 
     public Enemy(float x, float y, EnemyType type) {
@@ -167,13 +195,72 @@ public Enemy(float x, float y, EnemyType type) {
      */
     public Enemy(float x, float y, int health, DamageType attackType,
             DamageType shieldType, int shieldAmount) {
-        this(x, y);
+        super(x, y);
+        respawn(x, y, health, attackType, shieldType, shieldAmount);
+    }
+
+    /**
+     * 重新初始化为刚生成的敌人（构造函数和对象池复用共用）
+     *
+     * 类型、监听器和自定义元素 ID 由调用方重新设置。
+     *
+     * @return this，便于链式调用
+     */
+    public Enemy respawn(float x, float y, int health, DamageType attackType,
+            DamageType shieldType, int shieldAmount) {
+        this.x = x;
+        this.y = y;
+        // 记录出生点
+        this.homeX = x;
+        this.homeY = y;
+
+        this.type = EnemyType.SLIME;
+        this.state = EnemyState.PATROL;
+        this.stunTimer = 0f;
+        this.hurtTimer = 0f;
+        this.deathTimer = 5.0f;
+        this.lastDamageSourceX = 0f;
+        this.lastDamageSourceY = 0f;
+        this.lastKnockbackStrength = 1.0f;
+        this.deferredDelta = 0f;
+        this.knockbackVx = 0f;
+        this.knockbackVy = 0f;
+        this.currentEffect = WeaponEffect.NONE;
+        this.effectTimer = 0f;
+        this.dotTimer = 0f;
+        this.slowMultiplier = 1.0f;
+        this.velocityX = 0f;
+        this.velocityY = 0f;
+
         this.health = health;
         this.maxHealth = health;
         this.attackDamageType = attackType;
         this.shieldType = shieldType;
         this.maxShield = shieldAmount;
         this.currentShield = shieldAmount;
+
+        this.tickPhase = nextTickPhase++ & Integer.MAX_VALUE;
+        this.changeDirTimer = 0;
+        pickRandomDirection();
+        return this;
+    }
+
+    /**
+     * 归还对象池时清除对外引用
+     */
+    @Override
+    public void reset() {
+        damageListener = null;
+        customElementId = null;
+        spatialSlot = -1;
+    }
+
+    /**
+     * 设置共享随机数流的种子（用于确定性回放）
+     */
+    public static void setRandomSeed(long seed) {
+        RANDOM.setSeed(seed);
+        nextTickPhase = 0;
     }
 
     /**
@@ -350,6 +437,14 @@ public void setShield(DamageType type, int amount) {
         this.currentShield = amount;
     }
 
+    /**
+     * 恢复存档/休眠前的生命与护盾（不超过上限）
+     */
+    public void restoreVitals(int health, int currentShield) {
+        this.health = Math.min(health, maxHealth);
+        this.currentShield = Math.min(currentShield, maxShield);
+    }
+
     public void knockback(float sourceX, float sourceY, float strengthMultiplier, CollisionManager cm) {
         float dx = this.x - sourceX;
         float dy = this.y - sourceY;
@@ -410,6 +505,22 @@ private void ensureSafePosition(CollisionManager cm) {
         GameLogger.warn("Enemy", "Could not find safe position for enemy at (" + this.x + ", " + this.y + ")");
     }
 
+    /**
+     * Defers a frame's delta for enemies that are only updated every few frames.
+     */
+    public void deferUpdate(float delta) {
+        this.deferredDelta += delta;
+    }
+
+    /**
+     * Returns the delta accumulated since the last reduced-rate tick and resets it.
+     */
+    public float takeDeferredDelta() {
+        float d = deferredDelta;
+        deferredDelta = 0;
+        return d;
+    }
+
     /**
      * Lightweight timer update for Endless Mode.
      * Updates knockback physics, hurt timer, death timer, and status effects
@@ -628,7 +739,27 @@ public void update(float delta, Player player, CollisionManager collisionManager
                 float dy = player.getY() - this.y;
                 float distance = (float) Math.sqrt(dx * dx + dy * dy);
 
-                if (distance > 0.1f) {
+                // 流场寻路：读取所在格子的下一步方向（O(1)，可绕过凹形墙体）
+                FlowField field = collisionManager != null ? collisionManager.getFlowField() : null;
+                int cellX = (int) (this.x + SIZE / 2);
+                int cellY = (int) (this.y + SIZE / 2);
+                int step = field != null ? field.getStep(cellX, cellY) : FlowField.NONE;
+
+                if (step != FlowField.NONE) {
+                    // 朝下一格移动（坐标为左下角），同时修正另一轴的偏差
+                    float tx = cellX + FlowField.stepX(step) - this.x;
+                    float ty = cellY + FlowField.stepY(step) - this.y;
+                    float len = (float) Math.sqrt(tx * tx + ty * ty);
+                    if (len > 0.001f) {
+                        targetVx = tx / len * maxSpeed;
+                        targetVy = ty / len * maxSpeed;
+                    }
+                } else if (field != null && field.getDistance(cellX, cellY) == 0 && distance > 0.1f) {
+                    // 与玩家同格：直接靠近
+                    targetVx = dx / distance * maxSpeed;
+                    targetVy = dy / distance * maxSpeed;
+                } else if (distance > 0.1f) {
+                    // 流场未覆盖：退回贪心绕墙
                     // 计算主方向和备选方向
                     float primaryVx = 0, primaryVy = 0;
                     float secondaryVx = 0, secondaryVy = 0;
@@ -678,13 +809,13 @@ public void update(float delta, Player player, CollisionManager collisionManager
                             // 如果全被挡，保持 targetVx/targetVy = 0，碰撞系统会处理
                         }
                     }
+                }
 
-                    // Distance-adaptive slowdown: prevent overshooting when close to player
-                    if (distance < 2.0f) {
-                        float proximityFactor = distance / 2.0f; // 0.0 ~ 1.0
-                        targetVx *= proximityFactor;
-                        targetVy *= proximityFactor;
-                    }
+                // Distance-adaptive slowdown: prevent overshooting when close to player
+                if (distance < 2.0f) {
+                    float proximityFactor = distance / 2.0f; // 0.0 ~ 1.0
+                    targetVx *= proximityFactor;
+                    targetVy *= proximityFactor;
                 }
                 break;
             case IDLE:
@@ -710,7 +841,7 @@ private void calculatePatrolTarget(float delta) {
         changeDirTimer -= delta;
         if (changeDirTimer <= 0) {
             pickRandomDirection();
-            changeDirTimer = 2.0f + random.nextFloat() * 2.0f; // 2~4 seconds
+            changeDirTimer = 2.0f + RANDOM.nextFloat() * 2.0f; // 2~4 seconds
         }
     }
 
@@ -843,7 +974,7 @@ private boolean isWalkable(float x, float y, CollisionManager cm) {
     }
 
     private void pickRandomDirection() {
-        int dir = random.nextInt(4);
+        int dir = RANDOM.nextInt(4);
         switch (dir) {
             case 0:
                 patrolDirX = 1;
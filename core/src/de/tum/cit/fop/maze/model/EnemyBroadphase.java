@@ -0,0 +1,164 @@
+package de.tum.cit.fop.maze.model;
+
+import java.util.List;
+
+/**
+ * 敌人碰撞粗筛网格 (Enemy Broadphase)
+ *
+ * 关卡地图尺寸固定，使用均匀网格 + 计数排序存储存活敌人：
+ * - rebuild() 每帧 O(E)，只复用已有数组，不分配对象
+ * - 弹体只查询其本帧扫过线段的包围盒覆盖的格子
+ * - 细筛使用平方距离（点到线段），不调用 Math.sqrt
+ *
+ * 将投射物命中检测从 O(P x E) 降到 O(P x 附近敌人数)。
+ */
+public class EnemyBroadphase {
+
+    private final float cellSize;
+
+    private int cols = 1;
+    private int rows = 1;
+    /** cellStart[c] .. cellStart[c + 1] 为格子 c 中敌人在 items 中的区间 */
+    private int[] cellStart = new int[2];
+    private int[] cellFill = new int[1];
+    private Enemy[] items = new Enemy[0];
+    private int[] cellOfItem = new int[0];
+    private int count;
+
+    /** 当前所有敌人中最大的半宽，用于扩展查询范围 */
+    private float maxHalfWidth = 0.5f;
+
+    public EnemyBroadphase(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * 根据敌人当前位置重建网格（在敌人移动之后调用）
+     */
+    public void rebuild(List<Enemy> enemies, int mapWidth, int mapHeight) {
+        int newCols = Math.max(1, (int) Math.ceil(mapWidth / cellSize));
+        int newRows = Math.max(1, (int) Math.ceil(mapHeight / cellSize));
+        int cellCount = newCols * newRows;
+        if (cellStart.length < cellCount + 1) {
+            cellStart = new int[cellCount + 1];
+            cellFill = new int[cellCount];
+        }
+        cols = newCols;
+        rows = newRows;
+        java.util.Arrays.fill(cellStart, 0, cellCount + 1, 0);
+
+        int n = enemies.size();
+        if (items.length < n) {
+            items = new Enemy[n];
+            cellOfItem = new int[n];
+        }
+
+        // 第一遍：统计每个格子的敌人数
+        count = 0;
+        maxHalfWidth = 0.5f;
+        for (int i = 0; i < n; i++) {
+            Enemy e = enemies.get(i);
+            if (e.isDead()) {
+                cellOfItem[i] = -1;
+                continue;
+            }
+            int cell = cellIndex(e.getX(), e.getY());
+            cellOfItem[i] = cell;
+            cellStart[cell + 1]++;
+            maxHalfWidth = Math.max(maxHalfWidth, e.getWidth() / 2f);
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        // 第二遍：按格子放入
+        java.util.Arrays.fill(cellFill, 0, cellCount, 0);
+        for (int i = 0; i < n; i++) {
+            int cell = cellOfItem[i];
+            if (cell < 0) {
+                continue;
+            }
+            items[cellStart[cell] + cellFill[cell]++] = enemies.get(i);
+            count++;
+        }
+        // 释放多余引用，避免持有已移除的敌人
+        for (int i = count; i < items.length && items[i] != null; i++) {
+            items[i] = null;
+        }
+    }
+
+    private int cellIndex(float x, float y) {
+        int cx = clampCol((int) Math.floor(x / cellSize));
+        int cy = clampRow((int) Math.floor(y / cellSize));
+        return cy * cols + cx;
+    }
+
+    private int clampCol(int c) {
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int clampRow(int r) {
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+
+    /**
+     * 查找投射物本帧扫过线段上最先命中的存活敌人
+     *
+     * @param p     投射物（已移动到 p.getX/getY）
+     * @param fromX 本帧移动前的 X
+     * @param fromY 本帧移动前的 Y
+     * @return 最先命中的敌人，没有则返回 null
+     */
+    public Enemy findFirstHit(Projectile p, float fromX, float fromY) {
+        if (count == 0) {
+            return null;
+        }
+        float toX = p.getX();
+        float toY = p.getY();
+        float halfP = p.getWidth() / 2f;
+        float reach = halfP + maxHalfWidth;
+
+        int minCol = clampCol((int) Math.floor((Math.min(fromX, toX) - reach) / cellSize));
+        int maxCol = clampCol((int) Math.floor((Math.max(fromX, toX) + reach) / cellSize));
+        int minRow = clampRow((int) Math.floor((Math.min(fromY, toY) - reach) / cellSize));
+        int maxRow = clampRow((int) Math.floor((Math.max(fromY, toY) + reach) / cellSize));
+
+        float segX = toX - fromX;
+        float segY = toY - fromY;
+        float segLen2 = segX * segX + segY * segY;
+
+        Enemy best = null;
+        float bestT = Float.MAX_VALUE;
+        for (int row = minRow; row <= maxRow; row++) {
+            int rowBase = row * cols;
+            int start = cellStart[rowBase + minCol];
+            int end = cellStart[rowBase + maxCol + 1];
+            for (int i = start; i < end; i++) {
+                Enemy e = items[i];
+                if (e.isDead()) {
+                    continue;
+                }
+                // 点到线段的最近点参数 t ∈ [0, 1]
+                float fx = e.getX() - fromX;
+                float fy = e.getY() - fromY;
+                float t = segLen2 > 0 ? (fx * segX + fy * segY) / segLen2 : 0f;
+                if (t < 0f)
+                    t = 0f;
+                else if (t > 1f)
+                    t = 1f;
+                float dx = fx - segX * t;
+                float dy = fy - segY * t;
+                float r = halfP + e.getWidth() / 2f;
+                if (dx * dx + dy * dy < r * r && t < bestT) {
+                    bestT = t;
+                    best = e;
+                }
+            }
+        }
+        return best;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
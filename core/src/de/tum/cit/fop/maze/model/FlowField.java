@@ -0,0 +1,175 @@
+package de.tum.cit.fop.maze.model;
+
+/**
+ * 流场寻路 (Flow Field)
+ *
+ * 以玩家所在格子为源点做一次有界 BFS（4 邻域），为每个可达格子记录：
+ * - 到玩家的步数
+ * - 下一步应走向的相邻格子方向
+ *
+ * 敌人只需读取自己所在格子的方向即可绕过凹形墙体，查询 O(1)，
+ * 与敌人数量无关。玩家换格子时才重建；重建只访问半径内的格子，
+ * 通过代数戳（stamp）让旧数据自动失效，无需清空整个数组。
+ */
+public class FlowField {
+
+    /** 方向：右、左、上、下（与 DIR_X/DIR_Y 对应） */
+    public static final int NONE = -1;
+    private static final int[] DIR_X = { 1, -1, 0, 0 };
+    private static final int[] DIR_Y = { 0, 0, 1, -1 };
+
+    private final int maxDistance;
+
+    private int width;
+    private int height;
+    private int[] distance = new int[0];
+    private byte[] step = new byte[0];
+    private int[] stamp = new int[0];
+    private int generation = 0;
+    private int[] queue = new int[0];
+
+    private int sourceX = Integer.MIN_VALUE;
+    private int sourceY = Integer.MIN_VALUE;
+    private int reachedCount = 0;
+
+    /**
+     * @param maxDistance BFS 的最大步数（超出范围的格子视为不可达）
+     */
+    public FlowField(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * 玩家移动到新格子时重建流场；格子不变时直接返回。
+     *
+     * @return 是否发生了重建
+     */
+    public boolean update(CollisionManager cm, int width, int height, int playerX, int playerY) {
+        if (playerX == sourceX && playerY == sourceY && width == this.width && height == this.height) {
+            return false;
+        }
+        rebuild(cm, width, height, playerX, playerY);
+        return true;
+    }
+
+    /**
+     * 强制重建（地图变化后调用）
+     */
+    public void invalidate() {
+        sourceX = Integer.MIN_VALUE;
+        sourceY = Integer.MIN_VALUE;
+    }
+
+    private void rebuild(CollisionManager cm, int width, int height, int px, int py) {
+        ensureSize(width, height);
+        sourceX = px;
+        sourceY = py;
+        reachedCount = 0;
+
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+
+        if (px < 0 || py < 0 || px >= width || py >= height) {
+            return;
+        }
+
+        int head = 0;
+        int tail = 0;
+        int start = py * width + px;
+        stamp[start] = generation;
+        distance[start] = 0;
+        step[start] = NONE;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current % width;
+            int cy = current / width;
+            int nextDist = distance[current] + 1;
+            if (nextDist > maxDistance) {
+                continue;
+            }
+
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DIR_X[d];
+                int ny = cy + DIR_Y[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                    continue;
+                }
+                int n = ny * width + nx;
+                if (stamp[n] == generation || !cm.isWalkableForEnemy(nx, ny)) {
+                    continue;
+                }
+                stamp[n] = generation;
+                distance[n] = nextDist;
+                // 邻居的下一步 = 反方向走回当前格子（d ^ 1 为相反方向）
+                step[n] = (byte) (d ^ 1);
+                queue[tail++] = n;
+            }
+        }
+        reachedCount = tail;
+    }
+
+    private void ensureSize(int width, int height) {
+        int cells = width * height;
+        if (cells != distance.length) {
+            distance = new int[cells];
+            step = new byte[cells];
+            stamp = new int[cells];
+            queue = new int[cells];
+            generation = 0;
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 获取格子到玩家的步数
+     *
+     * @return 步数，不可达时返回 -1
+     */
+    public int getDistance(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return -1;
+        }
+        int index = y * width + x;
+        return stamp[index] == generation ? distance[index] : -1;
+    }
+
+    /**
+     * 获取格子朝向玩家的下一步方向
+     *
+     * @return 0~3 的方向索引，不可达或已在源点时返回 NONE
+     */
+    public int getStep(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return NONE;
+        }
+        int index = y * width + x;
+        return stamp[index] == generation ? step[index] : NONE;
+    }
+
+    public static int stepX(int dir) {
+        return DIR_X[dir];
+    }
+
+    public static int stepY(int dir) {
+        return DIR_Y[dir];
+    }
+
+    public int getSourceX() {
+        return sourceX;
+    }
+
+    public int getSourceY() {
+        return sourceY;
+    }
+
+    /** 最近一次重建访问到的格子数（调试用） */
+    public int getReachedCount() {
+        return reachedCount;
+    }
+}
@@ -4,9 +4,7 @@
 import de.tum.cit.fop.maze.utils.GameLogger;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * GameMap - 重构版
@@ -33,8 +31,8 @@ public class GameMap {
     private List<WallEntity> walls;
 
     // 所有被墙体占用的格子（用于 O(1) 碰撞检测）
-    // Key = x + (y << 16)
-    private Set<Long> occupiedCells;
+    // 1 bit / 格子，按 initializeSize 预分配
+    private final OccupancyGrid occupancy;
 
     // 兼容旧代码：通过坐标获取墙体引用
     private IntMap<WallEntity> wallLookup;
@@ -58,7 +56,7 @@ public class GameMap {
 
     public GameMap() {
         this.walls = new ArrayList<>();
-        this.occupiedCells = new HashSet<>();
+        this.occupancy = new OccupancyGrid();
         this.wallLookup = new IntMap<>();
         this.dynamicObjects = new ArrayList<>();
         this.treasureChests = new ArrayList<>();
@@ -73,6 +71,7 @@ public void initializeSize(int playableWidth, int playableHeight) {
         this.playableHeight = playableHeight;
         this.totalWidth = playableWidth + 2 * BORDER_WIDTH;
         this.totalHeight = playableHeight + 2 * BORDER_WIDTH;
+        occupancy.ensureSize(totalWidth, totalHeight);
 
         GameLogger.info("GameMap", String.format(
                 "Initialized: Playable=%dx%d, Total=%dx%d (border=%d)",
@@ -85,12 +84,16 @@ public void initializeSize(int playableWidth, int playableHeight) {
     public void addWall(WallEntity wall) {
         walls.add(wall);
 
-        // 注册所有占用的格子
-        for (Long cellKey : wall.getOccupiedCells()) {
-            occupiedCells.add(cellKey);
-            // 兼容旧代码的查询方式
-            int cellIntKey = cellKey.intValue(); // 简化，假设坐标不超过16位
-            wallLookup.put(cellIntKey, wall);
+        // 注册所有占用的格子（碰撞区域 = gridWidth × collisionHeight）
+        int originX = wall.getOriginX();
+        int originY = wall.getOriginY();
+        occupancy.fillRect(originX, originY, wall.getGridWidth(), wall.getCollisionHeight());
+        for (int dx = 0; dx < wall.getGridWidth(); dx++) {
+            for (int dy = 0; dy < wall.getCollisionHeight(); dy++) {
+                // 兼容旧代码的查询方式
+                int cellIntKey = (originX + dx) + ((originY + dy) << 16); // 简化，假设坐标不超过16位
+                wallLookup.put(cellIntKey, wall);
+            }
         }
 
         // 动态更新地图尺寸（如果墙体超出当前范围）
@@ -144,7 +147,7 @@ public void addGameObject(GameObject obj) {
     /**
      * 根据墙体尺寸获取类型ID
      */
-    private int getTypeIdForSize(int w, int h) {
+    public static int getTypeIdForSize(int w, int h) {
         if (w == 2 && h == 2)
             return de.tum.cit.fop.maze.config.GameConfig.OBJECT_ID_WALL_2X2;
         if (w == 3 && h == 2)
@@ -166,8 +169,14 @@ private int getTypeIdForSize(int w, int h) {
      * O(1) 检查格子是否被墙体占用
      */
     public boolean isOccupied(int x, int y) {
-        long key = x + ((long) y << 16);
-        return occupiedCells.contains(key);
+        return occupancy.get(x, y);
+    }
+
+    /**
+     * 获取占用位图（热路径可直接持有，避免重复方法跳转）
+     */
+    public OccupancyGrid getOccupancyGrid() {
+        return occupancy;
     }
 
     /**
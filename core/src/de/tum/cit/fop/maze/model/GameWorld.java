@@ -1,6 +1,5 @@
 package de.tum.cit.fop.maze.model;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
@@ -9,14 +8,17 @@
 import com.badlogic.gdx.math.Vector3;
 import de.tum.cit.fop.maze.config.GameConfig;
 import de.tum.cit.fop.maze.config.GameSettings;
-import de.tum.cit.fop.maze.effects.FloatingText;
+import de.tum.cit.fop.maze.effects.CombatText;
 import de.tum.cit.fop.maze.model.items.Armor;
 import de.tum.cit.fop.maze.model.items.DroppedItem;
 import de.tum.cit.fop.maze.model.items.Potion;
 
 import de.tum.cit.fop.maze.model.weapons.Weapon;
+import de.tum.cit.fop.maze.sim.InputSource;
 import de.tum.cit.fop.maze.utils.AchievementManager;
 import de.tum.cit.fop.maze.utils.AudioManager;
+import de.tum.cit.fop.maze.utils.EntityPools;
+import de.tum.cit.fop.maze.utils.FrameProfiler;
 import de.tum.cit.fop.maze.utils.GameLogger;
 import de.tum.cit.fop.maze.utils.LootTable;
 
@@ -34,12 +36,13 @@ public class GameWorld {
     private final CollisionManager collisionManager;
     private final List<Enemy> enemies;
     private final List<MobileTrap> mobileTraps;
-    private final List<FloatingText> floatingTexts;
+    private final CombatText combatText;
     private boolean[][] safeGrid; // For AI pathfinding
 
     // === New: Projectile and Loot Systems ===
     private final List<Projectile> projectiles;
     private final List<DroppedItem> droppedItems;
+    private final EnemyBroadphase enemyBroadphase = new EnemyBroadphase(2f); // 投射物命中粗筛
     private DamageType levelDamageType = DamageType.PHYSICAL; // Default level damage type
     private int levelNumber = 1;
     private List<String> newAchievements = new ArrayList<>(); // Track newly unlocked achievements
@@ -91,9 +94,29 @@ void onProjectileHit(float x, float y, String textureKey, int damage,
     private ProjectileHitListener projectileHitListener;
     private String currentLevelPath;
 
+    // 输入与随机数可注入，便于无窗口确定性模拟（见 de.tum.cit.fop.maze.sim）
+    private InputSource input = InputSource.GDX;
+    private final Random random;
+
     public GameWorld(GameMap gameMap, String levelPath) {
+        this(gameMap, levelPath, new Random());
+    }
+
+    /**
+     * 以固定种子创建世界：本世界的随机数、敌人巡逻、掉落表和移动陷阱都使用该种子，
+     * 相同地图 + 相同输入带 + 固定步长即可完全复现一局。
+     *
+     * 地图加载时创建的敌人也会消耗共享随机数，需要复现时应先调用
+     * {@link #seedSharedRandom(long)} 再加载地图。
+     */
+    public GameWorld(GameMap gameMap, String levelPath, long seed) {
+        this(gameMap, levelPath, seedSharedRandom(seed));
+    }
+
+    private GameWorld(GameMap gameMap, String levelPath, Random random) {
         this.gameMap = gameMap;
         this.currentLevelPath = levelPath;
+        this.random = random;
 
         // Initialize Core Components
         this.collisionManager = new CollisionManager(gameMap);
@@ -126,7 +149,7 @@ public GameWorld(GameMap gameMap, String levelPath) {
         }
         this.enemies = new ArrayList<>();
         this.mobileTraps = new ArrayList<>();
-        this.floatingTexts = new ArrayList<>();
+        this.combatText = new CombatText();
         this.projectiles = new ArrayList<>();
         this.droppedItems = new ArrayList<>();
 
@@ -209,7 +232,7 @@ private void spawnCustomEnemy(de.tum.cit.fop.maze.custom.CustomElementDefinition
         float spawnProb = element.getSpawnProbability(level);
 
         for (int i = 0; i < count; i++) {
-            if (Math.random() > spawnProb)
+            if (random.nextFloat() > spawnProb)
                 continue;
 
             // Find a valid spawn position (walkable tile away from player spawn)
@@ -218,8 +241,8 @@ private void spawnCustomEnemy(de.tum.cit.fop.maze.custom.CustomElementDefinition
             int maxAttempts = 100;
 
             while (attempts < maxAttempts) {
-                int x = 3 + (int) (Math.random() * (gameMap.getWidth() - 6));
-                int y = 3 + (int) (Math.random() * (gameMap.getHeight() - 6));
+                int x = 3 + random.nextInt(Math.max(1, gameMap.getWidth() - 6));
+                int y = 3 + random.nextInt(Math.max(1, gameMap.getHeight() - 6));
 
                 // Check if walkable and not too close to player start
                 if (collisionManager.isWalkable(x, y)) {
@@ -289,6 +312,42 @@ private void spawnCustomEnemy(de.tum.cit.fop.maze.custom.CustomElementDefinition
         }
     }
 
+    /**
+     * 统一设置共享随机数流的种子（敌人巡逻、掉落表、移动陷阱）
+     *
+     * 每个随机数流从主种子派生出各自的种子，避免敌人方向和掉落结果走同一序列。
+     * MathUtils.random 只留给纯视觉效果（粒子等），不参与玩法，也不在此播种。
+     *
+     * @return 以派生种子初始化的新随机数，供世界自身使用
+     */
+    public static Random seedSharedRandom(long seed) {
+        Enemy.setRandomSeed(streamSeed(seed, 1));
+        LootTable.setRandomSeed(streamSeed(seed, 2));
+        MobileTrap.setRandomSeed(streamSeed(seed, 3));
+        return new Random(streamSeed(seed, 0));
+    }
+
+    /**
+     * SplitMix64 派生：同一主种子下不同编号的流互不相关
+     */
+    private static long streamSeed(long seed, int stream) {
+        long z = seed + (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 替换输入源（默认读取 Gdx.input）
+     */
+    public void setInputSource(InputSource input) {
+        this.input = input;
+    }
+
+    public InputSource getInputSource() {
+        return input;
+    }
+
     public void setListener(WorldListener listener) {
         this.listener = listener;
     }
@@ -298,10 +357,16 @@ public void setProjectileHitListener(ProjectileHitListener listener) {
     }
 
     public void update(float delta) {
+        // 回放时使用录制时的帧时长
+        delta = input.advance(delta);
+
         // Track level elapsed time for achievements
         levelElapsedTime += delta;
 
+        FrameProfiler profiler = FrameProfiler.getInstance();
+
         // 1. Player Update
+        profiler.begin(FrameProfiler.Phase.PLAYER);
         player.update(delta, collisionManager);
 
         // Check Death Animation
@@ -316,15 +381,20 @@ public void update(float delta) {
         if (!player.isDead()) {
             handleInput(delta);
         }
+        profiler.end(FrameProfiler.Phase.PLAYER);
 
         // 3. Entity Updates
+        profiler.begin(FrameProfiler.Phase.ENEMIES);
         updateEnemies(delta);
+        profiler.end(FrameProfiler.Phase.ENEMIES);
         updateTraps(delta);
+        profiler.begin(FrameProfiler.Phase.PROJECTILES);
         updateProjectiles(delta); // NEW: Update projectiles
-        updateDroppedItems(); // NEW: Handle item pickup
+        profiler.end(FrameProfiler.Phase.PROJECTILES);
+        updateDroppedItems(delta); // NEW: Handle item pickup
         updateDynamicObjects();
         updateChests(delta); // NEW: Handle treasure chest interaction
-        updateFloatingTexts(delta);
+        combatText.update(delta);
 
         // 4. Update player's equipped weapon (for reload timer)
         Weapon currentWeapon = player.getCurrentWeapon();
@@ -337,7 +407,7 @@ public void update(float delta) {
 
     protected void handleInput(float delta) {
         // Weapon Switch
-        if (Gdx.input.isKeyJustPressed(GameSettings.KEY_SWITCH_WEAPON)) {
+        if (input.isKeyJustPressed(GameSettings.KEY_SWITCH_WEAPON)) {
             player.switchWeapon();
             AudioManager.getInstance().playSound("select");
         }
@@ -346,26 +416,26 @@ protected void handleInput(float delta) {
         // Step 1: Get input direction
         float inputX = 0, inputY = 0;
 
-        if (Gdx.input.isKeyPressed(GameSettings.KEY_LEFT)) {
+        if (input.isKeyPressed(GameSettings.KEY_LEFT)) {
             inputX -= 1;
             // 非鼠标模式时，根据键盘输入更新朝向
             if (!GameSettings.isUseMouseAiming()) {
                 playerDirection = 2;
             }
         }
-        if (Gdx.input.isKeyPressed(GameSettings.KEY_RIGHT)) {
+        if (input.isKeyPressed(GameSettings.KEY_RIGHT)) {
             inputX += 1;
             if (!GameSettings.isUseMouseAiming()) {
                 playerDirection = 3;
             }
         }
-        if (Gdx.input.isKeyPressed(GameSettings.KEY_UP)) {
+        if (input.isKeyPressed(GameSettings.KEY_UP)) {
             inputY += 1;
             if (!GameSettings.isUseMouseAiming()) {
                 playerDirection = 1;
             }
         }
-        if (Gdx.input.isKeyPressed(GameSettings.KEY_DOWN)) {
+        if (input.isKeyPressed(GameSettings.KEY_DOWN)) {
             inputY -= 1;
             if (!GameSettings.isUseMouseAiming()) {
                 playerDirection = 0;
@@ -386,7 +456,7 @@ protected void handleInput(float delta) {
 
         // Step 3: Handle running state
         player.setRunning(
-                Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT));
+                input.isKeyPressed(Input.Keys.SHIFT_LEFT) || input.isKeyPressed(Input.Keys.SHIFT_RIGHT));
 
         // Step 4: Calculate target velocity
         float maxSpeed = player.getSpeed(); // Already considers running state
@@ -440,7 +510,7 @@ protected void handleInput(float delta) {
         }
 
         // Attack (按住攻击键时持续攻击，由武器冷却控制攻击频率)
-        if (Gdx.input.isKeyPressed(GameSettings.KEY_ATTACK)) {
+        if (input.isKeyPressed(GameSettings.KEY_ATTACK)) {
             handleAttack();
         }
     }
@@ -539,22 +609,11 @@ private void handleAttack() {
             float energyCost = 10f; // Default cost
             Weapon currentWeapon = player.getCurrentWeapon();
             if (currentWeapon != null) {
-                // Try to get custom weapon's energy cost (inline lookup)
-                String customId = null;
-                for (de.tum.cit.fop.maze.custom.CustomElementDefinition def : de.tum.cit.fop.maze.custom.CustomElementManager
-                        .getInstance().getAllElements()) {
-                    if (def.getType() == de.tum.cit.fop.maze.custom.ElementType.WEAPON &&
-                            def.getName().equalsIgnoreCase(currentWeapon.getName())) {
-                        customId = def.getId();
-                        break;
-                    }
-                }
-                if (customId != null) {
-                    de.tum.cit.fop.maze.custom.CustomElementDefinition def = de.tum.cit.fop.maze.custom.CustomElementManager
-                            .getInstance().getElement(customId);
-                    if (def != null) {
-                        energyCost = def.getFloatProperty("energyCost");
-                    }
+                // Custom weapon's energy cost (indexed lookup, parsed once)
+                de.tum.cit.fop.maze.custom.CustomWeaponStats stats = de.tum.cit.fop.maze.custom.CustomElementManager
+                        .getInstance().getWeaponStats(currentWeapon.getName());
+                if (stats != null) {
+                    energyCost = stats.getEnergyCost();
                 }
             }
 
@@ -642,7 +701,7 @@ private void handleAttack() {
                             }
                         }
 
-                        floatingTexts.add(new FloatingText(e.getX(), e.getY(), "-" + totalDamage, Color.RED));
+                        combatText.showDamage(e, e.getX(), e.getY(), totalDamage, Color.RED);
                         AudioManager.getInstance().playSound("hit");
 
                         float kbMult = 1.0f + (1.0f - (dist / Math.max(0.1f, attackRange)));
@@ -665,6 +724,9 @@ private void handleAttack() {
     // --- Private Update Helpers ---
 
     private void updateEnemies(float delta) {
+        // 玩家换格子时重建流场，之后每个敌人 O(1) 读取方向
+        collisionManager.updateFlowField((int) (player.getX() + 0.5f), (int) (player.getY() + 0.5f));
+
         for (Enemy enemy : enemies) {
             float dst2 = Vector2.dst2(player.getX(), player.getY(), enemy.getX(), enemy.getY());
             if (dst2 > 1600)
@@ -778,9 +840,9 @@ private void updateChests(float delta) {
                 // 领取奖励
                 boolean success = chest.claimReward(player);
                 if (success && chest.getReward() != null) {
-                    floatingTexts.add(new FloatingText(
+                    combatText.showText(
                             chest.getX(), chest.getY() + 0.5f,
-                            chest.getReward().getDisplayName(), Color.YELLOW));
+                            chest.getReward().getDisplayName(), Color.YELLOW);
                     AudioManager.getInstance().playSound("collect");
                 }
 
@@ -793,17 +855,6 @@ private void updateChests(float delta) {
         }
     }
 
-    private void updateFloatingTexts(float delta) {
-        Iterator<FloatingText> dtIter = floatingTexts.iterator();
-        while (dtIter.hasNext()) {
-            FloatingText dt = dtIter.next();
-            dt.update(delta);
-            if (dt.isExpired()) {
-                dtIter.remove();
-            }
-        }
-    }
-
     private void snapToGrid(float delta) {
         float snapSpeed = 10.0f * delta;
         float targetX = Math.round(player.getX());
@@ -927,8 +978,8 @@ public List<MobileTrap> getMobileTraps() {
         return mobileTraps;
     }
 
-    public List<FloatingText> getFloatingTexts() {
-        return floatingTexts;
+    public CombatText getCombatText() {
+        return combatText;
     }
 
     public int getPlayerDirection() {
@@ -1017,8 +1068,8 @@ public float getLastFireDirY() {
      */
     public void updateMouseAim(Camera camera) {
         // 获取鼠标屏幕坐标
-        float screenX = Gdx.input.getX();
-        float screenY = Gdx.input.getY();
+        float screenX = input.getX();
+        float screenY = input.getY();
 
         // 转换为世界坐标
         Vector3 worldCoords = camera.unproject(new Vector3(screenX, screenY, 0));
@@ -1115,7 +1166,7 @@ private void handleEnemyDeath(Enemy e) {
         // Award skill points
         int sp = e.getSkillPointReward();
         player.gainSkillPoints(sp);
-        floatingTexts.add(new FloatingText(e.getX(), e.getY() + 0.5f, "+" + sp, Color.GOLD));
+        combatText.showNumber(null, e.getX(), e.getY() + 0.5f, '+', sp, Color.GOLD);
 
         // Generate loot using LootTable
         DroppedItem loot = LootTable.generateLoot(e.getX(), e.getY(), levelNumber);
@@ -1124,11 +1175,11 @@ private void handleEnemyDeath(Enemy e) {
 
             // Show loot floating text
             String lootName = loot.getDisplayName();
-            floatingTexts.add(new FloatingText(e.getX(), e.getY() + 0.3f, lootName, Color.CYAN));
+            combatText.showText(e.getX(), e.getY() + 0.3f, lootName, Color.CYAN);
         }
 
         // Small chance to also drop a potion (10%)
-        if (Math.random() < 0.1f) {
+        if (random.nextFloat() < 0.1f) {
             gameMap.addGameObject(Potion.createHealthPotion(e.getX() + 0.5f, e.getY()));
         }
     }
@@ -1137,62 +1188,68 @@ private void handleEnemyDeath(Enemy e) {
      * Update all active projectiles
      */
     private void updateProjectiles(float delta) {
+        if (projectiles.isEmpty())
+            return;
+
+        // Broadphase: bin enemies (already moved this frame) into a uniform grid
+        enemyBroadphase.rebuild(enemies, gameMap.getWidth(), gameMap.getHeight());
+
         Iterator<Projectile> iter = projectiles.iterator();
         while (iter.hasNext()) {
             Projectile p = iter.next();
+            float fromX = p.getX();
+            float fromY = p.getY();
 
             // Update projectile position
             if (p.update(delta, collisionManager)) {
                 iter.remove();
+                EntityPools.freeProjectile(p);
                 continue;
             }
 
             // Check collision with enemies (player projectiles only)
             if (p.isPlayerOwned()) {
-                for (Enemy e : enemies) {
-                    if (e.isDead())
-                        continue;
-                    if (p.hitsTarget(e)) {
-                        e.takeDamage(p.getDamage(), p.getDamageType());
-                        if (e.getHealth() > 0) {
-                            e.applyEffect(p.getEffect());
-                        }
-                        floatingTexts.add(new FloatingText(e.getX(), e.getY(), "-" + p.getDamage(), Color.ORANGE));
-                        AudioManager.getInstance().playSound("hit");
-
-                        // === Ranged Knockback Logic ===
-                        // Calculate distance traveled to apply falloff
-                        float distTraveled = Vector2.dst(p.getStartX(), p.getStartY(), p.getX(), p.getY());
-
-                        // Base Knockback depends on weapon (Projectile usually inherits player bonus or
-                        // weapon stats)
-                        // Here we use a base value + decay
-                        float maxRange = 10.0f; // Distance where knockback becomes minimum
-                        float decayFactor = MathUtils.clamp(1.0f - (distTraveled / maxRange), 0.2f, 1.0f);
-
-                        // Apply Knockback
-                        // Use projectile position as source so enemy flies away from impact (or away
-                        // from shooter?)
-                        // Usually "away from bullet" means bullet velocity direction.
-                        // But setDamageSource expects a point. Using Projectile current pos is good
-                        // approximation.
-                        e.setDamageSource(p.getX(), p.getY(), 1.0f); // Update last damage source for blood particles
-
-                        float knockbackStrength = 1.5f * decayFactor; // Base 1.5f strength
-                        e.knockback(p.getX(), p.getY(), knockbackStrength, collisionManager);
+                // Only enemies near the swept segment are tested
+                Enemy e = enemyBroadphase.findFirstHit(p, fromX, fromY);
+                if (e != null) {
+                    e.takeDamage(p.getDamage(), p.getDamageType());
+                    if (e.getHealth() > 0) {
+                        e.applyEffect(p.getEffect());
+                    }
+                    combatText.showDamage(e, e.getX(), e.getY(), p.getDamage(), Color.ORANGE);
+                    AudioManager.getInstance().playSound("hit");
 
-                        if (e.isDead() && !e.isRemovable()) {
-                            handleEnemyDeath(e);
-                        }
+                    // === Ranged Knockback Logic ===
+                    // Calculate distance traveled to apply falloff
+                    float distTraveled = Vector2.dst(p.getStartX(), p.getStartY(), p.getX(), p.getY());
+
+                    // Base Knockback depends on weapon (Projectile usually inherits player bonus or
+                    // weapon stats)
+                    // Here we use a base value + decay
+                    float maxRange = 10.0f; // Distance where knockback becomes minimum
+                    float decayFactor = MathUtils.clamp(1.0f - (distTraveled / maxRange), 0.2f, 1.0f);
+
+                    // Apply Knockback
+                    // Use projectile position as source so enemy flies away from impact (or away
+                    // from shooter?)
+                    // Usually "away from bullet" means bullet velocity direction.
+                    // But setDamageSource expects a point. Using Projectile current pos is good
+                    // approximation.
+                    e.setDamageSource(p.getX(), p.getY(), 1.0f); // Update last damage source for blood particles
+
+                    float knockbackStrength = 1.5f * decayFactor; // Base 1.5f strength
+                    e.knockback(p.getX(), p.getY(), knockbackStrength, collisionManager);
+
+                    if (e.isDead() && !e.isRemovable()) {
+                        handleEnemyDeath(e);
+                    }
 
-                        p.markHit();
+                    p.markHit();
 
-                        // Trigger particle effect for magic weapons
-                        if (projectileHitListener != null) {
-                            projectileHitListener.onProjectileHit(p.getX(), p.getY(), p.getTextureKey(), p.getDamage(),
-                                    p.getEffect());
-                        }
-                        break;
+                    // Trigger particle effect for magic weapons
+                    if (projectileHitListener != null) {
+                        projectileHitListener.onProjectileHit(p.getX(), p.getY(), p.getTextureKey(), p.getDamage(),
+                                p.getEffect());
                     }
                 }
             } else {
@@ -1209,6 +1266,7 @@ private void updateProjectiles(float delta) {
             // Remove if hit something
             if (p.isExpired()) {
                 iter.remove();
+                EntityPools.freeProjectile(p);
             }
         }
     }
@@ -1216,11 +1274,11 @@ private void updateProjectiles(float delta) {
     /**
      * Update dropped items and handle pickup
      */
-    private void updateDroppedItems() {
+    private void updateDroppedItems(float delta) {
         Iterator<DroppedItem> iter = droppedItems.iterator();
         while (iter.hasNext()) {
             DroppedItem item = iter.next();
-            item.update(Gdx.graphics.getDeltaTime());
+            item.update(delta);
 
             if (item.canPickUp(player)) {
                 if (item.applyToPlayer(player)) {
@@ -1240,13 +1298,14 @@ private void updateDroppedItems() {
                         case COIN:
                             int amount = (Integer) item.getPayload();
                             coinsCollected += amount;
-                            floatingTexts.add(new FloatingText(player.getX(), player.getY() + 0.5f,
-                                    "+" + amount + " coins", Color.GOLD));
+                            combatText.showText(player.getX(), player.getY() + 0.5f,
+                                    "+" + amount + " coins", Color.GOLD);
                             newAchievements.addAll(AchievementManager.checkCoinMilestone(amount));
                             break;
                         default:
                             break;
                     }
+                    EntityPools.freeDroppedItem(item);
                 }
             }
         }
@@ -1266,14 +1325,15 @@ public void fireProjectile(float startX, float startY, float dirX, float dirY,
 
         String textureKey = weapon.getDamageType() == DamageType.PHYSICAL ? "arrow" : "magic_bolt";
 
-        Projectile p = new Projectile(
+        Projectile p = EntityPools.obtainProjectile(
                 startX, startY,
                 dirX * speed, dirY * speed,
                 weapon.getDamage() + (playerOwned ? player.getDamageBonus() : 0),
                 weapon.getDamageType(),
                 weapon.getEffect(),
                 playerOwned,
-                textureKey);
+                textureKey,
+                1.0f);
         projectiles.add(p);
     }
 
@@ -1417,7 +1477,7 @@ private void spawnProjectile(Weapon weapon, Player player) {
             }
         }
 
-        Projectile p = new Projectile(startX, startY, vx, vy,
+        Projectile p = EntityPools.obtainProjectile(startX, startY, vx, vy,
                 weapon.getDamage() + player.getDamageBonus(),
                 weapon.getDamageType(),
                 weapon.getEffect(),
@@ -1447,11 +1507,6 @@ private void spawnProjectile(Weapon weapon, Player player) {
     }
 
     private boolean customElementExists(String name) {
-        for (de.tum.cit.fop.maze.custom.CustomElementDefinition def : de.tum.cit.fop.maze.custom.CustomElementManager
-                .getInstance().getAllElements()) {
-            if (def.getName().equalsIgnoreCase(name))
-                return true;
-        }
-        return false;
+        return de.tum.cit.fop.maze.custom.CustomElementManager.getInstance().getElementByName(name) != null;
     }
 }
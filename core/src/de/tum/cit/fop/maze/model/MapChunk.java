@@ -1,8 +1,11 @@
 package de.tum.cit.fop.maze.model;
 
 import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.fop.maze.model.items.Potion;
+import de.tum.cit.fop.maze.utils.EntityPools;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -10,6 +13,9 @@
  * 
  * 表示无尽模式地图中的一个64×64区块。
  * 用于分块加载和渲染优化。
+ *
+ * 除生成结果外，区块还保存玩家造成的改动（已打开的宝箱、卸载时留在区块内的
+ * 休眠敌人和掉落药水）。有改动的区块由 ChunkStore 持久化。
  */
 public class MapChunk {
 
@@ -37,6 +43,19 @@ public class MapChunk {
     /** 区块内的敌人刷新点 */
     private List<Vector2> spawnPoints;
 
+    /**
+     * 格子索引（行优先，size × size），每格一个字节的标记位：
+     * CELL_WALL = 墙体视觉占地，CELL_SOLID = 碰撞高度内的墙体底座。
+     * 由 buildCellIndex() 在墙体生成完毕后构建，之后 addWall 增量更新。
+     */
+    private byte[] cellIndex;
+
+    /** 格子标记：被墙体占地（gridWidth × gridHeight） */
+    public static final byte CELL_WALL = 1;
+
+    /** 格子标记：被墙体碰撞区域占用（gridWidth × collisionHeight） */
+    public static final byte CELL_SOLID = 2;
+
     /** 是否已生成 */
     private boolean isGenerated;
 
@@ -46,6 +65,58 @@ public class MapChunk {
     /** 最后访问时间（用于LRU缓存） */
     private long lastAccessTime;
 
+    /** 已打开的宝箱（chestPositions 下标） */
+    private final BitSet openedChests = new BitSet();
+
+    /** 区块卸载时留在区块内的敌人 */
+    private final List<DormantEnemy> dormantEnemies = new ArrayList<>();
+
+    /** 区块卸载时留在区块内的掉落药水 */
+    private final List<Potion> droppedPotions = new ArrayList<>();
+
+    /** 自上次写入 ChunkStore 以来有改动 */
+    private boolean modified;
+
+    /**
+     * 休眠敌人：区块卸载时从活动列表移出的敌人快照
+     */
+    public static class DormantEnemy {
+        public float x;
+        public float y;
+        public Enemy.EnemyType type;
+        public int health;
+        public int maxHealth;
+        public DamageType attackType;
+        /** null 表示无护盾 */
+        public DamageType shieldType;
+        public int shield;
+        public int maxShield;
+
+        public static DormantEnemy capture(Enemy enemy) {
+            DormantEnemy d = new DormantEnemy();
+            d.x = enemy.getX();
+            d.y = enemy.getY();
+            d.type = enemy.getType();
+            d.health = enemy.getHealth();
+            d.maxHealth = enemy.getMaxHealth();
+            d.attackType = enemy.getAttackDamageType();
+            d.shieldType = enemy.getShieldType();
+            d.shield = enemy.getCurrentShield();
+            d.maxShield = enemy.getMaxShield();
+            return d;
+        }
+
+        /**
+         * 按快照重建敌人（从对象池取出；调用方负责绑定监听器并加入活动列表）
+         */
+        public Enemy revive() {
+            Enemy enemy = EntityPools.obtainEnemy(x, y, maxHealth, attackType, shieldType, maxShield);
+            enemy.setType(type);
+            enemy.restoreVitals(health, shield);
+            return enemy;
+        }
+    }
+
     /**
      * 构造函数
      * 
@@ -109,6 +180,69 @@ public boolean containsWorldPosition(float worldX, float worldY) {
      */
     public void addWall(WallEntity wall) {
         walls.add(wall);
+        if (cellIndex != null) {
+            stampWall(wall);
+        }
+    }
+
+    /**
+     * 根据当前墙体列表构建格子索引
+     */
+    public void buildCellIndex() {
+        cellIndex = new byte[size * size];
+        for (WallEntity wall : walls) {
+            stampWall(wall);
+        }
+    }
+
+    /**
+     * 将墙体写入格子索引（裁剪到本区块范围内）
+     */
+    private void stampWall(WallEntity wall) {
+        int startX = getWorldStartX();
+        int startY = getWorldStartY();
+        int minX = Math.max(0, wall.getOriginX() - startX);
+        int minY = Math.max(0, wall.getOriginY() - startY);
+        int maxX = Math.min(size, wall.getOriginX() + wall.getGridWidth() - startX);
+        int maxY = Math.min(size, wall.getOriginY() + wall.getGridHeight() - startY);
+        int solidMaxY = Math.min(size, wall.getOriginY() + wall.getCollisionHeight() - startY);
+
+        for (int ly = minY; ly < maxY; ly++) {
+            byte flags = ly < solidMaxY ? (byte) (CELL_WALL | CELL_SOLID) : CELL_WALL;
+            int row = ly * size;
+            for (int lx = minX; lx < maxX; lx++) {
+                cellIndex[row + lx] |= flags;
+            }
+        }
+    }
+
+    /**
+     * O(1) 查询世界坐标格子的索引标记（区块外返回0）
+     */
+    public int getCellFlags(int worldX, int worldY) {
+        int lx = worldX - getWorldStartX();
+        int ly = worldY - getWorldStartY();
+        if (lx < 0 || ly < 0 || lx >= size || ly >= size) {
+            return 0;
+        }
+        if (cellIndex == null) {
+            buildCellIndex();
+        }
+        return cellIndex[ly * size + lx];
+    }
+
+    /**
+     * 格子是否在墙体占地范围内（视觉高度）
+     */
+    public boolean isWallAt(int worldX, int worldY) {
+        return (getCellFlags(worldX, worldY) & CELL_WALL) != 0;
+    }
+
+    /**
+     * 格子是否在墙体碰撞高度内（墙体底座）
+     */
+    public boolean isSolidAt(int worldX, int worldY) {
+        return (getCellFlags(worldX, worldY) & CELL_SOLID) != 0;
     }
 
     /**
@@ -176,6 +310,11 @@ public void clear() {
         trapPositions.clear();
         chestPositions.clear();
         spawnPoints.clear();
+        openedChests.clear();
+        dormantEnemies.clear();
+        droppedPotions.clear();
+        modified = false;
+        cellIndex = null;
         isGenerated = false;
         isLoaded = false;
     }
@@ -240,6 +379,44 @@ public long getLastAccessTime() {
         return lastAccessTime;
     }
 
+    // ========== 持久化状态 ==========
+
+    public boolean isChestOpened(int chestIndex) {
+        return openedChests.get(chestIndex);
+    }
+
+    public void markChestOpened(int chestIndex) {
+        openedChests.set(chestIndex);
+        modified = true;
+    }
+
+    /**
+     * 已打开宝箱的位图（持久化用）
+     */
+    public BitSet getOpenedChests() {
+        return openedChests;
+    }
+
+    public List<DormantEnemy> getDormantEnemies() {
+        return dormantEnemies;
+    }
+
+    public List<Potion> getDroppedPotions() {
+        return droppedPotions;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void markModified() {
+        this.modified = true;
+    }
+
+    public void clearModified() {
+        this.modified = false;
+    }
+
     @Override
     public String toString() {
         return "MapChunk{" +
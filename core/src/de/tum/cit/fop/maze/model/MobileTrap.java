@@ -1,6 +1,7 @@
 package de.tum.cit.fop.maze.model;
 
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 
 /**
  * The Third Obstacle: Mobile Trap.
@@ -9,6 +10,10 @@
  */
 public class MobileTrap extends GameObject {
 
+    // Own stream: MathUtils.random is also drawn by purely visual effects (particles),
+    // which would make seeded replays diverge between windowed and headless runs
+    private static final RandomXS128 RANDOM = new RandomXS128();
+
     private float timer;
     private float moveX, moveY;
     private float speed = 4.0f; // Default speed
@@ -25,7 +30,7 @@ public void update(float delta, CollisionManager collisionManager) {
         timer += delta;
 
         // Change direction frequently (jittery movement)
-        if (timer > 0.5f + MathUtils.random() * 0.5f) {
+        if (timer > 0.5f + RANDOM.nextFloat() * 0.5f) {
             pickNewDirection();
             timer = 0;
         }
@@ -39,14 +44,21 @@ public void update(float delta, CollisionManager collisionManager) {
             moveX = -moveX;
             moveY = -moveY;
             // Or pick new random
-            if (MathUtils.randomBoolean())
+            if (RANDOM.nextBoolean())
                 pickNewDirection();
         }
     }
 
+    /**
+     * Seeds the shared mobile-trap stream (deterministic replays).
+     */
+    public static void setRandomSeed(long seed) {
+        RANDOM.setSeed(seed);
+    }
+
     private void pickNewDirection() {
         // Random angle
-        float angle = MathUtils.random() * MathUtils.PI2;
+        float angle = RANDOM.nextFloat() * MathUtils.PI2;
         moveX = MathUtils.cos(angle);
         moveY = MathUtils.sin(angle);
     }
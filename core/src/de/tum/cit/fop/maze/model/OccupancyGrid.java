@@ -0,0 +1,134 @@
+package de.tum.cit.fop.maze.model;
+
+/**
+ * 占用位图 (Occupancy Grid)
+ *
+ * 每个格子 1 bit，按行优先打包进 long[]。
+ * 替代 HashSet&lt;Long&gt; 的碰撞查询：无装箱、无哈希、无分配。
+ *
+ * 越界查询一律返回 false（与旧 HashSet 行为一致：不存在的 key 即未占用）。
+ * 写入越界坐标时自动扩容，兼容 GameMap 动态增长尺寸的逻辑。
+ */
+public class OccupancyGrid {
+
+    private int width;
+    private int height;
+    private long[] bits;
+
+    public OccupancyGrid() {
+        this(0, 0);
+    }
+
+    public OccupancyGrid(int width, int height) {
+        this.width = Math.max(0, width);
+        this.height = Math.max(0, height);
+        this.bits = new long[wordCount(this.width, this.height)];
+    }
+
+    private static int wordCount(int width, int height) {
+        return (int) (((long) width * height + 63) >>> 6);
+    }
+
+    /**
+     * O(1) 查询格子是否被占用
+     */
+    public boolean get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int index = y * width + x;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * 标记格子为占用（必要时扩容）
+     */
+    public void set(int x, int y) {
+        if (x < 0 || y < 0) {
+            return;
+        }
+        if (x >= width || y >= height) {
+            ensureSize(grow(width, x + 1), grow(height, y + 1));
+        }
+        int index = y * width + x;
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * 清除格子的占用标记
+     */
+    public void clear(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        int index = y * width + x;
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * 标记一个矩形区域为占用
+     */
+    public void fillRect(int originX, int originY, int w, int h) {
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        int maxX = originX + w;
+        int maxY = originY + h;
+        if (maxX > width || maxY > height) {
+            ensureSize(grow(width, maxX), grow(height, maxY));
+        }
+        for (int y = Math.max(0, originY); y < maxY; y++) {
+            for (int x = Math.max(0, originX); x < maxX; x++) {
+                int index = y * width + x;
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    /**
+     * 逐格写入时按倍数扩容，避免每越界一格就复制一次整个位图
+     */
+    private static int grow(int current, int needed) {
+        return needed <= current ? current : Math.max(needed, current * 2);
+    }
+
+    /**
+     * 扩容到至少 newWidth × newHeight，保留已有数据
+     */
+    public void ensureSize(int newWidth, int newHeight) {
+        if (newWidth <= width && newHeight <= height) {
+            return;
+        }
+        newWidth = Math.max(newWidth, width);
+        newHeight = Math.max(newHeight, height);
+
+        long[] newBits = new long[wordCount(newWidth, newHeight)];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int oldIndex = y * width + x;
+                if ((bits[oldIndex >>> 6] & (1L << oldIndex)) != 0) {
+                    int newIndex = y * newWidth + x;
+                    newBits[newIndex >>> 6] |= 1L << newIndex;
+                }
+            }
+        }
+        this.bits = newBits;
+        this.width = newWidth;
+        this.height = newHeight;
+    }
+
+    /**
+     * 清空所有占用标记（保留尺寸）
+     */
+    public void clearAll() {
+        java.util.Arrays.fill(bits, 0L);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -7,7 +7,7 @@
 import de.tum.cit.fop.maze.model.weapons.Sword;
 import de.tum.cit.fop.maze.model.weapons.Crossbow;
 import de.tum.cit.fop.maze.model.weapons.Wand;
-import de.tum.cit.fop.maze.utils.BloodParticleSystem;
+import de.tum.cit.fop.maze.utils.ParticleEngine;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -111,7 +111,7 @@ public class Player extends GameObject {
     private boolean noClip = false;
 
     // Blood particle listener (for visual damage feedback)
-    private BloodParticleSystem.DamageListener damageListener = null;
+    private ParticleEngine.DamageListener damageListener = null;
 
     // 碰撞箱大小 (接近 1.0)
     private static final float SIZE = 0.99f;
@@ -436,7 +436,7 @@ public boolean damage(int amount, DamageType type) {
         return true;
     }
 
-    public void setDamageListener(BloodParticleSystem.DamageListener listener) {
+    public void setDamageListener(ParticleEngine.DamageListener listener) {
         this.damageListener = listener;
     }
 
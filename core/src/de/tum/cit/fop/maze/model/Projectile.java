@@ -1,5 +1,6 @@
 package de.tum.cit.fop.maze.model;
 
+import com.badlogic.gdx.utils.Pool;
 import de.tum.cit.fop.maze.model.weapons.WeaponEffect;
 
 /**
@@ -11,7 +12,7 @@
  * - 生命周期（超时自动消失）
  * - 碰撞检测（命中敌人/墙壁）
  */
-public class Projectile extends GameObject {
+public class Projectile extends GameObject implements Pool.Poolable {
 
     // 速度向量
     private float vx, vy;
@@ -52,6 +53,26 @@ public Projectile(float x, float y, float vx, float vy,
             int damage, DamageType damageType, WeaponEffect effect,
             boolean playerOwned, String textureKey, float size) {
         super(x, y);
+        init(x, y, vx, vy, damage, damageType, effect, playerOwned, textureKey, size);
+    }
+
+    /**
+     * 空投射物，供对象池创建后再 {@link #init} 使用
+     */
+    public Projectile() {
+        super(0, 0);
+    }
+
+    /**
+     * 重新初始化投射物（构造函数和对象池复用共用）
+     *
+     * @return this，便于链式调用
+     */
+    public Projectile init(float x, float y, float vx, float vy,
+            int damage, DamageType damageType, WeaponEffect effect,
+            boolean playerOwned, String textureKey, float size) {
+        this.x = x;
+        this.y = y;
         this.vx = vx;
         this.vy = vy;
         this.damage = damage;
@@ -61,6 +82,7 @@ public Projectile(float x, float y, float vx, float vy,
         this.textureKey = textureKey;
         this.size = size;
         this.lifeTime = maxLifeTime;
+        this.expired = false;
 
         // 投射物碰撞体积较小
         this.width = 0.3f;
@@ -72,6 +94,17 @@ public Projectile(float x, float y, float vx, float vy,
 
         // 计算旋转角度（指向飞行方向）
         this.rotation = (float) Math.atan2(vy, vx);
+        return this;
+    }
+
+    /**
+     * 归还对象池时清除对外引用
+     */
+    @Override
+    public void reset() {
+        textureKey = null;
+        effect = null;
+        damageType = null;
     }
 
     // Backward compatible constructor
@@ -81,8 +114,8 @@ public Projectile(float x, float y, float vx, float vy,
         this(x, y, vx, vy, damage, damageType, effect, playerOwned, textureKey, 1.0f);
     }
 
-    private final float startX;
-    private final float startY;
+    private float startX;
+    private float startY;
 
     public float getStartX() {
         return startX;
@@ -131,12 +164,11 @@ public boolean update(float delta, CollisionManager cm) {
      * @return true 如果碰撞
      */
     public boolean hitsTarget(GameObject target) {
-        // 简单的圆形碰撞检测
+        // 简单的圆形碰撞检测（平方距离，无需开方）
         float dx = target.getX() - x;
         float dy = target.getY() - y;
-        float distance = (float) Math.sqrt(dx * dx + dy * dy);
         float combinedRadius = (width + target.getWidth()) / 2f;
-        return distance < combinedRadius;
+        return dx * dx + dy * dy < combinedRadius * combinedRadius;
     }
 
     /**
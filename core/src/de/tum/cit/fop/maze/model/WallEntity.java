@@ -27,7 +27,8 @@ public class WallEntity extends GameObject {
     private final boolean isBorderWall;
 
     // 缓存：该墙体占用的所有格子坐标
-    private final Set<Long> occupiedCells;
+    // 按需构建（仅兼容旧代码使用），碰撞查询直接按矩形范围计算
+    private Set<Long> occupiedCells;
 
     /**
      * 创建一个墙体实体
@@ -50,17 +51,6 @@ public WallEntity(int originX, int originY, int gridWidth, int gridHeight, int t
         this.typeId = typeId;
         this.isBorderWall = isBorderWall;
         this.collisionHeight = collisionHeight;
-
-        // 预计算占用的格子
-        this.occupiedCells = new HashSet<>();
-        for (int dx = 0; dx < gridWidth; dx++) {
-            // 使用 collisionHeight 而不是 gridHeight 确定碰撞区域
-            for (int dy = 0; dy < collisionHeight; dy++) {
-                // 使用 x + (y << 16) 作为唯一key
-                long key = (originX + dx) + ((long) (originY + dy) << 16);
-                occupiedCells.add(key);
-            }
-        }
     }
 
     /**
@@ -81,14 +71,29 @@ public WallEntity(int originX, int originY, int gridWidth, int gridHeight, int t
      * 检查指定格子是否被该墙体占用
      */
     public boolean occupies(int x, int y) {
-        long key = x + ((long) y << 16);
-        return occupiedCells.contains(key);
+        // 碰撞区域 = gridWidth × collisionHeight
+        int dx = x - (int) this.x;
+        int dy = y - (int) this.y;
+        return dx >= 0 && dx < gridWidth && dy >= 0 && dy < collisionHeight;
     }
 
     /**
      * 获取所有占用格子的坐标key集合
      */
     public Set<Long> getOccupiedCells() {
+        if (occupiedCells == null) {
+            occupiedCells = new HashSet<>();
+            int originX = (int) x;
+            int originY = (int) y;
+            for (int dx = 0; dx < gridWidth; dx++) {
+                // 使用 collisionHeight 而不是 gridHeight 确定碰撞区域
+                for (int dy = 0; dy < collisionHeight; dy++) {
+                    // 使用 x + (y << 16) 作为唯一key
+                    long key = (originX + dx) + ((long) (originY + dy) << 16);
+                    occupiedCells.add(key);
+                }
+            }
+        }
         return occupiedCells;
     }
 
@@ -1,8 +1,10 @@
 package de.tum.cit.fop.maze.model.items;
 
+import com.badlogic.gdx.utils.Pool;
 import de.tum.cit.fop.maze.model.GameObject;
 import de.tum.cit.fop.maze.model.Player;
 import de.tum.cit.fop.maze.model.weapons.Weapon;
+import de.tum.cit.fop.maze.utils.EntityPools;
 
 /**
  * 掉落物品类 (Dropped Item)
@@ -13,7 +15,7 @@
  * - 金币掉落
  * - 药水掉落
  */
-public class DroppedItem extends GameObject {
+public class DroppedItem extends GameObject implements Pool.Poolable {
 
     public enum ItemType {
         WEAPON,
@@ -32,10 +34,10 @@ public enum ItemType {
     private String textureKey;
 
     /**
-     * 创建武器掉落物
+     * 创建武器掉落物（从对象池取出，拾取后由持有者归还）
      */
     public static DroppedItem createWeaponDrop(float x, float y, Weapon weapon) {
-        DroppedItem item = new DroppedItem(x, y, ItemType.WEAPON, weapon);
+        DroppedItem item = EntityPools.obtainDroppedItem().init(x, y, ItemType.WEAPON, weapon);
         item.textureKey = weapon.getTextureKey();
         return item;
     }
@@ -44,7 +46,7 @@ public static DroppedItem createWeaponDrop(float x, float y, Weapon weapon) {
      * 创建护甲掉落物
      */
     public static DroppedItem createArmorDrop(float x, float y, Armor armor) {
-        DroppedItem item = new DroppedItem(x, y, ItemType.ARMOR, armor);
+        DroppedItem item = EntityPools.obtainDroppedItem().init(x, y, ItemType.ARMOR, armor);
         item.textureKey = armor.getTextureKey();
         return item;
     }
@@ -53,19 +55,40 @@ public static DroppedItem createArmorDrop(float x, float y, Armor armor) {
      * 创建金币掉落物
      */
     public static DroppedItem createCoinDrop(float x, float y, int amount) {
-        DroppedItem item = new DroppedItem(x, y, ItemType.COIN, amount);
+        DroppedItem item = EntityPools.obtainDroppedItem().init(x, y, ItemType.COIN, amount);
         item.textureKey = "coin";
         return item;
     }
 
-    private DroppedItem(float x, float y, ItemType type, Object payload) {
-        super(x, y);
-        this.type = type;
-        this.payload = payload;
+    /**
+     * 空掉落物，仅供对象池创建；请使用 create*Drop 工厂方法
+     */
+    public DroppedItem() {
+        super(0, 0);
         this.width = 0.5f;
         this.height = 0.5f;
     }
 
+    private DroppedItem init(float x, float y, ItemType type, Object payload) {
+        this.x = x;
+        this.y = y;
+        this.type = type;
+        this.payload = payload;
+        this.bobTimer = 0f;
+        this.bobOffset = 0f;
+        this.pickedUp = false;
+        return this;
+    }
+
+    /**
+     * 归还对象池时清除对外引用
+     */
+    @Override
+    public void reset() {
+        payload = null;
+        textureKey = null;
+    }
+
     /**
      * 更新掉落物状态（浮动动画）
      */
@@ -22,7 +22,7 @@
 import de.tum.cit.fop.maze.MazeRunnerGame;
 import de.tum.cit.fop.maze.config.EndlessModeConfig;
 import de.tum.cit.fop.maze.config.GameSettings;
-import de.tum.cit.fop.maze.effects.FloatingText;
+import de.tum.cit.fop.maze.effects.CombatText;
 import de.tum.cit.fop.maze.model.*;
 import de.tum.cit.fop.maze.model.items.Potion;
 import de.tum.cit.fop.maze.model.weapons.Weapon;
@@ -60,6 +60,7 @@ public class EndlessGameScreen implements Screen {
     private MazeRenderer mazeRenderer;
     private FogRenderer fogRenderer;
     private de.tum.cit.fop.maze.utils.PlayerRenderer playerRenderer;
+    private ChunkFloorCache floorCache; // 区块静态地板缓存
 
     // === 地图系统 ===
     private ChunkManager chunkManager;
@@ -74,9 +75,13 @@ public class EndlessGameScreen implements Screen {
     private Player player;
     private List<Enemy> enemies;
     private SpatialHashGrid<Enemy> enemyGrid; // Spatial hash for O(1) neighbor queries
+    private HordeDistanceField hordeField; // 共享寻路距离场（后台计算，双缓冲）
+    private EnemyTierScheduler enemyTiers; // 按距离分级更新敌人
+    private final Vector2 steerDir = new Vector2();
     private List<Trap> traps;
-    private List<FloatingText> floatingTexts;
+    private CombatText combatText;
     private List<Potion> potions; // 掉落的药水
+    private long worldSeed; // 世界种子（存档恢复同一世界）
 
     // === 宝箱系统 ===
     private Map<String, List<TreasureChest>> chunkChests; // chunkId -> chests
@@ -110,6 +115,8 @@ public class EndlessGameScreen implements Screen {
     private static final float UNIT_SCALE = 16f;
     private static final float CAMERA_LERP_SPEED = 4.0f;
     private static final int MAX_ENEMIES = EndlessModeConfig.MAX_ENEMY_COUNT;
+    private static final float ENEMY_COLLISION_SIZE = 0.9f; // 敌人碰撞箱大小（碰撞检测与寻路共用）
+    private static final Color DUST_COLOR = new Color(0.5f, 0.45f, 0.35f, 1f); // Endless mode default dirt color
 
     // === 玩家/武器朝向记忆 (队友功能) ===
     private int lastPlayerFacing = 3;
@@ -121,9 +128,12 @@ public class EndlessGameScreen implements Screen {
     private ShaderProgram grayscaleShader;
     private com.badlogic.gdx.graphics.glutils.ShapeRenderer shapeRenderer;
 
-    // === 溅血粒子系统 ===
-    private BloodParticleSystem bloodParticles;
-    private de.tum.cit.fop.maze.utils.DustParticleSystem dustParticles;
+    // === 粒子引擎 ===
+    private ParticleEngine particles; // 溅血、尘土粒子
+    private PerfOverlay perfOverlay; // 帧耗时曲线（控制台 "perf graph" 打开时创建）
+    // 所有敌人共用的溅血监听器（不再每个敌人创建一个 lambda）
+    private final ParticleEngine.DamageListener enemyBloodListener = (x, y, amount, dirX, dirY,
+            knockback) -> particles.emitBlood(x, y, amount, dirX, dirY, knockback);
 
     // === 鼠标瞄准系统 ===
     private float aimAngle = 270f; // 瞄准角度 (度数, 0=右, 90=上, 180=左, 270=下)
@@ -150,7 +160,10 @@ public EndlessGameScreen(MazeRunnerGame game, EndlessGameState savedState) {
         playerRenderer = new de.tum.cit.fop.maze.utils.PlayerRenderer(game.getSpriteBatch(), textureManager,
                 UNIT_SCALE);
         shapeRenderer = new com.badlogic.gdx.graphics.glutils.ShapeRenderer();
+        floorCache = new ChunkFloorCache(UNIT_SCALE);
 
+        // 旧存档没有世界种子，只能换一个新世界
+        worldSeed = savedState != null && savedState.worldSeed != 0 ? savedState.worldSeed : new Random().nextLong();
         initializeSystems();
 
         if (savedState != null) {
@@ -170,8 +183,22 @@ public EndlessGameScreen(MazeRunnerGame game, EndlessGameState savedState) {
 
     private void initializeSystems() {
         // 地图系统
-        mapGenerator = new EndlessMapGenerator();
-        chunkManager = new ChunkManager();
+        mapGenerator = new EndlessMapGenerator(worldSeed);
+        chunkManager = new ChunkManager(worldSeed, new ChunkStore(ChunkStore.worldDirectory(worldSeed)));
+        chunkManager.setListener(new ChunkManager.ChunkListener() {
+            @Override
+            public void onChunkLoaded(MapChunk chunk) {
+                // 地板是静态的：加载时一次性烘焙到缓存
+                floorCache.build(chunk, getFloorTextureForTheme(getChunkTheme(chunk)));
+                restoreDroppedPotions(chunk);
+            }
+
+            @Override
+            public void onChunkUnloaded(MapChunk chunk) {
+                floorCache.release(chunk);
+                stashChunkContents(chunk);
+            }
+        });
 
         // 核心系统
         comboSystem = new ComboSystem();
@@ -181,17 +208,20 @@ private void initializeSystems() {
         // 游戏对象
         enemies = new ArrayList<>();
         enemyGrid = new SpatialHashGrid<>(16f); // Cell size matches typical view radius
+        hordeField = new HordeDistanceField(EndlessModeConfig.NAV_FIELD_RADIUS);
+        enemyTiers = new EnemyTierScheduler();
         traps = new ArrayList<>();
-        floatingTexts = new ArrayList<>();
+        combatText = new CombatText();
         potions = new ArrayList<>();
-        spawnRandom = new Random();
+        // 刷怪、掉落、敌人行为从世界种子派生；区块在后台线程生成、完成顺序不固定，
+        // 无尽模式不支持输入回放（见 HeadlessSimulation）
+        spawnRandom = GameWorld.seedSharedRandom(worldSeed);
 
         // 宝箱系统
         chunkChests = new HashMap<>();
 
-        // 溅血粒子系统
-        bloodParticles = new BloodParticleSystem();
-        dustParticles = new de.tum.cit.fop.maze.utils.DustParticleSystem();
+        // 粒子引擎（溅血、尘土）
+        particles = new ParticleEngine();
 
         // 准星渲染器
         crosshairRenderer = new de.tum.cit.fop.maze.utils.CrosshairRenderer();
@@ -200,6 +230,72 @@ private void initializeSystems() {
         setupSystemListeners();
     }
 
+    /**
+     * 区块卸载：区块内的敌人和掉落药水转为休眠状态，随区块一起保存
+     */
+    private void stashChunkContents(MapChunk chunk) {
+        boolean changed = false;
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            Enemy e = enemies.get(i);
+            if (!e.isDead() && chunk.containsWorldPosition(e.getX(), e.getY())) {
+                chunk.getDormantEnemies().add(MapChunk.DormantEnemy.capture(e));
+                enemyGrid.remove(e);
+                enemies.remove(i);
+                EntityPools.freeEnemy(e);
+                changed = true;
+            }
+        }
+        for (int i = potions.size() - 1; i >= 0; i--) {
+            Potion potion = potions.get(i);
+            if (chunk.containsWorldPosition(potion.getX(), potion.getY())) {
+                chunk.getDroppedPotions().add(potion);
+                potions.remove(i);
+                changed = true;
+            }
+        }
+        if (changed) {
+            chunk.markModified();
+        }
+    }
+
+    /**
+     * 存档用：区块内活动敌人和掉落药水的快照
+     */
+    private ChunkStore.LiveContents captureChunkContents(MapChunk chunk) {
+        ChunkStore.LiveContents contents = new ChunkStore.LiveContents();
+        for (Enemy e : enemies) {
+            if (!e.isDead() && chunk.containsWorldPosition(e.getX(), e.getY())) {
+                contents.enemies.add(MapChunk.DormantEnemy.capture(e));
+            }
+        }
+        for (Potion potion : potions) {
+            if (chunk.containsWorldPosition(potion.getX(), potion.getY())) {
+                contents.potions.add(potion);
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * 区块加载：放回掉落药水（休眠敌人等玩家靠近后由 wakeDormantEnemies 唤醒）
+     */
+    private void restoreDroppedPotions(MapChunk chunk) {
+        List<Potion> dropped = chunk.getDroppedPotions();
+        if (!dropped.isEmpty()) {
+            potions.addAll(dropped);
+            dropped.clear();
+            chunk.markModified();
+        }
+    }
+
+    private void reviveDormantAt(MapChunk chunk, int index) {
+        Enemy enemy = chunk.getDormantEnemies().remove(index).revive();
+        enemy.setDamageListener(enemyBloodListener);
+        enemies.add(enemy);
+        enemyGrid.insert(enemy, enemy.getX(), enemy.getY());
+        chunk.markModified();
+    }
+
     private void setupSystemListeners() {
         // COMBO监听器
         comboSystem.setListener(new ComboSystem.ComboListener() {
@@ -216,26 +312,26 @@ public void onComboReset(int finalCombo) {
             @Override
             public void onMilestoneReached(int combo, String milestoneName) {
                 // 显示里程碑特效
-                floatingTexts.add(new FloatingText(
+                combatText.showText(
                         player.getX(), player.getY() + 1,
-                        milestoneName, Color.GOLD));
+                        milestoneName, Color.GOLD);
             }
         });
 
         // RAGE监听器
         rageSystem.setListener((newLevel, levelName) -> {
-            floatingTexts.add(new FloatingText(
+            combatText.showText(
                     player.getX(), player.getY() + 1.5f,
-                    "RAGE: " + levelName, Color.RED));
+                    "RAGE: " + levelName, Color.RED);
         });
 
         // 波次监听器
         waveSystem.setListener(new WaveSystem.WaveListener() {
             @Override
             public void onWaveChanged(int newWave, float spawnInterval, float healthMultiplier) {
-                floatingTexts.add(new FloatingText(
+                combatText.showText(
                         player.getX(), player.getY() + 2,
-                        "Wave " + (newWave + 1), Color.YELLOW));
+                        "Wave " + (newWave + 1), Color.YELLOW);
             }
 
             @Override
@@ -257,11 +353,11 @@ private void initializeNewGame() {
         // 绑定玩家溅血粒子监听器
         // 绑定玩家溅血粒子监听器
         player.setDamageListener(
-                (x, y, amount, dirX, dirY, knockback) -> bloodParticles.spawn(x, y, amount, dirX, dirY, knockback,
-                        new Color(0.0f, 0.0f, 0.5f, 1.0f)));
+                (x, y, amount, dirX, dirY, knockback) -> particles.emitBlood(x, y, amount, dirX, dirY, knockback,
+                        ParticleEngine.PLAYER_BLOOD));
 
         // 加载初始区块
-        chunkManager.updateActiveChunks(player.getX(), player.getY());
+        chunkManager.loadActiveChunksNow(player.getX(), player.getY());
     }
 
     private void loadState(EndlessGameState state) {
@@ -269,7 +365,7 @@ private void loadState(EndlessGameState state) {
         player.setLives(state.playerLives);
         // 绑定玩家溅血粒子监听器
         player.setDamageListener(
-                (x, y, amount, dirX, dirY, knockback) -> bloodParticles.spawn(x, y, amount, dirX, dirY, knockback));
+                (x, y, amount, dirX, dirY, knockback) -> particles.emitBlood(x, y, amount, dirX, dirY, knockback));
 
         // 恢复系统状态
         comboSystem.setCurrentCombo(state.currentCombo);
@@ -281,7 +377,7 @@ private void loadState(EndlessGameState state) {
         currentScore = state.score;
 
         // 加载区块
-        chunkManager.updateActiveChunks(player.getX(), player.getY());
+        chunkManager.loadActiveChunksNow(player.getX(), player.getY());
     }
 
     private void setupHUD() {
@@ -429,6 +525,7 @@ public int clearAllEnemies() {
                 int count = enemies.size();
                 for (Enemy e : enemies) {
                     enemyGrid.remove(e);
+                    EntityPools.freeEnemy(e);
                 }
                 enemies.clear();
                 return count;
@@ -602,6 +699,9 @@ public void render(float delta) {
             togglePause();
         }
 
+        FrameProfiler profiler = FrameProfiler.getInstance();
+        profiler.beginFrame();
+
         Gdx.gl.glClearColor(0.05f, 0.05f, 0.1f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
@@ -610,13 +710,23 @@ public void render(float delta) {
         }
 
         renderGame(delta);
+        profiler.begin(FrameProfiler.Phase.HUD);
         renderHUD(delta);
+        profiler.end(FrameProfiler.Phase.HUD);
 
         if (isPaused) {
             uiStage.act(delta);
             uiStage.getViewport().apply();
             uiStage.draw();
         }
+
+        profiler.endFrame(game.getSpriteBatch());
+        if (profiler.isOverlayVisible()) {
+            if (perfOverlay == null) {
+                perfOverlay = new PerfOverlay();
+            }
+            perfOverlay.render(delta, game.getSpriteBatch(), game.getSkin().getFont("font"));
+        }
     }
 
     private void updateGame(float delta) {
@@ -630,8 +740,12 @@ private void updateGame(float delta) {
             }
         }
 
+        FrameProfiler profiler = FrameProfiler.getInstance();
+
         // 更新玩家定时器（攻击动画、受伤闪烁等）
+        profiler.begin(FrameProfiler.Phase.PLAYER);
         player.updateTimers(delta);
+        profiler.end(FrameProfiler.Phase.PLAYER);
 
         // 更新核心系统
         comboSystem.update(delta);
@@ -639,19 +753,25 @@ private void updateGame(float delta) {
         waveSystem.update(delta);
 
         // 更新玩家输入
+        profiler.begin(FrameProfiler.Phase.PLAYER);
         updatePlayerInput(delta);
+        profiler.end(FrameProfiler.Phase.PLAYER);
 
         // 更新区块加载
+        profiler.begin(FrameProfiler.Phase.CHUNKS);
         chunkManager.updateActiveChunks(player.getX(), player.getY());
+        profiler.end(FrameProfiler.Phase.CHUNKS);
 
         // 更新敌人
+        profiler.begin(FrameProfiler.Phase.ENEMIES);
         updateEnemies(delta);
+        profiler.end(FrameProfiler.Phase.ENEMIES);
 
         // 更新陷阱碰撞检测
         updateTraps(delta);
 
         // 更新浮动文字
-        updateFloatingTexts(delta);
+        combatText.update(delta);
 
         // 更新药水拾取
         updatePotions(delta);
@@ -810,7 +930,7 @@ private void performAttack() {
                     boolean killed = enemy.isDead();
 
                     // === Hit Feedback: Damage Number (伤害数值显示) ===
-                    floatingTexts.add(new FloatingText(enemy.getX(), enemy.getY(), "-" + damage, Color.RED));
+                    combatText.showDamage(enemy, enemy.getX(), enemy.getY(), damage, Color.RED);
                     AudioManager.getInstance().playSound("hit");
 
                     // === Hit Feedback: Knockback ===
@@ -838,9 +958,7 @@ private void onEnemyKilled(Enemy enemy) {
         currentScore += earnedScore;
 
         // 浮动分数显示
-        floatingTexts.add(new FloatingText(
-                enemy.getX(), enemy.getY() + 0.5f,
-                "+" + earnedScore, Color.GOLD));
+        combatText.showNumber(null, enemy.getX(), enemy.getY() + 0.5f, '+', earnedScore, Color.GOLD);
 
         // 掉落物品
         spawnDrops(enemy);
@@ -871,16 +989,14 @@ private void updatePotions(float delta) {
                 // 恢复生命
                 if (player.getLives() < player.getMaxHealth()) {
                     player.restoreHealth(1);
-                    floatingTexts.add(new FloatingText(
+                    combatText.showText(
                             player.getX(), player.getY() + 0.5f,
-                            "+1 HP", Color.GREEN));
+                            "+1 HP", Color.GREEN);
                     AudioManager.getInstance().playSound("pickup");
                 } else {
                     // 满血时转化为分数
                     currentScore += 50;
-                    floatingTexts.add(new FloatingText(
-                            player.getX(), player.getY() + 0.5f,
-                            "+50", Color.GOLD));
+                    combatText.showNumber(null, player.getX(), player.getY() + 0.5f, '+', 50, Color.GOLD);
                 }
                 potions.remove(i);
             }
@@ -888,93 +1004,250 @@ private void updatePotions(float delta) {
     }
 
     private void updateEnemies(float delta) {
-        // 移除死亡敌人（同时从空间网格中移除）
-        enemies.removeIf(e -> {
+        // 移除死亡敌人（同时从空间网格中移除，并归还对象池）
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            Enemy e = enemies.get(i);
             if (e.isDead() && e.isRemovable()) {
                 enemyGrid.remove(e);
-                return true;
+                enemies.remove(i);
+                EntityPools.freeEnemy(e);
             }
-            return false;
-        });
-
-        // 更新存活敌人 - 使用带碰撞检测的寻路逻辑
-        for (Enemy enemy : enemies) {
-            if (!enemy.isDead()) {
-                // 敌人AI - 追踪玩家，带碰撞检测
-                float dx = player.getX() - enemy.getX();
-                float dy = player.getY() - enemy.getY();
-                float dist = (float) Math.sqrt(dx * dx + dy * dy);
+        }
 
-                if (dist < 30 && dist > 0.5f) {
-                    // 追踪玩家，应用RAGE速度加成
-                    float speed = GameSettings.enemyChaseSpeed * rageSystem.getEnemySpeedMultiplier() * delta;
-
-                    // 轴对齐寻路：优先沿主轴移动，被阻挡时尝试次轴
-                    float moveX = 0;
-                    float moveY = 0;
-
-                    // 确定主轴和次轴
-                    boolean preferX = Math.abs(dx) > Math.abs(dy);
-
-                    if (preferX) {
-                        // 主轴X：尝试水平移动
-                        moveX = Math.signum(dx) * speed;
-                        if (!canEnemyMoveTo(enemy.getX() + moveX, enemy.getY())) {
-                            // X轴被阻挡，尝试Y轴
-                            moveX = 0;
-                            if (Math.abs(dy) > 0.1f) {
-                                moveY = Math.signum(dy) * speed;
-                                if (!canEnemyMoveTo(enemy.getX(), enemy.getY() + moveY)) {
-                                    moveY = 0; // 两个方向都被阻挡
-                                }
-                            }
-                        }
-                    } else {
-                        // 主轴Y：尝试垂直移动
-                        moveY = Math.signum(dy) * speed;
-                        if (!canEnemyMoveTo(enemy.getX(), enemy.getY() + moveY)) {
-                            // Y轴被阻挡，尝试X轴
-                            moveY = 0;
-                            if (Math.abs(dx) > 0.1f) {
-                                moveX = Math.signum(dx) * speed;
-                                if (!canEnemyMoveTo(enemy.getX() + moveX, enemy.getY())) {
-                                    moveX = 0; // 两个方向都被阻挡
-                                }
-                            }
+        // 玩家换格子时在后台重算共享距离场（本帧继续使用上一份结果）
+        hordeField.update((int) (player.getX() + 0.5f), (int) (player.getY() + 0.5f), this::isWallAt);
+
+        // 按距离分级：近处全速，中距离降频，远处冻结到区块
+        enemyTiers.beginFrame();
+        float px = player.getX();
+        float py = player.getY();
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            Enemy enemy = enemies.get(i);
+            if (enemy.isDead()) {
+                // 死亡动画/尸体计时
+                enemy.updateTimers(delta);
+                continue;
+            }
+            float dx = px - enemy.getX();
+            float dy = py - enemy.getY();
+            switch (enemyTiers.classify(dx * dx + dy * dy)) {
+                case FULL:
+                    updateEnemyFullRate(enemy, dx, dy, delta);
+                    break;
+                case REDUCED:
+                    enemy.deferUpdate(delta);
+                    if (enemyTiers.isReducedTick(enemy.getTickPhase())) {
+                        updateEnemyReducedRate(enemy, dx, dy, enemy.takeDeferredDelta());
+                    }
+                    break;
+                case DORMANT:
+                    if (!freezeEnemy(enemy, i)) {
+                        enemy.deferUpdate(delta);
+                        if (enemyTiers.isReducedTick(enemy.getTickPhase())) {
+                            enemy.updateTimers(enemy.takeDeferredDelta());
                         }
                     }
+                    break;
+            }
+        }
 
-                    // 应用移动（只有在可以移动时才更新位置）
-                    if (moveX != 0 || moveY != 0) {
-                        float newX = enemy.getX() + moveX;
-                        float newY = enemy.getY() + moveY;
-                        enemy.setPosition(newX, newY);
-                        // 更新空间网格
-                        enemyGrid.update(enemy, newX, newY);
+        wakeDormantEnemies();
+    }
+
+    /**
+     * 全速敌人：距离场寻路 + 滑墙 + 攻击玩家
+     */
+    private void updateEnemyFullRate(Enemy enemy, float dx, float dy, float delta) {
+        float dist = (float) Math.sqrt(dx * dx + dy * dy);
+
+        if (dist < EndlessModeConfig.ENEMY_CHASE_RADIUS && dist > 0.5f) {
+            // 追踪玩家，应用RAGE速度加成
+            float speed = GameSettings.enemyChaseSpeed * rageSystem.getEnemySpeedMultiplier() * delta;
+
+            float moveX = 0;
+            float moveY = 0;
+
+            if (hordeField.getDirection(enemy.getX(), enemy.getY(), ENEMY_COLLISION_SIZE, steerDir)) {
+                // 距离场寻路：朝距离最小的相邻格子移动
+                moveX = steerDir.x * speed;
+                moveY = steerDir.y * speed;
+                if (!canEnemyMoveTo(enemy.getX() + moveX, enemy.getY() + moveY)) {
+                    // 贴墙时退化为单轴移动
+                    if (canEnemyMoveTo(enemy.getX() + moveX, enemy.getY())) {
+                        moveY = 0;
+                    } else if (canEnemyMoveTo(enemy.getX(), enemy.getY() + moveY)) {
+                        moveX = 0;
+                    } else {
+                        moveX = 0;
+                        moveY = 0;
                     }
                 }
+            } else {
+                // 距离场未覆盖（重算中或不可达）：轴对齐贪心寻路
+                computeGreedyMove(enemy, dx, dy, speed, steerDir);
+                moveX = steerDir.x;
+                moveY = steerDir.y;
+            }
+
+            // 应用移动（只有在可以移动时才更新位置）
+            if (moveX != 0 || moveY != 0) {
+                float newX = enemy.getX() + moveX;
+                float newY = enemy.getY() + moveY;
+                enemy.setPosition(newX, newY);
+                // 更新空间网格
+                enemyGrid.update(enemy, newX, newY);
+            }
+        }
 
-                // 攻击玩家
-                if (dist < 0.8f) {
-                    int baseDamage = 1;
-                    int damage = (int) (baseDamage * rageSystem.getEnemyDamageMultiplier());
-                    if (player.damage(damage, enemy.getAttackDamageType())) {
-                        // === Hit Feedback: Player Knockback + Sound ===
-                        player.knockback(enemy.getX(), enemy.getY(), 1.5f);
-                        AudioManager.getInstance().playSound("hit");
+        // 攻击玩家
+        if (dist < 0.8f) {
+            int baseDamage = 1;
+            int damage = (int) (baseDamage * rageSystem.getEnemyDamageMultiplier());
+            if (player.damage(damage, enemy.getAttackDamageType())) {
+                // === Hit Feedback: Player Knockback + Sound ===
+                player.knockback(enemy.getX(), enemy.getY(), 1.5f);
+                AudioManager.getInstance().playSound("hit");
+            }
+        }
+
+        // === Update enemy timers (knockback physics, status effects, hurt flash) ===
+        enemy.updateTimers(delta);
+    }
+
+    /**
+     * 降频敌人：只沿距离场方向做一次整体碰撞检测的粗略移动（不滑墙，不攻击）
+     *
+     * @param delta 自上次更新以来累积的时间
+     */
+    private void updateEnemyReducedRate(Enemy enemy, float dx, float dy, float delta) {
+        float distSq = dx * dx + dy * dy;
+        float chase = EndlessModeConfig.ENEMY_CHASE_RADIUS;
+        if (distSq < chase * chase && hordeField.getDirection(enemy.getX(), enemy.getY(), ENEMY_COLLISION_SIZE, steerDir)) {
+            float speed = GameSettings.enemyChaseSpeed * rageSystem.getEnemySpeedMultiplier() * delta;
+            float newX = enemy.getX() + steerDir.x * speed;
+            float newY = enemy.getY() + steerDir.y * speed;
+            if (canEnemyMoveTo(newX, newY)) {
+                enemy.setPosition(newX, newY);
+                enemyGrid.update(enemy, newX, newY);
+            }
+        }
+        enemy.updateTimers(delta);
+    }
+
+    /**
+     * 把远离玩家的敌人冻结到所在区块
+     *
+     * @param index 敌人在 enemies 中的下标
+     * @return false 表示所在区块不在缓存中，敌人保持活跃
+     */
+    private boolean freezeEnemy(Enemy enemy, int index) {
+        MapChunk chunk = chunkManager.getChunkAtWorld(enemy.getX(), enemy.getY());
+        if (chunk == null || !chunk.containsWorldPosition(enemy.getX(), enemy.getY())) {
+            return false;
+        }
+        // 区块内休眠敌人已满时只保留最强的，避免玩家跑图时无限堆积，也不会丢掉 BOSS
+        List<MapChunk.DormantEnemy> dormant = chunk.getDormantEnemies();
+        if (dormant.size() < EndlessModeConfig.MAX_DORMANT_ENEMIES_PER_CHUNK) {
+            dormant.add(MapChunk.DormantEnemy.capture(enemy));
+            chunk.markModified();
+        } else {
+            int weakest = 0;
+            for (int i = 1; i < dormant.size(); i++) {
+                if (dormant.get(i).maxHealth < dormant.get(weakest).maxHealth) {
+                    weakest = i;
+                }
+            }
+            if (dormant.get(weakest).maxHealth < enemy.getMaxHealth()) {
+                dormant.set(weakest, MapChunk.DormantEnemy.capture(enemy));
+                chunk.markModified();
+            }
+        }
+        enemyGrid.remove(enemy);
+        enemies.remove(index);
+        EntityPools.freeEnemy(enemy);
+        return true;
+    }
+
+    /**
+     * 唤醒已加载区块中进入唤醒距离的休眠敌人
+     */
+    private void wakeDormantEnemies() {
+        float px = player.getX();
+        float py = player.getY();
+        float wake = EndlessModeConfig.ENEMY_WAKE_DISTANCE;
+        List<MapChunk> loaded = chunkManager.getLoadedChunks();
+        for (int c = 0; c < loaded.size(); c++) {
+            MapChunk chunk = loaded.get(c);
+            List<MapChunk.DormantEnemy> dormant = chunk.getDormantEnemies();
+            if (dormant.isEmpty()) {
+                continue;
+            }
+            // 区块矩形整体在唤醒距离外时跳过
+            float nearX = MathUtils.clamp(px, chunk.getWorldStartX(), chunk.getWorldEndX());
+            float nearY = MathUtils.clamp(py, chunk.getWorldStartY(), chunk.getWorldEndY());
+            float cdx = px - nearX;
+            float cdy = py - nearY;
+            if (cdx * cdx + cdy * cdy >= wake * wake) {
+                continue;
+            }
+            for (int i = dormant.size() - 1; i >= 0; i--) {
+                MapChunk.DormantEnemy d = dormant.get(i);
+                float dx = px - d.x;
+                float dy = py - d.y;
+                if (enemyTiers.shouldWake(dx * dx + dy * dy) && enemies.size() < MAX_ENEMIES) {
+                    reviveDormantAt(chunk, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * 轴对齐贪心寻路：优先沿主轴移动，被阻挡时尝试次轴
+     *
+     * @param out 输出本帧位移
+     */
+    private void computeGreedyMove(Enemy enemy, float dx, float dy, float speed, Vector2 out) {
+        float moveX = 0;
+        float moveY = 0;
+
+        // 确定主轴和次轴
+        boolean preferX = Math.abs(dx) > Math.abs(dy);
+
+        if (preferX) {
+            // 主轴X：尝试水平移动
+            moveX = Math.signum(dx) * speed;
+            if (!canEnemyMoveTo(enemy.getX() + moveX, enemy.getY())) {
+                // X轴被阻挡，尝试Y轴
+                moveX = 0;
+                if (Math.abs(dy) > 0.1f) {
+                    moveY = Math.signum(dy) * speed;
+                    if (!canEnemyMoveTo(enemy.getX(), enemy.getY() + moveY)) {
+                        moveY = 0; // 两个方向都被阻挡
+                    }
+                }
+            }
+        } else {
+            // 主轴Y：尝试垂直移动
+            moveY = Math.signum(dy) * speed;
+            if (!canEnemyMoveTo(enemy.getX(), enemy.getY() + moveY)) {
+                // Y轴被阻挡，尝试X轴
+                moveY = 0;
+                if (Math.abs(dx) > 0.1f) {
+                    moveX = Math.signum(dx) * speed;
+                    if (!canEnemyMoveTo(enemy.getX() + moveX, enemy.getY())) {
+                        moveX = 0; // 两个方向都被阻挡
                     }
                 }
             }
-            // === Update enemy timers (knockback physics, status effects, hurt flash) ===
-            enemy.updateTimers(delta);
         }
+        out.set(moveX, moveY);
     }
 
     /**
      * 检查敌人是否可以移动到指定位置（碰撞检测）
      */
     private boolean canEnemyMoveTo(float x, float y) {
-        float size = 0.9f; // 敌人碰撞箱大小
+        float size = ENEMY_COLLISION_SIZE;
         float padding = 0.05f;
 
         // 检查四个角
@@ -1007,7 +1280,7 @@ private void spawnEnemyNearPlayer() {
         int baseHealth = (int) (3 * waveSystem.getEnemyHealthMultiplier());
         if (baseHealth < 1)
             baseHealth = 1; // 最少1HP
-        Enemy enemy = new Enemy(spawnX, spawnY, baseHealth, DamageType.PHYSICAL, null, 0);
+        Enemy enemy = EntityPools.obtainEnemy(spawnX, spawnY, baseHealth, DamageType.PHYSICAL, null, 0);
 
         // 根据生成位置的主题分配敌人类型
         String theme = EndlessModeConfig.getThemeForPosition((int) spawnX, (int) spawnY);
@@ -1016,12 +1289,11 @@ private void spawnEnemyNearPlayer() {
         enemies.add(enemy);
         enemyGrid.insert(enemy, spawnX, spawnY); // 插入空间网格
         // 绑定溅血粒子监听器
-        enemy.setDamageListener(
-                (x, y, amount, dirX, dirY, knockback) -> bloodParticles.spawn(x, y, amount, dirX, dirY, knockback));
+        enemy.setDamageListener(enemyBloodListener);
     }
 
     private void spawnBossNearPlayer() {
-        // 与普通敌人相同的刷新位置逻辑
+        // 在刷新圈外缘生成（休眠距离严格大于刷新距离，生成后不会立即被冻结）
         float angle = spawnRandom.nextFloat() * 360f * MathUtils.degreesToRadians;
         float distance = EndlessModeConfig.SPAWN_MAX_DISTANCE;
 
@@ -1036,7 +1308,8 @@ private void spawnBossNearPlayer() {
 
         // BOSS有更高的血量，带护盾
         int bossHealth = 300 + (int) (waveSystem.getEnemyHealthMultiplier() * 100);
-        Enemy boss = new Enemy(spawnX, spawnY, bossHealth, DamageType.MAGICAL, DamageType.PHYSICAL, 50);
+        Enemy boss = EntityPools.obtainEnemy(spawnX, spawnY, bossHealth, DamageType.MAGICAL, DamageType.PHYSICAL,
+                50);
 
         // 根据生成位置的主题分配敌人类型
         String theme = EndlessModeConfig.getThemeForPosition((int) spawnX, (int) spawnY);
@@ -1045,21 +1318,9 @@ private void spawnBossNearPlayer() {
         enemies.add(boss);
         enemyGrid.insert(boss, spawnX, spawnY); // 插入空间网格
         // 绑定溅血粒子监听器
-        boss.setDamageListener(
-                (x, y, amount, dirX, dirY, knockback) -> bloodParticles.spawn(x, y, amount, dirX, dirY, knockback));
+        boss.setDamageListener(enemyBloodListener);
 
-        floatingTexts.add(new FloatingText(
-                spawnX, spawnY + 1, "BOSS!", Color.RED));
-    }
-
-    private void updateFloatingTexts(float delta) {
-        for (int i = floatingTexts.size() - 1; i >= 0; i--) {
-            FloatingText ft = floatingTexts.get(i);
-            ft.update(delta);
-            if (ft.isExpired()) {
-                floatingTexts.remove(i);
-            }
-        }
+        combatText.showText(spawnX, spawnY + 1, "BOSS!", Color.RED);
     }
 
     private boolean isWallAt(int x, int y) {
@@ -1067,13 +1328,8 @@ private boolean isWallAt(int x, int y) {
         if (chunk == null)
             return true;
 
-        for (WallEntity wall : chunk.getWalls()) {
-            if (x >= wall.getOriginX() && x < wall.getOriginX() + wall.getGridWidth() &&
-                    y >= wall.getOriginY() && y < wall.getOriginY() + wall.getGridHeight()) {
-                return true;
-            }
-        }
-        return false;
+        // O(1) 区块格子索引查询
+        return chunk.isWallAt(x, y);
     }
 
     /**
@@ -1085,16 +1341,10 @@ private boolean isWallAt(int x, int y) {
      * @return 是否被墙体占用
      */
     private boolean isWallAtInChunk(MapChunk chunk, int worldX, int worldY) {
-        for (WallEntity wall : chunk.getWalls()) {
-            // [FIX] Use collision height, not visual grid height, to determine if this tile
-            // should stand as a "wall base". This allows visuals to extend over walkable
-            // floor.
-            if (worldX >= wall.getOriginX() && worldX < wall.getOriginX() + wall.getGridWidth() &&
-                    worldY >= wall.getOriginY() && worldY < wall.getOriginY() + wall.getCollisionHeight()) {
-                return true;
-            }
-        }
-        return false;
+        // [FIX] Use collision height, not visual grid height, to determine if this tile
+        // should stand as a "wall base". This allows visuals to extend over walkable
+        // floor.
+        return chunk.isSolidAt(worldX, worldY);
     }
 
     /**
@@ -1112,52 +1362,34 @@ private boolean canPlayerMoveTo(float x, float y) {
     }
 
     private void renderGame(float delta) {
+        FrameProfiler profiler = FrameProfiler.getInstance();
         gameViewport.apply();
         updateCamera(delta);
 
-        game.getSpriteBatch().setProjectionMatrix(camera.combined);
-        game.getSpriteBatch().begin();
-
         // 1. 渲染地板 (背景层)
         // [FIX] 每个区块使用自己的主题纹理，而不是使用玩家位置的主题
-        // 这样确保不同主题区域保持各自的地板纹理
-        for (MapChunk chunk : chunkManager.getLoadedChunks()) {
-            // 获取该区块的主题（优先使用区块存储的主题，否则根据区块中心坐标计算）
-            String chunkTheme = chunk.getTheme();
-            if (chunkTheme == null) {
-                chunkTheme = EndlessModeConfig.getThemeForPosition(
-                        chunk.getWorldStartX() + chunk.getSize() / 2,
-                        chunk.getWorldStartY() + chunk.getSize() / 2);
-            }
-            TextureRegion floor = getFloorTextureForTheme(chunkTheme);
-
-            int startX = chunk.getWorldStartX();
-            int startY = chunk.getWorldStartY();
-            int endX = startX + chunk.getSize();
-            int endY = startY + chunk.getSize();
+        // 地板在区块加载时已烘焙进 ChunkFloorCache，这里只对可见区块各发一次绘制调用
+        profiler.begin(FrameProfiler.Phase.FLOOR);
+        floorCache.render(camera);
+        profiler.end(FrameProfiler.Phase.FLOOR);
 
-            for (int y = startY; y < endY; y++) {
-                for (int x = startX; x < endX; x++) {
-                    game.getSpriteBatch().draw(floor, x * UNIT_SCALE, y * UNIT_SCALE, UNIT_SCALE, UNIT_SCALE);
-                }
-            }
-        }
+        game.getSpriteBatch().setProjectionMatrix(camera.combined);
 
-        // === Render Dust Particles (Behind entities, on top of floor) ===
-        game.getSpriteBatch().end();
-        dustParticles.update(Gdx.graphics.getDeltaTime());
+        // === 粒子：每帧更新一次，尘土层画在地板之上、实体之下 ===
+        profiler.begin(FrameProfiler.Phase.PARTICLES);
+        particles.update(Gdx.graphics.getDeltaTime());
         if (player.isMoving() && !isPaused) {
             // Spawn dust occasionally
             if (Math.random() < 0.3f) {
-                // Endless mode default dirt color
-                Color themeColor = new Color(0.5f, 0.45f, 0.35f, 1f);
-                dustParticles.spawn(player.getX(), player.getY(), themeColor);
+                particles.emitDust(player.getX(), player.getY(), DUST_COLOR);
             }
         }
-        dustParticles.render(camera.combined);
         game.getSpriteBatch().begin();
+        particles.render(game.getSpriteBatch(), textureManager.whitePixel, ParticleEngine.LAYER_GROUND);
+        profiler.end(FrameProfiler.Phase.PARTICLES);
 
         // 1.5 渲染陷阱 (Traps) - 在地板上方、实体下方
+        profiler.begin(FrameProfiler.Phase.ENTITIES);
         for (MapChunk chunk : chunkManager.getLoadedChunks()) {
             String chunkTheme = chunk.getTheme();
             if (chunkTheme == null) {
@@ -1198,14 +1430,18 @@ private void renderGame(float delta) {
         }
         // 玩家
         renderPlayer();
+        profiler.end(FrameProfiler.Phase.ENTITIES);
 
         // 3. 渲染墙体 (Foreground/Cover)
         // 用户要求：玩家全程在墙图层下方 (被墙遮挡)
+        profiler.begin(FrameProfiler.Phase.WALLS);
         for (MapChunk chunk : chunkManager.getLoadedChunks()) {
             for (WallEntity wall : chunk.getWalls()) {
                 renderWall(wall);
             }
         }
+        profiler.end(FrameProfiler.Phase.WALLS);
+        profiler.begin(FrameProfiler.Phase.ENTITIES);
 
         // 渲染药水掉落物
         for (Potion potion : potions) {
@@ -1218,14 +1454,7 @@ private void renderGame(float delta) {
         }
 
         // 渲染浮动文字
-        com.badlogic.gdx.graphics.g2d.BitmapFont font = game.getSkin().getFont("font");
-        font.getData().setScale(0.3f);
-        for (FloatingText ft : floatingTexts) {
-            font.setColor(ft.color);
-            font.draw(game.getSpriteBatch(), ft.text, ft.x * UNIT_SCALE, ft.y * UNIT_SCALE + 16);
-        }
-        font.setColor(Color.WHITE);
-        font.getData().setScale(1f);
+        combatText.render(game.getSpriteBatch(), game.getSkin().getFont("font"), UNIT_SCALE);
 
         // 6. Overlay Pass: Health Bars (Always on top of walls)
         for (Enemy e : enemies) {
@@ -1237,18 +1466,22 @@ private void renderGame(float delta) {
                 renderHealthBar(e, x, y, w, h);
             }
         }
+        profiler.end(FrameProfiler.Phase.ENTITIES);
 
         // 迷雾效果
         game.getSpriteBatch().setColor(Color.WHITE);
         float pcX = player.getX() * UNIT_SCALE + UNIT_SCALE / 2;
         float pcY = player.getY() * UNIT_SCALE + UNIT_SCALE / 2;
+        profiler.begin(FrameProfiler.Phase.FOG);
         fogRenderer.render(pcX, pcY, camera);
+        profiler.end(FrameProfiler.Phase.FOG);
 
-        game.getSpriteBatch().end();
+        // === 溅血粒子：同一批次内画在最上层 ===
+        profiler.begin(FrameProfiler.Phase.PARTICLES);
+        particles.render(game.getSpriteBatch(), textureManager.whitePixel, ParticleEngine.LAYER_EFFECT);
+        profiler.end(FrameProfiler.Phase.PARTICLES);
 
-        // === 渲染溅血粒子 ===
-        bloodParticles.update(Gdx.graphics.getDeltaTime());
-        bloodParticles.render(camera.combined);
+        game.getSpriteBatch().end();
 
         // === 渲染准星 (Crosshair) - 仅在鼠标模式启用时显示 ===
         if (crosshairRenderer != null && GameSettings.isUseMouseAiming() && !isPaused && !isConsoleOpen
@@ -1382,6 +1615,19 @@ private void renderHealthBar(Enemy e, float x, float y, float w, float h) {
         game.getSpriteBatch().begin();
     }
 
+    /**
+     * 获取区块主题（优先使用区块存储的主题，否则根据区块中心坐标计算）
+     */
+    private String getChunkTheme(MapChunk chunk) {
+        String chunkTheme = chunk.getTheme();
+        if (chunkTheme == null) {
+            chunkTheme = EndlessModeConfig.getThemeForPosition(
+                    chunk.getWorldStartX() + chunk.getSize() / 2,
+                    chunk.getWorldStartY() + chunk.getSize() / 2);
+        }
+        return chunkTheme;
+    }
+
     private TextureRegion getFloorTextureForTheme(String theme) {
         switch (theme) {
             case "Grassland":
@@ -1527,14 +1773,7 @@ private void renderEquippedWeapon(Player player, int dir) {
      * 根据武器名称查找自定义武器元素ID
      */
     private String findCustomWeaponId(String weaponName) {
-        for (de.tum.cit.fop.maze.custom.CustomElementDefinition def : de.tum.cit.fop.maze.custom.CustomElementManager
-                .getInstance().getAllElements()) {
-            if (def.getType() == de.tum.cit.fop.maze.custom.ElementType.WEAPON &&
-                    def.getName().equalsIgnoreCase(weaponName)) {
-                return def.getId();
-            }
-        }
-        return null;
+        return de.tum.cit.fop.maze.custom.CustomElementManager.getInstance().findWeaponId(weaponName);
     }
 
     private void updateCamera(float delta) {
@@ -1573,6 +1812,8 @@ private void renderConsole(float delta) {
     private void togglePause() {
         isPaused = !isPaused;
         pauseTable.setVisible(isPaused);
+        if (isPaused)
+            de.tum.cit.fop.maze.utils.AchievementManager.flush();
     }
 
     private void toggleConsole() {
@@ -1618,8 +1859,20 @@ private void saveEndlessGame() {
                 currentScore,
                 EndlessModeConfig.getThemeForPosition((int) player.getX(), (int) player.getY()));
 
-        // TODO: 调用SaveManager保存无尽模式存档
-        GameLogger.info("EndlessGameScreen", "Game saved: " + state);
+        state.worldSeed = worldSeed;
+
+        // 活跃敌人和药水按所在区块拍快照，与休眠敌人一起落盘；游戏中的对象保持不动
+        Map<MapChunk, ChunkStore.LiveContents> live = new HashMap<>();
+        for (MapChunk chunk : chunkManager.getLoadedChunks()) {
+            ChunkStore.LiveContents contents = captureChunkContents(chunk);
+            if (!contents.isEmpty()) {
+                live.put(chunk, contents);
+            }
+        }
+        int regions = chunkManager.saveWorld(live);
+
+        SaveManager.saveEndlessGame(state);
+        GameLogger.info("EndlessGameScreen", "Game saved: " + state + " (" + regions + " region file(s) written)");
     }
 
     // === 设置界面截图背景 ===
@@ -1773,9 +2026,7 @@ private void updateTraps(float delta) {
                     // 造成陷阱伤害
                     boolean damaged = player.damage(1, DamageType.PHYSICAL);
                     if (damaged) {
-                        floatingTexts.add(new FloatingText(
-                                player.getX(), player.getY() + 0.5f,
-                                "-1", Color.RED));
+                        combatText.showDamage(player, player.getX(), player.getY() + 0.5f, 1, Color.RED);
                     }
                 }
             }
@@ -1821,9 +2072,9 @@ private void updateChests(float delta) {
                         // 领取奖励（claimReward 内部会应用到玩家）
                         boolean success = chest.claimReward(player);
                         if (success && chest.getReward() != null) {
-                            floatingTexts.add(new FloatingText(
+                            combatText.showText(
                                     chest.getX(), chest.getY() + 0.5f,
-                                    chest.getReward().getDisplayName(), Color.YELLOW));
+                                    chest.getReward().getDisplayName(), Color.YELLOW);
                             AudioManager.getInstance().playSound("pickup");
                         }
                     } else {
@@ -1838,9 +2089,9 @@ public void onChestOpened(ChestReward reward) {
                                 // 领取奖励
                                 if (reward != null) {
                                     reward.applyToPlayer(player);
-                                    floatingTexts.add(new FloatingText(
+                                    combatText.showText(
                                             chest.getX(), chest.getY() + 0.5f,
-                                            reward.getDisplayName(), Color.CYAN));
+                                            reward.getDisplayName(), Color.CYAN);
                                     AudioManager.getInstance().playSound("collect");
                                 }
                                 chest.startOpening();
@@ -1902,10 +2153,12 @@ public void show() {
 
     @Override
     public void hide() {
+        de.tum.cit.fop.maze.utils.AchievementManager.flush();
     }
 
     @Override
     public void pause() {
+        de.tum.cit.fop.maze.utils.AchievementManager.flush();
         isPaused = true;
         pauseTable.setVisible(true);
     }
@@ -1923,21 +2176,32 @@ public void dispose() {
             hud.dispose();
         if (mazeRenderer != null)
             mazeRenderer.dispose();
+        if (chunkManager != null)
+            chunkManager.dispose();
+        if (floorCache != null)
+            floorCache.dispose();
+        if (hordeField != null)
+            hordeField.dispose();
         if (fogRenderer != null)
             fogRenderer.dispose();
         if (shapeRenderer != null)
             shapeRenderer.dispose();
+        if (perfOverlay != null)
+            perfOverlay.dispose();
         if (grayscaleShader != null)
             grayscaleShader.dispose();
-        if (bloodParticles != null)
-            bloodParticles.dispose();
-        if (dustParticles != null)
-            dustParticles.dispose();
         // 清理设置界面相关资源
         if (settingsScreenshotTexture != null)
             settingsScreenshotTexture.dispose();
         if (settingsUI != null)
             settingsUI.dispose();
+        // 敌人归还对象池，下一局无尽模式直接复用
+        if (enemies != null) {
+            for (Enemy e : enemies) {
+                EntityPools.freeEnemy(e);
+            }
+            enemies.clear();
+        }
     }
 
     private Color getThemeColor(String theme) {
@@ -23,7 +23,6 @@
 import com.badlogic.gdx.utils.viewport.Viewport;
 import de.tum.cit.fop.maze.MazeRunnerGame;
 import de.tum.cit.fop.maze.config.GameSettings;
-import de.tum.cit.fop.maze.effects.FloatingText;
 import de.tum.cit.fop.maze.model.*;
 import de.tum.cit.fop.maze.model.items.Potion;
 import de.tum.cit.fop.maze.model.weapons.Weapon;
@@ -31,7 +30,9 @@
 import de.tum.cit.fop.maze.ui.InventoryUI;
 import de.tum.cit.fop.maze.ui.ChestInteractUI;
 import de.tum.cit.fop.maze.utils.AchievementManager;
-import de.tum.cit.fop.maze.utils.BloodParticleSystem;
+import de.tum.cit.fop.maze.utils.FrameProfiler;
+import de.tum.cit.fop.maze.utils.ParticleEngine;
+import de.tum.cit.fop.maze.utils.PerfOverlay;
 import de.tum.cit.fop.maze.utils.AchievementUnlockInfo;
 import de.tum.cit.fop.maze.utils.MapLoader;
 import de.tum.cit.fop.maze.utils.SaveManager;
@@ -54,6 +55,9 @@ public class GameScreen implements Screen, GameWorld.WorldListener {
 
     // --- Logic / Model ---
     private GameWorld gameWorld;
+    private long worldSeed; // 当前关卡的世界种子（写入日志，回放时使用）
+    private de.tum.cit.fop.maze.sim.RecordingInputSource recorder; // 控制台 "record" 开启时录制输入
+    private boolean recordNextWorld;
 
     // --- View / UI ---
     private GameHUD hud;
@@ -63,8 +67,8 @@ public class GameScreen implements Screen, GameWorld.WorldListener {
     private de.tum.cit.fop.maze.utils.FogRenderer fogRenderer;
     private de.tum.cit.fop.maze.utils.CrosshairRenderer crosshairRenderer;
     private de.tum.cit.fop.maze.utils.PlayerRenderer playerRenderer;
-    private BloodParticleSystem bloodParticles;
-    private de.tum.cit.fop.maze.utils.DustParticleSystem dustParticles;
+    private ParticleEngine particles; // 溅血、尘土、魔法命中
+    private PerfOverlay perfOverlay; // 帧耗时曲线（控制台 "perf graph" 打开时创建）
 
     // --- Developer Console ---
     private de.tum.cit.fop.maze.utils.DeveloperConsole developerConsole;
@@ -198,7 +202,12 @@ public GameScreen(MazeRunnerGame game, String mapPath, boolean loadPersistentSta
     }
 
     private void initGameWorld(String mapPath) {
+        // 换关或重开时保存上一段录像
+        stopRecording();
         this.currentLevelPath = mapPath;
+        // 先播种再加载：地图加载时创建的敌人也会消耗共享随机数
+        worldSeed = new java.util.Random().nextLong();
+        GameWorld.seedSharedRandom(worldSeed);
         GameMap map = MapLoader.loadMap(mapPath);
 
         // Biome Logic - Theme order: 草原, 丛林, 荒漠, 冰原, 太空船
@@ -216,26 +225,21 @@ else if (mapPath.contains("level-5"))
         else
             biomeColor = Color.WHITE;
 
-        this.gameWorld = new GameWorld(map, mapPath);
+        this.gameWorld = new GameWorld(map, mapPath, worldSeed);
         this.gameWorld.setListener(this);
+        GameLogger.info("GameScreen", "World seed: " + worldSeed + " (" + mapPath + ")");
+        if (recordNextWorld) {
+            recordNextWorld = false;
+            recorder = new de.tum.cit.fop.maze.sim.RecordingInputSource(de.tum.cit.fop.maze.sim.InputSource.GDX);
+            recorder.getTape().setOrigin(mapPath, worldSeed);
+            gameWorld.setInputSource(recorder);
+            GameLogger.info("GameScreen", "Recording input for replay");
+        }
 
         // === 注册投射物命中粒子效果监听器 ===
-        this.gameWorld.setProjectileHitListener((x, y, textureKey, damage, effect) -> {
-            // 基于效果类型生成不同颜色的粒子
-            if (effect == de.tum.cit.fop.maze.model.weapons.WeaponEffect.SLOW) {
-                // Magic Wand: 蓝色爆炸粒子
-                Color blueColor = new Color(0.3f, 0.5f, 1.0f, 1.0f);
-                bloodParticles.spawn(x, y, 8, 0, 0, 1.5f, blueColor);
-            } else if (effect == de.tum.cit.fop.maze.model.weapons.WeaponEffect.FREEZE) {
-                // Ice Bow: 冰蓝色爆炸粒子
-                Color iceColor = new Color(0.6f, 0.9f, 1.0f, 1.0f);
-                bloodParticles.spawn(x, y, 12, 0, 0, 2.0f, iceColor);
-            } else if (effect == de.tum.cit.fop.maze.model.weapons.WeaponEffect.BURN) {
-                // Fire Staff: 橙红色粒子
-                Color fireColor = new Color(1.0f, 0.4f, 0.1f, 1.0f);
-                bloodParticles.spawn(x, y, 5, 0, 0, 0.8f, fireColor);
-            }
-        });
+        // 基于效果类型生成不同颜色的粒子
+        this.gameWorld.setProjectileHitListener(
+                (x, y, textureKey, damage, effect) -> particles.emitMagicHit(x, y, effect));
 
         if (hud != null)
             hud.dispose();
@@ -266,24 +270,23 @@ else if (mapPath.contains("level-5"))
             de.tum.cit.fop.maze.utils.AudioManager.getInstance().playThemeBgm(map.getTheme());
         }
 
-        // === Initialize Blood Particle System ===
-        if (bloodParticles == null) {
-            this.bloodParticles = new BloodParticleSystem();
-            this.dustParticles = new de.tum.cit.fop.maze.utils.DustParticleSystem();
+        // === Initialize Particle Engine ===
+        if (particles == null) {
+            this.particles = new ParticleEngine();
             this.crosshairRenderer = new de.tum.cit.fop.maze.utils.CrosshairRenderer();
         } else {
-            bloodParticles.clear();
+            particles.clear();
         }
         // Wire up damage listeners
         // Wire up damage listeners (Player) [Correct Dark Blue Color]
         gameWorld.getPlayer().setDamageListener(
-                (x, y, amount, dirX, dirY, knockback) -> bloodParticles.spawn(x, y, amount, dirX, dirY, knockback,
-                        new Color(0.0f, 0.0f, 0.5f, 1.0f)));
+                (x, y, amount, dirX, dirY, knockback) -> particles.emitBlood(x, y, amount, dirX, dirY, knockback,
+                        ParticleEngine.PLAYER_BLOOD));
 
         // Wire up damage listeners (Enemies)
         for (Enemy enemy : gameWorld.getEnemies()) {
             enemy.setDamageListener(
-                    (x, y, amount, dirX, dirY, knockback) -> bloodParticles.spawn(x, y, amount, dirX, dirY, knockback));
+                    (x, y, amount, dirX, dirY, knockback) -> particles.emitBlood(x, y, amount, dirX, dirY, knockback));
         }
 
         setInputProcessors();
@@ -491,6 +494,9 @@ public void render(float delta) {
             toggleInventory();
         }
 
+        FrameProfiler profiler = FrameProfiler.getInstance();
+        profiler.beginFrame();
+
         Gdx.gl.glClearColor(0.1f, 0.1f, 0.1f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
@@ -524,15 +530,11 @@ public void render(float delta) {
             // === Fire Staff 开火粒子效果 ===
             if (gameWorld.consumeFireEvent()) {
                 // 使用橙红色火焰粒子
-                Color fireColor = new Color(1.0f, 0.4f, 0.1f, 1.0f);
-                bloodParticles.spawn(
+                particles.emitMuzzleFire(
                         gameWorld.getLastFireX(),
                         gameWorld.getLastFireY(),
-                        5, // 中等粒子数量
                         gameWorld.getLastFireDirX(),
-                        gameWorld.getLastFireDirY(),
-                        0.8f, // 扩散强度
-                        fireColor);
+                        gameWorld.getLastFireDirY());
             }
         } else {
             updateCamera(0); // Still update camera if needed (e.g. initial frame)
@@ -576,24 +578,27 @@ public void render(float delta) {
         // For now, let's keep it clean since we are generating a specific texture.
         game.getSpriteBatch().setColor(Color.WHITE);
 
+        profiler.begin(FrameProfiler.Phase.FLOOR);
         mazeRenderer.renderFloor(gameMap, camera, currentFloor);
+        profiler.end(FrameProfiler.Phase.FLOOR);
         game.getSpriteBatch().setColor(Color.WHITE); // Reset
 
-        game.getSpriteBatch().end();
-        // === Render Dust Particles (Behind entities, on top of floor) ===
-        dustParticles.update(delta);
+        // === Particles: update once, dust layer behind entities, on top of floor ===
+        profiler.begin(FrameProfiler.Phase.PARTICLES);
+        particles.update(delta);
         if (player.isMoving() && !isPaused) {
             // Spawn dust occasionally (random chance per frame)
             if (Math.random() < 0.3f) {
                 String currentTheme = gameWorld.getGameMap().getTheme();
                 Color themeColor = getThemeColor(currentTheme);
-                dustParticles.spawn(player.getX(), player.getY(), themeColor);
+                particles.emitDust(player.getX(), player.getY(), themeColor);
             }
         }
-        dustParticles.render(camera.combined);
-        game.getSpriteBatch().begin();
+        particles.render(game.getSpriteBatch(), textureManager.whitePixel, ParticleEngine.LAYER_GROUND);
+        profiler.end(FrameProfiler.Phase.PARTICLES);
 
         // 2. Render Static Dynamic Objects
+        profiler.begin(FrameProfiler.Phase.ENTITIES);
         for (GameObject obj : gameMap.getDynamicObjects()) {
             if (obj instanceof Enemy || obj instanceof MobileTrap)
                 continue;
@@ -853,13 +858,18 @@ else if (obj instanceof Weapon) {
             }
         }
 
+        profiler.end(FrameProfiler.Phase.ENTITIES);
+
         // 6.8 Render Walls (Strict Layering: Always above players)
         game.getSpriteBatch().setColor(Color.WHITE); // Defensive reset
         game.getSpriteBatch().setShader(null); // Defensive reset
+        profiler.begin(FrameProfiler.Phase.WALLS);
         mazeRenderer.renderWalls(gameMap, camera, stateTime);
+        profiler.end(FrameProfiler.Phase.WALLS);
 
         // 6.9 UI Overlay Pass (Health Bars & Floating Texts - Always on top of Walls)
         // 1. Health Bars
+        profiler.begin(FrameProfiler.Phase.ENTITIES);
         for (Enemy e : gameWorld.getEnemies()) {
             renderRadius = de.tum.cit.fop.maze.config.GameConfig.ENTITY_RENDER_RADIUS;
             float dx = e.getX() - gameWorld.getPlayer().getX();
@@ -897,14 +907,8 @@ else if (obj instanceof Weapon) {
         }
 
         // 2. Floating Texts
-        com.badlogic.gdx.graphics.g2d.BitmapFont font = game.getSkin().getFont("font");
-        font.getData().setScale(0.3f);
-        for (FloatingText ft : gameWorld.getFloatingTexts()) {
-            font.setColor(ft.color);
-            font.draw(game.getSpriteBatch(), ft.text, ft.x * UNIT_SCALE, ft.y * UNIT_SCALE + 16);
-        }
-        font.setColor(Color.WHITE);
-        font.getData().setScale(1f);
+        gameWorld.getCombatText().render(game.getSpriteBatch(), game.getSkin().getFont("font"), UNIT_SCALE);
+        profiler.end(FrameProfiler.Phase.ENTITIES);
 
         // 7. Render Fog of War (渐变迷雾效果)
         // 必须在所有游戏元素渲染完成后、batch.end() 之前渲染
@@ -913,13 +917,16 @@ else if (obj instanceof Weapon) {
         game.getSpriteBatch().setColor(Color.WHITE);
         float playerCenterX = player.getX() * UNIT_SCALE + UNIT_SCALE / 2;
         float playerCenterY = player.getY() * UNIT_SCALE + UNIT_SCALE / 2;
+        profiler.begin(FrameProfiler.Phase.FOG);
         fogRenderer.render(playerCenterX, playerCenterY, camera);
+        profiler.end(FrameProfiler.Phase.FOG);
 
-        game.getSpriteBatch().end();
+        // === Blood / magic particles on top of everything, same batch ===
+        profiler.begin(FrameProfiler.Phase.PARTICLES);
+        particles.render(game.getSpriteBatch(), textureManager.whitePixel, ParticleEngine.LAYER_EFFECT);
+        profiler.end(FrameProfiler.Phase.PARTICLES);
 
-        // === Render Blood Particles (after main batch, before HUD) ===
-        bloodParticles.update(delta);
-        bloodParticles.render(camera.combined);
+        game.getSpriteBatch().end();
 
         // === 渲染准星 (Crosshair) - 仅在鼠标模式启用时显示 ===
         if (crosshairRenderer != null && GameSettings.isUseMouseAiming() && !isPaused && !isConsoleOpen
@@ -928,9 +935,11 @@ else if (obj instanceof Weapon) {
             crosshairRenderer.render(camera, mousePos.x * UNIT_SCALE, mousePos.y * UNIT_SCALE);
         }
 
+        profiler.begin(FrameProfiler.Phase.HUD);
         hud.getStage().getViewport().apply();
         hud.update(delta);
         hud.render();
+        profiler.end(FrameProfiler.Phase.HUD);
 
         // === NEW: Display achievement popups ===
         List<String> newAchievements = gameWorld.getAndClearNewAchievements();
@@ -948,6 +957,14 @@ else if (obj instanceof Weapon) {
             uiStage.getViewport().apply();
             uiStage.draw();
         }
+
+        profiler.endFrame(game.getSpriteBatch());
+        if (profiler.isOverlayVisible()) {
+            if (perfOverlay == null) {
+                perfOverlay = new PerfOverlay();
+            }
+            perfOverlay.render(delta, game.getSpriteBatch(), game.getSkin().getFont("font"));
+        }
     }
 
     private void renderPlayer(Player player) {
@@ -1073,14 +1090,7 @@ private void renderEquippedWeapon(Player player, int dir) {
      * 根据武器名称查找自定义武器元素ID
      */
     private String findCustomWeaponId(String weaponName) {
-        for (de.tum.cit.fop.maze.custom.CustomElementDefinition def : de.tum.cit.fop.maze.custom.CustomElementManager
-                .getInstance().getAllElements()) {
-            if (def.getType() == de.tum.cit.fop.maze.custom.ElementType.WEAPON &&
-                    def.getName().equalsIgnoreCase(weaponName)) {
-                return def.getId();
-            }
-        }
-        return null;
+        return de.tum.cit.fop.maze.custom.CustomElementManager.getInstance().findWeaponId(weaponName);
     }
 
     private void updateCamera(float delta) {
@@ -1248,9 +1258,50 @@ public void onWin() {
                 toggleConsole();
                 onVictory(currentLevelPath);
             }
+
+            @Override
+            public boolean onStartRecording() {
+                // 录像必须从关卡第一帧开始，才能用种子重建同一局
+                toggleConsole();
+                recordNextWorld = true;
+                initGameWorld(currentLevelPath);
+                setupDeveloperConsole();
+                return true;
+            }
+
+            @Override
+            public String onStopRecording() {
+                return stopRecording();
+            }
         });
     }
 
+    /**
+     * 停止录制并把输入带保存到 replays/ 目录
+     *
+     * @return 保存路径；未在录制时返回 null
+     */
+    private String stopRecording() {
+        if (recorder == null) {
+            return null;
+        }
+        de.tum.cit.fop.maze.sim.InputTape tape = recorder.getTape();
+        recorder = null;
+        if (gameWorld != null) {
+            gameWorld.setInputSource(de.tum.cit.fop.maze.sim.InputSource.GDX);
+        }
+        String level = new FileHandle(tape.getLevelPath()).nameWithoutExtension();
+        FileHandle file = Gdx.files.local("replays/" + level + "-" + Long.toHexString(tape.getSeed()) + ".tape");
+        try {
+            tape.save(file);
+        } catch (RuntimeException e) {
+            GameLogger.error("GameScreen", "Could not save input tape: " + e.getMessage());
+            return null;
+        }
+        GameLogger.info("GameScreen", "Input tape saved: " + file.path() + " (" + tape.getLength() + " frames)");
+        return file.path();
+    }
+
     /**
      * 切换开发者控制台显示状态
      */
@@ -1440,6 +1491,8 @@ public void changed(ChangeEvent e, Actor a) {
     private void togglePause() {
         isPaused = !isPaused;
         pauseTable.setVisible(isPaused);
+        if (isPaused)
+            de.tum.cit.fop.maze.utils.AchievementManager.flush();
         setInputProcessors();
     }
 
@@ -1483,10 +1536,10 @@ public void dispose() {
             fogRenderer.dispose();
         if (attackRangeRenderer != null)
             attackRangeRenderer.dispose();
+        if (perfOverlay != null)
+            perfOverlay.dispose();
         if (grayscaleShader != null)
             grayscaleShader.dispose();
-        if (dustParticles != null)
-            dustParticles.dispose();
         // 清理设置界面相关资源
         if (settingsUI != null)
             settingsUI.dispose();
@@ -1494,6 +1547,7 @@ public void dispose() {
 
     @Override
     public void pause() {
+        de.tum.cit.fop.maze.utils.AchievementManager.flush();
     }
 
     @Override
@@ -1510,6 +1564,8 @@ public void show() {
 
     @Override
     public void hide() {
+        de.tum.cit.fop.maze.utils.AchievementManager.flush();
+        stopRecording();
     }
 
     /**
@@ -25,8 +25,8 @@
  * 
  * 工作流程:
  * 1. 显示加载画面 (warmup阶段)
- * 2. 获取预加载任务列表
- * 3. 每帧加载一部分资源，更新进度条
+ * 2. 后台线程解码/打包精灵图，渲染线程每帧在时间预算内上传纹理
+ * 3. 按实际字节/帧数更新进度条，之后在同一预算内构建动画
  * 4. 完成后跳转到GameScreen
  */
 public class LoadingScreen implements Screen {
@@ -42,7 +42,12 @@ public class LoadingScreen implements Screen {
 
     private List<String[]> preloadTasks;
     private int currentTaskIndex = 0;
-    private int tasksPerFrame = 2; // 每帧加载的任务数（调低以避免帧卡顿）
+    // 每帧用于纹理上传/动画构建的时间预算（毫秒），代替固定任务数
+    private static final float FRAME_BUDGET_MS = 4f;
+    // 进度条中精灵解码阶段所占比例，其余为动画构建
+    private static final float DECODE_PROGRESS_SHARE = 0.9f;
+
+    private de.tum.cit.fop.maze.custom.SpriteLoadPipeline spriteLoad;
 
     // 预热阶段：先渲染几帧让UI显示出来
     private int warmupFrames = 3;
@@ -171,10 +176,24 @@ public void render(float delta) {
             return;
         }
 
-        // 执行预加载任务
+        // 等待后台解码，并在预算内上传纹理
+        if (spriteLoad != null) {
+            if (!spriteLoad.update(FRAME_BUDGET_MS)) {
+                statusLabel.setText(String.format("Loading sprites: %d/%d frames (%.1f/%.1f MB)",
+                        spriteLoad.getFramesDone(), spriteLoad.getFramesTotal(),
+                        spriteLoad.getBytesDone() / (1024f * 1024f), spriteLoad.getBytesTotal() / (1024f * 1024f)));
+                progressBar.setValue(spriteLoad.getProgress() * DECODE_PROGRESS_SHARE);
+                return;
+            }
+            GameLogger.info("LoadingScreen", "Sprites ready: " + spriteLoad.getFramesTotal() + " frames, "
+                    + spriteLoad.getUploadsDone() + " uploads");
+            spriteLoad = null;
+        }
+
+        // 执行预加载任务（纹理已就绪，只构建动画）
         if (currentTaskIndex < preloadTasks.size()) {
-            // 每帧加载几个任务
-            for (int i = 0; i < tasksPerFrame && currentTaskIndex < preloadTasks.size(); i++) {
+            long deadline = System.nanoTime() + (long) (FRAME_BUDGET_MS * 1_000_000L);
+            do {
                 String[] task = preloadTasks.get(currentTaskIndex);
                 String elementId = task[0];
                 String action = task[1];
@@ -192,18 +211,15 @@ public void render(float delta) {
                 CustomElementManager.getInstance().preloadAnimation(elementId, action);
 
                 currentTaskIndex++;
-            }
+            } while (currentTaskIndex < preloadTasks.size() && System.nanoTime() < deadline);
 
             // 更新进度条
-            float progress = preloadTasks.size() > 0
-                    ? (float) currentTaskIndex / preloadTasks.size()
-                    : 1f;
+            float progress = DECODE_PROGRESS_SHARE
+                    + (1f - DECODE_PROGRESS_SHARE) * currentTaskIndex / preloadTasks.size();
             progressBar.setValue(progress);
 
-            // 每10个任务输出一次日志
-            if (currentTaskIndex % 10 == 0) {
-                GameLogger.info("LoadingScreen", "Progress: " + currentTaskIndex + "/" + preloadTasks.size());
-            }
+            // 每帧都会执行，只在调试级别输出
+            GameLogger.debug("LoadingScreen", "Progress: " + currentTaskIndex + "/" + preloadTasks.size());
         } else {
             // 加载完成，进入游戏
             statusLabel.setText("Complete!");
@@ -213,6 +229,8 @@ public void render(float delta) {
 
     private void initializePreloadTasks() {
         GameLogger.info("LoadingScreen", "Initializing preload tasks...");
+        // 后台解码/打包自定义精灵图集，之后的动画预加载直接从图集取区域
+        spriteLoad = CustomElementManager.getInstance().startSpriteLoad();
         preloadTasks = CustomElementManager.getInstance().getPreloadTasks();
         GameLogger.info("LoadingScreen", "Total preload tasks: " + preloadTasks.size());
 
@@ -267,6 +285,10 @@ public void hide() {
 
     @Override
     public void dispose() {
+        if (spriteLoad != null) {
+            spriteLoad.dispose();
+            spriteLoad = null;
+        }
         stage.dispose();
         if (barBgTexture != null)
             barBgTexture.dispose();
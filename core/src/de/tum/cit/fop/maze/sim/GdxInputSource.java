@@ -0,0 +1,34 @@
+package de.tum.cit.fop.maze.sim;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * 直接读取 Gdx.input 的输入源（正常游戏时使用）
+ */
+public class GdxInputSource implements InputSource {
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return Gdx.input.isKeyPressed(keycode);
+    }
+
+    @Override
+    public boolean isKeyJustPressed(int keycode) {
+        return Gdx.input.isKeyJustPressed(keycode);
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return Gdx.input.isButtonPressed(button);
+    }
+
+    @Override
+    public int getX() {
+        return Gdx.input.getX();
+    }
+
+    @Override
+    public int getY() {
+        return Gdx.input.getY();
+    }
+}
@@ -0,0 +1,251 @@
+package de.tum.cit.fop.maze.sim;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 无窗口运行环境 (Headless Gdx)
+ *
+ * 在没有 GPU、没有 libGDX 后端的机器上（CI、命令行回放）提供模拟所需的最小环境：
+ * - Gdx.app: 内存中的 Preferences（成就、商店数据不会写入用户目录），日志输出到控制台
+ * - Gdx.files: internal 路径相对资源目录解析，local 路径相对指定的工作目录
+ *
+ * Gdx.graphics / Gdx.input / Gdx.audio 保持为空，模拟代码不能依赖它们。
+ * 只应在无窗口入口调用；会替换已有的 Gdx.app 和 Gdx.files。
+ */
+public final class HeadlessGdx {
+
+    private HeadlessGdx() {
+    }
+
+    /**
+     * @param assetsRoot 资源目录（internal 文件的根）
+     * @param localRoot  local 文件的根（地图缓存、存档等写入此处）
+     */
+    public static void install(File assetsRoot, File localRoot) {
+        Map<String, Preferences> preferences = new HashMap<>();
+        Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(),
+                new Class<?>[] { Application.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getPreferences":
+                            return preferences.computeIfAbsent((String) args[0], name -> new MemoryPreferences());
+                        case "getType":
+                            return Application.ApplicationType.HeadlessDesktop;
+                        case "error":
+                            System.err.println("[" + args[0] + "] " + args[1]);
+                            return null;
+                        case "log":
+                            System.out.println("[" + args[0] + "] " + args[1]);
+                            return null;
+                        default:
+                            Class<?> type = method.getReturnType();
+                            if (type == boolean.class) {
+                                return false;
+                            }
+                            if (type == int.class || type == long.class) {
+                                return type == int.class ? (Object) 0 : (Object) 0L;
+                            }
+                            return null;
+                    }
+                });
+        Gdx.files = new RootedFiles(assetsRoot, localRoot);
+    }
+
+    private static final class RootedFiles implements Files {
+        private final File assetsRoot;
+        private final File localRoot;
+
+        RootedFiles(File assetsRoot, File localRoot) {
+            this.assetsRoot = assetsRoot;
+            this.localRoot = localRoot;
+        }
+
+        @Override
+        public FileHandle getFileHandle(String path, FileType type) {
+            switch (type) {
+                case Internal:
+                case Classpath:
+                    return internal(path);
+                case Local:
+                    return local(path);
+                default:
+                    return absolute(path);
+            }
+        }
+
+        @Override
+        public FileHandle classpath(String path) {
+            return internal(path);
+        }
+
+        @Override
+        public FileHandle internal(String path) {
+            return new FileHandle(new File(assetsRoot, path));
+        }
+
+        @Override
+        public FileHandle external(String path) {
+            return local(path);
+        }
+
+        @Override
+        public FileHandle absolute(String path) {
+            return new FileHandle(new File(path));
+        }
+
+        @Override
+        public FileHandle local(String path) {
+            return new FileHandle(new File(localRoot, path));
+        }
+
+        @Override
+        public String getExternalStoragePath() {
+            return localRoot.getAbsolutePath();
+        }
+
+        @Override
+        public boolean isExternalStorageAvailable() {
+            return true;
+        }
+
+        @Override
+        public String getLocalStoragePath() {
+            return localRoot.getAbsolutePath();
+        }
+
+        @Override
+        public boolean isLocalStorageAvailable() {
+            return true;
+        }
+    }
+
+    /**
+     * 只存在内存中的 Preferences
+     */
+    private static final class MemoryPreferences implements Preferences {
+        private final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public Preferences putBoolean(String key, boolean val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putInteger(String key, int val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putLong(String key, long val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putFloat(String key, float val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putString(String key, String val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences put(Map<String, ?> vals) {
+            values.putAll(vals);
+            return this;
+        }
+
+        @Override
+        public boolean getBoolean(String key) {
+            return getBoolean(key, false);
+        }
+
+        @Override
+        public int getInteger(String key) {
+            return getInteger(key, 0);
+        }
+
+        @Override
+        public long getLong(String key) {
+            return getLong(key, 0L);
+        }
+
+        @Override
+        public float getFloat(String key) {
+            return getFloat(key, 0f);
+        }
+
+        @Override
+        public String getString(String key) {
+            return getString(key, "");
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            Object v = values.get(key);
+            return v instanceof Boolean ? (Boolean) v : defValue;
+        }
+
+        @Override
+        public int getInteger(String key, int defValue) {
+            Object v = values.get(key);
+            return v instanceof Number ? ((Number) v).intValue() : defValue;
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            Object v = values.get(key);
+            return v instanceof Number ? ((Number) v).longValue() : defValue;
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            Object v = values.get(key);
+            return v instanceof Number ? ((Number) v).floatValue() : defValue;
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            Object v = values.get(key);
+            return v != null ? v.toString() : defValue;
+        }
+
+        @Override
+        public Map<String, ?> get() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+
+        @Override
+        public void remove(String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
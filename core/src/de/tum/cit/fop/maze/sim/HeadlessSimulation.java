@@ -0,0 +1,205 @@
+package de.tum.cit.fop.maze.sim;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.model.Enemy;
+import de.tum.cit.fop.maze.model.GameMap;
+import de.tum.cit.fop.maze.model.GameWorld;
+import de.tum.cit.fop.maze.model.Player;
+import de.tum.cit.fop.maze.model.Projectile;
+import de.tum.cit.fop.maze.utils.MapLoader;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 无窗口确定性模拟 (Headless Simulation)
+ *
+ * 以固定步长驱动 {@link GameWorld}，不经过渲染和真实时钟，可以全速运行：
+ * - 时间：每个 tick 固定推进 step 秒（默认 1/60），与帧率无关；回放录制的输入带时使用录制时的帧时长
+ * - 随机：构造时先播种共享随机源，再创建地图，保证敌人初始状态一致
+ * - 输入：由 {@link InputSource}（通常是 {@link InputTape}）提供
+ *
+ * 相同的地图、种子和输入带总会得到相同的 {@link #stateHash()}，
+ * 可用于回放、回归测试和平衡性批量跑局。
+ * 需要读取资源时先调用 {@link HeadlessGdx#install}。
+ *
+ * 只覆盖关卡模式：无尽模式的更新循环仍在 EndlessGameScreen 中，
+ * 且区块由后台线程生成、完成顺序不固定，无法确定性回放。
+ */
+public class HeadlessSimulation {
+
+    public static final float DEFAULT_STEP = 1f / 60f;
+
+    private final GameWorld world;
+    private final float step;
+    private int tick;
+    private boolean gameOver;
+    private boolean victory;
+
+    /**
+     * @param mapFactory 创建地图（在播种之后调用，地图加载时生成的敌人也会确定）
+     * @param levelPath  关卡路径（用于通关回调和关卡配置）
+     * @param seed       随机种子
+     * @param input      输入源
+     * @param step       每个 tick 的模拟秒数
+     */
+    public HeadlessSimulation(Supplier<GameMap> mapFactory, String levelPath, long seed,
+            InputSource input, float step) {
+        if (step <= 0f) {
+            throw new IllegalArgumentException("Step must be positive: " + step);
+        }
+        GameWorld.seedSharedRandom(seed);
+        GameMap map = mapFactory.get();
+        this.world = new GameWorld(map, levelPath, seed);
+        this.world.setInputSource(input);
+        this.world.setListener(new GameWorld.WorldListener() {
+            @Override
+            public void onGameOver(int killCount) {
+                gameOver = true;
+            }
+
+            @Override
+            public void onVictory(String currentMapPath) {
+                victory = true;
+            }
+        });
+        this.step = step;
+    }
+
+    /**
+     * 加载关卡文件，以默认步长模拟
+     */
+    public static HeadlessSimulation forLevel(String levelPath, long seed, InputSource input) {
+        return new HeadlessSimulation(() -> MapLoader.loadMap(levelPath), levelPath, seed, input, DEFAULT_STEP);
+    }
+
+    /**
+     * 回放 GameScreen 录制的输入带（输入带中记录了关卡和种子）
+     */
+    public static HeadlessSimulation replay(InputTape tape) {
+        if (tape.getLevelPath() == null) {
+            throw new IllegalArgumentException("Tape has no level/seed header, it was not recorded in game");
+        }
+        tape.rewind();
+        return forLevel(tape.getLevelPath(), tape.getSeed(), tape);
+    }
+
+    /**
+     * 推进一个 tick
+     *
+     * @return 本局是否仍在进行
+     */
+    public boolean step() {
+        if (isFinished()) {
+            return false;
+        }
+        world.update(step);
+        tick++;
+        return !isFinished();
+    }
+
+    /**
+     * 连续推进，直到结束或达到 maxTicks
+     *
+     * @return 实际推进的 tick 数
+     */
+    public int run(int maxTicks) {
+        int start = tick;
+        while (tick - start < maxTicks && step()) {
+            // step() 已推进
+        }
+        return tick - start;
+    }
+
+    public boolean isFinished() {
+        return gameOver || victory;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isVictory() {
+        return victory;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    /** 已模拟的游戏时间（回放时按录制的帧时长累计） */
+    public float getSimulatedSeconds() {
+        return world.getLevelElapsedTime();
+    }
+
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * 当前世界状态的 64 位指纹（FNV-1a）
+     *
+     * 覆盖玩家位置/生命/金币、击杀数、每个敌人的位置/血量/状态、每个投射物的位置和掉落物数量。
+     * 浮点按位比较，任何细微的不一致都会改变结果。
+     */
+    public long stateHash() {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, tick);
+        Player player = world.getPlayer();
+        h = mix(h, Float.floatToIntBits(player.getX()));
+        h = mix(h, Float.floatToIntBits(player.getY()));
+        h = mix(h, player.getLives());
+        h = mix(h, player.getCoins());
+        h = mix(h, world.getKillCount());
+        h = mix(h, world.getCoinsCollected());
+
+        List<Enemy> enemies = world.getEnemies();
+        h = mix(h, enemies.size());
+        for (Enemy enemy : enemies) {
+            h = mix(h, Float.floatToIntBits(enemy.getX()));
+            h = mix(h, Float.floatToIntBits(enemy.getY()));
+            h = mix(h, enemy.getHealth());
+            h = mix(h, enemy.getState().ordinal());
+        }
+        List<Projectile> projectiles = world.getProjectiles();
+        h = mix(h, projectiles.size());
+        for (Projectile projectile : projectiles) {
+            h = mix(h, Float.floatToIntBits(projectile.getX()));
+            h = mix(h, Float.floatToIntBits(projectile.getY()));
+        }
+        return mix(h, world.getDroppedItems().size());
+    }
+
+    /**
+     * 命令行回放：HeadlessSimulation &lt;输入带文件&gt; [资源目录]
+     *
+     * 运行到输入带结束或本局结束，输出结局和状态指纹。
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: HeadlessSimulation <tape file> [assets dir]");
+            return;
+        }
+        File tapeFile = new File(args[0]).getAbsoluteFile();
+        File assets = new File(args.length > 1 ? args[1] : ".").getAbsoluteFile();
+        HeadlessGdx.install(assets, Files.createTempDirectory("maze-replay").toFile());
+
+        InputTape tape = InputTape.load(new FileHandle(tapeFile));
+        HeadlessSimulation sim = replay(tape);
+        sim.run(tape.getLength());
+        String outcome = sim.isVictory() ? "victory" : sim.isGameOver() ? "game over" : "running";
+        System.out.printf("%s seed %d: %s after %d ticks (%.2f s), state %016x%n",
+                tape.getLevelPath(), tape.getSeed(), outcome, sim.getTick(), sim.getSimulatedSeconds(),
+                sim.stateHash());
+    }
+
+    private static long mix(long h, int value) {
+        for (int i = 0; i < 4; i++) {
+            h ^= (value >>> (i * 8)) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
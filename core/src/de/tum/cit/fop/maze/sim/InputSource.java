@@ -0,0 +1,40 @@
+package de.tum.cit.fop.maze.sim;
+
+/**
+ * 输入源 (Input Source)
+ *
+ * 游戏逻辑通过此接口读取按键，而不是直接访问 Gdx.input，
+ * 这样同一套逻辑既可以读真实键盘（{@link GdxInputSource}），
+ * 也可以读预先录制或脚本生成的输入带（{@link InputTape}），在无窗口环境下运行。
+ *
+ * 键码和鼠标按键编号与 {@code com.badlogic.gdx.Input} 一致。
+ */
+public interface InputSource {
+
+    /** 读取真实输入的默认实现 */
+    InputSource GDX = new GdxInputSource();
+
+    boolean isKeyPressed(int keycode);
+
+    /** 按键是否在本帧刚被按下 */
+    boolean isKeyJustPressed(int keycode);
+
+    boolean isButtonPressed(int button);
+
+    /** 鼠标屏幕坐标 X */
+    int getX();
+
+    /** 鼠标屏幕坐标 Y（原点在左上角） */
+    int getY();
+
+    /**
+     * 进入下一模拟帧。GameWorld 每次 update 开始时调用一次；
+     * 真实输入由 libGDX 自行推进，无需处理。
+     *
+     * @param delta 调用方给出的帧时长（秒）
+     * @return 本帧实际模拟的时长：回放录制的输入带时为录制时的帧时长，其余情况原样返回
+     */
+    default float advance(float delta) {
+        return delta;
+    }
+}
@@ -0,0 +1,317 @@
+package de.tum.cit.fop.maze.sim;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 输入带 (Input Tape)
+ *
+ * 按模拟帧记录的输入事件流（按下、松开、鼠标移动、帧时长），回放时作为 {@link InputSource}。
+ * 既可以由 {@link RecordingInputSource} 从真实游戏录制，也可以在测试里脚本化构造：
+ * <pre>
+ * InputTape tape = new InputTape()
+ *         .hold(0, 120, Input.Keys.D)    // 第 0 帧起按住右 2 秒
+ *         .press(60, Input.Keys.SPACE);  // 第 60 帧攻击
+ * </pre>
+ *
+ * 文本格式每行一个事件，"#" 开头为注释；录制的输入带开头还带有关卡和种子：
+ * <pre>
+ * level maps/level-1.properties
+ * seed 8041307266316203530
+ * 0 dt 0.016666668
+ * 0 down 32
+ * 120 up 32
+ * 45 mouse 320 240
+ * </pre>
+ * 鼠标按键使用 {@link #BUTTON_BASE} + 按键编号 的键码。
+ * dt 事件设定此后各帧的模拟时长，直到下一个 dt 事件；没有 dt 事件时使用调用方的步长。
+ */
+public class InputTape implements InputSource {
+
+    /** 鼠标按键在事件中的键码偏移（libGDX 键码都小于 256） */
+    public static final int BUTTON_BASE = 1000;
+
+    private static final String HEADER = "# maze input tape v1";
+
+    private enum Kind {
+        DOWN, UP, MOUSE, DELTA
+    }
+
+    private static final class Event {
+        final int frame;
+        final Kind kind;
+        final int code;
+        final int x;
+        final int y;
+
+        Event(int frame, Kind kind, int code, int x, int y) {
+            this.frame = frame;
+            this.kind = kind;
+            this.code = code;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private final List<Event> events = new ArrayList<>();
+    private boolean sorted = true;
+
+    // 录制来源（可选）
+    private String levelPath;
+    private long seed;
+
+    // 回放状态
+    private int frame = -1;
+    private int cursor;
+    private final BitSet down = new BitSet();
+    private final BitSet justDown = new BitSet();
+    private int mouseX;
+    private int mouseY;
+    private float frameDelta = Float.NaN;
+
+    // ==================== 构造 ====================
+
+    /**
+     * 记录这段输入对应的关卡和世界种子，回放时用来重建同一局
+     */
+    public InputTape setOrigin(String levelPath, long seed) {
+        this.levelPath = levelPath;
+        this.seed = seed;
+        return this;
+    }
+
+    /** 录制时的关卡路径，脚本构造的输入带为 null */
+    public String getLevelPath() {
+        return levelPath;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public InputTape press(int frame, int keycode) {
+        return add(new Event(frame, Kind.DOWN, keycode, 0, 0));
+    }
+
+    public InputTape release(int frame, int keycode) {
+        return add(new Event(frame, Kind.UP, keycode, 0, 0));
+    }
+
+    /**
+     * 从 frame 起按住 frames 帧
+     */
+    public InputTape hold(int frame, int frames, int keycode) {
+        press(frame, keycode);
+        return release(frame + Math.max(1, frames), keycode);
+    }
+
+    public InputTape pressButton(int frame, int button) {
+        return press(frame, BUTTON_BASE + button);
+    }
+
+    public InputTape releaseButton(int frame, int button) {
+        return release(frame, BUTTON_BASE + button);
+    }
+
+    public InputTape moveMouse(int frame, int x, int y) {
+        return add(new Event(frame, Kind.MOUSE, 0, x, y));
+    }
+
+    /**
+     * 从 frame 起每帧模拟 seconds 秒（录制时的真实帧时长）
+     */
+    public InputTape delta(int frame, float seconds) {
+        return add(new Event(frame, Kind.DELTA, Float.floatToIntBits(seconds), 0, 0));
+    }
+
+    private InputTape add(Event event) {
+        if (event.frame < 0) {
+            throw new IllegalArgumentException("Negative frame: " + event.frame);
+        }
+        if (!events.isEmpty() && events.get(events.size() - 1).frame > event.frame) {
+            sorted = false;
+        }
+        events.add(event);
+        return this;
+    }
+
+    // ==================== 回放 ====================
+
+    @Override
+    public float advance(float delta) {
+        if (!sorted) {
+            // 稳定排序：同一帧内保持添加顺序
+            events.sort(Comparator.comparingInt(e -> e.frame));
+            sorted = true;
+        }
+        frame++;
+        justDown.clear();
+        while (cursor < events.size() && events.get(cursor).frame <= frame) {
+            Event e = events.get(cursor++);
+            switch (e.kind) {
+                case DOWN:
+                    if (!down.get(e.code)) {
+                        justDown.set(e.code);
+                    }
+                    down.set(e.code);
+                    break;
+                case UP:
+                    down.clear(e.code);
+                    break;
+                case MOUSE:
+                    mouseX = e.x;
+                    mouseY = e.y;
+                    break;
+                case DELTA:
+                    frameDelta = Float.intBitsToFloat(e.code);
+                    break;
+            }
+        }
+        return Float.isNaN(frameDelta) ? delta : frameDelta;
+    }
+
+    /**
+     * 回到起点，可以重新回放
+     */
+    public void rewind() {
+        frame = -1;
+        cursor = 0;
+        down.clear();
+        justDown.clear();
+        mouseX = 0;
+        mouseY = 0;
+        frameDelta = Float.NaN;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return keycode >= 0 && down.get(keycode);
+    }
+
+    @Override
+    public boolean isKeyJustPressed(int keycode) {
+        return keycode >= 0 && justDown.get(keycode);
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return down.get(BUTTON_BASE + button);
+    }
+
+    @Override
+    public int getX() {
+        return mouseX;
+    }
+
+    @Override
+    public int getY() {
+        return mouseY;
+    }
+
+    /** 当前回放帧（第一次 advance 之后为 0） */
+    public int getFrame() {
+        return frame;
+    }
+
+    /** 最后一个事件之后的帧数 */
+    public int getLength() {
+        int last = -1;
+        for (Event e : events) {
+            last = Math.max(last, e.frame);
+        }
+        return last + 1;
+    }
+
+    public int getEventCount() {
+        return events.size();
+    }
+
+    // ==================== 序列化 ====================
+
+    public String serialize() {
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        if (levelPath != null) {
+            sb.append("level ").append(levelPath).append('\n');
+            sb.append("seed ").append(seed).append('\n');
+        }
+        for (Event e : events) {
+            sb.append(e.frame).append(' ');
+            switch (e.kind) {
+                case DOWN:
+                    sb.append("down ").append(e.code);
+                    break;
+                case UP:
+                    sb.append("up ").append(e.code);
+                    break;
+                case MOUSE:
+                    sb.append("mouse ").append(e.x).append(' ').append(e.y);
+                    break;
+                case DELTA:
+                    // Float.toString 的结果可以精确还原
+                    sb.append("dt ").append(Float.intBitsToFloat(e.code));
+                    break;
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 解析 {@link #serialize()} 的输出
+     *
+     * @throws IllegalArgumentException 格式错误时，消息中包含行号
+     */
+    public static InputTape parse(String text) {
+        InputTape tape = new InputTape();
+        String[] lines = text.split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                if (parts[0].equals("level")) {
+                    tape.levelPath = line.substring(parts[0].length()).trim();
+                    continue;
+                }
+                if (parts[0].equals("seed")) {
+                    tape.seed = Long.parseLong(parts[1]);
+                    continue;
+                }
+                int frame = Integer.parseInt(parts[0]);
+                switch (parts[1]) {
+                    case "down":
+                        tape.press(frame, Integer.parseInt(parts[2]));
+                        break;
+                    case "up":
+                        tape.release(frame, Integer.parseInt(parts[2]));
+                        break;
+                    case "mouse":
+                        tape.moveMouse(frame, Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                        break;
+                    case "dt":
+                        tape.delta(frame, Float.parseFloat(parts[2]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown event '" + parts[1] + "'");
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid tape line " + (i + 1) + ": " + line, e);
+            }
+        }
+        return tape;
+    }
+
+    public void save(FileHandle file) {
+        file.writeString(serialize(), false, "UTF-8");
+    }
+
+    public static InputTape load(FileHandle file) {
+        return parse(file.readString("UTF-8"));
+    }
+}
@@ -0,0 +1,109 @@
+package de.tum.cit.fop.maze.sim;
+
+import com.badlogic.gdx.Input;
+import de.tum.cit.fop.maze.config.GameSettings;
+
+import java.util.BitSet;
+
+/**
+ * 录制输入源 (Recording Input Source)
+ *
+ * 包装另一个输入源（通常是真实键盘），照常把输入交给游戏，
+ * 同时在每帧开始时轮询关心的按键，把状态变化和帧时长写入 {@link InputTape}。
+ * 录下的输入带配合相同的种子即可在 {@link HeadlessSimulation} 中复现这一局
+ * （GameScreen 通过控制台命令 "record" 录制，见 {@link HeadlessSimulation#main}）。
+ */
+public class RecordingInputSource implements InputSource {
+
+    private final InputSource delegate;
+    private final int[] codes;
+    private final BitSet down = new BitSet();
+    private final InputTape tape = new InputTape();
+    private final boolean recordMouse;
+    private int frame = -1;
+    private int lastMouseX = Integer.MIN_VALUE;
+    private int lastMouseY = Integer.MIN_VALUE;
+    private float lastDelta = Float.NaN;
+
+    /**
+     * 录制当前键位设置下的移动、攻击、切换武器和跑步键，以及鼠标左键和位置
+     */
+    public RecordingInputSource(InputSource delegate) {
+        this(delegate, true, GameSettings.KEY_UP, GameSettings.KEY_DOWN, GameSettings.KEY_LEFT,
+                GameSettings.KEY_RIGHT, GameSettings.KEY_ATTACK, GameSettings.KEY_SWITCH_WEAPON,
+                Input.Keys.SHIFT_LEFT, Input.Keys.SHIFT_RIGHT, InputTape.BUTTON_BASE + Input.Buttons.LEFT);
+    }
+
+    /**
+     * @param codes 要录制的键码；鼠标按键用 {@link InputTape#BUTTON_BASE} + 按键编号
+     */
+    public RecordingInputSource(InputSource delegate, boolean recordMouse, int... codes) {
+        this.delegate = delegate;
+        this.recordMouse = recordMouse;
+        this.codes = codes.clone();
+    }
+
+    @Override
+    public float advance(float delta) {
+        delta = delegate.advance(delta);
+        frame++;
+        if (delta != lastDelta) {
+            // 帧时长不变时不重复记录（回放时 dt 会一直沿用到下一次变化）
+            lastDelta = delta;
+            tape.delta(frame, delta);
+        }
+        for (int code : codes) {
+            boolean pressed = code >= InputTape.BUTTON_BASE
+                    ? delegate.isButtonPressed(code - InputTape.BUTTON_BASE)
+                    : delegate.isKeyPressed(code);
+            if (pressed != down.get(code)) {
+                down.set(code, pressed);
+                if (pressed) {
+                    tape.press(frame, code);
+                } else {
+                    tape.release(frame, code);
+                }
+            }
+        }
+        if (recordMouse) {
+            int x = delegate.getX();
+            int y = delegate.getY();
+            if (x != lastMouseX || y != lastMouseY) {
+                lastMouseX = x;
+                lastMouseY = y;
+                tape.moveMouse(frame, x, y);
+            }
+        }
+        return delta;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return delegate.isKeyPressed(keycode);
+    }
+
+    @Override
+    public boolean isKeyJustPressed(int keycode) {
+        return delegate.isKeyJustPressed(keycode);
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return delegate.isButtonPressed(button);
+    }
+
+    @Override
+    public int getX() {
+        return delegate.getX();
+    }
+
+    @Override
+    public int getY() {
+        return delegate.getY();
+    }
+
+    /** 已录制的输入带（继续录制时会继续增长） */
+    public InputTape getTape() {
+        return tape;
+    }
+}
@@ -4,8 +4,15 @@
 import com.badlogic.gdx.Preferences;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Manages achievements and unlocked cards.
@@ -19,6 +26,14 @@
  * - Armor Defense: Damage absorbed milestones
  * - Economy: Coin milestones
  * - Challenge: Flawless victory, speedrun, etc.
+ *
+ * Persistence:
+ * High-frequency counters (weapon kills, effects, armor absorbed, coins, combo)
+ * live in an in-memory store with dirty tracking. Dirty counters are written to
+ * Preferences in batches and flushed to disk on a background writer thread:
+ * every {@link #FLUSH_INTERVAL_MS} while counters change, at level end, on
+ * pause, and on shutdown. Unlock checks always use the in-memory values, so
+ * detection stays immediate; a crash loses at most the last unflushed batch.
  */
 public class AchievementManager {
     private static final String PREFS_NAME = "maze_achievements_v1";
@@ -35,6 +50,26 @@ public class AchievementManager {
     private static final String MAX_COMBO_KEY = "max_combo_kills";
     private static final String ACHIEVEMENT_PROGRESS_PREFIX = "progress_";
 
+    // === Batched Counter Persistence ===
+    /** Maximum time dirty counters stay in memory while the game is running */
+    private static final long FLUSH_INTERVAL_MS = 5000;
+
+    /** In-memory counter values (loaded lazily from Preferences) */
+    private static final Map<String, Integer> counterCache = new HashMap<>();
+    /** Counters changed since the last batch was written */
+    private static final Set<String> dirtyCounters = new HashSet<>();
+    private static long lastFlushTime = System.currentTimeMillis();
+
+    /** Single background thread performing the actual disk writes */
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "achievement-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Coalesces flush requests while a write is still queued */
+    private static final AtomicBoolean flushQueued = new AtomicBoolean(false);
+    private static Future<?> lastWrite;
+
     // === NEW: Achievement Definitions ===
     private static Map<String, Achievement> allAchievements;
 
@@ -315,10 +350,7 @@ public static List<String> checkCoinMilestone(int coinsEarned) {
         List<String> newUnlocks = new ArrayList<>();
 
         // Update total coins
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
-        int totalCoins = prefs.getInteger(TOTAL_COINS_KEY, 0) + coinsEarned;
-        prefs.putInteger(TOTAL_COINS_KEY, totalCoins);
-        prefs.flush();
+        int totalCoins = addCounter(TOTAL_COINS_KEY, coinsEarned);
 
         if (totalCoins >= 1) {
             if (unlockCard("First Coin"))
@@ -366,16 +398,13 @@ public static List<String> checkFirstKill() {
      */
     public static List<String> recordWeaponKill(String weaponName) {
         List<String> newUnlocks = new ArrayList<>();
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
 
         // Normalize weapon name to key
         String weaponKey = normalizeWeaponKey(weaponName);
         String statsKey = WEAPON_KILLS_PREFIX + weaponKey;
 
         // Increment kill count
-        int kills = prefs.getInteger(statsKey, 0) + 1;
-        prefs.putInteger(statsKey, kills);
-        prefs.flush();
+        int kills = addCounter(statsKey, 1);
 
         GameLogger.debug("AchievementManager",
                 "Weapon kill recorded: " + weaponName + " -> " + kills + " total kills");
@@ -418,12 +447,9 @@ public static List<String> recordWeaponKill(String weaponName) {
      */
     public static List<String> recordEffectApplied(String effectName) {
         List<String> newUnlocks = new ArrayList<>();
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
 
         String statsKey = STATS_PREFIX + "effect_" + effectName.toLowerCase();
-        int count = prefs.getInteger(statsKey, 0) + 1;
-        prefs.putInteger(statsKey, count);
-        prefs.flush();
+        int count = addCounter(statsKey, 1);
 
         if ("FREEZE".equalsIgnoreCase(effectName) && count >= 50 && unlockCard("Frozen Heart")) {
             newUnlocks.add("Frozen Heart");
@@ -446,18 +472,14 @@ public static List<String> recordEffectApplied(String effectName) {
      */
     public static List<String> recordArmorAbsorbed(String armorType, int damageAbsorbed) {
         List<String> newUnlocks = new ArrayList<>();
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
 
         // Track per armor type
         String statsKey = ARMOR_ABSORBED_PREFIX + armorType.toLowerCase();
-        int total = prefs.getInteger(statsKey, 0) + damageAbsorbed;
-        prefs.putInteger(statsKey, total);
+        int total = addCounter(statsKey, damageAbsorbed);
 
         // Track global armor absorbed
         String globalKey = ARMOR_ABSORBED_PREFIX + "total";
-        int globalTotal = prefs.getInteger(globalKey, 0) + damageAbsorbed;
-        prefs.putInteger(globalKey, globalTotal);
-        prefs.flush();
+        int globalTotal = addCounter(globalKey, damageAbsorbed);
 
         GameLogger.debug("AchievementManager",
                 "Armor absorbed: " + armorType + " +" + damageAbsorbed + " (total: " + total + ")");
@@ -499,7 +521,6 @@ public static List<String> recordLevelComplete(String levelPath, boolean tookDam
         if (!completed.contains(levelKey + ";")) {
             completed += levelKey + ";";
             prefs.putString(LEVELS_COMPLETED_KEY, completed);
-            prefs.flush();
             GameLogger.info("AchievementManager", "Level " + levelNumber + " completed!");
         }
 
@@ -516,7 +537,6 @@ public static List<String> recordLevelComplete(String levelPath, boolean tookDam
             if (!flawless.contains(levelKey + ";")) {
                 flawless += levelKey + ";";
                 prefs.putString(FLAWLESS_LEVELS_KEY, flawless);
-                prefs.flush();
             }
         }
 
@@ -525,6 +545,9 @@ public static List<String> recordLevelComplete(String levelPath, boolean tookDam
             newUnlocks.add("Speedrunner");
         }
 
+        // Level end: persist this level's progress together with pending counters
+        flush();
+
         return newUnlocks;
     }
 
@@ -608,13 +631,11 @@ public static List<String> checkComeback(int playerHP) {
      */
     public static List<String> checkMultiKill(int killsInWindow) {
         List<String> newUnlocks = new ArrayList<>();
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
 
         // Update max combo
-        int maxCombo = prefs.getInteger(MAX_COMBO_KEY, 0);
+        int maxCombo = getCounter(MAX_COMBO_KEY);
         if (killsInWindow > maxCombo) {
-            prefs.putInteger(MAX_COMBO_KEY, killsInWindow);
-            prefs.flush();
+            setCounter(MAX_COMBO_KEY, killsInWindow);
         }
 
         if (killsInWindow >= 3 && unlockCard("Rampage")) {
@@ -700,7 +721,8 @@ public static boolean unlockCard(String cardName) {
 
         current += cardName + ";";
         prefs.putString(UNLOCKED_CARDS_KEY, current);
-        prefs.flush();
+        // Unlocks are rare: write them out right away (off the render thread)
+        flush();
 
         GameLogger.info("AchievementManager", "Achievement unlocked: " + cardName);
         return true;
@@ -737,25 +759,22 @@ public static int getTotalCount() {
      * Get total coins ever earned.
      */
     public static int getTotalCoinsEarned() {
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
-        return prefs.getInteger(TOTAL_COINS_KEY, 0);
+        return getCounter(TOTAL_COINS_KEY);
     }
 
     /**
      * Get weapon kills for a specific weapon
      */
     public static int getWeaponKills(String weaponName) {
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
         String weaponKey = normalizeWeaponKey(weaponName);
-        return prefs.getInteger(WEAPON_KILLS_PREFIX + weaponKey, 0);
+        return getCounter(WEAPON_KILLS_PREFIX + weaponKey);
     }
 
     /**
      * Get total armor damage absorbed
      */
     public static int getTotalArmorAbsorbed() {
-        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
-        return prefs.getInteger(ARMOR_ABSORBED_PREFIX + "total", 0);
+        return getCounter(ARMOR_ABSORBED_PREFIX + "total");
     }
 
     /**
@@ -783,8 +802,12 @@ public static List<Achievement> getAchievementsByCategory(AchievementCategory ca
      */
     public static void resetAll() {
         Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        synchronized (counterCache) {
+            counterCache.clear();
+            dirtyCounters.clear();
+        }
         prefs.clear();
-        prefs.flush();
+        flushNow();
         GameLogger.info("AchievementManager", "All achievements and statistics reset.");
     }
 
@@ -831,6 +854,7 @@ public static List<AchievementUnlockInfo> getAchievementInfoList(List<String> ac
      */
     public static Map<String, Object> exportData() {
         Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        applyDirtyCounters(prefs);
         Map<String, Object> data = new HashMap<>();
         data.putAll(prefs.get());
         return data;
@@ -842,6 +866,10 @@ public static Map<String, Object> exportData() {
      */
     public static void importData(Map<String, Object> data) {
         Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        synchronized (counterCache) {
+            counterCache.clear();
+            dirtyCounters.clear();
+        }
         prefs.clear();
         if (data != null) {
             for (Map.Entry<String, Object> entry : data.entrySet()) {
@@ -861,7 +889,104 @@ else if (v instanceof Long)
                     prefs.putString(entry.getKey(), v.toString());
             }
         }
-        prefs.flush();
+        flushNow();
         GameLogger.info("AchievementManager", "Imported achievement data.");
     }
+
+    // === Batched Counter Store ===
+
+    /**
+     * Read a counter from the in-memory store, loading it from Preferences on
+     * first access.
+     */
+    private static int getCounter(String key) {
+        synchronized (counterCache) {
+            Integer value = counterCache.get(key);
+            if (value == null) {
+                value = Gdx.app.getPreferences(PREFS_NAME).getInteger(key, 0);
+                counterCache.put(key, value);
+            }
+            return value;
+        }
+    }
+
+    private static void setCounter(String key, int value) {
+        synchronized (counterCache) {
+            counterCache.put(key, value);
+            dirtyCounters.add(key);
+        }
+        flushIfDue();
+    }
+
+    /**
+     * Add to a counter in memory and mark it dirty.
+     *
+     * @return The new counter value
+     */
+    private static int addCounter(String key, int delta) {
+        int value = getCounter(key) + delta;
+        setCounter(key, value);
+        return value;
+    }
+
+    /**
+     * Flush the pending batch once the flush interval has elapsed.
+     */
+    private static void flushIfDue() {
+        if (System.currentTimeMillis() - lastFlushTime >= FLUSH_INTERVAL_MS) {
+            flush();
+        }
+    }
+
+    /**
+     * Copy dirty counters into the Preferences object (in memory only).
+     */
+    private static void applyDirtyCounters(Preferences prefs) {
+        synchronized (counterCache) {
+            for (String key : dirtyCounters) {
+                prefs.putInteger(key, counterCache.get(key));
+            }
+            dirtyCounters.clear();
+        }
+    }
+
+    /**
+     * Write the pending batch to disk on the background writer.
+     * Called at level end, on pause and whenever a card is unlocked.
+     * Requests are coalesced while a write is still queued.
+     */
+    public static void flush() {
+        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        applyDirtyCounters(prefs);
+        lastFlushTime = System.currentTimeMillis();
+
+        if (!flushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        lastWrite = writer.submit(() -> {
+            flushQueued.set(false);
+            try {
+                prefs.flush();
+            } catch (Exception e) {
+                GameLogger.error("AchievementManager", "Failed to write achievements: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Write the pending batch and wait until it is on disk.
+     * Used on shutdown and when the whole data set is replaced.
+     */
+    public static void flushNow() {
+        flush();
+        Future<?> write = lastWrite;
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get(2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            GameLogger.warn("AchievementManager", "Achievement write did not finish: " + e.getMessage());
+        }
+    }
 }
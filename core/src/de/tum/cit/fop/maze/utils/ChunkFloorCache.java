@@ -0,0 +1,156 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import de.tum.cit.fop.maze.model.MapChunk;
+
+/**
+ * 区块地板缓存 (Chunk Floor Cache)
+ *
+ * 无尽模式的地板是静态的：每个区块在加载时把所有地砖一次性写入一个
+ * SpriteCache（预填充的顶点缓冲），卸载时释放。
+ * 每帧只对与相机相交的区块发出一次绘制调用，而不是逐格 SpriteBatch.draw。
+ *
+ * 生命周期由 ChunkManager.ChunkListener 驱动：
+ * - onChunkLoaded -> build()
+ * - onChunkUnloaded -> release()
+ *
+ * 释放的 SpriteCache 会 clear() 后放回空闲池复用（SpriteCache 自带网格和着色器，
+ * 频繁创建/销毁代价较高），总数约等于活跃区块数。
+ */
+public class ChunkFloorCache implements Disposable {
+
+    private final float unitScale;
+
+    /** 已缓存的区块与对应的 SpriteCache（并行数组，避免每帧分配迭代器） */
+    private final Array<MapChunk> chunks = new Array<>(false, 32);
+    private final Array<SpriteCache> caches = new Array<>(false, 32);
+
+    /** 空闲的 SpriteCache（已 clear，可直接复用） */
+    private final Array<SpriteCache> freeCaches = new Array<>(false, 8);
+
+    /** 每个 SpriteCache 的容量（一个区块的地砖数） */
+    private int cacheCapacity = 0;
+
+    /** 最近一帧实际绘制的区块数（调试用） */
+    private int lastDrawnCount = 0;
+
+    public ChunkFloorCache(float unitScale) {
+        this.unitScale = unitScale;
+    }
+
+    /**
+     * 为区块构建静态地板缓存
+     *
+     * @param chunk 已生成的区块
+     * @param floor 该区块主题的地砖纹理
+     */
+    public void build(MapChunk chunk, TextureRegion floor) {
+        release(chunk);
+        if (floor == null) {
+            return;
+        }
+
+        int size = chunk.getSize();
+        SpriteCache cache = obtainCache(size * size);
+
+        int startX = chunk.getWorldStartX();
+        int startY = chunk.getWorldStartY();
+
+        cache.beginCache();
+        for (int y = startY; y < startY + size; y++) {
+            for (int x = startX; x < startX + size; x++) {
+                cache.add(floor, x * unitScale, y * unitScale, unitScale, unitScale);
+            }
+        }
+        cache.endCache();
+
+        chunks.add(chunk);
+        caches.add(cache);
+    }
+
+    /**
+     * 释放区块的地板缓存
+     */
+    public void release(MapChunk chunk) {
+        int index = chunks.indexOf(chunk, true);
+        if (index < 0) {
+            return;
+        }
+        chunks.removeIndex(index);
+        SpriteCache cache = caches.removeIndex(index);
+        cache.clear();
+        freeCaches.add(cache);
+    }
+
+    private SpriteCache obtainCache(int capacity) {
+        if (capacity > cacheCapacity) {
+            // 区块尺寸变化（理论上不会发生）：旧的空闲缓存容量不足，丢弃
+            for (SpriteCache cache : freeCaches) {
+                cache.dispose();
+            }
+            freeCaches.clear();
+            cacheCapacity = capacity;
+        }
+        if (freeCaches.size > 0) {
+            return freeCaches.pop();
+        }
+        return new SpriteCache(cacheCapacity, true);
+    }
+
+    /**
+     * 渲染与相机视野相交的区块地板
+     * 调用时 SpriteBatch 不能处于 begin 状态。
+     */
+    public void render(OrthographicCamera camera) {
+        float viewW = camera.viewportWidth * camera.zoom;
+        float viewH = camera.viewportHeight * camera.zoom;
+        float viewX = camera.position.x - viewW / 2;
+        float viewY = camera.position.y - viewH / 2;
+
+        lastDrawnCount = 0;
+        for (int i = 0; i < chunks.size; i++) {
+            MapChunk chunk = chunks.get(i);
+            float chunkX = chunk.getWorldStartX() * unitScale;
+            float chunkY = chunk.getWorldStartY() * unitScale;
+            float chunkSize = chunk.getSize() * unitScale;
+
+            // 视锥剔除
+            if (chunkX + chunkSize < viewX || chunkX > viewX + viewW)
+                continue;
+            if (chunkY + chunkSize < viewY || chunkY > viewY + viewH)
+                continue;
+
+            SpriteCache cache = caches.get(i);
+            cache.setProjectionMatrix(camera.combined);
+            cache.begin();
+            cache.draw(0);
+            cache.end();
+            lastDrawnCount++;
+        }
+    }
+
+    public int getCachedChunkCount() {
+        return chunks.size;
+    }
+
+    public int getLastDrawnCount() {
+        return lastDrawnCount;
+    }
+
+    @Override
+    public void dispose() {
+        for (SpriteCache cache : caches) {
+            cache.dispose();
+        }
+        for (SpriteCache cache : freeCaches) {
+            cache.dispose();
+        }
+        caches.clear();
+        freeCaches.clear();
+        chunks.clear();
+    }
+}
@@ -1,21 +1,37 @@
 package de.tum.cit.fop.maze.utils;
 
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
 import de.tum.cit.fop.maze.config.EndlessModeConfig;
 import de.tum.cit.fop.maze.model.MapChunk;
 import de.tum.cit.fop.maze.model.WallEntity;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 分块加载管理器 (Chunk Manager)
- * 
+ *
  * 管理无尽模式地图的分块加载和卸载。
- * 
+ *
  * 功能:
  * - 根据玩家位置动态加载周围区块
  * - 卸载远离玩家的区块以节省内存
  * - LRU缓存已生成的区块
- * 
+ * - 后台线程生成区块，渲染线程每帧从完成队列取回
+ * - 按玩家移动方向预取休眠环（DORMANT_CHUNK_RADIUS）内的区块
+ * - 有改动的区块在淘汰和存档时写入 ChunkStore，再次需要时优先从存储恢复
+ *
+ * 区块生成是纯函数（每个区块有确定性种子），可以安全地在工作线程执行；
+ * 区块的加载/卸载和监听器回调仍然只在渲染线程进行。
+ *
+ * 热路径不分配内存：区块以打包的 long 坐标为键（{@link #chunkKey}）；
+ * 活跃窗口是固定大小的环形数组，按 (chunkX mod 边长, chunkY mod 边长) 寻址，
+ * 玩家移动时留在窗口内的区块无需挪动。只有玩家所在区块变化时才重建窗口。
+ *
  * 遵循单一职责原则：仅处理区块的加载/卸载逻辑。
  */
 public class ChunkManager {
@@ -23,21 +39,103 @@ public class ChunkManager {
     /** 区块大小 */
     private final int chunkSize;
 
-    /** 所有已生成的区块 (chunkId -> MapChunk) */
-    private final Map<String, MapChunk> allChunks;
+    /** 所有已生成的区块 (chunkKey -> MapChunk)，LRU 依据 MapChunk 的访问时间 */
+    private final LongMap<MapChunk> allChunks;
 
-    /** 当前加载的区块ID集合 */
-    private final Set<String> loadedChunkIds;
+    /** 活跃窗口边长 (2 * ACTIVE_CHUNK_RADIUS + 1) */
+    private final int windowSide;
+
+    /** 活跃窗口环形数组，槽位 = floorMod(x) * 边长 + floorMod(y)，未加载为 null */
+    private final MapChunk[] activeWindow;
+
+    /** 当前加载的区块（对外只读视图复用同一实例） */
+    private final List<MapChunk> loadedChunks = new ArrayList<>();
+    private final List<MapChunk> loadedChunksView = Collections.unmodifiableList(loadedChunks);
+
+    /** 已加载区块的墙体，加载集合变化时重建 */
+    private final List<WallEntity> loadedWalls = new ArrayList<>();
+    private final List<WallEntity> loadedWallsView = Collections.unmodifiableList(loadedWalls);
+    private boolean loadedWallsDirty = true;
+
+    /** 窗口中心区块；Integer.MIN_VALUE 表示尚未建立 */
+    private int windowCenterX = Integer.MIN_VALUE;
+    private int windowCenterY = Integer.MIN_VALUE;
+
+    /** 窗口重建次数（调试/测试用） */
+    private int windowRebuilds;
 
     /** 地图生成器 */
     private final EndlessMapGenerator mapGenerator;
 
+    /** 世界种子（同一种子生成同一世界，存档据此恢复） */
+    private final long worldSeed;
+
+    /** 区块存储，null 表示不持久化 */
+    private final ChunkStore store;
+
     /** 最大缓存区块数 */
     private static final int MAX_CACHED_CHUNKS = 100;
 
+    /** 区块生成线程数 */
+    private static final int WORKER_THREADS = 2;
+
+    /** 同时排队的预取请求上限（活跃区块的请求不受限制） */
+    private static final int MAX_PENDING_PREFETCH = 6;
+
+    /** 预取方向与移动方向夹角的余弦下限（约 60°） */
+    private static final float PREFETCH_MIN_COS = 0.5f;
+
+    /** 移动方向平滑系数 */
+    private static final float VELOCITY_SMOOTHING = 0.2f;
+
+    /** 低于此速度（格子/帧）视为静止 */
+    private static final float MIN_PREFETCH_SPEED = 1e-3f;
+
+    /** 后台生成线程池 */
+    private final ExecutorService generatorPool;
+
+    /** 已提交但尚未取回的区块键（仅渲染线程访问，数量很小，线性查找即可） */
+    private final LongArray pendingChunkKeys = new LongArray(false, 32);
+
+    /** cleanupCache 复用的淘汰候选列表 */
+    private final List<MapChunk> evictionCandidates = new ArrayList<>();
+
+    /** 工作线程生成完毕的区块，渲染线程在 update 时取回 */
+    private final Queue<GeneratedChunk> completed = new ConcurrentLinkedQueue<>();
+
+    /** 每次 regenerateAll 递增，用于丢弃旧世界的生成结果 */
+    private int epoch;
+
+    /** 平滑后的玩家位移方向（格子/帧） */
+    private float velocityX;
+    private float velocityY;
+    private float lastPlayerX = Float.NaN;
+    private float lastPlayerY = Float.NaN;
+
+    /** 上次预取时的移动方向（各轴 -1/0/1），方向变化时重新预取 */
+    private int prefetchDirX;
+    private int prefetchDirY;
+
+    private int prefetchRequests;
+
     /** 监听器：区块加载/卸载时回调 */
     private ChunkListener listener;
 
+    private static final class GeneratedChunk {
+        final int epoch;
+        final int chunkX;
+        final int chunkY;
+        /** 生成失败时为 null */
+        final MapChunk chunk;
+
+        GeneratedChunk(int epoch, int chunkX, int chunkY, MapChunk chunk) {
+            this.epoch = epoch;
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.chunk = chunk;
+        }
+    }
+
     /**
      * 区块事件监听器接口
      */
@@ -50,10 +148,36 @@ public interface ChunkListener {
     }
 
     public ChunkManager() {
+        this(System.currentTimeMillis(), null);
+    }
+
+    /**
+     * @param worldSeed 世界种子
+     * @param store     区块存储（可为 null）
+     */
+    public ChunkManager(long worldSeed, ChunkStore store) {
+        this.worldSeed = worldSeed;
+        this.store = store;
         this.chunkSize = EndlessModeConfig.CHUNK_SIZE;
-        this.allChunks = new LinkedHashMap<>(16, 0.75f, true); // LRU ordering
-        this.loadedChunkIds = new HashSet<>();
-        this.mapGenerator = new EndlessMapGenerator();
+        this.allChunks = new LongMap<>(128);
+        this.windowSide = 2 * EndlessModeConfig.ACTIVE_CHUNK_RADIUS + 1;
+        this.activeWindow = new MapChunk[windowSide * windowSide];
+        this.mapGenerator = new EndlessMapGenerator(worldSeed);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.generatorPool = Executors.newFixedThreadPool(WORKER_THREADS, r -> {
+            Thread t = new Thread(r, "chunk-gen-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    /**
+     * 区块坐标打包为 long 键：高 32 位 X，低 32 位 Y
+     */
+    public static long chunkKey(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
     }
 
     /**
@@ -64,73 +188,231 @@ public void setListener(ChunkListener listener) {
     }
 
     /**
-     * 根据玩家位置更新活跃区块
-     * 
+     * 根据玩家位置更新活跃区块（每帧调用）
+     *
+     * 玩家停留在同一区块时只取回后台结果并跟踪移动方向；
+     * 跨越区块边界时才重建活跃窗口。缺失的区块提交到后台生成，
+     * 只有玩家脚下的区块缺失时才会同步生成。
+     *
      * @param playerX 玩家X坐标（格子单位）
      * @param playerY 玩家Y坐标（格子单位）
      */
     public void updateActiveChunks(float playerX, float playerY) {
+        updateActiveChunks(playerX, playerY, false);
+    }
+
+    /**
+     * 同步加载玩家周围的全部活跃区块（用于开局和读档，此时允许卡顿）
+     */
+    public void loadActiveChunksNow(float playerX, float playerY) {
+        updateActiveChunks(playerX, playerY, true);
+    }
+
+    private void updateActiveChunks(float playerX, float playerY, boolean blocking) {
         int centerChunkX = (int) (playerX / chunkSize);
         int centerChunkY = (int) (playerY / chunkSize);
 
-        int radius = EndlessModeConfig.ACTIVE_CHUNK_RADIUS;
+        drainCompleted();
+        trackVelocity(playerX, playerY);
 
-        // 收集需要加载的区块
-        Set<String> neededChunkIds = new HashSet<>();
+        boolean centerChanged = centerChunkX != windowCenterX || centerChunkY != windowCenterY;
+        if (centerChanged || blocking) {
+            rebuildWindow(centerChunkX, centerChunkY, blocking);
+        }
 
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                int chunkX = centerChunkX + dx;
-                int chunkY = centerChunkY + dy;
+        int dirX = direction(velocityX);
+        int dirY = direction(velocityY);
+        if (centerChanged || dirX != prefetchDirX || dirY != prefetchDirY) {
+            prefetchDirX = dirX;
+            prefetchDirY = dirY;
+            prefetchAhead(centerChunkX, centerChunkY);
+        }
+    }
 
-                // 检查是否在地图范围内
-                if (!isValidChunkPosition(chunkX, chunkY)) {
-                    continue;
-                }
+    /**
+     * 以新的中心区块重建活跃窗口：卸载窗口外的区块，加载或请求窗口内的区块
+     */
+    private void rebuildWindow(int centerChunkX, int centerChunkY, boolean blocking) {
+        windowCenterX = centerChunkX;
+        windowCenterY = centerChunkY;
+        windowRebuilds++;
+
+        int radius = EndlessModeConfig.ACTIVE_CHUNK_RADIUS;
 
-                String chunkId = getChunkId(chunkX, chunkY);
-                neededChunkIds.add(chunkId);
+        // 卸载不再需要的区块（倒序遍历，原地删除）
+        for (int i = loadedChunks.size() - 1; i >= 0; i--) {
+            MapChunk chunk = loadedChunks.get(i);
+            if (!isInWindow(chunk.getChunkX(), chunk.getChunkY())) {
+                unloadChunk(chunk, i);
+            }
+        }
 
-                // 如果区块未加载，加载它
-                if (!loadedChunkIds.contains(chunkId)) {
-                    loadChunk(chunkX, chunkY);
+        // 由内向外，离玩家近的先提交生成
+        for (int ring = 0; ring <= radius; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dy = -ring; dy <= ring; dy++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != ring) {
+                        continue;
+                    }
+                    int chunkX = centerChunkX + dx;
+                    int chunkY = centerChunkY + dy;
+
+                    // 检查是否在地图范围内
+                    if (!isValidChunkPosition(chunkX, chunkY)) {
+                        continue;
+                    }
+
+                    MapChunk chunk = allChunks.get(chunkKey(chunkX, chunkY));
+                    if (chunk != null || blocking || ring == 0) {
+                        loadChunk(chunkX, chunkY, chunk);
+                    } else {
+                        requestChunk(chunkX, chunkY, false);
+                    }
                 }
             }
         }
 
-        // 卸载不再需要的区块
-        List<String> toUnload = new ArrayList<>();
-        for (String loadedId : loadedChunkIds) {
-            if (!neededChunkIds.contains(loadedId)) {
-                toUnload.add(loadedId);
+        // 清理缓存
+        cleanupCache();
+    }
+
+    /**
+     * 取回后台生成完毕的区块；落在活跃窗口内的立即加载
+     */
+    private void drainCompleted() {
+        GeneratedChunk generated;
+        while ((generated = completed.poll()) != null) {
+            if (generated.epoch != epoch) {
+                continue; // regenerateAll 之前提交的旧世界区块
+            }
+            int chunkX = generated.chunkX;
+            int chunkY = generated.chunkY;
+            long key = chunkKey(chunkX, chunkY);
+            pendingChunkKeys.removeValue(key);
+            MapChunk chunk = generated.chunk;
+            // 生成失败：释放排队名额，之后可以重新请求；同步生成可能已抢先放入同一区块
+            if (chunk == null || allChunks.containsKey(key)) {
+                continue;
+            }
+            allChunks.put(key, chunk);
+            if (isInWindow(chunkX, chunkY)) {
+                loadChunk(chunkX, chunkY, chunk);
             }
         }
+    }
 
-        for (String id : toUnload) {
-            unloadChunk(id);
+    /**
+     * 提交后台生成请求（已生成或已在排队的区块忽略）
+     */
+    private void requestChunk(int chunkX, int chunkY, boolean prefetch) {
+        long key = chunkKey(chunkX, chunkY);
+        if (allChunks.containsKey(key) || pendingChunkKeys.contains(key)) {
+            return;
+        }
+        // 存储中的区块解码很快，直接在渲染线程恢复
+        MapChunk restored = restoreChunk(chunkX, chunkY);
+        if (restored != null) {
+            if (isInWindow(chunkX, chunkY)) {
+                loadChunk(chunkX, chunkY, restored);
+            }
+            return;
+        }
+        pendingChunkKeys.add(key);
+        if (prefetch) {
+            prefetchRequests++;
         }
+        final int requestEpoch = epoch;
+        generatorPool.execute(() -> {
+            MapChunk chunk = null;
+            try {
+                chunk = mapGenerator.generateChunk(chunkX, chunkY);
+            } catch (RuntimeException e) {
+                GameLogger.error("ChunkManager", "Failed to generate chunk " + chunkX + "_" + chunkY, e);
+            }
+            completed.add(new GeneratedChunk(requestEpoch, chunkX, chunkY, chunk));
+        });
+    }
 
-        // 清理缓存
-        cleanupCache();
+    /**
+     * 更新平滑后的移动方向；瞬移（读档、传送）时重置
+     */
+    private void trackVelocity(float playerX, float playerY) {
+        if (!Float.isNaN(lastPlayerX)) {
+            float dx = playerX - lastPlayerX;
+            float dy = playerY - lastPlayerY;
+            if (Math.abs(dx) > chunkSize || Math.abs(dy) > chunkSize) {
+                velocityX = 0;
+                velocityY = 0;
+            } else {
+                velocityX += (dx - velocityX) * VELOCITY_SMOOTHING;
+                velocityY += (dy - velocityY) * VELOCITY_SMOOTHING;
+            }
+        }
+        lastPlayerX = playerX;
+        lastPlayerY = playerY;
+    }
+
+    private static int direction(float velocity) {
+        if (velocity > MIN_PREFETCH_SPEED) {
+            return 1;
+        }
+        return velocity < -MIN_PREFETCH_SPEED ? -1 : 0;
     }
 
     /**
-     * 加载指定区块
+     * 预取：活跃范围之外、休眠半径之内，且位于移动方向前方的区块
      */
-    private void loadChunk(int chunkX, int chunkY) {
-        String chunkId = getChunkId(chunkX, chunkY);
+    private void prefetchAhead(int centerChunkX, int centerChunkY) {
+        float speed = (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+        if (speed < MIN_PREFETCH_SPEED || pendingChunkKeys.size >= MAX_PENDING_PREFETCH) {
+            return;
+        }
 
-        MapChunk chunk = allChunks.get(chunkId);
+        int activeRadius = EndlessModeConfig.ACTIVE_CHUNK_RADIUS;
+        int dormantRadius = EndlessModeConfig.DORMANT_CHUNK_RADIUS;
+        for (int ring = activeRadius + 1; ring <= dormantRadius; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dy = -ring; dy <= ring; dy++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != ring) {
+                        continue;
+                    }
+                    float cos = (dx * velocityX + dy * velocityY)
+                            / (speed * (float) Math.sqrt(dx * dx + dy * dy));
+                    if (cos < PREFETCH_MIN_COS) {
+                        continue;
+                    }
+                    int chunkX = centerChunkX + dx;
+                    int chunkY = centerChunkY + dy;
+                    if (!isValidChunkPosition(chunkX, chunkY)) {
+                        continue;
+                    }
+                    requestChunk(chunkX, chunkY, true);
+                    if (pendingChunkKeys.size >= MAX_PENDING_PREFETCH) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
 
+    /**
+     * 加载指定区块（未生成时同步生成）
+     */
+    private void loadChunk(int chunkX, int chunkY, MapChunk chunk) {
+        if (chunk == null) {
+            chunk = restoreChunk(chunkX, chunkY);
+        }
         if (chunk == null) {
             // 区块未生成，生成它
             chunk = mapGenerator.generateChunk(chunkX, chunkY);
-            allChunks.put(chunkId, chunk);
+            allChunks.put(chunkKey(chunkX, chunkY), chunk);
         }
 
         if (!chunk.isLoaded()) {
             chunk.markLoaded();
-            loadedChunkIds.add(chunkId);
+            loadedChunks.add(chunk);
+            activeWindow[windowSlot(chunkX, chunkY)] = chunk;
+            loadedWallsDirty = true;
 
             if (listener != null) {
                 listener.onChunkLoaded(chunk);
@@ -141,44 +423,78 @@ private void loadChunk(int chunkX, int chunkY) {
     }
 
     /**
-     * 卸载指定区块
+     * 从存储恢复区块并放入缓存
+     *
+     * @return 恢复的区块；没有存储或未保存过时返回 null
      */
-    private void unloadChunk(String chunkId) {
-        MapChunk chunk = allChunks.get(chunkId);
+    private MapChunk restoreChunk(int chunkX, int chunkY) {
+        if (store == null) {
+            return null;
+        }
+        MapChunk chunk = store.restore(chunkX, chunkY);
+        if (chunk != null) {
+            allChunks.put(chunkKey(chunkX, chunkY), chunk);
+        }
+        return chunk;
+    }
 
-        if (chunk != null && chunk.isLoaded()) {
-            chunk.markUnloaded();
-            loadedChunkIds.remove(chunkId);
+    /**
+     * 卸载指定区块
+     *
+     * @param index 区块在 loadedChunks 中的下标
+     */
+    private void unloadChunk(MapChunk chunk, int index) {
+        chunk.markUnloaded();
+        loadedChunks.remove(index);
+        int slot = windowSlot(chunk.getChunkX(), chunk.getChunkY());
+        if (activeWindow[slot] == chunk) {
+            activeWindow[slot] = null;
+        }
+        loadedWallsDirty = true;
 
-            if (listener != null) {
-                listener.onChunkUnloaded(chunk);
-            }
+        if (listener != null) {
+            listener.onChunkUnloaded(chunk);
         }
     }
 
     /**
-     * 清理超出缓存限制的区块
+     * 清理超出缓存限制的区块（淘汰最久未访问的未加载区块）
      */
     private void cleanupCache() {
-        if (allChunks.size() <= MAX_CACHED_CHUNKS) {
+        int toRemove = allChunks.size - MAX_CACHED_CHUNKS;
+        if (toRemove <= 0) {
             return;
         }
 
-        // LRU: LinkedHashMap 按访问顺序排列，最早访问的在前
-        Iterator<Map.Entry<String, MapChunk>> iterator = allChunks.entrySet().iterator();
-        int toRemove = allChunks.size() - MAX_CACHED_CHUNKS;
-
-        while (iterator.hasNext() && toRemove > 0) {
-            Map.Entry<String, MapChunk> entry = iterator.next();
-            MapChunk chunk = entry.getValue();
-
-            // 不移除当前加载的区块
+        // 一次遍历收集候选（不移除当前加载的区块），按访问时间排序后淘汰最旧的
+        for (MapChunk chunk : allChunks.values()) {
             if (!chunk.isLoaded()) {
-                chunk.clear();
-                iterator.remove();
-                toRemove--;
+                evictionCandidates.add(chunk);
             }
         }
+        evictionCandidates.sort(Comparator.comparingLong(MapChunk::getLastAccessTime));
+        int count = Math.min(toRemove, evictionCandidates.size());
+        for (int i = 0; i < count; i++) {
+            MapChunk oldest = evictionCandidates.get(i);
+            allChunks.remove(chunkKey(oldest.getChunkX(), oldest.getChunkY()));
+            if (store != null && oldest.isModified()) {
+                store.stash(oldest);
+            }
+            oldest.clear();
+        }
+        evictionCandidates.clear();
+    }
+
+    private int windowSlot(int chunkX, int chunkY) {
+        return Math.floorMod(chunkX, windowSide) * windowSide + Math.floorMod(chunkY, windowSide);
+    }
+
+    private boolean isInWindow(int chunkX, int chunkY) {
+        if (windowCenterX == Integer.MIN_VALUE) {
+            return false;
+        }
+        int radius = EndlessModeConfig.ACTIVE_CHUNK_RADIUS;
+        return Math.abs(chunkX - windowCenterX) <= radius && Math.abs(chunkY - windowCenterY) <= radius;
     }
 
     /**
@@ -190,21 +506,18 @@ private boolean isValidChunkPosition(int chunkX, int chunkY) {
                 chunkY >= 0 && chunkY < maxChunks;
     }
 
-    /**
-     * 获取区块唯一标识符
-     */
-    private String getChunkId(int chunkX, int chunkY) {
-        return chunkX + "_" + chunkY;
-    }
-
     /**
      * 获取指定位置的区块
-     * 
-     * @return 区块，如果不存在或未加载返回null
+     *
+     * 活跃窗口内的区块直接从环形数组取得，其余查缓存。
+     *
+     * @return 区块，如果不存在返回null
      */
     public MapChunk getChunk(int chunkX, int chunkY) {
-        String chunkId = getChunkId(chunkX, chunkY);
-        MapChunk chunk = allChunks.get(chunkId);
+        MapChunk chunk = activeWindow[windowSlot(chunkX, chunkY)];
+        if (chunk == null || chunk.getChunkX() != chunkX || chunk.getChunkY() != chunkY) {
+            chunk = allChunks.get(chunkKey(chunkX, chunkY));
+        }
         if (chunk != null) {
             chunk.touch();
         }
@@ -222,51 +535,77 @@ public MapChunk getChunkAtWorld(float worldX, float worldY) {
 
     /**
      * 获取所有已加载区块的墙体
+     *
+     * @return 只读视图，加载集合变化前保持不变
      */
     public List<WallEntity> getLoadedWalls() {
-        List<WallEntity> walls = new ArrayList<>();
-        for (String id : loadedChunkIds) {
-            MapChunk chunk = allChunks.get(id);
-            if (chunk != null) {
-                walls.addAll(chunk.getWalls());
+        if (loadedWallsDirty) {
+            loadedWalls.clear();
+            for (int i = 0; i < loadedChunks.size(); i++) {
+                loadedWalls.addAll(loadedChunks.get(i).getWalls());
             }
+            loadedWallsDirty = false;
         }
-        return walls;
+        return loadedWallsView;
     }
 
     /**
      * 获取所有已加载的区块
+     *
+     * @return 只读视图（每次返回同一实例）
      */
     public List<MapChunk> getLoadedChunks() {
-        List<MapChunk> chunks = new ArrayList<>();
-        for (String id : loadedChunkIds) {
-            MapChunk chunk = allChunks.get(id);
-            if (chunk != null) {
-                chunks.add(chunk);
-            }
-        }
-        return chunks;
+        return loadedChunksView;
+    }
+
+    /**
+     * 检查指定区块是否已生成（不论是否加载）
+     */
+    public boolean isChunkGenerated(int chunkX, int chunkY) {
+        return allChunks.containsKey(chunkKey(chunkX, chunkY));
+    }
+
+    /**
+     * 获取正在后台生成的区块数量
+     */
+    public int getPendingChunkCount() {
+        return pendingChunkKeys.size;
+    }
+
+    /**
+     * 获取累计的预取请求数
+     */
+    public int getPrefetchRequestCount() {
+        return prefetchRequests;
+    }
+
+    /**
+     * 获取活跃窗口重建次数（只在玩家跨越区块边界时增加）
+     */
+    public int getWindowRebuildCount() {
+        return windowRebuilds;
     }
 
     /**
      * 检查指定区块是否已加载
      */
     public boolean isChunkLoaded(int chunkX, int chunkY) {
-        return loadedChunkIds.contains(getChunkId(chunkX, chunkY));
+        MapChunk chunk = activeWindow[windowSlot(chunkX, chunkY)];
+        return chunk != null && chunk.getChunkX() == chunkX && chunk.getChunkY() == chunkY && chunk.isLoaded();
     }
 
     /**
      * 获取已加载区块数量
      */
     public int getLoadedChunkCount() {
-        return loadedChunkIds.size();
+        return loadedChunks.size();
     }
 
     /**
      * 获取已缓存区块数量
      */
     public int getCachedChunkCount() {
-        return allChunks.size();
+        return allChunks.size;
     }
 
     /**
@@ -276,12 +615,50 @@ public int getCenterChunkCoord() {
         return (EndlessModeConfig.MAP_WIDTH / chunkSize) / 2;
     }
 
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    /**
+     * 把缓存中有改动的区块写入存储并落盘
+     *
+     * @return 写入的区域文件数；没有存储时返回 0
+     */
+    public int saveWorld() {
+        return saveWorld(Collections.emptyMap());
+    }
+
+    /**
+     * 同 {@link #saveWorld()}，并把仍在活动中的敌人/药水一起写入所在区块
+     *
+     * @param live 区块 -> 活动内容（只用于编码，不会从游戏中移出）
+     */
+    public int saveWorld(Map<MapChunk, ChunkStore.LiveContents> live) {
+        if (store == null) {
+            return 0;
+        }
+        for (MapChunk chunk : allChunks.values()) {
+            ChunkStore.LiveContents contents = live.get(chunk);
+            if (chunk.isModified() || contents != null) {
+                store.stash(chunk, contents);
+            }
+        }
+        return store.flush();
+    }
+
     /**
      * 强制重新生成所有区块
      */
     public void regenerateAll() {
         allChunks.clear();
-        loadedChunkIds.clear();
+        loadedChunks.clear();
+        Arrays.fill(activeWindow, null);
+        loadedWallsDirty = true;
+        windowCenterX = Integer.MIN_VALUE;
+        windowCenterY = Integer.MIN_VALUE;
+        pendingChunkKeys.clear();
+        completed.clear();
+        epoch++;
     }
 
     /**
@@ -292,6 +669,11 @@ public void dispose() {
             chunk.clear();
         }
         allChunks.clear();
-        loadedChunkIds.clear();
+        loadedChunks.clear();
+        loadedWalls.clear();
+        Arrays.fill(activeWindow, null);
+        pendingChunkKeys.clear();
+        completed.clear();
+        generatorPool.shutdownNow();
     }
 }
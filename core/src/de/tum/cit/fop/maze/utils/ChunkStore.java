@@ -0,0 +1,386 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntMap;
+import de.tum.cit.fop.maze.config.EndlessModeConfig;
+import de.tum.cit.fop.maze.model.DamageType;
+import de.tum.cit.fop.maze.model.Enemy;
+import de.tum.cit.fop.maze.model.MapChunk;
+import de.tum.cit.fop.maze.model.WallEntity;
+import de.tum.cit.fop.maze.model.items.Potion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 无尽模式区块存储 (Chunk Store)
+ *
+ * 把有改动的区块（墙体、陷阱/宝箱状态、休眠敌人、掉落药水）写入
+ * saves/endless/world_&lt;种子&gt;/ 下按区域划分的文件：每个区域
+ * {@value #REGION_SIZE}×{@value #REGION_SIZE} 个区块，一个 r.&lt;rx&gt;.&lt;ry&gt;.bin。
+ *
+ * - 区域文件首次被访问时整体读入，区块数据保持为编码后的字节，
+ *   只在 {@link #restore} 时解码，未被访问的区块不付出解码代价
+ * - {@link #stash} 只更新内存中的字节并标记区域为脏
+ * - {@link #flush} 只重写脏区域（先写临时文件再替换），存档耗时与改动量成正比，
+ *   与游玩时长无关
+ *
+ * 仅在渲染线程使用。
+ */
+public class ChunkStore {
+
+    public static final int REGION_SIZE = 8;
+
+    private static final String WORLD_ROOT = "saves/endless/";
+    private static final int MAGIC = 0x4D5A5247; // "MZRG"
+    private static final int VERSION = 1;
+
+    private static final class Region {
+        /** 区域内下标 (lx * REGION_SIZE + ly) -> 编码后的区块 */
+        final IntMap<byte[]> chunks = new IntMap<>();
+        boolean dirty;
+    }
+
+    /**
+     * 存档时仍在活动中的区块内容：只写入区块数据，不从游戏中移出
+     */
+    public static final class LiveContents {
+        public final List<MapChunk.DormantEnemy> enemies = new ArrayList<>();
+        public final List<Potion> potions = new ArrayList<>();
+
+        public boolean isEmpty() {
+            return enemies.isEmpty() && potions.isEmpty();
+        }
+    }
+
+    private final FileHandle directory;
+    private final IntMap<Region> regions = new IntMap<>();
+
+    public ChunkStore(FileHandle directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 指定世界种子的存储目录
+     */
+    public static FileHandle worldDirectory(long worldSeed) {
+        return Gdx.files.local(WORLD_ROOT + "world_" + Long.toHexString(worldSeed) + "/");
+    }
+
+    /**
+     * 读取已保存的区块
+     *
+     * @return 恢复的区块（已构建格子索引）；没有保存过时返回 null
+     */
+    public MapChunk restore(int chunkX, int chunkY) {
+        Region region = region(chunkX, chunkY);
+        byte[] data = region.chunks.get(localIndex(chunkX, chunkY));
+        if (data == null) {
+            return null;
+        }
+        try {
+            return decode(chunkX, chunkY, data);
+        } catch (IOException | RuntimeException e) {
+            GameLogger.error("ChunkStore", "Corrupt chunk " + chunkX + "," + chunkY + ", regenerating", e);
+            region.chunks.remove(localIndex(chunkX, chunkY));
+            return null;
+        }
+    }
+
+    /**
+     * 记录区块的当前内容（只写内存，{@link #flush} 时落盘）
+     */
+    public void stash(MapChunk chunk) {
+        stash(chunk, null);
+    }
+
+    /**
+     * 记录区块的当前内容，并附带仍在活动中的敌人和药水
+     *
+     * 附带了活动内容时区块保持"已修改"，之后这些敌人死亡或离开时会重新写入，
+     * 不会留下过期的存档数据。
+     *
+     * @param live 活动内容（可为 null）
+     */
+    public void stash(MapChunk chunk, LiveContents live) {
+        Region region = region(chunk.getChunkX(), chunk.getChunkY());
+        try {
+            region.chunks.put(localIndex(chunk.getChunkX(), chunk.getChunkY()), encode(chunk, live));
+            region.dirty = true;
+            if (live == null || live.isEmpty()) {
+                chunk.clearModified();
+            }
+        } catch (IOException e) {
+            GameLogger.error("ChunkStore", "Failed to encode chunk " + chunk.getId(), e);
+        }
+    }
+
+    /**
+     * 把所有脏区域写回磁盘
+     *
+     * @return 写入的区域文件数
+     */
+    public int flush() {
+        int written = 0;
+        for (IntMap.Entry<Region> entry : regions.entries()) {
+            Region region = entry.value;
+            if (!region.dirty) {
+                continue;
+            }
+            int rx = entry.key >> 16;
+            int ry = (short) entry.key;
+            try {
+                writeRegion(rx, ry, region);
+                region.dirty = false;
+                written++;
+            } catch (IOException | RuntimeException e) {
+                GameLogger.error("ChunkStore", "Failed to write region " + rx + "," + ry, e);
+            }
+        }
+        return written;
+    }
+
+    public FileHandle getDirectory() {
+        return directory;
+    }
+
+    // ========== 区域文件 ==========
+
+    private Region region(int chunkX, int chunkY) {
+        int rx = Math.floorDiv(chunkX, REGION_SIZE);
+        int ry = Math.floorDiv(chunkY, REGION_SIZE);
+        int key = (rx << 16) | (ry & 0xFFFF);
+        Region region = regions.get(key);
+        if (region == null) {
+            region = readRegion(rx, ry);
+            regions.put(key, region);
+        }
+        return region;
+    }
+
+    private static int localIndex(int chunkX, int chunkY) {
+        return Math.floorMod(chunkX, REGION_SIZE) * REGION_SIZE + Math.floorMod(chunkY, REGION_SIZE);
+    }
+
+    private FileHandle regionFile(int rx, int ry) {
+        return directory.child("r." + rx + "." + ry + ".bin");
+    }
+
+    private Region readRegion(int rx, int ry) {
+        Region region = new Region();
+        FileHandle file = regionFile(rx, ry);
+        if (!file.exists()) {
+            return region;
+        }
+        try (DataInputStream in = new DataInputStream(file.read())) {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() != VERSION) {
+                GameLogger.warn("ChunkStore", "Ignoring incompatible region file " + file.name());
+                return region;
+            }
+            DataInputStream body = new DataInputStream(new InflaterInputStream(in));
+            int count = body.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                int index = body.readUnsignedByte();
+                byte[] data = new byte[body.readInt()];
+                body.readFully(data);
+                region.chunks.put(index, data);
+            }
+        } catch (IOException e) {
+            GameLogger.error("ChunkStore", "Failed to read region " + file.name(), e);
+            region.chunks.clear();
+        }
+        return region;
+    }
+
+    private void writeRegion(int rx, int ry, Region region) throws IOException {
+        directory.mkdirs();
+        FileHandle target = regionFile(rx, ry);
+        FileHandle temp = directory.child(target.name() + ".tmp");
+        try (OutputStream raw = temp.write(false)) {
+            DataOutputStream header = new DataOutputStream(raw);
+            header.writeInt(MAGIC);
+            header.writeShort(VERSION);
+            header.flush();
+
+            DeflaterOutputStream deflater = new DeflaterOutputStream(raw);
+            DataOutputStream body = new DataOutputStream(deflater);
+            body.writeShort(region.chunks.size);
+            for (IntMap.Entry<byte[]> entry : region.chunks.entries()) {
+                body.writeByte(entry.key);
+                body.writeInt(entry.value.length);
+                body.write(entry.value);
+            }
+            body.flush();
+            deflater.finish();
+        }
+        temp.moveTo(target);
+    }
+
+    // ========== 区块编码 ==========
+
+    /**
+     * 编码区块（坐标相对区块起点存为 short，敌人和药水位置保留浮点）
+     */
+    static byte[] encode(MapChunk chunk) throws IOException {
+        return encode(chunk, null);
+    }
+
+    static byte[] encode(MapChunk chunk, LiveContents live) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        int startX = chunk.getWorldStartX();
+        int startY = chunk.getWorldStartY();
+
+        out.writeUTF(chunk.getTheme() != null ? chunk.getTheme() : "");
+
+        List<WallEntity> walls = chunk.getWalls();
+        out.writeShort(walls.size());
+        for (WallEntity wall : walls) {
+            out.writeShort(wall.getOriginX() - startX);
+            out.writeShort(wall.getOriginY() - startY);
+            out.writeByte(wall.getGridWidth());
+            out.writeByte(wall.getGridHeight());
+            out.writeByte(wall.getCollisionHeight());
+            out.writeShort(wall.getTypeId());
+            out.writeBoolean(wall.isBorderWall());
+        }
+
+        writePositions(out, chunk.getTrapPositions());
+        writePositions(out, chunk.getChestPositions());
+        writePositions(out, chunk.getSpawnPoints());
+
+        long[] opened = chunk.getOpenedChests().toLongArray();
+        out.writeByte(opened.length);
+        for (long bits : opened) {
+            out.writeLong(bits);
+        }
+
+        List<MapChunk.DormantEnemy> enemies = chunk.getDormantEnemies();
+        List<MapChunk.DormantEnemy> liveEnemies = live != null ? live.enemies : List.of();
+        out.writeShort(enemies.size() + liveEnemies.size());
+        for (int i = 0; i < enemies.size() + liveEnemies.size(); i++) {
+            MapChunk.DormantEnemy e = i < enemies.size() ? enemies.get(i) : liveEnemies.get(i - enemies.size());
+            out.writeFloat(e.x);
+            out.writeFloat(e.y);
+            out.writeByte(e.type.ordinal());
+            out.writeInt(e.health);
+            out.writeInt(e.maxHealth);
+            out.writeByte(damageTypeCode(e.attackType));
+            out.writeByte(damageTypeCode(e.shieldType));
+            out.writeInt(e.shield);
+            out.writeInt(e.maxShield);
+        }
+
+        List<Potion> potions = chunk.getDroppedPotions();
+        List<Potion> livePotions = live != null ? live.potions : List.of();
+        out.writeShort(potions.size() + livePotions.size());
+        for (int i = 0; i < potions.size() + livePotions.size(); i++) {
+            Potion potion = i < potions.size() ? potions.get(i) : livePotions.get(i - potions.size());
+            out.writeFloat(potion.getX());
+            out.writeFloat(potion.getY());
+            out.writeByte(potion.getType().ordinal());
+            out.writeInt(potion.getValue());
+            out.writeFloat(potion.getDuration());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static MapChunk decode(int chunkX, int chunkY, byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        MapChunk chunk = new MapChunk(chunkX, chunkY, EndlessModeConfig.CHUNK_SIZE);
+        int startX = chunk.getWorldStartX();
+        int startY = chunk.getWorldStartY();
+
+        String theme = in.readUTF();
+        chunk.setTheme(theme.isEmpty() ? null : theme);
+
+        int wallCount = in.readUnsignedShort();
+        for (int i = 0; i < wallCount; i++) {
+            int x = startX + in.readShort();
+            int y = startY + in.readShort();
+            int w = in.readUnsignedByte();
+            int h = in.readUnsignedByte();
+            int collisionHeight = in.readUnsignedByte();
+            int typeId = in.readShort();
+            boolean border = in.readBoolean();
+            chunk.addWall(new WallEntity(x, y, w, h, typeId, border, collisionHeight));
+        }
+        chunk.buildCellIndex();
+
+        readPositions(in, chunk.getTrapPositions());
+        readPositions(in, chunk.getChestPositions());
+        readPositions(in, chunk.getSpawnPoints());
+
+        long[] opened = new long[in.readUnsignedByte()];
+        for (int i = 0; i < opened.length; i++) {
+            opened[i] = in.readLong();
+        }
+        chunk.getOpenedChests().or(BitSet.valueOf(opened));
+
+        int enemyCount = in.readUnsignedShort();
+        Enemy.EnemyType[] types = Enemy.EnemyType.values();
+        for (int i = 0; i < enemyCount; i++) {
+            MapChunk.DormantEnemy e = new MapChunk.DormantEnemy();
+            e.x = in.readFloat();
+            e.y = in.readFloat();
+            e.type = types[in.readUnsignedByte()];
+            e.health = in.readInt();
+            e.maxHealth = in.readInt();
+            e.attackType = damageTypeOf(in.readByte());
+            e.shieldType = damageTypeOf(in.readByte());
+            e.shield = in.readInt();
+            e.maxShield = in.readInt();
+            chunk.getDormantEnemies().add(e);
+        }
+
+        int potionCount = in.readUnsignedShort();
+        Potion.PotionType[] potionTypes = Potion.PotionType.values();
+        for (int i = 0; i < potionCount; i++) {
+            float x = in.readFloat();
+            float y = in.readFloat();
+            Potion.PotionType type = potionTypes[in.readUnsignedByte()];
+            int value = in.readInt();
+            float duration = in.readFloat();
+            chunk.getDroppedPotions().add(new Potion(x, y, type, value, duration));
+        }
+
+        chunk.markGenerated();
+        return chunk;
+    }
+
+    private static void writePositions(DataOutputStream out, List<Vector2> positions) throws IOException {
+        out.writeShort(positions.size());
+        for (Vector2 p : positions) {
+            out.writeFloat(p.x);
+            out.writeFloat(p.y);
+        }
+    }
+
+    private static void readPositions(DataInputStream in, List<Vector2> target) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            target.add(new Vector2(in.readFloat(), in.readFloat()));
+        }
+    }
+
+    private static int damageTypeCode(DamageType type) {
+        return type == null ? -1 : type.ordinal();
+    }
+
+    private static DamageType damageTypeOf(int code) {
+        return code < 0 ? null : DamageType.values()[code];
+    }
+}
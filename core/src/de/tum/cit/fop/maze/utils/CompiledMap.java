@@ -0,0 +1,286 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.config.GameConfig;
+import de.tum.cit.fop.maze.model.DamageType;
+import de.tum.cit.fop.maze.model.GameMap;
+import de.tum.cit.fop.maze.model.GameObject;
+import de.tum.cit.fop.maze.model.Wall;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * 编译后的二进制地图 (.mapbin)
+ *
+ * 由 .properties 地图编译而来，加载时不再逐格做字符串解析：
+ * - 头部：魔数、版本、源文件长度与 CRC32（源文件改动后缓存自动失效）
+ * - 元数据：伤害类型、护盾、难度、推荐护甲、主题、可游玩尺寸
+ * - 墙体游程：同类型、同一行、首尾相接的墙体合并为一条记录
+ * - 实体表：其余对象（出生点、敌人、陷阱、钥匙、宝箱等）
+ *
+ * 磁盘文件通过 FileChannel 一次读入堆缓冲区（不使用内存映射：Windows 上映射会锁住文件，
+ * 过期缓存将无法重写）；打包在 jar 内的文件读入字节数组。
+ */
+public final class CompiledMap {
+
+    public static final int MAGIC = 0x4D5A4D42; // "MZMB"
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".mapbin";
+
+    public MapLoader.LevelConfig config;
+    public int playableWidth;
+    public int playableHeight;
+
+    /**
+     * 墙体游程，每条 {@value #RUN_STRIDE} 个 int：typeId, 宽, 高, x, y, 数量（沿 x 方向按宽度连续排列）。
+     * 文件中坐标按 16 位存储，超出范围的地图不编译（继续使用文本解析）。
+     */
+    public int[] wallRuns;
+    public int wallRunCount;
+    public static final int RUN_STRIDE = 6;
+
+    /** 实体表，每个 {@value #ENTITY_STRIDE} 个 int：typeId, x, y */
+    public int[] entities;
+    public int entityCount;
+    public static final int ENTITY_STRIDE = 3;
+
+    private CompiledMap() {
+    }
+
+    public static int crc(byte[] source) {
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 将 .properties 源文件编译为二进制格式
+     */
+    public static byte[] compile(byte[] source) throws IOException {
+        Properties props = new Properties();
+        props.load(new ByteArrayInputStream(source));
+        MapLoader.LevelConfig config = MapLoader.parseMetadata(props);
+        int playableWidth = Integer.parseInt(props.getProperty("playableWidth", "50"));
+        int playableHeight = Integer.parseInt(props.getProperty("playableHeight", "50"));
+
+        // 墙体编码为 long 以便排序：typeId | y | x
+        long[] walls = new long[props.size()];
+        int wallCount = 0;
+        Map<Integer, int[]> wallSizes = new HashMap<>();
+        int[] entities = new int[props.size() * ENTITY_STRIDE];
+        int entityCount = 0;
+
+        for (String key : props.stringPropertyNames()) {
+            if (!key.contains(",")) {
+                continue;
+            }
+            int x;
+            int y;
+            int typeId;
+            try {
+                String[] coords = key.split(",");
+                x = Integer.parseInt(coords[0].trim());
+                y = Integer.parseInt(coords[1].trim());
+                typeId = Integer.parseInt(props.getProperty(key).trim());
+            } catch (NumberFormatException e) {
+                GameLogger.error("CompiledMap", "Invalid format in map file at line: " + key);
+                continue;
+            }
+            if (x < Short.MIN_VALUE || x > Short.MAX_VALUE || y < Short.MIN_VALUE || y > Short.MAX_VALUE) {
+                throw new IOException("Coordinate out of range for compiled map: " + key);
+            }
+
+            if (typeId != GameConfig.OBJECT_ID_ENTRY) {
+                GameObject obj = EntityFactory.createEntity(typeId, (float) x, (float) y);
+                if (obj == null) {
+                    GameLogger.info("CompiledMap",
+                            "Unknown or unhandled object type ID: " + typeId + " at " + x + "," + y);
+                    continue;
+                }
+                if (obj instanceof Wall && x >= 0 && y >= 0) {
+                    int w = (int) obj.getWidth();
+                    int h = (int) obj.getHeight();
+                    int wallType = GameMap.getTypeIdForSize(w, h);
+                    wallSizes.put(wallType, new int[] { w, h });
+                    walls[wallCount++] = ((long) wallType << 48) | ((long) y << 24) | x;
+                    continue;
+                }
+            }
+            entities[entityCount * ENTITY_STRIDE] = typeId;
+            entities[entityCount * ENTITY_STRIDE + 1] = x;
+            entities[entityCount * ENTITY_STRIDE + 2] = y;
+            entityCount++;
+        }
+
+        // 合并游程：排序后同类型、同一行且紧邻的墙体归为一条
+        Arrays.sort(walls, 0, wallCount);
+        int[] runs = new int[wallCount * RUN_STRIDE];
+        int runCount = 0;
+        for (int i = 0; i < wallCount; i++) {
+            int type = (int) (walls[i] >>> 48);
+            int y = (int) ((walls[i] >>> 24) & 0xFFFFFF);
+            int x = (int) (walls[i] & 0xFFFFFF);
+            int[] size = wallSizes.get(type);
+            int last = (runCount - 1) * RUN_STRIDE;
+            if (runCount > 0 && runs[last] == type && runs[last + 4] == y
+                    && runs[last + 3] + runs[last + 5] * size[0] == x && runs[last + 5] < Character.MAX_VALUE) {
+                runs[last + 5]++;
+            } else {
+                int base = runCount * RUN_STRIDE;
+                runs[base] = type;
+                runs[base + 1] = size[0];
+                runs[base + 2] = size[1];
+                runs[base + 3] = x;
+                runs[base + 4] = y;
+                runs[base + 5] = 1;
+                runCount++;
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + runCount * 10 + entityCount * 6);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(source.length);
+        out.writeInt(crc(source));
+
+        out.writeByte(config.damageType == DamageType.MAGICAL ? 1 : 0);
+        out.writeByte(config.enemyShieldEnabled ? 1 : 0);
+        out.writeByte(config.difficulty);
+        out.writeByte(config.suggestedArmor == DamageType.MAGICAL ? 1 : 0);
+        byte[] theme = config.theme.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(theme.length);
+        out.write(theme);
+        out.writeInt(playableWidth);
+        out.writeInt(playableHeight);
+
+        out.writeInt(runCount);
+        for (int i = 0; i < runCount; i++) {
+            int base = i * RUN_STRIDE;
+            out.writeShort(runs[base]);
+            out.writeByte(runs[base + 1]);
+            out.writeByte(runs[base + 2]);
+            out.writeChar(runs[base + 3]);
+            out.writeChar(runs[base + 4]);
+            out.writeChar(runs[base + 5]);
+        }
+
+        out.writeInt(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            int base = i * ENTITY_STRIDE;
+            out.writeShort(entities[base]);
+            out.writeShort(entities[base + 1]);
+            out.writeShort(entities[base + 2]);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码二进制地图
+     *
+     * @param source 当前的 .properties 源文件内容，用于校验缓存是否过期
+     * @return 解码结果；格式不符或已过期时返回 null（调用方回退到文本解析）
+     */
+    public static CompiledMap read(ByteBuffer buf, byte[] source) {
+        try {
+            if (buf.getInt() != MAGIC || buf.getShort() != VERSION) {
+                return null;
+            }
+            if (buf.getLong() != source.length || buf.getInt() != crc(source)) {
+                return null;
+            }
+
+            CompiledMap map = new CompiledMap();
+            MapLoader.LevelConfig config = new MapLoader.LevelConfig();
+            config.damageType = buf.get() == 1 ? DamageType.MAGICAL : DamageType.PHYSICAL;
+            config.enemyShieldEnabled = buf.get() == 1;
+            config.difficulty = buf.get();
+            config.suggestedArmor = buf.get() == 1 ? DamageType.MAGICAL : DamageType.PHYSICAL;
+            byte[] theme = new byte[buf.getShort()];
+            buf.get(theme);
+            config.theme = new String(theme, StandardCharsets.UTF_8);
+            map.config = config;
+            map.playableWidth = buf.getInt();
+            map.playableHeight = buf.getInt();
+
+            map.wallRunCount = buf.getInt();
+            map.wallRuns = new int[map.wallRunCount * RUN_STRIDE];
+            for (int i = 0; i < map.wallRunCount; i++) {
+                int base = i * RUN_STRIDE;
+                map.wallRuns[base] = buf.getShort();
+                map.wallRuns[base + 1] = buf.get();
+                map.wallRuns[base + 2] = buf.get();
+                map.wallRuns[base + 3] = buf.getChar();
+                map.wallRuns[base + 4] = buf.getChar();
+                map.wallRuns[base + 5] = buf.getChar();
+            }
+
+            map.entityCount = buf.getInt();
+            map.entities = new int[map.entityCount * ENTITY_STRIDE];
+            for (int i = 0; i < map.entityCount; i++) {
+                int base = i * ENTITY_STRIDE;
+                map.entities[base] = buf.getShort();
+                map.entities[base + 1] = buf.getShort();
+                map.entities[base + 2] = buf.getShort();
+            }
+            return map;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            GameLogger.warn("CompiledMap", "Truncated compiled map, ignoring");
+            return null;
+        }
+    }
+
+    /**
+     * 打开二进制地图：磁盘文件经 FileChannel 读入缓冲区，jar 内资源读入字节数组
+     *
+     * 返回时文件已关闭，调用方随后可以直接覆盖写入过期的缓存。
+     */
+    public static ByteBuffer open(FileHandle file) throws IOException {
+        File f = file.file();
+        if (f.isFile()) {
+            try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buf = ByteBuffer.allocate((int) channel.size());
+                while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                    // 读满为止
+                }
+                buf.flip();
+                return buf;
+            }
+        }
+        return ByteBuffer.wrap(file.readBytes());
+    }
+
+    /**
+     * 构建步骤：将目录中的所有 .properties 地图编译为同名 .mapbin
+     * 用法: CompiledMap &lt;maps目录&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args.length > 0 ? args[0] : "assets/maps");
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".properties"));
+        if (files == null) {
+            System.err.println("Not a directory: " + dir.getAbsolutePath());
+            return;
+        }
+        for (File file : files) {
+            FileHandle source = new FileHandle(file);
+            FileHandle target = source.sibling(source.nameWithoutExtension() + EXTENSION);
+            target.writeBytes(compile(source.readBytes()), false);
+            System.out.println("Compiled " + file.getName() + " -> " + target.name());
+        }
+    }
+}
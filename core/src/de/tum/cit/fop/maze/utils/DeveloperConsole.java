@@ -24,7 +24,7 @@
  * - player: god, noclip, heal, give, set
  * - world: tp, spawn, kill, time
  * - level: level, restart, win, skip
- * - debug: status, vars, clear, fps
+ * - debug: status, vars, clear, fps, textures, pools, perf
  * - help: help, ?
  */
 public class DeveloperConsole {
@@ -77,6 +77,24 @@ public interface LevelChangeListener {
         void onSkip();
 
         void onWin();
+
+        /**
+         * 以新种子重开当前关卡，并从第一帧开始录制输入
+         *
+         * @return false 表示当前模式不支持录制
+         */
+        default boolean onStartRecording() {
+            return false;
+        }
+
+        /**
+         * 停止录制并保存输入带
+         *
+         * @return 保存路径；未在录制时返回 null
+         */
+        default String onStopRecording() {
+            return null;
+        }
     }
 
     /**
@@ -232,6 +250,18 @@ public void executeCommand(String input) {
                 case "fps":
                     handleFps(parts);
                     break;
+                case "textures":
+                    handleTextures(parts);
+                    break;
+                case "pools":
+                    handlePools(parts);
+                    break;
+                case "perf":
+                    handlePerf(parts);
+                    break;
+                case "record":
+                    handleRecord(parts);
+                    break;
 
                 // Legacy commands (backward compatibility)
                 case "speed":
@@ -444,6 +474,10 @@ private void showHelpDebug() {
         log("vars                  Show all console variables");
         log("clear / cls           Clear console output");
         log("fps [on|off]          Toggle FPS display");
+        log("textures [budget MB]  Custom sprite memory / set budget");
+        log("pools [reset]         Entity pool statistics / reset counters");
+        log("perf [on|off|graph|reset]  Per-phase frame timings (p50/p95/p99)");
+        log("record [start|stop]   Restart level and record input for headless replay");
         log("");
         log("EXAMPLES:");
         log("  status              View player HP, position, etc.");
@@ -936,6 +970,151 @@ private void handleFps(String[] parts) {
         log("[OK] FPS display: " + (showFps ? "ON" : "OFF"));
     }
 
+    private void handleTextures(String[] parts) {
+        de.tum.cit.fop.maze.custom.CustomElementManager manager = de.tum.cit.fop.maze.custom.CustomElementManager
+                .getInstance();
+        if (parts.length >= 3 && parts[1].equalsIgnoreCase("budget")) {
+            int mb = parseIntSafe(parts[2], -1);
+            if (mb <= 0) {
+                log("[ERROR] Usage: textures budget <MB>");
+                return;
+            }
+            manager.setTextureBudgetBytes(mb * 1024L * 1024L);
+            log("[OK] Custom texture budget set to " + mb + " MB");
+        }
+
+        de.tum.cit.fop.maze.custom.TextureResidency stats = manager.getTextureResidency();
+        float mb = 1024f * 1024f;
+        log("═══════════════════════════════════════════");
+        log("        CUSTOM SPRITE TEXTURES");
+        log("═══════════════════════════════════════════");
+        log("  Resident: " + String.format("%.1f / %.1f MB", stats.getResidentBytes() / mb,
+                stats.getBudgetBytes() / mb) + " (" + stats.getResidentTextureCount() + " textures, "
+                + stats.getResidentAnimationCount() + " animations)");
+        log("  Atlas pages: " + String.format("%.1f MB", stats.getPinnedBytes() / mb));
+        log("  Hit rate: " + String.format("%.1f%%", stats.getHitRate() * 100f) + " (" + stats.getHits()
+                + " hits, " + stats.getMisses() + " loads)");
+        log("  Evictions: " + stats.getEvictions());
+        log("═══════════════════════════════════════════");
+    }
+
+    private void handlePools(String[] parts) {
+        if (parts.length >= 2 && parts[1].equalsIgnoreCase("reset")) {
+            EntityPools.resetStats();
+            log("[OK] Pool counters reset");
+        }
+
+        log("═══════════════════════════════════════════");
+        log("        ENTITY POOLS");
+        log("═══════════════════════════════════════════");
+        logPool(EntityPools.enemies());
+        logPool(EntityPools.projectiles());
+        logPool(EntityPools.droppedItems());
+        log("═══════════════════════════════════════════");
+    }
+
+    private void handleRecord(String[] parts) {
+        String action = parts.length >= 2 ? parts[1].toLowerCase() : "start";
+        if (levelChangeListener == null) {
+            log("[WARN] Recording not available here.");
+            return;
+        }
+        switch (action) {
+            case "start":
+                if (endlessMode || !levelChangeListener.onStartRecording()) {
+                    log("[ERROR] Recording is only supported in level mode.");
+                    return;
+                }
+                log("[OK] Level restarted, recording input...");
+                return;
+            case "stop":
+                String path = levelChangeListener.onStopRecording();
+                if (path == null) {
+                    log("[WARN] Not recording.");
+                } else {
+                    log("[OK] Tape saved: " + path);
+                    log("  Replay: gradlew replay --args=\"" + path + "\"");
+                }
+                return;
+            default:
+                log("[ERROR] Usage: record [start|stop]");
+        }
+    }
+
+    private void handlePerf(String[] parts) {
+        FrameProfiler profiler = FrameProfiler.getInstance();
+        if (parts.length >= 2) {
+            switch (parts[1].toLowerCase()) {
+                case "on":
+                    profiler.setEnabled(true);
+                    log("[OK] Frame profiler ON (close the console to record frames)");
+                    return;
+                case "off":
+                    profiler.setEnabled(false);
+                    log("[OK] Frame profiler OFF");
+                    return;
+                case "graph":
+                    boolean show = parts.length >= 3 ? parts[2].equalsIgnoreCase("on")
+                            : !profiler.isOverlayVisible();
+                    profiler.setOverlayVisible(show);
+                    log("[OK] Perf graph: " + (show ? "ON" : "OFF"));
+                    return;
+                case "reset":
+                    profiler.reset();
+                    log("[OK] Profiler history cleared");
+                    return;
+                default:
+                    log("[ERROR] Usage: perf [on|off|graph [on|off]|reset]");
+                    return;
+            }
+        }
+
+        if (!profiler.isEnabled()) {
+            log("[INFO] Frame profiler is off. Use 'perf on' or 'perf graph'.");
+            return;
+        }
+        FrameProfiler.Series frames = profiler.getFrameSeries();
+        if (frames.size() == 0) {
+            log("[INFO] No frames recorded yet. Close the console and play for a few seconds.");
+            return;
+        }
+
+        log("═══════════════════════════════════════════");
+        log("  FRAME PROFILE (last " + frames.size() + " frames, ms)");
+        log("═══════════════════════════════════════════");
+        log(String.format("  %-12s %7s %7s %7s", "phase", "p50", "p95", "p99"));
+        logPerfRow("frame", frames);
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            logPerfRow(phase.getLabel(), profiler.getPhaseSeries(phase));
+        }
+        log("  ───────────────────────────────────────");
+        logPerfRow("batch calls", profiler.getRenderCallSeries());
+        logPerfRow("tex binds", profiler.getTextureBindSeries());
+        FrameProfiler.Series alloc = profiler.getAllocSeries();
+        if (alloc.size() > 0) {
+            float[] kb = alloc.percentiles(0.5f, 0.95f, 0.99f);
+            log(String.format("  %-12s %7.1f %7.1f %7.1f", "alloc KB", kb[0] / 1024f, kb[1] / 1024f,
+                    kb[2] / 1024f));
+        }
+        log("═══════════════════════════════════════════");
+    }
+
+    private void logPerfRow(String name, FrameProfiler.Series series) {
+        if (series.size() == 0) {
+            log(String.format("  %-12s %7s %7s %7s", name, "-", "-", "-"));
+            return;
+        }
+        float[] p = series.percentiles(0.5f, 0.95f, 0.99f);
+        log(String.format("  %-12s %7.2f %7.2f %7.2f", name, p[0], p[1], p[2]));
+    }
+
+    private void logPool(EntityPools.TrackedPool<?> pool) {
+        log("  " + pool.getName() + ": " + pool.getInUse() + " in use (peak " + pool.getPeakInUse() + "), "
+                + pool.getFree() + " free");
+        log("    obtained " + pool.getObtained() + ", allocated " + pool.getCreated() + " ("
+                + String.format("%.1f%%", pool.getReuseRate() * 100f) + " reused)");
+    }
+
     // ==================== Legacy Commands ====================
 
     private void handleSpeed(String[] parts) {
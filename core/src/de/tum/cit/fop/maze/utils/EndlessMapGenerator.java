@@ -77,6 +77,9 @@ public MapChunk generateChunk(int chunkX, int chunkY) {
         // 生成内部墙体
         generateInternalWalls(chunk, chunkRandom);
 
+        // 墙体已确定，构建格子索引（后续碰撞查询 O(1)）
+        chunk.buildCellIndex();
+
         // 生成陷阱位置
         generateTraps(chunk, chunkRandom);
 
@@ -314,16 +317,7 @@ private void generateTraps(MapChunk chunk, Random rand) {
             }
 
             // 检查是否与墙体重叠
-            boolean collision = false;
-            for (WallEntity wall : chunk.getWalls()) {
-                if (worldX >= wall.getOriginX() && worldX < wall.getOriginX() + wall.getGridWidth() &&
-                        worldY >= wall.getOriginY() && worldY < wall.getOriginY() + wall.getGridHeight()) {
-                    collision = true;
-                    break;
-                }
-            }
-
-            if (!collision) {
+            if (!chunk.isWallAt(worldX, worldY)) {
                 // 使用整数坐标添加陷阱
                 chunk.addTrap(worldX, worldY);
                 occupiedCells.add(cellKey);
@@ -350,15 +344,8 @@ private void generateChests(MapChunk chunk, Random rand) {
         // 每个区块最多 1-2 个宝箱，避免过于密集
         expectedChests = Math.min(expectedChests, 2);
 
-        // 收集已占用的格子（墙体 + 陷阱）
+        // 收集已占用的格子（陷阱；墙体通过区块格子索引查询）
         java.util.Set<String> occupiedCells = new java.util.HashSet<>();
-        for (WallEntity wall : chunk.getWalls()) {
-            for (int wx = wall.getOriginX(); wx < wall.getOriginX() + wall.getGridWidth(); wx++) {
-                for (int wy = wall.getOriginY(); wy < wall.getOriginY() + wall.getGridHeight(); wy++) {
-                    occupiedCells.add(wx + "," + wy);
-                }
-            }
-        }
         for (Vector2 trap : chunk.getTrapPositions()) {
             occupiedCells.add((int) trap.x + "," + (int) trap.y);
         }
@@ -380,7 +367,7 @@ private void generateChests(MapChunk chunk, Random rand) {
             String cellKey = worldX + "," + worldY;
 
             // 检查是否已占用
-            if (occupiedCells.contains(cellKey)) {
+            if (chunk.isWallAt(worldX, worldY) || occupiedCells.contains(cellKey)) {
                 continue;
             }
 
@@ -0,0 +1,104 @@
+package de.tum.cit.fop.maze.utils;
+
+import de.tum.cit.fop.maze.config.EndlessModeConfig;
+
+/**
+ * 敌人分级调度 (Enemy Tier Scheduler)
+ *
+ * 无尽模式按与玩家的距离给敌人分级：
+ * - FULL: 全速 AI（寻路、滑墙、攻击），每帧更新
+ * - REDUCED: 每 {@link EndlessModeConfig#ENEMY_REDUCED_TICK_FRAMES} 帧更新一次，
+ *   按敌人固定的更新相位错开，使每帧只处理约 1/N 的中距离敌人；跳过的时间累积到下一次更新
+ * - DORMANT: 冻结为区块内的休眠快照，不再占用每帧开销，玩家靠近后再唤醒
+ *
+ * 这样每帧开销只和玩家附近的敌人数量相关，而不是敌人总数。
+ */
+public class EnemyTierScheduler {
+
+    public enum Tier {
+        FULL, REDUCED, DORMANT
+    }
+
+    private final float fullRateDistSq;
+    private final float dormantDistSq;
+    private final float wakeDistSq;
+    private final int reducedTickFrames;
+
+    private int frame;
+
+    // 上一帧统计（调试控制台使用）
+    private int fullCount;
+    private int reducedCount;
+    private int reducedTicks;
+
+    public EnemyTierScheduler() {
+        this(EndlessModeConfig.ENEMY_FULL_RATE_DISTANCE, EndlessModeConfig.ENEMY_DORMANT_DISTANCE,
+                EndlessModeConfig.ENEMY_WAKE_DISTANCE, EndlessModeConfig.ENEMY_REDUCED_TICK_FRAMES);
+    }
+
+    public EnemyTierScheduler(float fullRateDistance, float dormantDistance, float wakeDistance,
+            int reducedTickFrames) {
+        this.fullRateDistSq = fullRateDistance * fullRateDistance;
+        this.dormantDistSq = dormantDistance * dormantDistance;
+        this.wakeDistSq = wakeDistance * wakeDistance;
+        this.reducedTickFrames = Math.max(1, reducedTickFrames);
+    }
+
+    /**
+     * 开始新的一帧（重置统计，推进错开相位）
+     */
+    public void beginFrame() {
+        frame++;
+        fullCount = 0;
+        reducedCount = 0;
+        reducedTicks = 0;
+    }
+
+    /**
+     * 按到玩家距离的平方分级
+     */
+    public Tier classify(float distSq) {
+        if (distSq < fullRateDistSq) {
+            fullCount++;
+            return Tier.FULL;
+        }
+        if (distSq < dormantDistSq) {
+            reducedCount++;
+            return Tier.REDUCED;
+        }
+        return Tier.DORMANT;
+    }
+
+    /**
+     * 降频敌人本帧是否轮到更新
+     *
+     * @param phase 敌人固定的更新相位（见 Enemy#getTickPhase；不能用列表下标，
+     *              移除敌人后下标会移动，导致跳过超过 N 帧或连续两帧更新）
+     */
+    public boolean isReducedTick(int phase) {
+        if ((phase + frame) % reducedTickFrames != 0) {
+            return false;
+        }
+        reducedTicks++;
+        return true;
+    }
+
+    /**
+     * 休眠敌人是否应唤醒（唤醒距离小于休眠距离，避免在边界来回切换）
+     */
+    public boolean shouldWake(float distSq) {
+        return distSq < wakeDistSq;
+    }
+
+    public int getFullCount() {
+        return fullCount;
+    }
+
+    public int getReducedCount() {
+        return reducedCount;
+    }
+
+    public int getReducedTicks() {
+        return reducedTicks;
+    }
+}
@@ -0,0 +1,185 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import de.tum.cit.fop.maze.config.EndlessModeConfig;
+import de.tum.cit.fop.maze.model.DamageType;
+import de.tum.cit.fop.maze.model.Enemy;
+import de.tum.cit.fop.maze.model.Projectile;
+import de.tum.cit.fop.maze.model.items.DroppedItem;
+import de.tum.cit.fop.maze.model.weapons.WeaponEffect;
+
+/**
+ * 实体对象池 (Entity Pools)
+ *
+ * 敌人、投射物和掉落物的生命周期很短（无尽模式每隔几秒刷怪，每次射击一个投射物，
+ * 每次击杀一个掉落物），直接 new 再交给 removeIf 丢弃会持续产生垃圾。
+ * 这里统一提供可复用的对象池：
+ * - obtain*: 从池中取出并重新初始化（池空时才真正分配）
+ * - free*: 实体离开世界时归还，reset() 会清除监听器等对外引用
+ *
+ * 池是全局的，关卡之间共享；统计信息通过开发者控制台 "pools" 命令查看。
+ * 只能在游戏主线程使用。
+ */
+public final class EntityPools {
+
+    /**
+     * 带统计的对象池
+     */
+    public abstract static class TrackedPool<T> extends Pool<T> {
+        private final String name;
+        private int created;
+        private int obtained;
+        private int freed;
+        private int peakInUse;
+
+        TrackedPool(String name, int initialCapacity, int max) {
+            super(initialCapacity, max);
+            this.name = name;
+        }
+
+        @Override
+        public T obtain() {
+            obtained++;
+            peakInUse = Math.max(peakInUse, getInUse());
+            return super.obtain();
+        }
+
+        @Override
+        public void free(T object) {
+            freed++;
+            super.free(object);
+        }
+
+        @Override
+        public void freeAll(Array<T> objects) {
+            freed += objects.size;
+            super.freeAll(objects);
+        }
+
+        protected abstract T create();
+
+        @Override
+        protected final T newObject() {
+            created++;
+            return create();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** 真正分配过的对象数 */
+        public int getCreated() {
+            return created;
+        }
+
+        public int getObtained() {
+            return obtained;
+        }
+
+        /** 已取出但尚未归还的对象数 */
+        public int getInUse() {
+            return obtained - freed;
+        }
+
+        public int getPeakInUse() {
+            return peakInUse;
+        }
+
+        /** 复用率：取出请求中无需新分配的比例 */
+        public float getReuseRate() {
+            return obtained == 0 ? 0f : 1f - (float) created / obtained;
+        }
+
+        /** 清空计数；仍在使用中的对象计入新的取出数，归还后在用数不会变成负数 */
+        void resetStats() {
+            int inUse = getInUse();
+            created = 0;
+            obtained = inUse;
+            freed = 0;
+            peakInUse = inUse;
+        }
+    }
+
+    private static final TrackedPool<Enemy> ENEMIES = new TrackedPool<Enemy>("Enemy", 64,
+            EndlessModeConfig.MAX_ENEMY_COUNT) {
+        @Override
+        protected Enemy create() {
+            return new Enemy();
+        }
+    };
+
+    private static final TrackedPool<Projectile> PROJECTILES = new TrackedPool<Projectile>("Projectile", 32,
+            256) {
+        @Override
+        protected Projectile create() {
+            return new Projectile();
+        }
+    };
+
+    private static final TrackedPool<DroppedItem> DROPPED_ITEMS = new TrackedPool<DroppedItem>("DroppedItem",
+            16, 128) {
+        @Override
+        protected DroppedItem create() {
+            return new DroppedItem();
+        }
+    };
+
+    private EntityPools() {
+    }
+
+    /**
+     * 取出一个已重新初始化的敌人（类型和监听器由调用方设置）
+     */
+    public static Enemy obtainEnemy(float x, float y, int health, DamageType attackType,
+            DamageType shieldType, int shieldAmount) {
+        return ENEMIES.obtain().respawn(x, y, health, attackType, shieldType, shieldAmount);
+    }
+
+    public static void freeEnemy(Enemy enemy) {
+        ENEMIES.free(enemy);
+    }
+
+    public static Projectile obtainProjectile(float x, float y, float vx, float vy,
+            int damage, DamageType damageType, WeaponEffect effect,
+            boolean playerOwned, String textureKey, float size) {
+        return PROJECTILES.obtain().init(x, y, vx, vy, damage, damageType, effect, playerOwned, textureKey, size);
+    }
+
+    public static void freeProjectile(Projectile projectile) {
+        PROJECTILES.free(projectile);
+    }
+
+    /**
+     * 取出一个空掉落物，仅供 DroppedItem 的工厂方法使用
+     */
+    public static DroppedItem obtainDroppedItem() {
+        return DROPPED_ITEMS.obtain();
+    }
+
+    public static void freeDroppedItem(DroppedItem item) {
+        DROPPED_ITEMS.free(item);
+    }
+
+    public static TrackedPool<Enemy> enemies() {
+        return ENEMIES;
+    }
+
+    public static TrackedPool<Projectile> projectiles() {
+        return PROJECTILES;
+    }
+
+    public static TrackedPool<DroppedItem> droppedItems() {
+        return DROPPED_ITEMS;
+    }
+
+    /**
+     * 清空统计（不释放池中对象）
+     */
+    public static void resetStats() {
+        ENEMIES.resetStats();
+        PROJECTILES.resetStats();
+        DROPPED_ITEMS.resetStats();
+    }
+}
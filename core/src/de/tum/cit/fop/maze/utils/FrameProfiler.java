@@ -0,0 +1,330 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * 帧分段性能分析器 (Frame Profiler)
+ *
+ * 用法：
+ * <pre>
+ * profiler.beginFrame();
+ * profiler.begin(Phase.ENEMIES);
+ * updateEnemies(delta);
+ * profiler.end(Phase.ENEMIES);
+ * ...
+ * profiler.endFrame(batch);
+ * </pre>
+ *
+ * 每帧把各阶段耗时、SpriteBatch 渲染调用数、纹理绑定数和本线程分配的字节数
+ * 写入固定长度的环形缓冲区（单写者，读者只做快照，不加锁），
+ * 供开发者控制台 "perf" 命令计算 p50/p95/p99，以及 {@link PerfOverlay} 绘制曲线。
+ *
+ * 默认关闭；关闭时 begin/end 只有一次布尔判断。
+ * 同一阶段在一帧内可多次进出，耗时累加。
+ */
+public final class FrameProfiler {
+
+    /**
+     * 帧内的计时阶段
+     */
+    public enum Phase {
+        PLAYER("player"),
+        ENEMIES("enemy AI"),
+        PROJECTILES("projectiles"),
+        CHUNKS("chunks"),
+        FLOOR("floor"),
+        WALLS("walls"),
+        ENTITIES("entities"),
+        PARTICLES("particles"),
+        FOG("fog"),
+        HUD("hud");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** 保留的历史帧数（60 FPS 下约 5 秒） */
+    public static final int HISTORY = 300;
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final float NANOS_PER_MS = 1_000_000f;
+
+    private static final FrameProfiler INSTANCE = new FrameProfiler();
+
+    /**
+     * 单写者环形缓冲区
+     *
+     * 写者先写槽位再递增计数（volatile 写发布），读者按计数快照，
+     * 最坏情况下读到正被覆盖的最旧一帧，对统计没有影响。
+     */
+    public static final class Series {
+        private final float[] values = new float[HISTORY];
+        private volatile int count;
+
+        void add(float value) {
+            int n = count;
+            values[n % HISTORY] = value;
+            count = n + 1;
+        }
+
+        void clear() {
+            count = 0;
+        }
+
+        /** 已记录的帧数（不超过 HISTORY） */
+        public int size() {
+            return Math.min(count, HISTORY);
+        }
+
+        /**
+         * 第 i 个历史值，0 为最旧
+         */
+        public float get(int i) {
+            int n = count;
+            int size = Math.min(n, HISTORY);
+            return values[(n - size + i) % HISTORY];
+        }
+
+        public float latest() {
+            int n = count;
+            return n == 0 ? 0f : values[(n - 1) % HISTORY];
+        }
+
+        /**
+         * 按快照计算分位数
+         *
+         * @param quantiles 0..1 之间的分位点
+         * @return 与 quantiles 对应的值；没有数据时全为 0
+         */
+        public float[] percentiles(float... quantiles) {
+            float[] result = new float[quantiles.length];
+            int size = size();
+            if (size == 0) {
+                return result;
+            }
+            float[] sorted = new float[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = get(i);
+            }
+            Arrays.sort(sorted);
+            for (int q = 0; q < quantiles.length; q++) {
+                int index = (int) Math.ceil(quantiles[q] * size) - 1;
+                result[q] = sorted[Math.max(0, Math.min(size - 1, index))];
+            }
+            return result;
+        }
+    }
+
+    private volatile boolean enabled;
+    private volatile boolean overlayVisible;
+
+    private final long[] phaseStart = new long[PHASES.length];
+    private final long[] phaseNanos = new long[PHASES.length];
+    private long frameStart;
+    private boolean inFrame;
+
+    private final Series[] phaseSeries = new Series[PHASES.length];
+    private final Series frameSeries = new Series();
+    private final Series renderCallSeries = new Series();
+    private final Series textureBindSeries = new Series();
+    private final Series allocSeries = new Series();
+
+    private int lastTotalRenderCalls = -1;
+    private long frameAllocStart;
+    private GLProfiler glProfiler;
+    private com.sun.management.ThreadMXBean allocBean;
+    private boolean allocChecked;
+
+    private FrameProfiler() {
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseSeries[i] = new Series();
+        }
+    }
+
+    public static FrameProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开关分析器。开启时同时开启 GL 调用统计（纹理绑定数）。
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        inFrame = false;
+        lastTotalRenderCalls = -1;
+        if (enabled) {
+            if (glProfiler == null && Gdx.graphics != null) {
+                glProfiler = new GLProfiler(Gdx.graphics);
+            }
+            if (glProfiler != null) {
+                glProfiler.enable();
+            }
+        } else {
+            overlayVisible = false;
+            if (glProfiler != null) {
+                glProfiler.disable();
+            }
+        }
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * 显示曲线叠加层（会自动开启分析器）
+     */
+    public void setOverlayVisible(boolean visible) {
+        if (visible) {
+            setEnabled(true);
+        }
+        overlayVisible = visible;
+    }
+
+    public void beginFrame() {
+        if (!enabled) {
+            return;
+        }
+        Arrays.fill(phaseNanos, 0L);
+        if (glProfiler != null) {
+            glProfiler.reset();
+        }
+        frameAllocStart = currentThreadAllocatedBytes();
+        frameStart = System.nanoTime();
+        inFrame = true;
+    }
+
+    public void begin(Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        phaseStart[phase.ordinal()] = System.nanoTime();
+    }
+
+    public void end(Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        int i = phase.ordinal();
+        phaseNanos[i] += System.nanoTime() - phaseStart[i];
+    }
+
+    /**
+     * 结束一帧并写入历史
+     *
+     * @param batch 游戏主 SpriteBatch（统计其渲染调用数），可为 null
+     */
+    public void endFrame(SpriteBatch batch) {
+        if (!enabled || !inFrame) {
+            return;
+        }
+        inFrame = false;
+        long frameNanos = System.nanoTime() - frameStart;
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseSeries[i].add(phaseNanos[i] / NANOS_PER_MS);
+        }
+        frameSeries.add(frameNanos / NANOS_PER_MS);
+
+        if (batch != null) {
+            // totalRenderCalls 跨 begin/end 累加，取差值即本帧调用数
+            int total = batch.totalRenderCalls;
+            renderCallSeries.add(lastTotalRenderCalls < 0 ? batch.renderCalls : total - lastTotalRenderCalls);
+            lastTotalRenderCalls = total;
+        }
+        if (glProfiler != null) {
+            textureBindSeries.add(glProfiler.getTextureBindings());
+        }
+        long allocEnd = currentThreadAllocatedBytes();
+        if (allocEnd >= 0 && frameAllocStart >= 0) {
+            allocSeries.add(allocEnd - frameAllocStart);
+        }
+    }
+
+    /**
+     * 把 endFrame 之后在 batch 上产生的渲染调用（性能叠加层自身）排除在下一帧的统计之外
+     */
+    public void excludeRenderCalls(SpriteBatch batch) {
+        if (!enabled || batch == null || lastTotalRenderCalls < 0) {
+            return;
+        }
+        lastTotalRenderCalls = batch.totalRenderCalls;
+    }
+
+    /**
+     * 清空所有历史
+     */
+    public void reset() {
+        for (Series s : phaseSeries) {
+            s.clear();
+        }
+        frameSeries.clear();
+        renderCallSeries.clear();
+        textureBindSeries.clear();
+        allocSeries.clear();
+        lastTotalRenderCalls = -1;
+    }
+
+    public Series getPhaseSeries(Phase phase) {
+        return phaseSeries[phase.ordinal()];
+    }
+
+    /** 整帧耗时（毫秒），从 beginFrame 到 endFrame */
+    public Series getFrameSeries() {
+        return frameSeries;
+    }
+
+    public Series getRenderCallSeries() {
+        return renderCallSeries;
+    }
+
+    /** 纹理绑定数；没有 GL 上下文时为空 */
+    public Series getTextureBindSeries() {
+        return textureBindSeries;
+    }
+
+    /** 本线程每帧分配的字节数；JVM 不支持时为空 */
+    public Series getAllocSeries() {
+        return allocSeries;
+    }
+
+    /**
+     * 当前线程累计分配字节数（HotSpot 扩展），不支持时返回 -1
+     */
+    private long currentThreadAllocatedBytes() {
+        if (!allocChecked) {
+            allocChecked = true;
+            try {
+                java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                    if (sunBean.isThreadAllocatedMemorySupported()) {
+                        sunBean.setThreadAllocatedMemoryEnabled(true);
+                        allocBean = sunBean;
+                    }
+                }
+            } catch (LinkageError | RuntimeException e) {
+                GameLogger.warn("FrameProfiler", "Allocation tracking unavailable: " + e.getMessage());
+            }
+        }
+        return allocBean != null ? allocBean.getCurrentThreadAllocatedBytes() : -1L;
+    }
+}
@@ -83,7 +83,7 @@ public void renderGrout(SpriteBatch batch, GameMap gameMap, int x, int y, float
         // Left and Bottom are handled by the previous neighbor's Right and Top.
 
         // Current Tile Info
-        boolean isWall = gameMap.isOccupied(x, y);
+        boolean isWall = gameMap.getOccupancyGrid().get(x, y);
 
         // --- 1. Right Edge (East) ---
         // Check neighbor at (x+1, y)
@@ -0,0 +1,240 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 尸潮距离场 (Horde Distance Field)
+ *
+ * 无尽模式中所有敌人共享一张以玩家为中心的 BFS 距离场，范围限定在追踪半径内。
+ * - 玩家换格子时，主线程只做一次墙体快照（窗口内每格 1 字节）
+ * - BFS 在后台线程写入后备缓冲，完成后在主线程交换前后缓冲（双缓冲）
+ * - 重算期间敌人继续读取上一帧的距离场，渲染线程永不等待
+ *
+ * 敌人只需采样所在格子的 4 个邻居，朝距离最小的邻居移动。
+ */
+public class HordeDistanceField implements Disposable {
+
+    /** 墙体查询（主线程调用，用于快照） */
+    public interface WallQuery {
+        boolean isWallAt(int x, int y);
+    }
+
+    private static final int[] DIR_X = { 1, -1, 0, 0 };
+    private static final int[] DIR_Y = { 0, 0, 1, -1 };
+
+    private final int radius;
+    private final int size;
+
+    /** 一份距离场缓冲：窗口原点 + 墙体快照 + 距离 */
+    private static final class Buffer {
+        int originX;
+        int originY;
+        boolean valid;
+        final byte[] blocked;
+        final int[] distance;
+
+        Buffer(int cells) {
+            blocked = new byte[cells];
+            distance = new int[cells];
+        }
+    }
+
+    private Buffer front;
+    private Buffer back;
+    private final int[] queue;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "horde-distance-field");
+        t.setDaemon(true);
+        return t;
+    });
+    private Future<?> pending;
+
+    /** 最近一次请求的源点（玩家格子） */
+    private int requestedX = Integer.MIN_VALUE;
+    private int requestedY = Integer.MIN_VALUE;
+
+    private int rebuildCount = 0;
+
+    /**
+     * @param radius 距离场半径（格子数，通常等于敌人追踪范围）
+     */
+    public HordeDistanceField(int radius) {
+        this.radius = radius;
+        this.size = radius * 2 + 1;
+        int cells = size * size;
+        this.front = new Buffer(cells);
+        this.back = new Buffer(cells);
+        this.queue = new int[cells];
+    }
+
+    /**
+     * 每帧在主线程调用：交换已完成的后备缓冲，玩家换格子时发起新的后台重算。
+     */
+    public void update(int playerX, int playerY, WallQuery walls) {
+        if (pending != null) {
+            if (!pending.isDone()) {
+                return; // 上一次重算仍在进行，继续使用前缓冲
+            }
+            finishPending();
+        }
+
+        if (playerX == requestedX && playerY == requestedY) {
+            return;
+        }
+        requestedX = playerX;
+        requestedY = playerY;
+
+        // 主线程快照墙体（区块数据只在主线程读取）
+        final Buffer target = back;
+        target.originX = playerX - radius;
+        target.originY = playerY - radius;
+        byte[] blocked = target.blocked;
+        for (int ly = 0; ly < size; ly++) {
+            int wy = target.originY + ly;
+            int row = ly * size;
+            for (int lx = 0; lx < size; lx++) {
+                blocked[row + lx] = walls.isWallAt(target.originX + lx, wy) ? (byte) 1 : (byte) 0;
+            }
+        }
+
+        pending = worker.submit(() -> compute(target));
+    }
+
+    private void finishPending() {
+        try {
+            pending.get();
+            Buffer done = back;
+            back = front;
+            front = done;
+            rebuildCount++;
+        } catch (Exception e) {
+            GameLogger.error("HordeDistanceField", "Distance field rebuild failed: " + e.getMessage());
+        }
+        pending = null;
+    }
+
+    /**
+     * 后台线程：在快照上做 BFS（只访问 target 缓冲）
+     */
+    private void compute(Buffer target) {
+        int[] distance = target.distance;
+        byte[] blocked = target.blocked;
+        java.util.Arrays.fill(distance, -1);
+
+        int start = radius * size + radius;
+        distance[start] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current % size;
+            int cy = current / size;
+            int nextDist = distance[current] + 1;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DIR_X[d];
+                int ny = cy + DIR_Y[d];
+                if (nx < 0 || ny < 0 || nx >= size || ny >= size) {
+                    continue;
+                }
+                int n = ny * size + nx;
+                if (distance[n] >= 0 || blocked[n] != 0) {
+                    continue;
+                }
+                distance[n] = nextDist;
+                queue[tail++] = n;
+            }
+        }
+        target.valid = true;
+    }
+
+    /**
+     * 查询格子到玩家的步数
+     *
+     * @return 步数；不在距离场内或不可达时返回 -1
+     */
+    public int getDistance(int x, int y) {
+        Buffer f = front;
+        if (!f.valid) {
+            return -1;
+        }
+        int lx = x - f.originX;
+        int ly = y - f.originY;
+        if (lx < 0 || ly < 0 || lx >= size || ly >= size) {
+            return -1;
+        }
+        return f.distance[ly * size + lx];
+    }
+
+    /**
+     * 采样 4 个邻居，计算朝向距离最小邻居（格子左下角）的单位方向
+     *
+     * @param x   实体左下角 X
+     * @param y   实体左下角 Y
+     * @param out 输出方向（不分配对象）
+     * @return 是否找到更近的邻居
+     */
+    public boolean getDirection(float x, float y, float entitySize, Vector2 out) {
+        int cx = (int) (x + entitySize / 2);
+        int cy = (int) (y + entitySize / 2);
+        int best = getDistance(cx, cy);
+        if (best <= 0) {
+            return false;
+        }
+
+        int bestDir = -1;
+        for (int d = 0; d < 4; d++) {
+            int dist = getDistance(cx + DIR_X[d], cy + DIR_Y[d]);
+            if (dist >= 0 && dist < best) {
+                best = dist;
+                bestDir = d;
+            }
+        }
+        if (bestDir < 0) {
+            return false;
+        }
+
+        float tx = cx + DIR_X[bestDir] - x;
+        float ty = cy + DIR_Y[bestDir] - y;
+        float len = (float) Math.sqrt(tx * tx + ty * ty);
+        if (len < 0.001f) {
+            return false;
+        }
+        out.set(tx / len, ty / len);
+        return true;
+    }
+
+    /**
+     * 等待正在进行的重算完成并交换缓冲（测试/强制同步用）
+     */
+    public void waitForRebuild() {
+        if (pending != null) {
+            finishPending();
+        }
+    }
+
+    public boolean isRebuilding() {
+        return pending != null && !pending.isDone();
+    }
+
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    @Override
+    public void dispose() {
+        worker.shutdownNow();
+        pending = null;
+    }
+}
@@ -16,6 +16,13 @@ public class LootTable {
 
     private static final Random random = new Random();
 
+    /**
+     * 设置掉落随机数的种子（用于确定性回放）
+     */
+    public static void setRandomSeed(long seed) {
+        random.setSeed(seed);
+    }
+
     // === 基础掉落概率 ===
     public static final float COIN_DROP_CHANCE = 0.70f; // 70% 掉金币
     public static final float WEAPON_DROP_CHANCE = 0.15f; // 15% 掉武器
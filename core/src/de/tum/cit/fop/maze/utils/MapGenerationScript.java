@@ -5,39 +5,47 @@
 
 public class MapGenerationScript {
 
+    public static final int LEVEL_COUNT = 20;
+    private static final int LEVELS_PER_THEME = 4;
+
+    private static final String[] THEMES = { "Grassland", "Desert", "Ice", "Jungle", "Space" };
+    private static final DamageType[] DAMAGE_TYPES = { DamageType.PHYSICAL, DamageType.PHYSICAL, DamageType.MAGICAL,
+            DamageType.PHYSICAL, DamageType.MAGICAL };
+    private static final boolean[] SHIELDS = { false, true, false, true, true };
+
+    /**
+     * Level configuration for the campaign (1-based level number).
+     * Every theme gets four levels growing from 50x50 to 200x200; levels past the
+     * campaign wrap around the theme list.
+     */
+    public static MapGenerator.MapConfig configForLevel(int level) {
+        int t = ((level - 1) / LEVELS_PER_THEME) % THEMES.length;
+        int i = (level - 1) % LEVELS_PER_THEME;
+
+        MapGenerator.MapConfig config = new MapGenerator.MapConfig();
+        config.width = 50 + (i * 50); // 50, 100, 150, 200
+        config.height = config.width;
+        config.theme = THEMES[t];
+        config.damageType = DAMAGE_TYPES[t];
+        config.enemyShieldEnabled = SHIELDS[t];
+        config.difficulty = i + 1; // 1 to 4 based on level progression
+        return config;
+    }
+
+    public static String fileNameForLevel(int level) {
+        return "level-" + level + ".properties";
+    }
+
     public void generateMaps() {
-        Gdx.app.log("MapGenScript", "Starting Map Generation for 20 Levels...");
-
-        String[] themes = { "Grassland", "Desert", "Ice", "Jungle", "Space" };
-        DamageType[] damageTypes = { DamageType.PHYSICAL, DamageType.PHYSICAL, DamageType.MAGICAL, DamageType.PHYSICAL,
-                DamageType.MAGICAL };
-        boolean[] shields = { false, true, false, true, true };
-
-        int levelCounter = 1;
-
-        for (int t = 0; t < themes.length; t++) {
-            String theme = themes[t];
-            DamageType dmg = damageTypes[t];
-            boolean shield = shields[t];
-
-            for (int i = 0; i < 4; i++) {
-                int size = 50 + (i * 50); // 50, 100, 150, 200
-                int difficulty = i + 1; // 1 to 4 based on level progression
-
-                MapGenerator.MapConfig config = new MapGenerator.MapConfig();
-                config.width = size;
-                config.height = size;
-                config.theme = theme;
-                config.damageType = dmg;
-                config.enemyShieldEnabled = shield;
-                config.difficulty = difficulty;
-
-                String filename = "maps/level-" + levelCounter + ".properties";
-                Gdx.app.log("MapGenScript", "Generating " + filename + " [" + theme + " " + size + "x" + size + "]");
-
-                new MapGenerator(config).generateAndSave(filename);
-                levelCounter++;
-            }
+        Gdx.app.log("MapGenScript", "Starting Map Generation for " + LEVEL_COUNT + " Levels...");
+
+        for (int level = 1; level <= LEVEL_COUNT; level++) {
+            MapGenerator.MapConfig config = configForLevel(level);
+            String filename = "maps/" + fileNameForLevel(level);
+            Gdx.app.log("MapGenScript", "Generating " + filename + " [" + config.theme + " " + config.width + "x"
+                    + config.height + "]");
+
+            new MapGenerator(config).generateAndSave(filename);
         }
 
         Gdx.app.log("MapGenScript", "Generation Complete!");
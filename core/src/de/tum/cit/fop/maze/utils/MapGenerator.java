@@ -2,7 +2,6 @@
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import de.tum.cit.fop.maze.config.GameConfig;
 import de.tum.cit.fop.maze.model.WallEntity;
@@ -16,8 +15,17 @@
  * 核心功能：
  * 1. 边界墙自动生成（2格宽）
  * 2. 房间+走廊算法替代完美迷宫
- * 3. 每次放置墙体后验证路径连通性
+ * 3. 每次放置墙体前增量检查连通性（不会丢弃已生成的地图）
  * 4. 多次重试机制确保生成成功
+ *
+ * 增量连通性：障碍格（墙体与边界）按 8 邻接用并查集维护连通分量。
+ * 在 4 邻接的地板网格中，只有障碍物围成闭环时地板才会被分割；
+ * 新墙体沿其外围一圈若只接触一段障碍，或接触的多段障碍分属不同分量，
+ * 就不会形成闭环，否则拒绝放置。检查只涉及墙体外围 2(w+h)+4 个格子，
+ * 因此所有地板始终互相连通，最终无需 BFS 验证。
+ *
+ * 每个生成器持有自己的随机数生成器：同一种子总是生成同一张地图，
+ * 不同实例可以在多个线程上并行生成。
  */
 public class MapGenerator {
 
@@ -30,6 +38,15 @@ public class MapGenerator {
     private int totalHeight;
     private MapConfig config;
 
+    /** 随机数生成器（每次生成前按种子重置） */
+    private final Random random;
+
+    /** 种子（用于可重复生成） */
+    private final long seed;
+
+    /** 最近一次生成的统计 */
+    private GenerationStats lastStats;
+
     // 格子状态：0 = 可放墙, 1 = 地板（通道）
     private int[][] grid;
 
@@ -37,7 +54,10 @@ public class MapGenerator {
     private List<WallEntity> walls;
 
     // 安全区（起点、终点、钥匙周围）
-    private Set<Long> safeZone;
+    private boolean[][] safeZone;
+
+    // 障碍格的并查集（下标 x * totalHeight + y，仅对 grid == 0 的格子有意义）
+    private int[] obstacleParent;
 
     /**
      * 内嵌地图配置类 (替代原 RandomMapConfig)
@@ -55,6 +75,8 @@ public static class MapConfig {
         public float braidChance = 0.3f;
         public int roomCount = 60;
         public String theme = "Dungeon";
+        /** 放置墙体时增量维护连通性；关闭后退回到生成完毕再 BFS 验证、失败重试 */
+        public boolean incrementalConnectivity = true;
 
         public static final MapConfig DEFAULT = new MapConfig();
 
@@ -72,16 +94,57 @@ public MapConfig copy() {
             c.braidChance = this.braidChance;
             c.roomCount = this.roomCount;
             c.theme = this.theme;
+            c.incrementalConnectivity = this.incrementalConnectivity;
             return c;
         }
     }
 
+    /**
+     * 生成统计（批量生成时输出，用于平衡性检查）
+     */
+    public static class GenerationStats {
+        public long seed;
+        public int attempts;
+        public boolean fallback;
+        public int totalWidth;
+        public int totalHeight;
+        public int walls;
+        public int floorCells;
+        /** 从起点可达的地板格数 */
+        public int reachableFloorCells;
+        /** 起点到钥匙的最短步数，不可达为 -1 */
+        public int keyDistance;
+        /** 钥匙到出口的最短步数，不可达为 -1 */
+        public int exitDistance;
+        public long generationMillis;
+
+        public boolean isFullyConnected() {
+            return reachableFloorCells == floorCells;
+        }
+    }
+
     public MapGenerator() {
         this(MapConfig.DEFAULT);
     }
 
     public MapGenerator(MapConfig config) {
+        this(config, System.nanoTime());
+    }
+
+    public MapGenerator(MapConfig config, long seed) {
         this.config = config;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 由战役种子和关卡序号派生关卡种子（SplitMix64 混合，相邻关卡的种子互不相关）
+     */
+    public static long levelSeed(long campaignSeed, int levelIndex) {
+        long z = campaignSeed + (levelIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 
     public void generateAndSave(String fileName) {
@@ -90,26 +153,62 @@ public void generateAndSave(String fileName) {
 
     public void generateAndSave(String fileName, MapConfig config) {
         this.config = config;
+        String text = generateText();
+
+        FileHandle file = Gdx.files.local(fileName);
+        file.parent().mkdirs();
+        file.writeString(text, false);
 
-        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+        GameLogger.info("MapGenerator", "Saved map: " + fileName +
+                " | Size: " + lastStats.totalWidth + "x" + lastStats.totalHeight +
+                " | Walls: " + lastStats.walls);
+    }
+
+    /**
+     * 生成地图并返回 .properties 文本（不写文件，可在任意线程调用）
+     * 同一生成器重复调用得到相同结果。
+     */
+    public String generateText() {
+        long startTime = System.currentTimeMillis();
+        random.setSeed(seed);
+
+        GenerationResult result = null;
+        int attempt = 0;
+        while (result == null && attempt < MAX_ATTEMPTS) {
+            attempt++;
             try {
-                GenerationResult result = generate();
-                if (result != null && result.isValid) {
-                    saveToFile(fileName, result);
-                    GameLogger.info("MapGenerator",
-                            "Map generated successfully on attempt " + (attempt + 1));
-                    return;
+                GenerationResult candidate = generate();
+                if (candidate != null && candidate.isValid) {
+                    result = candidate;
+                    GameLogger.info("MapGenerator", "Map generated successfully on attempt " + attempt);
                 }
             } catch (Exception e) {
-                GameLogger.warn("MapGenerator",
-                        "Attempt " + (attempt + 1) + " failed: " + e.getMessage());
+                GameLogger.warn("MapGenerator", "Attempt " + attempt + " failed: " + e.getMessage());
             }
         }
 
-        // Fallback
-        GameLogger.warn("MapGenerator", "Using fallback map after " + MAX_ATTEMPTS + " attempts");
-        GenerationResult fallback = generateFallback();
-        saveToFile(fileName, fallback);
+        boolean fallback = result == null;
+        if (fallback) {
+            GameLogger.warn("MapGenerator", "Using fallback map after " + MAX_ATTEMPTS + " attempts");
+            result = generateFallback();
+        }
+
+        lastStats = computeStats(result);
+        lastStats.attempts = attempt;
+        lastStats.fallback = fallback;
+        lastStats.generationMillis = System.currentTimeMillis() - startTime;
+        return buildText(result);
+    }
+
+    /**
+     * 最近一次生成的统计，尚未生成时为 null
+     */
+    public GenerationStats getLastStats() {
+        return lastStats;
+    }
+
+    public long getSeed() {
+        return seed;
     }
 
     private static class GenerationResult {
@@ -141,7 +240,8 @@ private GenerationResult generate() {
 
         this.grid = new int[totalWidth][totalHeight];
         this.walls = new ArrayList<>();
-        this.safeZone = new HashSet<>();
+        this.safeZone = new boolean[totalWidth][totalHeight];
+        this.obstacleParent = new int[totalWidth * totalHeight];
 
         // 1. 初始化：全部设为地板
         for (int x = 0; x < totalWidth; x++) {
@@ -165,9 +265,9 @@ private GenerationResult generate() {
         // 4. 生成内部迷宫墙体（房间+走廊算法）
         generateInternalMaze();
 
-        // 5. 验证路径连通性
-        if (!validatePath(result.playerStart, result.keyPos) ||
-                !validatePath(result.keyPos, result.exitPos)) {
+        // 5. 验证路径连通性（增量模式下放置时已保证，无需再验证）
+        if (!config.incrementalConnectivity && (!validatePath(result.playerStart, result.keyPos) ||
+                !validatePath(result.keyPos, result.exitPos))) {
             return null; // 重试
         }
 
@@ -191,11 +291,11 @@ private void determineStartAndExit(GenerationResult result) {
 
         for (int i = 0; i < maxAttempts; i++) {
             // 随机生成两个点（避开边界附近的缓冲）
-            int x1 = BORDER_WIDTH + 2 + MathUtils.random(playableWidth - 5);
-            int y1 = BORDER_WIDTH + 2 + MathUtils.random(playableHeight - 5);
+            int x1 = BORDER_WIDTH + 2 + random.nextInt(playableWidth - 4);
+            int y1 = BORDER_WIDTH + 2 + random.nextInt(playableHeight - 4);
 
-            int x2 = BORDER_WIDTH + 2 + MathUtils.random(playableWidth - 5);
-            int y2 = BORDER_WIDTH + 2 + MathUtils.random(playableHeight - 5);
+            int x2 = BORDER_WIDTH + 2 + random.nextInt(playableWidth - 4);
+            int y2 = BORDER_WIDTH + 2 + random.nextInt(playableHeight - 4);
 
             Vector2 p1 = new Vector2(x1, y1);
             Vector2 p2 = new Vector2(x2, y2);
@@ -208,7 +308,7 @@ private void determineStartAndExit(GenerationResult result) {
         }
 
         // Fallback: 对角线附近
-        if (MathUtils.randomBoolean()) {
+        if (random.nextBoolean()) {
             result.playerStart = new Vector2(BORDER_WIDTH + 3, BORDER_WIDTH + 3);
             result.exitPos = new Vector2(totalWidth - BORDER_WIDTH - 4, totalHeight - BORDER_WIDTH - 4);
         } else {
@@ -265,12 +365,12 @@ private void generateInternalMaze() {
             attempts++;
 
             // 随机选择位置和尺寸
-            int sizeIdx = MathUtils.random(sizes.length - 1);
+            int sizeIdx = random.nextInt(sizes.length);
             int w = sizes[sizeIdx][0];
             int h = sizes[sizeIdx][1];
 
-            int x = BORDER_WIDTH + MathUtils.random(playableWidth - w);
-            int y = BORDER_WIDTH + MathUtils.random(playableHeight - h);
+            int x = BORDER_WIDTH + random.nextInt(playableWidth - w + 1);
+            int y = BORDER_WIDTH + random.nextInt(playableHeight - h + 1);
 
             // 检查是否可以放置
             if (canPlaceWall(x, y, w, h)) {
@@ -303,6 +403,10 @@ private boolean canPlaceWall(int x, int y, int w, int h) {
             }
         }
 
+        if (config.incrementalConnectivity && !keepsFloorConnected(x, y, w, h)) {
+            return false;
+        }
+
         // 临时标记
         for (int dx = 0; dx < w; dx++) {
             for (int dy = 0; dy < h; dy++) {
@@ -310,12 +414,100 @@ private boolean canPlaceWall(int x, int y, int w, int h) {
             }
         }
 
-        // 验证放置后路径仍然连通
-        // （简化：只在最终验证，此处跳过以提高性能）
+        return true;
+    }
 
+    /**
+     * 检查在 (x, y, w, h) 放置墙体后地板是否仍然连通
+     *
+     * 按顺时针遍历墙体外围一圈，统计被地板隔开的障碍段；
+     * 任意两段属于同一障碍分量时，新墙体会把它们连成闭环。
+     */
+    private boolean keepsFloorConnected(int x, int y, int w, int h) {
+        int ringLength = 2 * (w + h) + 4;
+        int start = -1;
+        for (int i = 0; i < ringLength; i++) {
+            if (!isRingCellBlocked(x, y, w, h, i)) {
+                start = i;
+                break;
+            }
+        }
+        if (start < 0) {
+            return true; // 外围全是障碍，不会分割任何地板
+        }
+
+        int[] roots = new int[ringLength / 2 + 1];
+        int segments = 0;
+        boolean previousBlocked = false;
+        for (int step = 1; step <= ringLength; step++) {
+            int i = (start + step) % ringLength;
+            boolean blocked = isRingCellBlocked(x, y, w, h, i);
+            if (blocked && !previousBlocked) {
+                int root = findObstacle(ringCellIndex(x, y, w, h, i));
+                for (int k = 0; k < segments; k++) {
+                    if (roots[k] == root) {
+                        return false;
+                    }
+                }
+                roots[segments++] = root;
+            }
+            previousBlocked = blocked;
+        }
         return true;
     }
 
+    /**
+     * 外围第 i 个格子的坐标编码：从左上角 (x-1, y+h) 出发顺时针
+     */
+    private int ringCellIndex(int x, int y, int w, int h, int i) {
+        int cx;
+        int cy;
+        if (i <= w + 1) { // 上边（含两角）
+            cx = x - 1 + i;
+            cy = y + h;
+        } else if (i <= w + 1 + h) { // 右边
+            cx = x + w;
+            cy = y + h - 1 - (i - w - 2);
+        } else if (i <= 2 * w + h + 3) { // 下边（含两角）
+            cx = x + w - (i - w - h - 2);
+            cy = y - 1;
+        } else { // 左边
+            cx = x - 1;
+            cy = y + (i - 2 * w - h - 4);
+        }
+        if (cx < 0 || cy < 0 || cx >= totalWidth || cy >= totalHeight) {
+            return 0; // 地图外视为边界墙（(0,0) 必属边界分量）
+        }
+        return cx * totalHeight + cy;
+    }
+
+    private boolean isRingCellBlocked(int x, int y, int w, int h, int i) {
+        int index = ringCellIndex(x, y, w, h, i);
+        return grid[index / totalHeight][index % totalHeight] == 0;
+    }
+
+    private int findObstacle(int index) {
+        int root = index;
+        while (obstacleParent[root] != root) {
+            root = obstacleParent[root];
+        }
+        // 路径压缩
+        while (obstacleParent[index] != root) {
+            int next = obstacleParent[index];
+            obstacleParent[index] = root;
+            index = next;
+        }
+        return root;
+    }
+
+    private void unionObstacle(int a, int b) {
+        int ra = findObstacle(a);
+        int rb = findObstacle(b);
+        if (ra != rb) {
+            obstacleParent[ra] = rb;
+        }
+    }
+
     /**
      * 添加墙体
      */
@@ -336,6 +528,18 @@ private void addWall(int x, int y, int w, int h, boolean isBorder) {
             for (int dy = 0; dy < h; dy++) {
                 if (x + dx < totalWidth && y + dy < totalHeight) {
                     grid[x + dx][y + dy] = 0;
+                    int index = (x + dx) * totalHeight + (y + dy);
+                    obstacleParent[index] = index;
+                }
+            }
+        }
+
+        // 与自身及 8 邻接的已有障碍合并为同一分量
+        int first = x * totalHeight + y;
+        for (int cx = Math.max(0, x - 1); cx <= Math.min(totalWidth - 1, x + w); cx++) {
+            for (int cy = Math.max(0, y - 1); cy <= Math.min(totalHeight - 1, y + h); cy++) {
+                if (grid[cx][cy] == 0) {
+                    unionObstacle(cx * totalHeight + cy, first);
                 }
             }
         }
@@ -365,15 +569,15 @@ private int getTypeIdForSize(int w, int h) {
     private void markSafeZone(Vector2 center, int radius) {
         int cx = (int) center.x;
         int cy = (int) center.y;
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                safeZone.add((long) (cx + dx) + ((long) (cy + dy) << 16));
+        for (int x = Math.max(0, cx - radius); x <= Math.min(totalWidth - 1, cx + radius); x++) {
+            for (int y = Math.max(0, cy - radius); y <= Math.min(totalHeight - 1, cy + radius); y++) {
+                safeZone[x][y] = true;
             }
         }
     }
 
     private boolean isInSafeZone(int x, int y) {
-        return safeZone.contains((long) x + ((long) y << 16));
+        return x >= 0 && y >= 0 && x < totalWidth && y < totalHeight && safeZone[x][y];
     }
 
     /**
@@ -384,24 +588,29 @@ private boolean validatePath(Vector2 from, Vector2 to) {
         int tx = (int) to.x, ty = (int) to.y;
 
         boolean[][] visited = new boolean[totalWidth][totalHeight];
-        Queue<int[]> queue = new LinkedList<>();
-        queue.add(new int[] { fx, fy });
+        // 数组队列（每格最多入队一次），坐标编码为 x * totalHeight + y
+        int[] queue = new int[totalWidth * totalHeight];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = fx * totalHeight + fy;
         visited[fx][fy] = true;
 
         int[][] dirs = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
 
-        while (!queue.isEmpty()) {
-            int[] cur = queue.poll();
-            if (cur[0] == tx && cur[1] == ty)
+        while (head < tail) {
+            int cur = queue[head++];
+            int cx = cur / totalHeight;
+            int cy = cur % totalHeight;
+            if (cx == tx && cy == ty)
                 return true;
 
             for (int[] d : dirs) {
-                int nx = cur[0] + d[0];
-                int ny = cur[1] + d[1];
+                int nx = cx + d[0];
+                int ny = cy + d[1];
                 if (nx >= 0 && nx < totalWidth && ny >= 0 && ny < totalHeight
                         && !visited[nx][ny] && grid[nx][ny] == 1) {
                     visited[nx][ny] = true;
-                    queue.add(new int[] { nx, ny });
+                    queue[tail++] = nx * totalHeight + ny;
                 }
             }
         }
@@ -413,8 +622,8 @@ private boolean validatePath(Vector2 from, Vector2 to) {
      */
     private Vector2 findKeyPosition(Vector2 start, Vector2 exit) {
         // 简化：放在地图中心偏向出口的位置
-        int kx = (int) (start.x + exit.x) / 2 + MathUtils.random(-5, 5);
-        int ky = (int) (start.y + exit.y) / 2 + MathUtils.random(-5, 5);
+        int kx = (int) (start.x + exit.x) / 2 + random.nextInt(11) - 5;
+        int ky = (int) (start.y + exit.y) / 2 + random.nextInt(11) - 5;
         kx = Math.max(BORDER_WIDTH + 3, Math.min(totalWidth - BORDER_WIDTH - 3, kx));
         ky = Math.max(BORDER_WIDTH + 3, Math.min(totalHeight - BORDER_WIDTH - 3, ky));
         return new Vector2(kx, ky);
@@ -440,7 +649,7 @@ private void placeEntities(GenerationResult result) {
         int trapCount = (int) (floorCount / 150 * config.trapDensity);
         int mobileTrapCount = (int) (floorCount / 100 * config.mobileTrapDensity);
 
-        Collections.shuffle(floors);
+        Collections.shuffle(floors, random);
 
         int idx = 0;
         for (int i = 0; i < enemyCount && idx < floors.size(); i++, idx++) {
@@ -455,9 +664,77 @@ private void placeEntities(GenerationResult result) {
     }
 
     /**
-     * 保存到文件
+     * 统计连通性：从起点做一次 BFS，得到可达地板数和关键路径长度
+     */
+    private GenerationStats computeStats(GenerationResult result) {
+        GenerationStats stats = new GenerationStats();
+        stats.seed = seed;
+        stats.totalWidth = totalWidth;
+        stats.totalHeight = totalHeight;
+        stats.walls = result.walls.size();
+        for (int x = 0; x < totalWidth; x++) {
+            for (int y = 0; y < totalHeight; y++) {
+                if (grid[x][y] == 1) {
+                    stats.floorCells++;
+                }
+            }
+        }
+
+        int[] fromStart = distancesFrom(result.playerStart);
+        for (int d : fromStart) {
+            if (d >= 0) {
+                stats.reachableFloorCells++;
+            }
+        }
+        stats.keyDistance = fromStart[cellIndex(result.keyPos)];
+        stats.exitDistance = distancesFrom(result.keyPos)[cellIndex(result.exitPos)];
+        return stats;
+    }
+
+    private int cellIndex(Vector2 pos) {
+        return (int) pos.x * totalHeight + (int) pos.y;
+    }
+
+    /**
+     * 从指定格子出发的 BFS 步数表（下标 x * totalHeight + y，不可达为 -1）
      */
-    private void saveToFile(String fileName, GenerationResult result) {
+    private int[] distancesFrom(Vector2 from) {
+        int[] dist = new int[totalWidth * totalHeight];
+        Arrays.fill(dist, -1);
+        int origin = cellIndex(from);
+        if (grid[(int) from.x][(int) from.y] != 1) {
+            return dist;
+        }
+        int[] queue = new int[dist.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = origin;
+        dist[origin] = 0;
+
+        int[][] dirs = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
+        while (head < tail) {
+            int cur = queue[head++];
+            int cx = cur / totalHeight;
+            int cy = cur % totalHeight;
+            for (int[] d : dirs) {
+                int nx = cx + d[0];
+                int ny = cy + d[1];
+                if (nx >= 0 && nx < totalWidth && ny >= 0 && ny < totalHeight && grid[nx][ny] == 1) {
+                    int next = nx * totalHeight + ny;
+                    if (dist[next] < 0) {
+                        dist[next] = dist[cur] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * 序列化为 .properties 文本
+     */
+    private String buildText(GenerationResult result) {
         StringBuilder sb = new StringBuilder();
 
         // Metadata
@@ -491,13 +768,7 @@ private void saveToFile(String fileName, GenerationResult result) {
                     .append("=").append(w.getTypeId()).append("\n");
         }
 
-        FileHandle file = Gdx.files.local(fileName);
-        file.parent().mkdirs();
-        file.writeString(sb.toString(), false);
-
-        GameLogger.info("MapGenerator", "Saved map: " + fileName +
-                " | Size: " + totalWidth + "x" + totalHeight +
-                " | Walls: " + result.walls.size());
+        return sb.toString();
     }
 
     private void appendEntity(StringBuilder sb, Vector2 pos, int type) {
@@ -516,7 +787,8 @@ private GenerationResult generateFallback() {
         this.totalHeight = playableHeight + 2 * BORDER_WIDTH;
         this.grid = new int[totalWidth][totalHeight];
         this.walls = new ArrayList<>();
-        this.safeZone = new HashSet<>();
+        this.safeZone = new boolean[totalWidth][totalHeight];
+        this.obstacleParent = new int[totalWidth * totalHeight];
 
         // 全部地板
         for (int x = 0; x < totalWidth; x++) {
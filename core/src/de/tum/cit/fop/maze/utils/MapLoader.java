@@ -4,8 +4,8 @@
 import com.badlogic.gdx.files.FileHandle;
 import de.tum.cit.fop.maze.model.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Properties;
 
 /**
@@ -26,6 +26,9 @@ public class MapLoader {
     public static final String KEY_SUGGESTED_ARMOR = "suggestedArmor";
     public static final String KEY_THEME = "theme";
 
+    // 首次加载时写入的二进制地图缓存目录（本地存储）
+    private static final String COMPILED_CACHE_DIR = "cache/";
+
     /**
      * 关卡配置信息类
      */
@@ -52,12 +55,12 @@ public LoadResult(GameMap map, LevelConfig config) {
 
     /**
      * 加载指定路径的地图文件（返回完整结果）
+     *
+     * 优先读取编译后的二进制地图（构建步骤生成的同名 .mapbin，或首次加载时写入的本地缓存），
+     * 源文件变动导致缓存过期时回退到文本解析并重新生成缓存。
      */
     public static LoadResult loadMapWithConfig(String internalPath) {
         GameLogger.info("MapLoader", "Attempting to load map: " + internalPath);
-        GameMap map = new GameMap();
-        LevelConfig config = new LevelConfig();
-        Properties props = new Properties();
 
         FileHandle file = Gdx.files.internal(internalPath);
         if (!file.exists()) {
@@ -66,83 +69,180 @@ public static LoadResult loadMapWithConfig(String internalPath) {
 
         if (!file.exists()) {
             GameLogger.error("MapLoader", "Map file not found in Internal or Local: " + internalPath);
+            return new LoadResult(createFallbackMap(), new LevelConfig());
+        }
+
+        LoadResult result;
+        try {
+            byte[] source = file.readBytes();
+            result = loadCompiled(internalPath, source);
+            if (result == null) {
+                result = parseText(source);
+                writeCompiledCache(internalPath, source);
+            }
+        } catch (IOException | com.badlogic.gdx.utils.GdxRuntimeException e) {
+            GameLogger.error("MapLoader", "Failed to load map file", e);
+            return new LoadResult(createFallbackMap(), new LevelConfig());
+        }
+
+        GameMap map = result.map;
+        LevelConfig config = result.config;
+        if (map.getWidth() == 0 || map.getHeight() == 0) {
+            GameLogger.error("MapLoader", "Map is empty! Using fallback.");
             return new LoadResult(createFallbackMap(), config);
         }
 
-        try (InputStream input = file.read()) {
-            props.load(input);
+        GameLogger.info("MapLoader", "Map loaded successfully! Size: " + map.getWidth() + "x" + map.getHeight()
+                + " | DamageType: " + config.damageType + " | Shields: " + config.enemyShieldEnabled);
+        return result;
+    }
 
-            // 1. 解析元数据配置
-            config = parseMetadata(props);
-            // Set theme on map
-            map.setTheme(config.theme);
+    /**
+     * 文本解析：逐行读取 x,y=id
+     */
+    static LoadResult parseText(byte[] source) throws IOException {
+        GameMap map = new GameMap();
+        Properties props = new Properties();
+        props.load(new ByteArrayInputStream(source));
 
-            // 2. 解析地图尺寸并初始化
-            int playableWidth = Integer.parseInt(props.getProperty("playableWidth", "50"));
-            int playableHeight = Integer.parseInt(props.getProperty("playableHeight", "50"));
-            map.initializeSize(playableWidth, playableHeight);
+        // 1. 解析元数据配置
+        LevelConfig config = parseMetadata(props);
+        // Set theme on map
+        map.setTheme(config.theme);
 
-            // 3. 遍历 Properties 中的每一个 Key
-            for (String key : props.stringPropertyNames()) {
+        // 2. 解析地图尺寸并初始化
+        int playableWidth = Integer.parseInt(props.getProperty("playableWidth", "50"));
+        int playableHeight = Integer.parseInt(props.getProperty("playableHeight", "50"));
+        map.initializeSize(playableWidth, playableHeight);
 
-                // 过滤掉非坐标格式的行 (必须包含逗号)
-                if (!key.contains(",")) {
-                    continue;
-                }
+        // 3. 遍历 Properties 中的每一个 Key
+        for (String key : props.stringPropertyNames()) {
 
-                try {
-                    String[] coords = key.split(",");
-                    int x = Integer.parseInt(coords[0].trim());
-                    int y = Integer.parseInt(coords[1].trim());
-
-                    String value = props.getProperty(key).trim();
-                    int typeId = Integer.parseInt(value);
-
-                    if (typeId == de.tum.cit.fop.maze.config.GameConfig.OBJECT_ID_ENTRY) {
-                        map.setPlayerStart(x, y);
-                    } else {
-                        GameObject obj = EntityFactory.createEntity(typeId, (float) x, (float) y);
-                        if (obj != null) {
-                            // 如果是敌人
-                            if (obj instanceof Enemy) {
-                                Enemy enemy = (Enemy) obj;
-
-                                // 统一使用第一关的怪物素材 (BOAR)
-                                enemy.setType(Enemy.EnemyType.BOAR);
-
-                                // 2. 如果护盾启用，设置护盾和攻击属性
-                                if (config.enemyShieldEnabled) {
-                                    enemy.setAttackDamageType(config.damageType);
-                                    enemy.setShield(config.damageType, 3); // 默认3点护盾
-                                }
-                            }
-                            map.addGameObject(obj);
-                        } else {
-                            GameLogger.info("MapLoader",
-                                    "Unknown or unhandled object type ID: " + typeId + " at " + x + "," + y);
-                        }
-                    }
-
-                } catch (NumberFormatException e) {
-                    GameLogger.error("MapLoader", "Invalid format in map file at line: " + key);
-                }
+            // 过滤掉非坐标格式的行 (必须包含逗号)
+            if (!key.contains(",")) {
+                continue;
             }
 
-        } catch (IOException e) {
-            GameLogger.error("MapLoader", "Failed to load map file", e);
-            return new LoadResult(createFallbackMap(), config);
+            try {
+                String[] coords = key.split(",");
+                int x = Integer.parseInt(coords[0].trim());
+                int y = Integer.parseInt(coords[1].trim());
+
+                String value = props.getProperty(key).trim();
+                int typeId = Integer.parseInt(value);
+
+                addCell(map, config, typeId, x, y);
+
+            } catch (NumberFormatException e) {
+                GameLogger.error("MapLoader", "Invalid format in map file at line: " + key);
+            }
         }
+        return new LoadResult(map, config);
+    }
 
-        if (map.getWidth() == 0 || map.getHeight() == 0) {
-            GameLogger.error("MapLoader", "Map is empty! Using fallback.");
-            return new LoadResult(createFallbackMap(), config);
+    /**
+     * 由二进制地图构建：墙体直接生成 WallEntity，无字符串解析
+     */
+    static LoadResult buildCompiled(CompiledMap compiled) {
+        GameMap map = new GameMap();
+        LevelConfig config = compiled.config;
+        map.setTheme(config.theme);
+        map.initializeSize(compiled.playableWidth, compiled.playableHeight);
+
+        int[] runs = compiled.wallRuns;
+        for (int i = 0; i < compiled.wallRunCount; i++) {
+            int base = i * CompiledMap.RUN_STRIDE;
+            int typeId = runs[base];
+            int w = runs[base + 1];
+            int h = runs[base + 2];
+            int x = runs[base + 3];
+            int y = runs[base + 4];
+            for (int n = runs[base + 5]; n > 0; n--, x += w) {
+                map.addWall(new WallEntity(x, y, w, h, typeId, false));
+            }
         }
 
-        GameLogger.info("MapLoader", "Map loaded successfully! Size: " + map.getWidth() + "x" + map.getHeight()
-                + " | DamageType: " + config.damageType + " | Shields: " + config.enemyShieldEnabled);
+        int[] entities = compiled.entities;
+        for (int i = 0; i < compiled.entityCount; i++) {
+            int base = i * CompiledMap.ENTITY_STRIDE;
+            addCell(map, config, entities[base], entities[base + 1], entities[base + 2]);
+        }
         return new LoadResult(map, config);
     }
 
+    /**
+     * 放置单个格子的对象（文本与二进制路径共用）
+     */
+    private static void addCell(GameMap map, LevelConfig config, int typeId, int x, int y) {
+        if (typeId == de.tum.cit.fop.maze.config.GameConfig.OBJECT_ID_ENTRY) {
+            map.setPlayerStart(x, y);
+            return;
+        }
+        GameObject obj = EntityFactory.createEntity(typeId, (float) x, (float) y);
+        if (obj != null) {
+            // 如果是敌人
+            if (obj instanceof Enemy) {
+                Enemy enemy = (Enemy) obj;
+
+                // 统一使用第一关的怪物素材 (BOAR)
+                enemy.setType(Enemy.EnemyType.BOAR);
+
+                // 2. 如果护盾启用，设置护盾和攻击属性
+                if (config.enemyShieldEnabled) {
+                    enemy.setAttackDamageType(config.damageType);
+                    enemy.setShield(config.damageType, 3); // 默认3点护盾
+                }
+            }
+            map.addGameObject(obj);
+        } else {
+            GameLogger.info("MapLoader",
+                    "Unknown or unhandled object type ID: " + typeId + " at " + x + "," + y);
+        }
+    }
+
+    /**
+     * 尝试读取编译后的地图：先找构建步骤生成的同名文件，再找本地缓存
+     *
+     * @return 加载结果；没有可用或未过期的二进制地图时返回 null
+     */
+    private static LoadResult loadCompiled(String internalPath, byte[] source) {
+        FileHandle[] candidates = {
+                Gdx.files.internal(compiledPathFor(internalPath)),
+                Gdx.files.local(COMPILED_CACHE_DIR + compiledPathFor(internalPath))
+        };
+        for (FileHandle candidate : candidates) {
+            if (candidate == null || !candidate.exists()) {
+                continue;
+            }
+            try {
+                CompiledMap compiled = CompiledMap.read(CompiledMap.open(candidate), source);
+                if (compiled != null) {
+                    GameLogger.info("MapLoader", "Using compiled map: " + candidate.path());
+                    return buildCompiled(compiled);
+                }
+                GameLogger.info("MapLoader", "Compiled map is stale: " + candidate.path());
+            } catch (IOException | RuntimeException e) {
+                GameLogger.warn("MapLoader", "Ignoring unreadable compiled map " + candidate.path() + ": " + e);
+            }
+        }
+        return null;
+    }
+
+    private static void writeCompiledCache(String internalPath, byte[] source) {
+        try {
+            FileHandle target = Gdx.files.local(COMPILED_CACHE_DIR + compiledPathFor(internalPath));
+            target.writeBytes(CompiledMap.compile(source), false);
+        } catch (IOException | RuntimeException e) {
+            GameLogger.warn("MapLoader", "Could not write compiled map cache: " + e.getMessage());
+        }
+    }
+
+    static String compiledPathFor(String internalPath) {
+        int dot = internalPath.lastIndexOf('.');
+        String base = dot > internalPath.lastIndexOf('/') ? internalPath.substring(0, dot) : internalPath;
+        return base + CompiledMap.EXTENSION;
+    }
+
     /**
      * 加载指定路径的地图文件（向后兼容，只返回 GameMap）
      */
@@ -153,7 +253,7 @@ public static GameMap loadMap(String internalPath) {
     /**
      * 解析元数据配置
      */
-    private static LevelConfig parseMetadata(Properties props) {
+    static LevelConfig parseMetadata(Properties props) {
         LevelConfig config = new LevelConfig();
 
         // 解析伤害类型
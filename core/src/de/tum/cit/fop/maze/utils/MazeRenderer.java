@@ -5,13 +5,12 @@
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import de.tum.cit.fop.maze.model.GameMap;
-import de.tum.cit.fop.maze.model.WallEntity;
-
-import java.util.List;
+import de.tum.cit.fop.maze.model.OccupancyGrid;
 
 /**
  * MazeRenderer - 重构版
  * 使用 WallEntity 列表渲染墙体，而不是遍历格子。
+ * 墙体渲染数据由 WallRenderCache 在地图加载后一次性构建。
  */
 public class MazeRenderer {
 
@@ -20,11 +19,13 @@ public class MazeRenderer {
     private static final float UNIT_SCALE = 16f;
 
     private final GroutRenderer groutRenderer;
+    private final WallRenderCache wallRenderCache;
 
     public MazeRenderer(SpriteBatch batch, TextureManager textureManager) {
         this.batch = batch;
         this.textureManager = textureManager;
         this.groutRenderer = new GroutRenderer(textureManager);
+        this.wallRenderCache = new WallRenderCache(textureManager, UNIT_SCALE);
     }
 
     public void renderFloor(GameMap gameMap, OrthographicCamera camera, TextureRegion floorTexture) {
@@ -50,11 +51,12 @@ public void renderFloor(GameMap gameMap, OrthographicCamera camera, TextureRegio
         TextureRegion wallBaseFloor = textureManager.getWallBaseFloor(gameMap.getTheme());
         TextureRegion walkableFloor = floorTexture != null ? floorTexture
                 : textureManager.getWalkableFloor(gameMap.getTheme());
+        OccupancyGrid occupancy = gameMap.getOccupancyGrid();
 
         for (int x = minX; x <= maxX; x++) {
             for (int y = minY; y <= maxY; y++) {
                 TextureRegion region;
-                if (gameMap.isOccupied(x, y)) {
+                if (occupancy.get(x, y)) {
                     // 墙体所在格子 -> 使用墙体底砖
                     region = wallBaseFloor;
                 } else {
@@ -87,137 +89,14 @@ public void renderWalls(GameMap gameMap, OrthographicCamera camera, float stateT
         float viewX = camera.position.x - viewW / 2;
         float viewY = camera.position.y - viewH / 2;
 
-        // Pass 3: Walls - 使用 WallEntity 列表渲染
-        // 按Y坐标从高到低排序，实现正确的Z-ordering (Back to Front)
-        List<WallEntity> walls = new java.util.ArrayList<>(gameMap.getWalls());
-        walls.sort((w1, w2) -> Integer.compare(w2.getOriginY(), w1.getOriginY()));
-
-        // 延迟渲染列表：用于存储墙顶部的渲染指令 (Grassland specific)
-        List<Runnable> deferredTops = new java.util.ArrayList<>();
-
-        boolean isGrassland = "grassland".equalsIgnoreCase(gameMap.getTheme());
-
-        for (WallEntity wall : walls) {
-            float wallX = wall.getOriginX() * UNIT_SCALE;
-            float wallY = wall.getOriginY() * UNIT_SCALE;
-            float wallW = wall.getGridWidth() * UNIT_SCALE;
-            float wallH = wall.getGridHeight() * UNIT_SCALE;
-
-            // 视锥体剔除 (Expanded bounds for tall walls)
-            if (wallX + wallW < viewX || wallX > viewX + viewW)
-                continue;
-            if (wallY + wallH + UNIT_SCALE * 2 < viewY || wallY > viewY + viewH)
-                continue;
-
-            // 获取贴图
-            TextureRegion reg = getWallRegion(wall, gameMap.getTheme(), stateTime);
-            if (reg == null)
-                continue;
-
-            // Grassland Special Handling: Split Body and Top
-            if (isGrassland && reg.getRegionHeight() >= 32) { // 至少由Top(16)+Body(16)组成
-                int topH = 16;
-                int bodyH = reg.getRegionHeight() - topH;
-
-                // TextureRegion(region, x, y, w, h) - relative to region
-                // Top Part (0, 0, W, 16)
-                TextureRegion topReg = new TextureRegion(reg, 0, 0, reg.getRegionWidth(), topH);
-
-                // Body Part (0, 16, W, BodyH)
-                TextureRegion bodyReg = new TextureRegion(reg, 0, topH, reg.getRegionWidth(), bodyH);
-
-                // Draw Body immediately
-                // Note: bodyH pixels should map to wallH world units?
-                // Visual Ratio: bodyH is H * 16. wallH is H * 16. Match 1:1.
-                batch.draw(bodyReg, wallX, wallY, wallW, wallH);
-
-                // Defer Top Draw
-                // Top is drawn at wallY + wallH. Height = 1 unit (16px)
-                deferredTops.add(() -> {
-                    batch.draw(topReg, wallX, wallY + wallH, wallW, UNIT_SCALE);
-                });
-
-            } else {
-                // Standard Rendering (Other themes or fallback)
-                float drawWidth = wallW;
-                float drawHeight = wallH;
-
-                // Dynamic Height for single-sprite walls
-                float texW = reg.getRegionWidth();
-                float texH = reg.getRegionHeight();
-                if (texW > 0) {
-                    drawHeight = texH * (wallW / texW);
-                }
-
-                // 孤立墙体增加视觉高度
-                if (drawHeight <= wallH && isWallIsolated(gameMap, wall) && !hasWallAbove(gameMap, wall)) {
-                    drawHeight = wallH + 0.5f * UNIT_SCALE;
-                }
-
-                batch.draw(reg, wallX, wallY, drawWidth, drawHeight);
-            }
-        }
-
-        // Render all deferred tops (sorted indirectly by insertion order, which is
-        // Back-to-Front)
-        // Back-to-Front Tops ensures Top(Front) covers Top(Back) if overlap.
-        // And importantly, Tops are drawn AFTER all Bodies (implicit in this step).
-        for (Runnable task : deferredTops) {
-            task.run();
-        }
+        // Pass 3: Walls - 使用预排序、分桶的墙体渲染缓存
+        // 只遍历与相机相交的分块，按Y从高到低绘制 (Back to Front)，不产生任何分配
+        wallRenderCache.ensureBuilt(gameMap);
+        wallRenderCache.render(batch, viewX, viewY, viewW, viewH);
 
         batch.setColor(Color.WHITE);
     }
 
-    /**
-     * 检查墙体是否孤立（四周无相邻墙体）
-     */
-    private boolean isWallIsolated(GameMap gameMap, WallEntity wall) {
-        int x = wall.getOriginX();
-        int y = wall.getOriginY();
-        int w = wall.getGridWidth();
-        int h = wall.getGridHeight();
-
-        // 检查左边
-        for (int dy = 0; dy < h; dy++) {
-            if (gameMap.isOccupied(x - 1, y + dy))
-                return false;
-        }
-        // 检查右边
-        for (int dy = 0; dy < h; dy++) {
-            if (gameMap.isOccupied(x + w, y + dy))
-                return false;
-        }
-        // 检查下边
-        for (int dx = 0; dx < w; dx++) {
-            if (gameMap.isOccupied(x + dx, y - 1))
-                return false;
-        }
-        // 检查上边
-        for (int dx = 0; dx < w; dx++) {
-            if (gameMap.isOccupied(x + dx, y + h))
-                return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * 检查墙体上方是否有墙
-     */
-    private boolean hasWallAbove(GameMap gameMap, WallEntity wall) {
-        int x = wall.getOriginX();
-        int y = wall.getOriginY();
-        int w = wall.getGridWidth();
-        int h = wall.getGridHeight();
-
-        for (int dx = 0; dx < w; dx++) {
-            if (gameMap.isOccupied(x + dx, y + h))
-                return true;
-        }
-        return false;
-    }
-
     // 缓存生物群系颜色
     private final com.badlogic.gdx.utils.ObjectMap<TextureRegion, Color> biomeColorCache = new com.badlogic.gdx.utils.ObjectMap<>();
 
@@ -274,11 +153,6 @@ private TextureRegion getTextureForTheme(String theme) {
         }
     }
 
-    private TextureRegion getWallRegion(WallEntity wall, String theme, float stateTime) {
-        return textureManager.getWallRegion(theme, wall.getGridWidth(), wall.getGridHeight(),
-                wall.getOriginX(), wall.getOriginY());
-    }
-
     public void dispose() {
         if (groutRenderer != null) {
             groutRenderer.dispose();
@@ -0,0 +1,323 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import de.tum.cit.fop.maze.model.weapons.WeaponEffect;
+
+/**
+ * 粒子引擎 (Particle Engine)
+ *
+ * 溅血、脚下尘土和魔法命中共用的粒子系统。
+ *
+ * - 结构数组 (SoA)：每个属性一个定长 float 数组，容量在构造时固定
+ * - 存活粒子始终紧凑排在 [0, count)，死亡时用最后一个粒子填补空位，
+ *   生成和回收都不分配内存
+ * - 直接用白色像素区域向主 SpriteBatch 输出四边形，不再单独开
+ *   ShapeRenderer，也不打断主批次
+ *
+ * 坐标为像素单位（格子 × {@link #UNIT_SCALE}），与游戏相机一致。
+ */
+public class ParticleEngine {
+
+    /**
+     * 伤害监听器接口 - Damage Listener Interface
+     * 用于解耦粒子系统和游戏实体
+     */
+    public interface DamageListener {
+        /**
+         * @param x                 世界坐标 X
+         * @param y                 世界坐标 Y
+         * @param amount            伤害量
+         * @param attackDirX        攻击方向 X
+         * @param attackDirY        攻击方向 Y
+         * @param knockbackStrength 击退强度 (0.0 - 1.0+, 影响扩散范围)
+         */
+        void onDamage(float x, float y, int amount, float attackDirX, float attackDirY, float knockbackStrength);
+    }
+
+    /** 地面层：在地板之上、实体之下渲染（尘土） */
+    public static final int LAYER_GROUND = 0;
+    /** 特效层：在所有实体之上渲染（溅血、魔法命中） */
+    public static final int LAYER_EFFECT = 1;
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /** 玩家受伤时的深蓝色“血液” */
+    public static final Color PLAYER_BLOOD = new Color(0.0f, 0.0f, 0.5f, 1.0f);
+
+    private static final Color MAGIC_SLOW = new Color(0.3f, 0.5f, 1.0f, 1.0f);
+    private static final Color MAGIC_FREEZE = new Color(0.6f, 0.9f, 1.0f, 1.0f);
+    private static final Color MAGIC_BURN = new Color(1.0f, 0.4f, 0.1f, 1.0f);
+
+    private static final float UNIT_SCALE = 16f; // 与游戏使用的缩放匹配
+
+    // 溅血配置
+    private static final int PARTICLES_PER_DAMAGE = 8; // 每点伤害生成的粒子数
+    private static final int MAX_BURST = 200; // 单次喷溅上限
+    private static final float BLOOD_GRAVITY = 80.0f; // 像素/秒²
+    private static final float BLOOD_DRAG = 0.95f;
+    private static final float DUST_DRAG = 0.9f;
+
+    private final int capacity;
+    private int count;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] life;
+    private final float[] maxLife;
+    private final float[] size;
+    private final float[] r;
+    private final float[] g;
+    private final float[] b;
+    /** 每帧速度衰减系数 */
+    private final float[] drag;
+    /** 重力（像素/秒²） */
+    private final float[] gravity;
+    /** 按剩余生命渐隐 */
+    private final boolean[] fade;
+    private final byte[] layer;
+
+    public ParticleEngine() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ParticleEngine(int capacity) {
+        this.capacity = capacity;
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.vx = new float[capacity];
+        this.vy = new float[capacity];
+        this.life = new float[capacity];
+        this.maxLife = new float[capacity];
+        this.size = new float[capacity];
+        this.r = new float[capacity];
+        this.g = new float[capacity];
+        this.b = new float[capacity];
+        this.drag = new float[capacity];
+        this.gravity = new float[capacity];
+        this.fade = new boolean[capacity];
+        this.layer = new byte[capacity];
+    }
+
+    // ========== 发射 ==========
+
+    /**
+     * 在指定位置生成溅血粒子（带攻击方向和击退强度）
+     *
+     * @param x                 世界坐标 X (tiles)
+     * @param y                 世界坐标 Y (tiles)
+     * @param damageAmount      伤害量 (影响粒子数量和大小)
+     * @param attackDirX        攻击方向 X (归一化)
+     * @param attackDirY        攻击方向 Y (归一化)
+     * @param knockbackStrength 击退强度 (影响扩散范围)
+     */
+    public void emitBlood(float x, float y, int damageAmount, float attackDirX, float attackDirY,
+            float knockbackStrength) {
+        emitBlood(x, y, damageAmount, attackDirX, attackDirY, knockbackStrength, null);
+    }
+
+    /**
+     * @param tint 粒子基础颜色，null 表示红色血液
+     */
+    public void emitBlood(float x, float y, int damageAmount, float attackDirX, float attackDirY,
+            float knockbackStrength, Color tint) {
+        // 伤害越高，粒子越多
+        int burst = Math.max(Math.min(damageAmount * PARTICLES_PER_DAMAGE, MAX_BURST), 5); // 至少5个粒子
+
+        // 伤害强度系数 (1伤害 = 1.0, 10伤害 = ~1.8)
+        float intensity = 1.0f + (float) Math.log10(Math.max(1, damageAmount)) * 0.3f;
+
+        // 击退扩散系数 (击退越大，扩散越大)
+        float spread = 1.0f + knockbackStrength * 0.5f;
+
+        float pixelX = x * UNIT_SCALE;
+        float pixelY = y * UNIT_SCALE;
+        float baseAngle = MathUtils.atan2(attackDirY, attackDirX);
+
+        for (int n = 0; n < burst && count < capacity; n++) {
+            int i = count++;
+            // 添加小偏移使效果更自然 (像素单位)
+            this.x[i] = pixelX + MathUtils.random(-4f, 4f) * spread;
+            this.y[i] = pixelY + MathUtils.random(-4f, 4f) * spread;
+
+            // 以攻击方向为主，扩散集中在击退方向（约±14度）
+            float angle = baseAngle + MathUtils.random(-0.25f, 0.25f) * spread;
+            float speed = MathUtils.random(60f, 150f) * intensity;
+            vx[i] = MathUtils.cos(angle) * speed;
+            vy[i] = MathUtils.sin(angle) * speed;
+
+            // 强度越高持续越久、粒子越大
+            maxLife[i] = MathUtils.random(0.5f, 0.9f) * (0.8f + intensity * 0.2f);
+            life[i] = maxLife[i];
+            size[i] = MathUtils.random(1f, 2.5f) * intensity;
+
+            if (tint != null) {
+                r[i] = MathUtils.clamp(tint.r + MathUtils.random(-0.1f, 0.1f), 0f, 1f);
+                g[i] = MathUtils.clamp(tint.g + MathUtils.random(-0.1f, 0.1f), 0f, 1f);
+                b[i] = MathUtils.clamp(tint.b + MathUtils.random(-0.1f, 0.1f), 0f, 1f);
+            } else {
+                r[i] = MathUtils.random(0.7f, 1.0f);
+                g[i] = MathUtils.random(0.0f, 0.15f);
+                b[i] = MathUtils.random(0.0f, 0.1f);
+            }
+            drag[i] = BLOOD_DRAG;
+            gravity[i] = BLOOD_GRAVITY;
+            fade[i] = true;
+            layer[i] = LAYER_EFFECT;
+        }
+    }
+
+    /**
+     * 在玩家脚下生成尘土
+     *
+     * @param x          玩家X (tiles)
+     * @param y          玩家Y (tiles)
+     * @param themeColor 地形主色调
+     */
+    public void emitDust(float x, float y, Color themeColor) {
+        // 生成在脚底附近
+        float pixelX = x * UNIT_SCALE + UNIT_SCALE / 2f;
+        float pixelY = y * UNIT_SCALE + 2f;
+
+        int burst = MathUtils.random(1, 2);
+        float darken = 0.6f; // 变暗系数
+        for (int n = 0; n < burst && count < capacity; n++) {
+            int i = count++;
+            this.x[i] = pixelX + MathUtils.random(-3f, 3f);
+            this.y[i] = pixelY + MathUtils.random(-2f, 2f);
+
+            // 随机方向，轻微向上趋势
+            float angle = MathUtils.random(0f, MathUtils.PI2);
+            float speed = MathUtils.random(5f, 15f);
+            vx[i] = MathUtils.cos(angle) * speed;
+            vy[i] = MathUtils.sin(angle) * speed + 5f;
+
+            maxLife[i] = MathUtils.random(0.5f, 1.0f);
+            life[i] = maxLife[i];
+            size[i] = MathUtils.random(0.5f, 1.5f);
+
+            r[i] = MathUtils.clamp((themeColor.r + MathUtils.random(-0.05f, 0.05f)) * darken, 0f, 1f);
+            g[i] = MathUtils.clamp((themeColor.g + MathUtils.random(-0.05f, 0.05f)) * darken, 0f, 1f);
+            b[i] = MathUtils.clamp((themeColor.b + MathUtils.random(-0.05f, 0.05f)) * darken, 0f, 1f);
+            drag[i] = DUST_DRAG;
+            gravity[i] = 0f;
+            fade[i] = false; // 保持不透明，直接消失
+            layer[i] = LAYER_GROUND;
+        }
+    }
+
+    /**
+     * 魔法武器命中：按武器效果生成不同颜色的爆散粒子
+     *
+     * @param x 世界坐标 X (tiles)
+     * @param y 世界坐标 Y (tiles)
+     */
+    public void emitMagicHit(float x, float y, WeaponEffect effect) {
+        if (effect == WeaponEffect.SLOW) {
+            // Magic Wand: 蓝色爆炸粒子
+            emitBlood(x, y, 8, 0, 0, 1.5f, MAGIC_SLOW);
+        } else if (effect == WeaponEffect.FREEZE) {
+            // Ice Bow: 冰蓝色爆炸粒子
+            emitBlood(x, y, 12, 0, 0, 2.0f, MAGIC_FREEZE);
+        } else if (effect == WeaponEffect.BURN) {
+            // Fire Staff: 橙红色粒子
+            emitBlood(x, y, 5, 0, 0, 0.8f, MAGIC_BURN);
+        }
+    }
+
+    /**
+     * 火焰法杖开火时的枪口火花
+     */
+    public void emitMuzzleFire(float x, float y, float dirX, float dirY) {
+        emitBlood(x, y, 5, dirX, dirY, 0.8f, MAGIC_BURN);
+    }
+
+    // ========== 更新与渲染 ==========
+
+    /**
+     * 更新所有粒子，死亡粒子由末尾粒子填补
+     */
+    public void update(float delta) {
+        int i = 0;
+        while (i < count) {
+            life[i] -= delta;
+            if (life[i] <= 0) {
+                moveLast(i);
+                continue;
+            }
+            x[i] += vx[i] * delta;
+            y[i] += vy[i] * delta;
+            vy[i] -= gravity[i] * delta;
+            vx[i] *= drag[i];
+            vy[i] *= drag[i];
+            i++;
+        }
+    }
+
+    private void moveLast(int i) {
+        int last = --count;
+        if (i == last) {
+            return;
+        }
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        life[i] = life[last];
+        maxLife[i] = maxLife[last];
+        size[i] = size[last];
+        r[i] = r[last];
+        g[i] = g[last];
+        b[i] = b[last];
+        drag[i] = drag[last];
+        gravity[i] = gravity[last];
+        fade[i] = fade[last];
+        layer[i] = layer[last];
+    }
+
+    /**
+     * 把指定层的粒子画进已 begin 的批次（使用游戏相机投影）
+     *
+     * @param batch 主 SpriteBatch，调用方负责 begin/end
+     * @param white 1×1 白色像素区域
+     * @param layer {@link #LAYER_GROUND} 或 {@link #LAYER_EFFECT}
+     */
+    public void render(Batch batch, TextureRegion white, int layer) {
+        if (count == 0) {
+            return;
+        }
+        float previous = batch.getPackedColor();
+        for (int i = 0; i < count; i++) {
+            if (this.layer[i] != layer) {
+                continue;
+            }
+            float alpha = fade[i] ? life[i] / maxLife[i] : 1f;
+            batch.setPackedColor(Color.toFloatBits(r[i], g[i], b[i], alpha));
+            float s = size[i];
+            batch.draw(white, x[i] - s / 2, y[i] - s / 2, s, s);
+        }
+        batch.setPackedColor(previous);
+    }
+
+    /**
+     * 获取当前活跃粒子数量 (用于调试)
+     */
+    public int getParticleCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 清除所有粒子
+     */
+    public void clear() {
+        count = 0;
+    }
+}
@@ -0,0 +1,153 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * 帧耗时曲线叠加层 (Perf Overlay)
+ *
+ * 在屏幕左下角按帧绘制 {@link FrameProfiler} 的历史：每帧一列，
+ * 各阶段按颜色堆叠，灰色部分为未归入任何阶段的耗时（输入、Box2D、GC 等），
+ * 两条参考线分别是 60 FPS 和 30 FPS 的帧预算。
+ * 图例中的 p95 每 0.5 秒刷新一次，避免每帧排序。
+ *
+ * 通过开发者控制台 "perf graph" 开关。
+ */
+public class PerfOverlay {
+
+    private static final float MARGIN = 10f;
+    private static final float GRAPH_HEIGHT = 120f;
+    /** 纵轴上限（毫秒），超出部分截断 */
+    private static final float MAX_MS = 40f;
+    private static final float SUMMARY_INTERVAL = 0.5f;
+    /** 缓存阶段数组，values() 每次调用都会分配新数组 */
+    private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+
+    private static final Color BACKGROUND = new Color(0f, 0f, 0f, 0.6f);
+    private static final Color UNTRACKED = new Color(0.45f, 0.45f, 0.45f, 1f);
+    private static final Color BUDGET_60 = new Color(0.3f, 1f, 0.3f, 0.8f);
+    private static final Color BUDGET_30 = new Color(1f, 0.3f, 0.3f, 0.8f);
+    private static final Color[] PHASE_COLORS = {
+            new Color(0.2f, 0.6f, 1f, 1f), // PLAYER
+            new Color(1f, 0.3f, 0.3f, 1f), // ENEMIES
+            new Color(1f, 0.6f, 0.1f, 1f), // PROJECTILES
+            new Color(0.7f, 0.4f, 1f, 1f), // CHUNKS
+            new Color(0.4f, 0.8f, 0.4f, 1f), // FLOOR
+            new Color(0.6f, 0.5f, 0.3f, 1f), // WALLS
+            new Color(1f, 1f, 0.3f, 1f), // ENTITIES
+            new Color(1f, 0.5f, 0.8f, 1f), // PARTICLES
+            new Color(0.5f, 0.9f, 0.9f, 1f), // FOG
+            new Color(0.9f, 0.9f, 0.9f, 1f) // HUD
+    };
+
+    private final FrameProfiler profiler;
+    private final ShapeRenderer shapeRenderer;
+    private final Matrix4 projection = new Matrix4();
+
+    private float summaryTimer;
+    private final String[] legend = new String[PHASES.length];
+    private String summary = "";
+
+    public PerfOverlay() {
+        this.profiler = FrameProfiler.getInstance();
+        this.shapeRenderer = new ShapeRenderer();
+    }
+
+    /**
+     * 绘制叠加层（在 HUD 之后调用，batch 不能处于 begin 状态）
+     */
+    public void render(float delta, SpriteBatch batch, BitmapFont font) {
+        if (!profiler.isOverlayVisible()) {
+            return;
+        }
+        int screenW = Gdx.graphics.getWidth();
+        int screenH = Gdx.graphics.getHeight();
+        projection.setToOrtho2D(0, 0, screenW, screenH);
+        Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+
+        summaryTimer -= delta;
+        if (summaryTimer <= 0 || summary.isEmpty()) {
+            summaryTimer = SUMMARY_INTERVAL;
+            refreshSummary();
+        }
+
+        FrameProfiler.Series frames = profiler.getFrameSeries();
+        int count = frames.size();
+        float graphW = FrameProfiler.HISTORY;
+        float pxPerMs = GRAPH_HEIGHT / MAX_MS;
+        float x0 = MARGIN;
+        float y0 = MARGIN;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(BACKGROUND);
+        shapeRenderer.rect(x0 - 4, y0 - 4, graphW + 8, GRAPH_HEIGHT + 8);
+
+        float colX = x0 + graphW - count;
+        for (int i = 0; i < count; i++, colX++) {
+            float frameMs = Math.min(frames.get(i), MAX_MS);
+            // 整帧作为灰色底，再把各阶段从下往上叠加
+            shapeRenderer.setColor(UNTRACKED);
+            shapeRenderer.rect(colX, y0, 1f, frameMs * pxPerMs);
+            float stacked = 0f;
+            for (int p = 0; p < PHASES.length && stacked < MAX_MS; p++) {
+                float ms = profiler.getPhaseSeries(PHASES[p]).get(i);
+                if (ms <= 0f) {
+                    continue;
+                }
+                ms = Math.min(ms, MAX_MS - stacked);
+                shapeRenderer.setColor(PHASE_COLORS[p]);
+                shapeRenderer.rect(colX, y0 + stacked * pxPerMs, 1f, ms * pxPerMs);
+                stacked += ms;
+            }
+        }
+
+        shapeRenderer.setColor(BUDGET_60);
+        shapeRenderer.rect(x0, y0 + 16.67f * pxPerMs, graphW, 1f);
+        shapeRenderer.setColor(BUDGET_30);
+        shapeRenderer.rect(x0, y0 + 33.33f * pxPerMs, graphW, 1f);
+        shapeRenderer.end();
+
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        float oldScaleX = font.getData().scaleX;
+        float oldScaleY = font.getData().scaleY;
+        font.getData().setScale(0.6f);
+        float textX = x0 + graphW + 12f;
+        float lineH = font.getLineHeight();
+        float textY = y0 + GRAPH_HEIGHT;
+        font.setColor(Color.WHITE);
+        font.draw(batch, summary, x0, y0 + GRAPH_HEIGHT + 4f + lineH);
+        for (int p = 0; p < PHASES.length; p++) {
+            font.setColor(PHASE_COLORS[p]);
+            font.draw(batch, legend[p], textX, textY - p * lineH);
+        }
+        font.setColor(Color.WHITE);
+        font.getData().setScale(oldScaleX, oldScaleY);
+        batch.end();
+        // 叠加层在 endFrame 之后绘制，不计入下一帧的渲染调用数
+        profiler.excludeRenderCalls(batch);
+    }
+
+    private void refreshSummary() {
+        for (int p = 0; p < PHASES.length; p++) {
+            float p95 = profiler.getPhaseSeries(PHASES[p]).percentiles(0.95f)[0];
+            legend[p] = String.format("%-11s %5.2f ms", PHASES[p].getLabel(), p95);
+        }
+        float[] frame = profiler.getFrameSeries().percentiles(0.5f, 0.95f, 0.99f);
+        float calls = profiler.getRenderCallSeries().percentiles(0.95f)[0];
+        summary = String.format("frame p50 %.1f / p95 %.1f / p99 %.1f ms   batch calls p95 %.0f   (phases: p95)",
+                frame[0], frame[1], frame[2], calls);
+    }
+
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
@@ -260,13 +260,7 @@ public String getActivePlayerSkinId() {
      * 根据武器名称查找自定义武器元素ID
      */
     public static String findCustomWeaponId(String weaponName) {
-        for (CustomElementDefinition def : CustomElementManager.getInstance().getAllElements()) {
-            if (def.getType() == ElementType.WEAPON &&
-                    def.getName().equalsIgnoreCase(weaponName)) {
-                return def.getId();
-            }
-        }
-        return null;
+        return CustomElementManager.getInstance().findWeaponId(weaponName);
     }
 
     /**
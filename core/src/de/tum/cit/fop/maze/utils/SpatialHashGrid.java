@@ -1,42 +1,93 @@
 package de.tum.cit.fop.maze.utils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import com.badlogic.gdx.utils.Array;
 
 /**
  * 空间哈希网格 (Spatial Hash Grid)
- * 
+ *
  * 用于优化大规模实体的邻近查询，将 O(N) 线性扫描降至 O(1) 摊销查询。
- * 
+ *
  * 原理：将2D空间划分为固定大小的单元格，每个实体根据位置存入对应单元格。
  * 查询邻近实体时只需检查相关单元格，无需遍历全部实体。
- * 
- * @param <T> 实体类型（必须实现 Positioned 接口或提供坐标访问方式）
+ *
+ * 存储结构（全部为基本类型数组，插入/更新/查询不产生垃圾）：
+ * - 单元格表：long 键的开放寻址哈希表，值为该单元格链表头的槽位
+ * - 实体槽位：并行数组（实体、坐标、所在单元格、双向链表指针）
+ * - 实体自身通过 {@link Entry} 记录槽位索引（侵入式），移除/更新为 O(1)
+ *
+ * @param <T> 实体类型（实现 {@link Entry} 以保存槽位索引）
  */
-public class SpatialHashGrid<T> {
+public class SpatialHashGrid<T extends SpatialHashGrid.Entry> {
+
+    /**
+     * 侵入式槽位索引：由网格写入，实体只需保存
+     */
+    public interface Entry {
+        int getSpatialSlot();
+
+        void setSpatialSlot(int slot);
+    }
+
+    /**
+     * 查询访问器
+     */
+    @FunctionalInterface
+    public interface Visitor<T> {
+        /**
+         * @return false 提前结束查询
+         */
+        boolean visit(T entity, float x, float y);
+    }
+
+    private static final int NO_SLOT = -1;
 
     /** 单元格大小（世界单位） */
     private final float cellSize;
 
-    /** 哈希表：cellKey -> 该单元格内的实体集合 */
-    private final Map<Long, Set<T>> grid;
+    // ===== 单元格表（开放寻址，线性探测） =====
+    private long[] cellKeys;
+    private int[] cellHeads;
+    private boolean[] cellUsed;
+    private int cellMask;
+    private int usedCells;
 
-    /** 反向索引：实体 -> 当前所在单元格Key */
-    private final Map<T, Long> entityCells;
+    // ===== 实体槽位 =====
+    private Object[] slotEntity;
+    private float[] slotX;
+    private float[] slotY;
+    private int[] slotCell; // 所在单元格在表中的下标
+    private int[] slotNext;
+    private int[] slotPrev;
+    private int freeHead = NO_SLOT;
+    private int slotTop = 0;
+    private int size = 0;
 
     /**
      * 构造函数
-     * 
+     *
      * @param cellSize 单元格大小（建议与渲染半径匹配，如16或32）
      */
     public SpatialHashGrid(float cellSize) {
         this.cellSize = cellSize;
-        this.grid = new HashMap<>();
-        this.entityCells = new HashMap<>();
+        allocateCells(64);
+        allocateSlots(64);
+    }
+
+    private void allocateCells(int capacity) {
+        cellKeys = new long[capacity];
+        cellHeads = new int[capacity];
+        cellUsed = new boolean[capacity];
+        cellMask = capacity - 1;
+        usedCells = 0;
+    }
+
+    private void allocateSlots(int capacity) {
+        slotEntity = new Object[capacity];
+        slotX = new float[capacity];
+        slotY = new float[capacity];
+        slotCell = new int[capacity];
+        slotNext = new int[capacity];
+        slotPrev = new int[capacity];
     }
 
     /**
@@ -45,190 +96,352 @@ public SpatialHashGrid(float cellSize) {
     private long getCellKey(float x, float y) {
         int cellX = (int) Math.floor(x / cellSize);
         int cellY = (int) Math.floor(y / cellSize);
+        return packKey(cellX, cellY);
+    }
+
+    private static long packKey(int cellX, int cellY) {
         // 使用长整型组合两个int，避免碰撞
         return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
     }
 
+    private static int hash(long key) {
+        // MurmurHash3 fmix64
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * 查找单元格下标，不存在时返回 -1
+     */
+    private int findCell(long key) {
+        int i = hash(key) & cellMask;
+        while (cellUsed[i]) {
+            if (cellKeys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & cellMask;
+        }
+        return -1;
+    }
+
+    /**
+     * 查找或创建单元格
+     */
+    private int obtainCell(long key) {
+        int i = hash(key) & cellMask;
+        while (cellUsed[i]) {
+            if (cellKeys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & cellMask;
+        }
+        if ((usedCells + 1) * 2 > cellKeys.length) {
+            rehash();
+            return obtainCell(key);
+        }
+        cellUsed[i] = true;
+        cellKeys[i] = key;
+        cellHeads[i] = NO_SLOT;
+        usedCells++;
+        return i;
+    }
+
     /**
-     * 插入实体
-     * 
+     * 扩容单元格表；空单元格（已无实体）在此时被丢弃
+     */
+    private void rehash() {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        boolean[] oldUsed = cellUsed;
+
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i] && oldHeads[i] != NO_SLOT)
+                live++;
+        }
+        int capacity = oldKeys.length;
+        while ((live + 1) * 4 > capacity) {
+            capacity <<= 1;
+        }
+        allocateCells(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i] || oldHeads[i] == NO_SLOT)
+                continue;
+            int cell = hash(oldKeys[i]) & cellMask;
+            while (cellUsed[cell]) {
+                cell = (cell + 1) & cellMask;
+            }
+            cellUsed[cell] = true;
+            cellKeys[cell] = oldKeys[i];
+            cellHeads[cell] = oldHeads[i];
+            usedCells++;
+            for (int s = oldHeads[i]; s != NO_SLOT; s = slotNext[s]) {
+                slotCell[s] = cell;
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeHead != NO_SLOT) {
+            int slot = freeHead;
+            freeHead = slotNext[slot];
+            return slot;
+        }
+        if (slotTop == slotEntity.length) {
+            int capacity = slotEntity.length * 2;
+            slotEntity = java.util.Arrays.copyOf(slotEntity, capacity);
+            slotX = java.util.Arrays.copyOf(slotX, capacity);
+            slotY = java.util.Arrays.copyOf(slotY, capacity);
+            slotCell = java.util.Arrays.copyOf(slotCell, capacity);
+            slotNext = java.util.Arrays.copyOf(slotNext, capacity);
+            slotPrev = java.util.Arrays.copyOf(slotPrev, capacity);
+        }
+        return slotTop++;
+    }
+
+    private void link(int slot, int cell) {
+        int head = cellHeads[cell];
+        slotCell[slot] = cell;
+        slotPrev[slot] = NO_SLOT;
+        slotNext[slot] = head;
+        if (head != NO_SLOT) {
+            slotPrev[head] = slot;
+        }
+        cellHeads[cell] = slot;
+    }
+
+    private void unlink(int slot) {
+        int prev = slotPrev[slot];
+        int next = slotNext[slot];
+        if (prev != NO_SLOT) {
+            slotNext[prev] = next;
+        } else {
+            cellHeads[slotCell[slot]] = next;
+        }
+        if (next != NO_SLOT) {
+            slotPrev[next] = prev;
+        }
+    }
+
+    /**
+     * 插入实体（已在网格中时等同于 update）
+     *
      * @param entity 实体对象
      * @param x      当前X坐标
      * @param y      当前Y坐标
      */
     public void insert(T entity, float x, float y) {
-        long key = getCellKey(x, y);
-        grid.computeIfAbsent(key, k -> new HashSet<>()).add(entity);
-        entityCells.put(entity, key);
+        if (isTracked(entity)) {
+            update(entity, x, y);
+            return;
+        }
+        int slot = allocateSlot();
+        slotEntity[slot] = entity;
+        slotX[slot] = x;
+        slotY[slot] = y;
+        link(slot, obtainCell(getCellKey(x, y)));
+        entity.setSpatialSlot(slot);
+        size++;
+    }
+
+    private boolean isTracked(T entity) {
+        int slot = entity.getSpatialSlot();
+        return slot >= 0 && slot < slotTop && slotEntity[slot] == entity;
     }
 
     /**
      * 移除实体
-     * 
+     *
      * @param entity 实体对象
      */
     public void remove(T entity) {
-        Long key = entityCells.remove(entity);
-        if (key != null) {
-            Set<T> cell = grid.get(key);
-            if (cell != null) {
-                cell.remove(entity);
-                if (cell.isEmpty()) {
-                    grid.remove(key);
-                }
-            }
+        if (!isTracked(entity)) {
+            return;
         }
+        int slot = entity.getSpatialSlot();
+        unlink(slot);
+        slotEntity[slot] = null;
+        slotNext[slot] = freeHead;
+        freeHead = slot;
+        entity.setSpatialSlot(NO_SLOT);
+        size--;
     }
 
     /**
      * 更新实体位置
-     * 
+     *
      * @param entity 实体对象
      * @param newX   新X坐标
      * @param newY   新Y坐标
      */
     public void update(T entity, float newX, float newY) {
-        long newKey = getCellKey(newX, newY);
-        Long oldKey = entityCells.get(entity);
-
-        // 如果还在同一个单元格，无需更新
-        if (oldKey != null && oldKey == newKey) {
+        if (!isTracked(entity)) {
+            insert(entity, newX, newY);
             return;
         }
+        int slot = entity.getSpatialSlot();
+        slotX[slot] = newX;
+        slotY[slot] = newY;
 
-        // 从旧单元格移除
-        if (oldKey != null) {
-            Set<T> oldCell = grid.get(oldKey);
-            if (oldCell != null) {
-                oldCell.remove(entity);
-                if (oldCell.isEmpty()) {
-                    grid.remove(oldKey);
-                }
-            }
+        long newKey = getCellKey(newX, newY);
+        // 如果还在同一个单元格，无需更新
+        if (cellKeys[slotCell[slot]] == newKey) {
+            return;
         }
-
-        // 插入新单元格
-        grid.computeIfAbsent(newKey, k -> new HashSet<>()).add(entity);
-        entityCells.put(entity, newKey);
+        unlink(slot);
+        link(slot, obtainCell(newKey));
     }
 
     /**
-     * 获取指定位置周围的实体
-     * 
+     * 遍历指定位置周围单元格中的实体（粗筛，不做距离过滤）
+     *
      * @param centerX 中心X坐标
      * @param centerY 中心Y坐标
      * @param radius  查询半径
-     * @return 半径内的实体列表
+     * @param visitor 访问器，返回 false 时提前结束
      */
-    public List<T> getNearby(float centerX, float centerY, float radius) {
-        List<T> result = new ArrayList<>();
-
+    @SuppressWarnings("unchecked")
+    public void forEachNearby(float centerX, float centerY, float radius, Visitor<T> visitor) {
         // 确定需要检查的单元格范围
         int minCellX = (int) Math.floor((centerX - radius) / cellSize);
         int maxCellX = (int) Math.floor((centerX + radius) / cellSize);
         int minCellY = (int) Math.floor((centerY - radius) / cellSize);
         int maxCellY = (int) Math.floor((centerY + radius) / cellSize);
 
-        float radiusSq = radius * radius;
-
         // 遍历相关单元格
         for (int cx = minCellX; cx <= maxCellX; cx++) {
             for (int cy = minCellY; cy <= maxCellY; cy++) {
-                long key = ((long) cx << 32) | (cy & 0xFFFFFFFFL);
-                Set<T> cell = grid.get(key);
-                if (cell != null) {
-                    result.addAll(cell);
+                int cell = findCell(packKey(cx, cy));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int s = cellHeads[cell]; s != NO_SLOT;) {
+                    int next = slotNext[s]; // 允许访问器移除当前实体
+                    if (!visitor.visit((T) slotEntity[s], slotX[s], slotY[s])) {
+                        return;
+                    }
+                    s = next;
                 }
             }
         }
-
-        return result;
     }
 
     /**
-     * 获取指定位置周围的实体（带精确距离过滤）
-     * 
-     * 此方法需要实体提供坐标，使用 PositionProvider 接口
-     * 
-     * @param centerX          中心X坐标
-     * @param centerY          中心Y坐标
-     * @param radius           查询半径
-     * @param positionProvider 坐标提供器
-     * @return 精确距离内的实体列表
+     * 遍历半径内的实体（按记录的坐标精确过滤）
      */
-    public List<T> getNearbyExact(float centerX, float centerY, float radius, PositionProvider<T> positionProvider) {
-        List<T> candidates = getNearby(centerX, centerY, radius);
-        List<T> result = new ArrayList<>();
-
+    @SuppressWarnings("unchecked")
+    public void forEachWithin(float centerX, float centerY, float radius, Visitor<T> visitor) {
+        int minCellX = (int) Math.floor((centerX - radius) / cellSize);
+        int maxCellX = (int) Math.floor((centerX + radius) / cellSize);
+        int minCellY = (int) Math.floor((centerY - radius) / cellSize);
+        int maxCellY = (int) Math.floor((centerY + radius) / cellSize);
         float radiusSq = radius * radius;
-        for (T entity : candidates) {
-            float ex = positionProvider.getX(entity);
-            float ey = positionProvider.getY(entity);
-            float dx = ex - centerX;
-            float dy = ey - centerY;
-            if (dx * dx + dy * dy <= radiusSq) {
-                result.add(entity);
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                int cell = findCell(packKey(cx, cy));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int s = cellHeads[cell]; s != NO_SLOT;) {
+                    int next = slotNext[s];
+                    float dx = slotX[s] - centerX;
+                    float dy = slotY[s] - centerY;
+                    if (dx * dx + dy * dy <= radiusSq
+                            && !visitor.visit((T) slotEntity[s], slotX[s], slotY[s])) {
+                        return;
+                    }
+                    s = next;
+                }
             }
         }
-
-        return result;
     }
 
     /**
-     * 清空所有实体
+     * 获取指定位置周围单元格中的实体，写入调用方提供的缓冲（先清空）
+     *
+     * @return 写入的实体数量
      */
-    public void clear() {
-        grid.clear();
-        entityCells.clear();
-    }
+    @SuppressWarnings("unchecked")
+    public int getNearby(float centerX, float centerY, float radius, Array<T> out) {
+        out.clear();
+        int minCellX = (int) Math.floor((centerX - radius) / cellSize);
+        int maxCellX = (int) Math.floor((centerX + radius) / cellSize);
+        int minCellY = (int) Math.floor((centerY - radius) / cellSize);
+        int maxCellY = (int) Math.floor((centerY + radius) / cellSize);
 
-    /**
-     * 获取当前实体总数
-     */
-    public int size() {
-        return entityCells.size();
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                int cell = findCell(packKey(cx, cy));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int s = cellHeads[cell]; s != NO_SLOT; s = slotNext[s]) {
+                    out.add((T) slotEntity[s]);
+                }
+            }
+        }
+        return out.size;
     }
 
     /**
-     * 坐标提供器接口
+     * 获取半径内的实体（精确距离过滤），写入调用方提供的缓冲（先清空）
+     *
+     * @return 写入的实体数量
      */
-    @FunctionalInterface
-    public interface PositionProvider<T> {
-        float getX(T entity);
+    @SuppressWarnings("unchecked")
+    public int getNearbyExact(float centerX, float centerY, float radius, Array<T> out) {
+        out.clear();
+        int minCellX = (int) Math.floor((centerX - radius) / cellSize);
+        int maxCellX = (int) Math.floor((centerX + radius) / cellSize);
+        int minCellY = (int) Math.floor((centerY - radius) / cellSize);
+        int maxCellY = (int) Math.floor((centerY + radius) / cellSize);
+        float radiusSq = radius * radius;
 
-        default float getY(T entity) {
-            return 0; // 将由调用者实现完整版本
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                int cell = findCell(packKey(cx, cy));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int s = cellHeads[cell]; s != NO_SLOT; s = slotNext[s]) {
+                    float dx = slotX[s] - centerX;
+                    float dy = slotY[s] - centerY;
+                    if (dx * dx + dy * dy <= radiusSq) {
+                        out.add((T) slotEntity[s]);
+                    }
+                }
+            }
         }
+        return out.size;
     }
 
     /**
-     * 完整的坐标提供器接口
+     * 清空所有实体
      */
-    public interface FullPositionProvider<T> {
-        float getX(T entity);
-
-        float getY(T entity);
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        for (int s = 0; s < slotTop; s++) {
+            Object entity = slotEntity[s];
+            if (entity != null) {
+                ((T) entity).setSpatialSlot(NO_SLOT);
+                slotEntity[s] = null;
+            }
+        }
+        java.util.Arrays.fill(cellUsed, false);
+        usedCells = 0;
+        freeHead = NO_SLOT;
+        slotTop = 0;
+        size = 0;
     }
 
     /**
-     * 获取指定位置周围的实体（带精确距离过滤，使用完整坐标提供器）
+     * 获取当前实体总数
      */
-    public List<T> getNearbyExact(float centerX, float centerY, float radius,
-            FullPositionProvider<T> positionProvider) {
-        List<T> candidates = getNearby(centerX, centerY, radius);
-        List<T> result = new ArrayList<>();
-
-        float radiusSq = radius * radius;
-        for (T entity : candidates) {
-            float ex = positionProvider.getX(entity);
-            float ey = positionProvider.getY(entity);
-            float dx = ex - centerX;
-            float dy = ey - centerY;
-            if (dx * dx + dy * dy <= radiusSq) {
-                result.add(entity);
-            }
-        }
-
-        return result;
+    public int size() {
+        return size;
     }
 }
@@ -0,0 +1,308 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectMap;
+import de.tum.cit.fop.maze.model.GameMap;
+import de.tum.cit.fop.maze.model.OccupancyGrid;
+import de.tum.cit.fop.maze.model.WallEntity;
+
+import java.util.List;
+
+/**
+ * 墙体渲染缓存 (Wall Render Cache)
+ *
+ * 关卡地图的墙体是静态的，因此在地图加载后一次性构建渲染数据：
+ * 1. 每面墙的贴图、绘制矩形、Grassland 顶部/墙身拆分区域全部预计算
+ * 2. 按 (originY 行, X 方向空间分块) 分桶（计数排序），桶内天然按 Y 有序
+ *
+ * 每帧只遍历与相机相交的行和分块，按 Y 从高到低绘制（Back to Front），
+ * 不分配任何对象，开销只与屏幕面积有关，与地图大小无关。
+ */
+public class WallRenderCache {
+
+    /** X 方向分块宽度（格子数） */
+    private static final int TILE_WIDTH = 8;
+
+    private final TextureManager textureManager;
+    private final float unitScale;
+
+    /** Grassland 顶部/墙身拆分区域，按原始墙体贴图（变体）缓存 */
+    private final ObjectMap<TextureRegion, TextureRegion[]> splitCache = new ObjectMap<>();
+
+    // ===== 构建时的地图快照（用于判断是否需要重建） =====
+    private GameMap builtMap;
+    private int builtWallCount = -1;
+    private String builtTheme;
+
+    // ===== 分桶索引 =====
+    private int rows;
+    private int tilesX;
+    /** bucketStart[row * tilesX + tile] .. bucketStart[+1] 为该桶的墙体槽位区间 */
+    private int[] bucketStart = new int[1];
+
+    /** 单面墙最大视觉外延（格子数），用于扩展剔除范围 */
+    private int maxExtentUp = 0;
+    private int maxWidth = 0;
+
+    // ===== 每面墙的预计算渲染数据（按桶顺序排列） =====
+    private int count;
+    private TextureRegion[] bodyRegions = new TextureRegion[0];
+    private TextureRegion[] topRegions = new TextureRegion[0];
+    private float[] drawX = new float[0];
+    private float[] drawY = new float[0];
+    private float[] drawW = new float[0];
+    private float[] drawH = new float[0];
+    /** 剔除用的逻辑墙体高度（世界单位） */
+    private float[] wallH = new float[0];
+
+    public WallRenderCache(TextureManager textureManager, float unitScale) {
+        this.textureManager = textureManager;
+        this.unitScale = unitScale;
+    }
+
+    /**
+     * 地图、墙体数量或主题变化时重建
+     */
+    public void ensureBuilt(GameMap gameMap) {
+        List<WallEntity> walls = gameMap.getWalls();
+        if (gameMap == builtMap && walls.size() == builtWallCount
+                && java.util.Objects.equals(gameMap.getTheme(), builtTheme)) {
+            return;
+        }
+        build(gameMap);
+    }
+
+    private void build(GameMap gameMap) {
+        List<WallEntity> walls = gameMap.getWalls();
+        String theme = gameMap.getTheme();
+        boolean isGrassland = "grassland".equalsIgnoreCase(theme);
+        OccupancyGrid occupancy = gameMap.getOccupancyGrid();
+
+        int mapWidth = 1;
+        int mapHeight = 1;
+        for (int i = 0; i < walls.size(); i++) {
+            WallEntity wall = walls.get(i);
+            mapWidth = Math.max(mapWidth, wall.getOriginX() + wall.getGridWidth());
+            mapHeight = Math.max(mapHeight, wall.getOriginY() + wall.getGridHeight());
+        }
+        rows = mapHeight;
+        tilesX = (mapWidth + TILE_WIDTH - 1) / TILE_WIDTH;
+
+        // 计数排序：先统计每个桶的墙体数量
+        int bucketCount = rows * tilesX;
+        bucketStart = new int[bucketCount + 1];
+        int n = walls.size();
+        int[] bucketOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            WallEntity wall = walls.get(i);
+            int bucket = bucketIndex(wall.getOriginX(), wall.getOriginY());
+            bucketOf[i] = bucket;
+            if (bucket >= 0) {
+                bucketStart[bucket + 1]++;
+            }
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+
+        ensureCapacity(n);
+        int[] fill = new int[bucketCount];
+        maxExtentUp = 0;
+        maxWidth = 0;
+        count = 0;
+
+        for (int i = 0; i < n; i++) {
+            int bucket = bucketOf[i];
+            if (bucket < 0) {
+                continue; // 负坐标墙体不可见
+            }
+            WallEntity wall = walls.get(i);
+            int slot = bucketStart[bucket] + fill[bucket]++;
+            count++;
+
+            float x = wall.getOriginX() * unitScale;
+            float y = wall.getOriginY() * unitScale;
+            float w = wall.getGridWidth() * unitScale;
+            float h = wall.getGridHeight() * unitScale;
+
+            drawX[slot] = x;
+            drawY[slot] = y;
+            drawW[slot] = w;
+            wallH[slot] = h;
+            topRegions[slot] = null;
+
+            TextureRegion reg = textureManager.getWallRegion(theme, wall.getGridWidth(), wall.getGridHeight(),
+                    wall.getOriginX(), wall.getOriginY());
+            bodyRegions[slot] = reg;
+            if (reg == null) {
+                drawH[slot] = h;
+                continue;
+            }
+
+            float drawHeight = h;
+            if (isGrassland && reg.getRegionHeight() >= 32) { // 至少由Top(16)+Body(16)组成
+                TextureRegion[] split = getSplitRegions(reg);
+                bodyRegions[slot] = split[1];
+                topRegions[slot] = split[0];
+                drawHeight = h + unitScale; // 墙身 + 1 格顶部
+                drawH[slot] = h;
+            } else {
+                // Dynamic Height for single-sprite walls
+                float texW = reg.getRegionWidth();
+                float texH = reg.getRegionHeight();
+                if (texW > 0) {
+                    drawHeight = texH * (w / texW);
+                }
+                // 孤立墙体增加视觉高度
+                if (drawHeight <= h && isWallIsolated(occupancy, wall) && !hasWallAbove(occupancy, wall)) {
+                    drawHeight = h + 0.5f * unitScale;
+                }
+                drawH[slot] = drawHeight;
+            }
+
+            int extentUp = (int) Math.ceil(drawHeight / unitScale);
+            maxExtentUp = Math.max(maxExtentUp, extentUp);
+            maxWidth = Math.max(maxWidth, wall.getGridWidth());
+        }
+
+        builtMap = gameMap;
+        builtWallCount = walls.size();
+        builtTheme = theme;
+
+        GameLogger.debug("WallRenderCache", "Built " + count + " walls into " + bucketCount + " buckets");
+    }
+
+    private int bucketIndex(int originX, int originY) {
+        if (originX < 0 || originY < 0) {
+            return -1;
+        }
+        return originY * tilesX + originX / TILE_WIDTH;
+    }
+
+    private void ensureCapacity(int n) {
+        if (bodyRegions.length >= n) {
+            return;
+        }
+        bodyRegions = new TextureRegion[n];
+        topRegions = new TextureRegion[n];
+        drawX = new float[n];
+        drawY = new float[n];
+        drawW = new float[n];
+        drawH = new float[n];
+        wallH = new float[n];
+    }
+
+    /**
+     * 获取（并缓存）Grassland 墙体贴图的 [顶部, 墙身] 拆分
+     */
+    private TextureRegion[] getSplitRegions(TextureRegion reg) {
+        TextureRegion[] split = splitCache.get(reg);
+        if (split == null) {
+            int topH = 16;
+            int bodyH = reg.getRegionHeight() - topH;
+            // TextureRegion(region, x, y, w, h) - relative to region
+            split = new TextureRegion[] {
+                    new TextureRegion(reg, 0, 0, reg.getRegionWidth(), topH),
+                    new TextureRegion(reg, 0, topH, reg.getRegionWidth(), bodyH)
+            };
+            splitCache.put(reg, split);
+        }
+        return split;
+    }
+
+    /**
+     * 绘制与视口相交的墙体（Back to Front），Grassland 顶部在所有墙身之后绘制
+     */
+    public void render(SpriteBatch batch, float viewX, float viewY, float viewW, float viewH) {
+        if (count == 0) {
+            return;
+        }
+
+        // 可能相交的行/分块范围（向下、向左扩展以包含高墙和宽墙）
+        int maxRow = Math.min(rows - 1, (int) Math.floor((viewY + viewH) / unitScale));
+        int minRow = Math.max(0, (int) Math.floor(viewY / unitScale) - maxExtentUp - 2);
+        int minTile = Math.max(0, ((int) Math.floor(viewX / unitScale) - maxWidth) / TILE_WIDTH);
+        int maxTile = Math.min(tilesX - 1, (int) Math.floor((viewX + viewW) / unitScale) / TILE_WIDTH);
+        if (maxRow < minRow || maxTile < minTile) {
+            return;
+        }
+
+        // Pass 1: 墙身（按Y从高到低）
+        drawPass(batch, false, minRow, maxRow, minTile, maxTile, viewX, viewY, viewW, viewH);
+        // Pass 2: Grassland 顶部（同样 Back to Front，确保覆盖所有墙身）
+        drawPass(batch, true, minRow, maxRow, minTile, maxTile, viewX, viewY, viewW, viewH);
+    }
+
+    private void drawPass(SpriteBatch batch, boolean tops, int minRow, int maxRow, int minTile, int maxTile,
+            float viewX, float viewY, float viewW, float viewH) {
+        for (int row = maxRow; row >= minRow; row--) {
+            int rowBase = row * tilesX;
+            int start = bucketStart[rowBase + minTile];
+            int end = bucketStart[rowBase + maxTile + 1];
+            for (int i = start; i < end; i++) {
+                float x = drawX[i];
+                float y = drawY[i];
+                float w = drawW[i];
+
+                // 视锥体剔除 (Expanded bounds for tall walls)
+                if (x + w < viewX || x > viewX + viewW)
+                    continue;
+                if (y + wallH[i] + unitScale * 2 < viewY || y > viewY + viewH)
+                    continue;
+
+                if (tops) {
+                    TextureRegion top = topRegions[i];
+                    if (top != null) {
+                        batch.draw(top, x, y + wallH[i], w, unitScale);
+                    }
+                } else {
+                    TextureRegion body = bodyRegions[i];
+                    if (body != null) {
+                        batch.draw(body, x, y, w, drawH[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 检查墙体是否孤立（四周无相邻墙体）
+     */
+    private boolean isWallIsolated(OccupancyGrid occupancy, WallEntity wall) {
+        int x = wall.getOriginX();
+        int y = wall.getOriginY();
+        int w = wall.getGridWidth();
+        int h = wall.getGridHeight();
+
+        for (int dy = 0; dy < h; dy++) {
+            if (occupancy.get(x - 1, y + dy) || occupancy.get(x + w, y + dy))
+                return false;
+        }
+        for (int dx = 0; dx < w; dx++) {
+            if (occupancy.get(x + dx, y - 1) || occupancy.get(x + dx, y + h))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 检查墙体上方是否有墙
+     */
+    private boolean hasWallAbove(OccupancyGrid occupancy, WallEntity wall) {
+        int x = wall.getOriginX();
+        int y = wall.getOriginY();
+        int w = wall.getGridWidth();
+        int h = wall.getGridHeight();
+
+        for (int dx = 0; dx < w; dx++) {
+            if (occupancy.get(x + dx, y + h))
+                return true;
+        }
+        return false;
+    }
+
+    public int getWallCount() {
+        return count;
+    }
+}
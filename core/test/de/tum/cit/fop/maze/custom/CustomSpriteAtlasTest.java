@@ -0,0 +1,63 @@
+package de.tum.cit.fop.maze.custom;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomSpriteAtlasTest {
+
+    @TempDir
+    File tempDir;
+
+    private FileHandle write(String name, String content) {
+        FileHandle file = new FileHandle(new File(tempDir, name));
+        file.writeString(content, false);
+        return file;
+    }
+
+    @Test
+    public void testHashTracksContentAndPaths() {
+        Map<String, FileHandle> sources = new TreeMap<>();
+        sources.put("custom_images/a/move_0.png", write("a.png", "frame-a"));
+        sources.put("custom_images/b/move_0.png", write("b.png", "frame-b"));
+
+        String hash = CustomSpriteAtlas.computeContentHash(sources);
+        assertNotNull(hash);
+        assertEquals(hash, CustomSpriteAtlas.computeContentHash(sources), "Hash must be stable");
+
+        sources.get("custom_images/b/move_0.png").writeString("frame-b-edited", false);
+        String edited = CustomSpriteAtlas.computeContentHash(sources);
+        assertNotEquals(hash, edited, "Editing a frame invalidates the cache");
+
+        FileHandle moved = sources.remove("custom_images/b/move_0.png");
+        sources.put("custom_images/b/move_1.png", moved);
+        assertNotEquals(edited, CustomSpriteAtlas.computeContentHash(sources), "Renaming a frame invalidates the cache");
+
+        assertNull(CustomSpriteAtlas.computeContentHash(new TreeMap<>()));
+    }
+
+    @Test
+    public void testIndexRoundTrip() {
+        CustomSpriteAtlas.AtlasIndex index = new CustomSpriteAtlas.AtlasIndex();
+        index.hash = "abc123";
+        index.pageCount = 2;
+        index.regions.add(new CustomSpriteAtlas.RegionEntry("custom_images/a/move_0.png", 0, 2, 2, 30, 30));
+        index.regions.add(new CustomSpriteAtlas.RegionEntry("custom_images/b/death_3.png", 1, 36, 2, 128, 128));
+
+        CustomSpriteAtlas.AtlasIndex read = CustomSpriteAtlas.readIndex(CustomSpriteAtlas.writeIndex(index));
+        assertEquals("abc123", read.hash);
+        assertEquals(2, read.pageCount);
+        assertEquals(2, read.regions.size());
+        CustomSpriteAtlas.RegionEntry second = read.regions.get(1);
+        assertEquals("custom_images/b/death_3.png", second.key);
+        assertEquals(1, second.page);
+        assertEquals(36, second.x);
+        assertEquals(128, second.height);
+    }
+}
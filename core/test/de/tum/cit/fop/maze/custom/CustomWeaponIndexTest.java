@@ -0,0 +1,74 @@
+package de.tum.cit.fop.maze.custom;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomWeaponIndexTest {
+
+    private Files previousFiles;
+    private CustomElementManager manager;
+
+    @BeforeEach
+    public void setUp() {
+        // 无文件系统：saveElement 只更新内存
+        previousFiles = Gdx.files;
+        Gdx.files = null;
+        manager = CustomElementManager.getInstance();
+        manager.clearAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        manager.clearAll();
+        Gdx.files = previousFiles;
+    }
+
+    private CustomElementDefinition weapon(String id, String name, float energyCost) {
+        CustomElementDefinition def = new CustomElementDefinition(name, ElementType.WEAPON, 4);
+        def.setId(id);
+        def.setProperty("energyCost", energyCost);
+        return def;
+    }
+
+    @Test
+    public void testLookupIsCaseInsensitive() {
+        manager.saveElement(weapon("w1", "Thunder Axe", 7f));
+
+        CustomWeaponStats stats = manager.getWeaponStats("thunder axe");
+        assertNotNull(stats);
+        assertEquals("w1", stats.getId());
+        assertEquals(7f, stats.getEnergyCost(), 0.001f);
+        assertEquals(1.0f, stats.getProjectileSize(), 0.001f, "缺省的弹体大小应回退为 1");
+        assertEquals("w1", manager.findWeaponId("THUNDER AXE"));
+    }
+
+    @Test
+    public void testIndexRebuiltOnSaveAndDelete() {
+        assertNull(manager.getWeaponStats("Frost Blade"), "未定义的武器应返回 null");
+
+        manager.saveElement(weapon("w2", "Frost Blade", 3f));
+        assertEquals(3f, manager.getWeaponStats("Frost Blade").getEnergyCost(), 0.001f,
+                "保存后应能查到之前缓存为不存在的武器");
+
+        manager.saveElement(weapon("w2", "Frost Blade", 12f));
+        assertEquals(12f, manager.getWeaponStats("Frost Blade").getEnergyCost(), 0.001f);
+
+        manager.deleteElement("w2");
+        assertNull(manager.getWeaponStats("Frost Blade"));
+    }
+
+    @Test
+    public void testNonWeaponIsNotResolvedAsWeapon() {
+        CustomElementDefinition enemy = new CustomElementDefinition("Goblin", ElementType.ENEMY, 4);
+        enemy.setId("e1");
+        manager.saveElement(enemy);
+
+        assertNull(manager.getWeaponStats("Goblin"));
+        assertSame(enemy, manager.getElementByName("goblin"));
+    }
+}
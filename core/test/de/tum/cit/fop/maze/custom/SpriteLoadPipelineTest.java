@@ -0,0 +1,33 @@
+package de.tum.cit.fop.maze.custom;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteLoadPipelineTest {
+
+    @Test
+    public void testEmptyLoadFinishesWithoutUploads() throws Exception {
+        Map<String, FileHandle> sources = new TreeMap<>();
+        List<String> accepted = new ArrayList<>();
+        SpriteLoadPipeline pipeline = new SpriteLoadPipeline(sources, null, (key, square) -> accepted.add(key));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!pipeline.update(4f) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertTrue(pipeline.isDone());
+        assertEquals(1f, pipeline.getProgress());
+        assertEquals(0, pipeline.getFramesTotal());
+        assertEquals(0, pipeline.getUploadsDone());
+        assertTrue(accepted.isEmpty());
+        pipeline.dispose();
+    }
+}
@@ -0,0 +1,95 @@
+package de.tum.cit.fop.maze.custom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextureResidencyTest {
+
+    private final List<String> evicted = new ArrayList<>();
+    private final List<String> released = new ArrayList<>();
+
+    private final TextureResidency.Listener listener = new TextureResidency.Listener() {
+        @Override
+        public void onAnimationEvicted(String animationKey) {
+            evicted.add(animationKey);
+        }
+
+        @Override
+        public void onTextureReleased(String textureKey) {
+            released.add(textureKey);
+        }
+    };
+
+    private static Map<String, Long> textures(Object... keyAndBytes) {
+        Map<String, Long> map = new HashMap<>();
+        for (int i = 0; i < keyAndBytes.length; i += 2) {
+            map.put((String) keyAndBytes[i], ((Number) keyAndBytes[i + 1]).longValue());
+        }
+        return map;
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyDrawn() {
+        TextureResidency residency = new TextureResidency(250, listener);
+        residency.register("a:Move", textures("a0", 100));
+        residency.register("b:Move", textures("b0", 100));
+        assertTrue(residency.touch("a:Move"), "a is now the most recently drawn");
+
+        residency.register("c:Move", textures("c0", 100));
+
+        assertEquals(List.of("b:Move"), evicted);
+        assertEquals(List.of("b0"), released);
+        assertEquals(200, residency.getResidentBytes());
+        assertFalse(residency.touch("b:Move"), "Evicted animation reloads on demand");
+        assertEquals(1, residency.getEvictions());
+    }
+
+    @Test
+    public void testSharedTextureReleasedWithLastUser() {
+        TextureResidency residency = new TextureResidency(1000, listener);
+        residency.register("a:Move", textures("shared", 300, "a0", 100));
+        residency.register("a:Death", textures("shared", 300));
+        assertEquals(400, residency.getResidentBytes(), "Shared texture is counted once");
+
+        residency.release("a:Move");
+        assertEquals(List.of("a0"), released);
+        residency.release("a:Death");
+        assertEquals(List.of("a0", "shared"), released);
+        assertEquals(0, residency.getResidentBytes());
+        assertEquals(0, residency.getEvictions(), "Explicit release is not an eviction");
+    }
+
+    @Test
+    public void testOversizedAnimationStaysResident() {
+        TextureResidency residency = new TextureResidency(100, listener);
+        residency.register("big:Move", textures("big0", 500));
+        assertTrue(residency.touch("big:Move"));
+        assertTrue(evicted.isEmpty());
+
+        residency.setBudgetBytes(1000);
+        residency.register("small:Move", textures("s0", 10));
+        residency.setBudgetBytes(50);
+        assertEquals(List.of("big:Move"), evicted, "Shrinking the budget evicts immediately");
+    }
+
+    @Test
+    public void testHitRateCountsLoadsAsMisses() {
+        TextureResidency residency = new TextureResidency(1000, listener);
+        assertFalse(residency.touch("a:Move"));
+        residency.register("a:Move", textures("a0", 10));
+        residency.touch("a:Move");
+        residency.touch("a:Move");
+        residency.touch("a:Move");
+        assertFalse(residency.touch("a:Missing"), "Unknown actions are not counted");
+
+        assertEquals(3, residency.getHits());
+        assertEquals(1, residency.getMisses());
+        assertEquals(0.75f, residency.getHitRate(), 0.0001f);
+    }
+}
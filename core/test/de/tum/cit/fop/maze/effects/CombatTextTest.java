@@ -0,0 +1,71 @@
+package de.tum.cit.fop.maze.effects;
+
+import com.badlogic.gdx.graphics.Color;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the pooled floating combat text.
+ */
+public class CombatTextTest {
+
+    @Test
+    void testHitsOnSameTargetMerge() {
+        CombatText text = new CombatText();
+        Object enemy = new Object();
+        text.showDamage(enemy, 1, 1, 3, Color.RED);
+        text.update(0.1f);
+        text.showDamage(enemy, 1, 1, 4, Color.RED);
+        assertEquals(1, text.getActiveCount());
+        assertEquals(7, text.getValueFor(enemy));
+
+        // A different colour (e.g. projectile hit) or target stays separate
+        text.showDamage(enemy, 1, 1, 2, Color.ORANGE);
+        text.showDamage(new Object(), 1, 1, 2, Color.RED);
+        assertEquals(3, text.getActiveCount());
+    }
+
+    @Test
+    void testHitsAfterMergeWindowStartNewNumber() {
+        CombatText text = new CombatText();
+        Object enemy = new Object();
+        text.showDamage(enemy, 1, 1, 3, Color.RED);
+        text.update(CombatText.MERGE_WINDOW + 0.05f);
+        text.showDamage(enemy, 1, 1, 4, Color.RED);
+        assertEquals(2, text.getActiveCount());
+        assertEquals(4, text.getValueFor(enemy));
+    }
+
+    @Test
+    void testNewNumbersAreCappedPerFrame() {
+        CombatText text = new CombatText();
+        for (int i = 0; i < 50; i++) {
+            text.showDamage(new Object(), i, 0, 1, Color.RED);
+        }
+        assertEquals(CombatText.MAX_NEW_PER_FRAME, text.getActiveCount());
+
+        // Messages are never dropped by the cap
+        text.showText(0, 0, "BOSS!", Color.RED);
+        assertEquals(CombatText.MAX_NEW_PER_FRAME + 1, text.getActiveCount());
+
+        text.update(0.016f);
+        text.showDamage(new Object(), 0, 0, 1, Color.RED);
+        assertEquals(CombatText.MAX_NEW_PER_FRAME + 2, text.getActiveCount());
+    }
+
+    @Test
+    void testActiveEntriesAreBoundedAndExpire() {
+        CombatText text = new CombatText();
+        for (int frame = 0; frame < 30; frame++) {
+            for (int i = 0; i < 20; i++) {
+                text.showDamage(new Object(), i, 0, 1, Color.RED);
+            }
+            text.update(0.01f);
+        }
+        assertTrue(text.getActiveCount() <= CombatText.MAX_ACTIVE);
+
+        text.update(1.5f);
+        assertEquals(0, text.getActiveCount());
+    }
+}
@@ -0,0 +1,62 @@
+package de.tum.cit.fop.maze.model;
+
+import de.tum.cit.fop.maze.model.weapons.WeaponEffect;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnemyBroadphaseTest {
+
+    private Projectile projectileAt(float x, float y) {
+        return new Projectile(x, y, 0, 0, 1, DamageType.PHYSICAL, WeaponEffect.NONE, true, "test", 1f);
+    }
+
+    @Test
+    public void testFindsEnemyNearProjectile() {
+        List<Enemy> enemies = new ArrayList<>();
+        Enemy near = new Enemy(10, 10);
+        enemies.add(new Enemy(2, 2));
+        enemies.add(near);
+        enemies.add(new Enemy(30, 30));
+
+        EnemyBroadphase broadphase = new EnemyBroadphase(2f);
+        broadphase.rebuild(enemies, 40, 40);
+        assertEquals(3, broadphase.getCount());
+
+        Projectile p = projectileAt(10.4f, 10.2f);
+        assertSame(near, broadphase.findFirstHit(p, 10.4f, 10.2f));
+        assertNull(broadphase.findFirstHit(projectileAt(20, 20), 20, 20));
+    }
+
+    @Test
+    public void testSweptSegmentDoesNotTunnel() {
+        List<Enemy> enemies = new ArrayList<>();
+        Enemy first = new Enemy(6, 5);
+        Enemy second = new Enemy(8, 5);
+        enemies.add(second);
+        enemies.add(first);
+
+        EnemyBroadphase broadphase = new EnemyBroadphase(2f);
+        broadphase.rebuild(enemies, 20, 20);
+
+        // 一帧从 (3,5) 飞到 (12,5)，两端都不与敌人重叠
+        Projectile p = projectileAt(12, 5);
+        assertSame(first, broadphase.findFirstHit(p, 3, 5), "应命中线段上最先遇到的敌人");
+    }
+
+    @Test
+    public void testDeadEnemiesAreIgnored() {
+        List<Enemy> enemies = new ArrayList<>();
+        Enemy enemy = new Enemy(5, 5);
+        enemies.add(enemy);
+
+        EnemyBroadphase broadphase = new EnemyBroadphase(2f);
+        broadphase.rebuild(enemies, 20, 20);
+        enemy.takeDamage(1000);
+
+        assertNull(broadphase.findFirstHit(projectileAt(5, 5), 5, 5));
+    }
+}
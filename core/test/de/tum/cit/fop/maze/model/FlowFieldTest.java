@@ -0,0 +1,74 @@
+package de.tum.cit.fop.maze.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlowFieldTest {
+
+    private CollisionManager createMapWithConcaveWall() {
+        GameMap map = new GameMap();
+        map.initializeSize(12, 12);
+        // U 形墙体，开口朝下： x=3..7, y=6 为顶，x=3 和 x=7 为两侧
+        map.addWall(new WallEntity(3, 6, 5, 1, 0, false, 1));
+        map.addWall(new WallEntity(3, 3, 1, 3, 0, false, 3));
+        map.addWall(new WallEntity(7, 3, 1, 3, 0, false, 3));
+        return new CollisionManager(map);
+    }
+
+    @Test
+    public void testDistancesFollowWalkableCells() {
+        CollisionManager cm = createMapWithConcaveWall();
+        cm.updateFlowField(5, 9);
+        FlowField field = cm.getFlowField();
+
+        assertEquals(0, field.getDistance(5, 9));
+        assertEquals(1, field.getDistance(5, 8));
+        assertEquals(-1, field.getDistance(5, 6), "墙体格子不可达");
+        // U 形内部 (5,4) 必须绕出开口：向下 2 步、横向 3 步、向上 7 步、回到中间 3 步
+        assertEquals(15, field.getDistance(5, 4));
+    }
+
+    @Test
+    public void testStepsLeadOutOfConcaveWall() {
+        CollisionManager cm = createMapWithConcaveWall();
+        cm.updateFlowField(5, 9);
+        FlowField field = cm.getFlowField();
+
+        // 从 U 形内部沿流场走，必须能到达玩家
+        int x = 5, y = 5;
+        for (int i = 0; i < 40 && field.getDistance(x, y) > 0; i++) {
+            int dir = field.getStep(x, y);
+            assertNotEquals(FlowField.NONE, dir);
+            int before = field.getDistance(x, y);
+            x += FlowField.stepX(dir);
+            y += FlowField.stepY(dir);
+            assertTrue(cm.isWalkableForEnemy(x, y));
+            assertEquals(before - 1, field.getDistance(x, y), "每一步距离减 1");
+        }
+        assertEquals(0, field.getDistance(x, y));
+    }
+
+    @Test
+    public void testRebuildOnlyWhenPlayerChangesTile() {
+        CollisionManager cm = createMapWithConcaveWall();
+        FlowField field = cm.getFlowField();
+
+        assertTrue(field.update(cm, 12, 12, 1, 1));
+        assertFalse(field.update(cm, 12, 12, 1, 1), "同一格子不应重建");
+        assertTrue(field.update(cm, 12, 12, 2, 1));
+        assertEquals(0, field.getDistance(2, 1));
+        assertEquals(1, field.getDistance(1, 1), "旧源点的数据应被新一代覆盖");
+    }
+
+    @Test
+    public void testRangeIsBounded() {
+        GameMap map = new GameMap();
+        map.initializeSize(200, 3);
+        CollisionManager cm = new CollisionManager(map);
+        cm.updateFlowField(0, 1);
+
+        FlowField field = cm.getFlowField();
+        assertEquals(CollisionManager.FLOW_FIELD_RANGE, field.getDistance(CollisionManager.FLOW_FIELD_RANGE, 1));
+        assertEquals(-1, field.getDistance(CollisionManager.FLOW_FIELD_RANGE + 1, 1));
+    }
+}
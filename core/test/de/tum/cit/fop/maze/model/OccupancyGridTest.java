@@ -0,0 +1,57 @@
+package de.tum.cit.fop.maze.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyGridTest {
+
+    @Test
+    public void testSetAndGet() {
+        OccupancyGrid grid = new OccupancyGrid(10, 10);
+        grid.set(3, 4);
+
+        assertTrue(grid.get(3, 4), "标记的格子应该被占用");
+        assertFalse(grid.get(4, 3), "未标记的格子不应该被占用");
+        assertFalse(grid.get(-1, 4), "负坐标应该返回 false");
+        assertFalse(grid.get(3, 100), "越界坐标应该返回 false");
+    }
+
+    @Test
+    public void testGrowPreservesBits() {
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.fillRect(0, 0, 2, 3);
+        grid.set(70, 5); // 触发扩容
+
+        assertEquals(71, grid.getWidth());
+        assertEquals(6, grid.getHeight());
+        assertTrue(grid.get(1, 2), "扩容后旧数据应该保留");
+        assertFalse(grid.get(2, 2));
+        assertTrue(grid.get(70, 5));
+    }
+
+    @Test
+    public void testGrowsGeometrically() {
+        OccupancyGrid grid = new OccupancyGrid(8, 8);
+        grid.set(8, 0);
+
+        assertEquals(16, grid.getWidth(), "越界一格时宽度翻倍");
+        assertEquals(8, grid.getHeight(), "未越界的维度不变");
+        for (int x = 9; x < 16; x++) {
+            grid.set(x, 0);
+            assertEquals(16, grid.getWidth(), "容量够用时不再扩容");
+        }
+    }
+
+    @Test
+    public void testGameMapUsesCollisionHeight() {
+        GameMap map = new GameMap();
+        map.initializeSize(20, 20);
+        // 3 格高的墙，碰撞高度只有 1 格
+        map.addWall(new WallEntity(5, 5, 2, 3, 0, false, 1));
+
+        assertTrue(map.isOccupied(5, 5));
+        assertTrue(map.isOccupied(6, 5));
+        assertFalse(map.isOccupied(5, 6), "碰撞高度以上的格子应该可以通过");
+        assertSame(map.getWallEntity(6, 5), map.getWallEntity(5, 5));
+    }
+}
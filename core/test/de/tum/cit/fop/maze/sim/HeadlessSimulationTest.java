@@ -0,0 +1,137 @@
+package de.tum.cit.fop.maze.sim;
+
+import com.badlogic.gdx.Input;
+import de.tum.cit.fop.maze.config.GameConfig;
+import de.tum.cit.fop.maze.config.GameSettings;
+import de.tum.cit.fop.maze.model.GameMap;
+import de.tum.cit.fop.maze.utils.EntityFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试无窗口模拟的确定性与输入带的录制/回放
+ */
+public class HeadlessSimulationTest {
+
+    @TempDir
+    File tempDir;
+
+    @BeforeEach
+    void setUp() {
+        HeadlessGdx.install(tempDir, tempDir);
+        GameSettings.KEY_UP = Input.Keys.W;
+        GameSettings.KEY_DOWN = Input.Keys.S;
+        GameSettings.KEY_LEFT = Input.Keys.A;
+        GameSettings.KEY_RIGHT = Input.Keys.D;
+        GameSettings.KEY_ATTACK = Input.Keys.SPACE;
+    }
+
+    /** 在播种之后才创建地图，敌人的初始随机状态也受种子控制 */
+    private static Supplier<GameMap> arena() {
+        return () -> {
+            GameMap map = new GameMap();
+            map.setPlayerStart(5, 5);
+            map.addGameObject(EntityFactory.createEntity(GameConfig.OBJECT_ID_ENEMY, 12, 5));
+            map.addGameObject(EntityFactory.createEntity(GameConfig.OBJECT_ID_ENEMY, 5, 14));
+            map.addGameObject(EntityFactory.createEntity(GameConfig.OBJECT_ID_ENEMY, 14, 14));
+            return map;
+        };
+    }
+
+    private static InputTape script() {
+        return new InputTape()
+                .hold(0, 90, Input.Keys.D)
+                .hold(60, 120, Input.Keys.W)
+                .press(100, Input.Keys.SPACE)
+                .release(101, Input.Keys.SPACE);
+    }
+
+    private static HeadlessSimulation simulate(long seed, InputSource input, int ticks) {
+        HeadlessSimulation sim = new HeadlessSimulation(arena(), "test_level", seed, input,
+                HeadlessSimulation.DEFAULT_STEP);
+        sim.run(ticks);
+        return sim;
+    }
+
+    @Test
+    void testSameSeedAndTapeGiveIdenticalState() {
+        HeadlessSimulation first = simulate(42L, script(), 600);
+        HeadlessSimulation second = simulate(42L, script(), 600);
+
+        assertEquals(first.getTick(), second.getTick());
+        assertEquals(first.stateHash(), second.stateHash());
+        assertEquals(first.getWorld().getPlayer().getX(), second.getWorld().getPlayer().getX());
+    }
+
+    @Test
+    void testScriptedInputMovesPlayer() {
+        HeadlessSimulation idle = simulate(7L, new InputTape(), 60);
+        HeadlessSimulation right = simulate(7L, new InputTape().hold(0, 60, Input.Keys.D), 60);
+
+        assertEquals(5f, idle.getWorld().getPlayer().getX(), 0.001f);
+        assertTrue(right.getWorld().getPlayer().getX() > 5.5f,
+                "Holding right for a second moves the player: " + right.getWorld().getPlayer().getX());
+        assertEquals(1f, right.getSimulatedSeconds(), 0.001f);
+    }
+
+    @Test
+    void testTapeRoundTripAndJustPressed() {
+        InputTape tape = script().moveMouse(3, 320, 240);
+        InputTape parsed = InputTape.parse(tape.serialize());
+        assertEquals(tape.serialize(), parsed.serialize());
+        assertEquals(181, parsed.getLength());
+
+        for (int i = 0; i <= 100; i++) {
+            parsed.advance(HeadlessSimulation.DEFAULT_STEP);
+            if (i == 3) {
+                assertEquals(320, parsed.getX());
+            }
+        }
+        assertTrue(parsed.isKeyJustPressed(Input.Keys.SPACE));
+        assertTrue(parsed.isKeyPressed(Input.Keys.W));
+        assertFalse(parsed.isKeyPressed(Input.Keys.D), "Released at frame 90");
+        parsed.advance(HeadlessSimulation.DEFAULT_STEP);
+        assertFalse(parsed.isKeyJustPressed(Input.Keys.SPACE), "Only the first frame counts as just pressed");
+
+        assertThrows(IllegalArgumentException.class, () -> InputTape.parse("0 jump 32"));
+    }
+
+    @Test
+    void testRecordedTapeReplaysTheSameGame() {
+        RecordingInputSource recorder = new RecordingInputSource(script());
+        HeadlessSimulation recorded = simulate(99L, recorder, 300);
+
+        InputTape replay = InputTape.parse(recorder.getTape().serialize());
+        HeadlessSimulation replayed = simulate(99L, replay, 300);
+
+        assertEquals(recorded.stateHash(), replayed.stateHash());
+    }
+
+    @Test
+    void testRecordedFrameTimesAreReplayed() {
+        // 真实游戏的帧时长不固定，回放时必须使用录制的值
+        RecordingInputSource recorder = new RecordingInputSource(script());
+        recorder.getTape().setOrigin("test_level", 5L);
+        HeadlessSimulation live = new HeadlessSimulation(arena(), "test_level", 5L, recorder,
+                HeadlessSimulation.DEFAULT_STEP);
+        float[] frameTimes = { 0.016f, 0.033f, 0.0071f, 0.05f };
+        for (int i = 0; i < 240; i++) {
+            live.getWorld().update(frameTimes[i % frameTimes.length]);
+        }
+
+        InputTape tape = InputTape.parse(recorder.getTape().serialize());
+        assertEquals("test_level", tape.getLevelPath());
+        assertEquals(5L, tape.getSeed());
+        HeadlessSimulation replayed = simulate(tape.getSeed(), tape, 240);
+
+        assertEquals(live.getSimulatedSeconds(), replayed.getSimulatedSeconds());
+        assertEquals(live.getWorld().getPlayer().getX(), replayed.getWorld().getPlayer().getX());
+        assertEquals(live.getWorld().getPlayer().getY(), replayed.getWorld().getPlayer().getY());
+    }
+}
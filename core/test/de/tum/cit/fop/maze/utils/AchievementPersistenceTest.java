@@ -0,0 +1,105 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batched achievement counter persistence.
+ * Uses an in-memory Preferences mock that counts disk flushes.
+ */
+public class AchievementPersistenceTest {
+
+    private final Map<String, Object> stored = new HashMap<>();
+    private final AtomicInteger flushCount = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        Preferences prefs = (Preferences) Proxy.newProxyInstance(
+                Preferences.class.getClassLoader(),
+                new Class<?>[] { Preferences.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "putInteger":
+                        case "putString":
+                            stored.put((String) args[0], args[1]);
+                            return proxy;
+                        case "getInteger":
+                            return stored.getOrDefault((String) args[0], args.length > 1 ? args[1] : 0);
+                        case "getString":
+                            return stored.getOrDefault((String) args[0], args.length > 1 ? args[1] : "");
+                        case "clear":
+                            stored.clear();
+                            return null;
+                        case "flush":
+                            flushCount.incrementAndGet();
+                            return null;
+                        case "get":
+                            return new HashMap<>(stored);
+                        default:
+                            return null;
+                    }
+                });
+        Gdx.app = (Application) Proxy.newProxyInstance(
+                Application.class.getClassLoader(),
+                new Class<?>[] { Application.class },
+                (proxy, method, args) -> "getPreferences".equals(method.getName()) ? prefs : null);
+
+        AchievementManager.resetAll();
+        flushCount.set(0);
+    }
+
+    @Test
+    public void testCountersAreNotFlushedPerCall() {
+        for (int i = 0; i < 20; i++) {
+            AchievementManager.recordEffectApplied("BURN");
+        }
+
+        assertEquals(0, flushCount.get(), "Counter updates should not hit the disk individually");
+        assertFalse(stored.containsKey("stats_effect_burn"), "Counter should still be pending in memory");
+    }
+
+    @Test
+    public void testReadsSeePendingValues() {
+        AchievementManager.recordWeaponKill("Iron Sword");
+        AchievementManager.recordWeaponKill("Iron Sword");
+        AchievementManager.recordArmorAbsorbed("PHYSICAL", 7);
+
+        assertEquals(2, AchievementManager.getWeaponKills("Sword"));
+        assertEquals(7, AchievementManager.getTotalArmorAbsorbed());
+        assertEquals(2, AchievementManager.exportData().get("weapon_kills_sword"));
+    }
+
+    @Test
+    public void testFlushWritesBatch() {
+        AchievementManager.recordWeaponKill("Magic Wand");
+        AchievementManager.recordArmorAbsorbed("MAGICAL", 3);
+        AchievementManager.flushNow();
+
+        assertEquals(1, stored.get("weapon_kills_wand"));
+        assertEquals(3, stored.get("armor_absorbed_magical"));
+        assertEquals(3, stored.get("armor_absorbed_total"));
+        assertTrue(flushCount.get() >= 1);
+    }
+
+    @Test
+    public void testUnlockIsImmediate() {
+        List<String> unlocks = null;
+        for (int i = 0; i < 50; i++) {
+            unlocks = AchievementManager.recordEffectApplied("FREEZE");
+        }
+
+        assertTrue(unlocks.contains("Frozen Heart"), "Unlock should fire on the threshold call");
+        assertTrue(AchievementManager.getUnlockedCards().contains("Frozen Heart"));
+    }
+}
@@ -0,0 +1,145 @@
+package de.tum.cit.fop.maze.utils;
+
+import de.tum.cit.fop.maze.config.EndlessModeConfig;
+import de.tum.cit.fop.maze.model.MapChunk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试 ChunkManager 的后台生成与预取
+ */
+public class ChunkManagerTest {
+
+    private static final int SIZE = EndlessModeConfig.CHUNK_SIZE;
+
+    private ChunkManager manager;
+    private final List<MapChunk> loaded = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        manager = new ChunkManager();
+        manager.setListener(new ChunkManager.ChunkListener() {
+            @Override
+            public void onChunkLoaded(MapChunk chunk) {
+                loaded.add(chunk);
+            }
+
+            @Override
+            public void onChunkUnloaded(MapChunk chunk) {
+                loaded.remove(chunk);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.dispose();
+    }
+
+    private void updateUntilIdle(float x, float y) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        do {
+            manager.updateActiveChunks(x, y);
+            Thread.sleep(2);
+        } while (manager.getPendingChunkCount() > 0 && System.currentTimeMillis() < deadline);
+        manager.updateActiveChunks(x, y);
+    }
+
+    @Test
+    void testFirstUpdateOnlyBlocksOnCenterChunk() throws InterruptedException {
+        int center = manager.getCenterChunkCoord();
+        float x = center * SIZE + SIZE / 2f;
+        float y = center * SIZE + SIZE / 2f;
+
+        manager.updateActiveChunks(x, y);
+        assertTrue(manager.isChunkLoaded(center, center), "Chunk under the player is generated synchronously");
+
+        updateUntilIdle(x, y);
+        int side = 2 * EndlessModeConfig.ACTIVE_CHUNK_RADIUS + 1;
+        assertEquals(side * side, manager.getLoadedChunkCount());
+        assertEquals(side * side, loaded.size());
+    }
+
+    @Test
+    void testBlockingLoadFillsActiveArea() {
+        int center = manager.getCenterChunkCoord();
+        manager.loadActiveChunksNow(center * SIZE + 1, center * SIZE + 1);
+        int side = 2 * EndlessModeConfig.ACTIVE_CHUNK_RADIUS + 1;
+        assertEquals(side * side, manager.getLoadedChunkCount());
+        assertEquals(0, manager.getPendingChunkCount());
+    }
+
+    @Test
+    void testPrefetchFollowsMovementDirection() throws InterruptedException {
+        int center = manager.getCenterChunkCoord();
+        float y = center * SIZE + SIZE / 2f;
+        float x = center * SIZE + SIZE / 2f;
+        manager.loadActiveChunksNow(x, y);
+
+        // 向 +x 方向移动
+        for (int i = 0; i < 20; i++) {
+            x += 0.5f;
+            manager.updateActiveChunks(x, y);
+        }
+        updateUntilIdle(x, y);
+
+        int ahead = center + EndlessModeConfig.DORMANT_CHUNK_RADIUS;
+        int behind = center - EndlessModeConfig.DORMANT_CHUNK_RADIUS;
+        assertTrue(manager.getPrefetchRequestCount() > 0);
+        assertTrue(manager.isChunkGenerated(ahead, center), "Chunk ahead of the player is prefetched");
+        assertFalse(manager.isChunkLoaded(ahead, center), "Prefetched chunks are not loaded until active");
+        assertFalse(manager.isChunkGenerated(behind, center), "Nothing is prefetched behind the player");
+    }
+
+    @Test
+    void testWindowOnlyRebuildsOnChunkChange() {
+        int center = manager.getCenterChunkCoord();
+        float x = center * SIZE + 1;
+        float y = center * SIZE + SIZE / 2f;
+        manager.loadActiveChunksNow(x, y);
+        int rebuilds = manager.getWindowRebuildCount();
+        java.util.List<MapChunk> chunks = manager.getLoadedChunks();
+        java.util.List<de.tum.cit.fop.maze.model.WallEntity> walls = manager.getLoadedWalls();
+
+        for (int i = 0; i < SIZE - 2; i++) {
+            manager.updateActiveChunks(x + i, y);
+        }
+        assertEquals(rebuilds, manager.getWindowRebuildCount(), "Moving inside one chunk does not rebuild");
+        assertSame(chunks, manager.getLoadedChunks());
+        assertSame(walls, manager.getLoadedWalls());
+
+        manager.updateActiveChunks(x + SIZE, y);
+        assertEquals(rebuilds + 1, manager.getWindowRebuildCount());
+        assertFalse(manager.isChunkLoaded(center - EndlessModeConfig.ACTIVE_CHUNK_RADIUS, center),
+                "Chunk left behind is unloaded");
+        assertSame(manager.getChunk(center + 1, center), manager.getChunkAtWorld(x + SIZE, y));
+    }
+
+    @Test
+    void testChunkKeyPacksSignedCoordinates() {
+        assertNotEquals(ChunkManager.chunkKey(1, -1), ChunkManager.chunkKey(-1, 1));
+        assertNotEquals(ChunkManager.chunkKey(0, -1), ChunkManager.chunkKey(-1, -1));
+        assertEquals(ChunkManager.chunkKey(3, 4), ChunkManager.chunkKey(3, 4));
+    }
+
+    @Test
+    void testRegenerateDiscardsInFlightChunks() throws InterruptedException {
+        int center = manager.getCenterChunkCoord();
+        float x = center * SIZE + SIZE / 2f;
+        manager.updateActiveChunks(x, x);
+        manager.regenerateAll();
+
+        Thread.sleep(200);
+        manager.updateActiveChunks(x, x);
+        assertEquals(1, manager.getLoadedChunkCount(), "Chunks requested before regenerateAll are dropped");
+        updateUntilIdle(x, x);
+        int side = 2 * EndlessModeConfig.ACTIVE_CHUNK_RADIUS + 1;
+        assertEquals(side * side, manager.getLoadedChunkCount());
+    }
+}
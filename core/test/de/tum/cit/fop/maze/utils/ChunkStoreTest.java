@@ -0,0 +1,167 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.config.EndlessModeConfig;
+import de.tum.cit.fop.maze.model.DamageType;
+import de.tum.cit.fop.maze.model.Enemy;
+import de.tum.cit.fop.maze.model.MapChunk;
+import de.tum.cit.fop.maze.model.WallEntity;
+import de.tum.cit.fop.maze.model.items.Potion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试 ChunkStore 的区块持久化
+ */
+public class ChunkStoreTest {
+
+    private static final int SIZE = EndlessModeConfig.CHUNK_SIZE;
+
+    @TempDir
+    Path tempDir;
+
+    private MapChunk modifiedChunk(int chunkX, int chunkY) {
+        MapChunk chunk = new EndlessMapGenerator(42L).generateChunk(chunkX, chunkY);
+        chunk.addChest(chunk.getWorldStartX() + 3, chunk.getWorldStartY() + 4);
+        chunk.markChestOpened(0);
+
+        Enemy enemy = new Enemy(chunk.getWorldStartX() + 10.5f, chunk.getWorldStartY() + 7.25f, 9,
+                DamageType.MAGICAL, DamageType.PHYSICAL, 4);
+        enemy.setType(Enemy.EnemyType.BOAR);
+        enemy.restoreVitals(5, 2);
+        chunk.getDormantEnemies().add(MapChunk.DormantEnemy.capture(enemy));
+        chunk.getDroppedPotions().add(new Potion(chunk.getWorldStartX() + 1, chunk.getWorldStartY() + 2,
+                Potion.PotionType.SPEED, 3, 5f));
+        return chunk;
+    }
+
+    @Test
+    void testRoundTripThroughDisk() {
+        FileHandle dir = new FileHandle(tempDir.toFile());
+        MapChunk original = modifiedChunk(33, 30);
+
+        ChunkStore store = new ChunkStore(dir);
+        store.stash(original);
+        assertFalse(original.isModified(), "Stashing clears the modified flag");
+        assertEquals(1, store.flush());
+
+        MapChunk restored = new ChunkStore(dir).restore(33, 30);
+        assertNotNull(restored);
+        assertTrue(restored.isGenerated());
+        assertEquals(original.getTheme(), restored.getTheme());
+        assertEquals(original.getWalls().size(), restored.getWalls().size());
+        for (int i = 0; i < original.getWalls().size(); i++) {
+            WallEntity a = original.getWalls().get(i);
+            WallEntity b = restored.getWalls().get(i);
+            assertEquals(a.getOriginX(), b.getOriginX());
+            assertEquals(a.getOriginY(), b.getOriginY());
+            assertEquals(a.getGridWidth(), b.getGridWidth());
+            assertEquals(a.getGridHeight(), b.getGridHeight());
+            assertEquals(a.getTypeId(), b.getTypeId());
+            assertEquals(a.isBorderWall(), b.isBorderWall());
+        }
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                int wx = restored.getWorldStartX() + x;
+                int wy = restored.getWorldStartY() + y;
+                assertEquals(original.getCellFlags(wx, wy), restored.getCellFlags(wx, wy));
+            }
+        }
+        assertEquals(original.getTrapPositions(), restored.getTrapPositions());
+        assertEquals(original.getSpawnPoints(), restored.getSpawnPoints());
+        assertTrue(restored.isChestOpened(0));
+        assertFalse(restored.isChestOpened(1));
+
+        assertEquals(1, restored.getDormantEnemies().size());
+        Enemy revived = restored.getDormantEnemies().get(0).revive();
+        assertEquals(original.getWorldStartX() + 10.5f, revived.getX());
+        assertEquals(Enemy.EnemyType.BOAR, revived.getType());
+        assertEquals(5, revived.getHealth());
+        assertEquals(9, revived.getMaxHealth());
+        assertEquals(DamageType.PHYSICAL, revived.getShieldType());
+        assertEquals(2, revived.getCurrentShield());
+
+        assertEquals(1, restored.getDroppedPotions().size());
+        Potion potion = restored.getDroppedPotions().get(0);
+        assertEquals(Potion.PotionType.SPEED, potion.getType());
+        assertEquals(3, potion.getValue());
+        assertEquals(5f, potion.getDuration());
+    }
+
+    @Test
+    void testLiveContentsAreSavedWithoutTouchingTheChunk() {
+        FileHandle dir = new FileHandle(tempDir.toFile());
+        MapChunk chunk = modifiedChunk(4, 5);
+        Enemy live = new Enemy(chunk.getWorldStartX() + 2f, chunk.getWorldStartY() + 3f, 12,
+                DamageType.PHYSICAL, null, 0);
+        ChunkStore.LiveContents contents = new ChunkStore.LiveContents();
+        contents.enemies.add(MapChunk.DormantEnemy.capture(live));
+        contents.potions.add(new Potion(chunk.getWorldStartX() + 6, chunk.getWorldStartY() + 6,
+                Potion.PotionType.HEALTH, 1, 0f));
+
+        ChunkStore store = new ChunkStore(dir);
+        store.stash(chunk, contents);
+        assertEquals(1, store.flush());
+        assertEquals(1, chunk.getDormantEnemies().size(), "Live enemies stay out of the chunk");
+        assertEquals(1, chunk.getDroppedPotions().size());
+        assertTrue(chunk.isModified(), "Re-encoded once the live enemies die or leave");
+
+        MapChunk restored = new ChunkStore(dir).restore(4, 5);
+        assertEquals(2, restored.getDormantEnemies().size());
+        assertEquals(12, restored.getDormantEnemies().get(1).maxHealth);
+        assertEquals(2, restored.getDroppedPotions().size());
+        assertEquals(Potion.PotionType.HEALTH, restored.getDroppedPotions().get(1).getType());
+    }
+
+    @Test
+    void testUnsavedChunkIsNotRestored() {
+        ChunkStore store = new ChunkStore(new FileHandle(tempDir.toFile()));
+        assertNull(store.restore(1, 1));
+        assertEquals(0, store.flush(), "Nothing to write");
+    }
+
+    @Test
+    void testFlushOnlyRewritesDirtyRegions() {
+        FileHandle dir = new FileHandle(tempDir.toFile());
+        ChunkStore store = new ChunkStore(dir);
+        int far = ChunkStore.REGION_SIZE * 2;
+        store.stash(modifiedChunk(1, 1));
+        store.stash(modifiedChunk(2, 1)); // 同一区域
+        store.stash(modifiedChunk(far, far));
+        assertEquals(2, store.flush());
+        assertTrue(new File(tempDir.toFile(), "r.0.0.bin").isFile());
+        assertTrue(new File(tempDir.toFile(), "r.2.2.bin").isFile());
+
+        assertEquals(0, store.flush(), "Clean regions are not rewritten");
+        store.stash(modifiedChunk(far, far));
+        assertEquals(1, store.flush());
+
+        // 同一区域的两个区块都能恢复
+        ChunkStore reopened = new ChunkStore(dir);
+        assertNotNull(reopened.restore(1, 1));
+        assertNotNull(reopened.restore(2, 1));
+        assertNull(reopened.restore(3, 1));
+    }
+
+    @Test
+    void testManagerRestoresSavedChunkInsteadOfRegenerating() {
+        FileHandle dir = new FileHandle(tempDir.toFile());
+        ChunkManager manager = new ChunkManager(42L, new ChunkStore(dir));
+        int center = manager.getCenterChunkCoord();
+        manager.loadActiveChunksNow(center * SIZE + 1, center * SIZE + 1);
+        manager.getChunk(center, center).markChestOpened(2);
+        assertEquals(1, manager.saveWorld());
+        manager.dispose();
+
+        ChunkManager reloaded = new ChunkManager(42L, new ChunkStore(dir));
+        reloaded.loadActiveChunksNow(center * SIZE + 1, center * SIZE + 1);
+        assertTrue(reloaded.getChunk(center, center).isChestOpened(2));
+        assertFalse(reloaded.getChunk(center + 1, center).isModified());
+        reloaded.dispose();
+    }
+}
@@ -0,0 +1,98 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.model.GameMap;
+import de.tum.cit.fop.maze.model.GameObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledMapTest {
+
+    @TempDir
+    File tempDir;
+
+    private static byte[] readMapSource(String name) {
+        File f = new File("assets/maps/" + name);
+        if (!f.exists()) {
+            f = new File("../assets/maps/" + name);
+        }
+        return new FileHandle(f).readBytes();
+    }
+
+    private static List<String> describeObjects(GameMap map) {
+        List<String> result = new ArrayList<>();
+        for (GameObject obj : map.getDynamicObjects()) {
+            result.add(obj.getClass().getSimpleName() + "@" + obj.getX() + "," + obj.getY());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    @Test
+    public void testCompiledMapMatchesTextParser() throws Exception {
+        byte[] source = readMapSource("level-20.properties");
+        MapLoader.LoadResult text = MapLoader.parseText(source);
+
+        byte[] compiled = CompiledMap.compile(source);
+        CompiledMap decoded = CompiledMap.read(ByteBuffer.wrap(compiled), source);
+        assertNotNull(decoded);
+        assertTrue(decoded.wallRunCount < text.map.getWalls().size(), "Adjacent walls should merge into runs");
+        MapLoader.LoadResult binary = MapLoader.buildCompiled(decoded);
+
+        GameMap a = text.map;
+        GameMap b = binary.map;
+        assertEquals(a.getWidth(), b.getWidth());
+        assertEquals(a.getHeight(), b.getHeight());
+        assertEquals(a.getWalls().size(), b.getWalls().size());
+        for (int x = 0; x < a.getWidth(); x++) {
+            for (int y = 0; y < a.getHeight(); y++) {
+                assertEquals(a.isOccupied(x, y), b.isOccupied(x, y), "Occupancy differs at " + x + "," + y);
+            }
+        }
+        assertEquals(describeObjects(a), describeObjects(b));
+        assertEquals(a.getPlayerStartX(), b.getPlayerStartX());
+        assertEquals(a.getPlayerStartY(), b.getPlayerStartY());
+        assertEquals(a.getTheme(), b.getTheme());
+
+        assertEquals(text.config.damageType, binary.config.damageType);
+        assertEquals(text.config.enemyShieldEnabled, binary.config.enemyShieldEnabled);
+        assertEquals(text.config.difficulty, binary.config.difficulty);
+        assertEquals(text.config.suggestedArmor, binary.config.suggestedArmor);
+    }
+
+    @Test
+    public void testStaleOrCorruptCacheIsRejected() throws Exception {
+        byte[] source = readMapSource("level-1.properties");
+        byte[] compiled = CompiledMap.compile(source);
+
+        byte[] edited = source.clone();
+        edited[edited.length - 2] ^= 1;
+        assertNull(CompiledMap.read(ByteBuffer.wrap(compiled), edited), "Edited source invalidates the cache");
+
+        byte[] truncated = java.util.Arrays.copyOf(compiled, compiled.length / 2);
+        assertNull(CompiledMap.read(ByteBuffer.wrap(truncated), source));
+    }
+
+    @Test
+    public void testReadsFileWithoutHoldingIt() throws Exception {
+        byte[] source = readMapSource("level-1.properties");
+        FileHandle file = new FileHandle(new File(tempDir, "level-1" + CompiledMap.EXTENSION));
+        file.writeBytes(CompiledMap.compile(source), false);
+
+        ByteBuffer buffer = CompiledMap.open(file);
+        // 过期缓存读取后要能立即重写（内存映射在 Windows 上会锁住文件）
+        file.writeBytes(new byte[] { 1, 2, 3 }, false);
+        CompiledMap decoded = CompiledMap.read(buffer, source);
+        assertNotNull(decoded, "The buffer is a copy, unaffected by the rewrite");
+        assertEquals(50, decoded.playableWidth);
+        assertEquals("maps/level-1.mapbin", MapLoader.compiledPathFor("maps/level-1.properties"));
+    }
+}
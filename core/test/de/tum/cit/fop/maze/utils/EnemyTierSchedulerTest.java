@@ -0,0 +1,96 @@
+package de.tum.cit.fop.maze.utils;
+
+import de.tum.cit.fop.maze.config.EndlessModeConfig;
+import de.tum.cit.fop.maze.model.Enemy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试 EnemyTierScheduler 的分级与错开更新
+ */
+public class EnemyTierSchedulerTest {
+
+    @Test
+    void testClassifyByDistance() {
+        EnemyTierScheduler tiers = new EnemyTierScheduler(20, 50, 45, 4);
+        tiers.beginFrame();
+        assertEquals(EnemyTierScheduler.Tier.FULL, tiers.classify(19.9f * 19.9f));
+        assertEquals(EnemyTierScheduler.Tier.REDUCED, tiers.classify(20 * 20));
+        assertEquals(EnemyTierScheduler.Tier.REDUCED, tiers.classify(49.9f * 49.9f));
+        assertEquals(EnemyTierScheduler.Tier.DORMANT, tiers.classify(50 * 50));
+        assertEquals(1, tiers.getFullCount());
+        assertEquals(2, tiers.getReducedCount());
+    }
+
+    @Test
+    void testFreshSpawnIsNotDormant() {
+        // BOSS 和普通敌人最远在刷新圈外缘生成，下一帧不能被冻结
+        EnemyTierScheduler tiers = new EnemyTierScheduler();
+        tiers.beginFrame();
+        float spawn = EndlessModeConfig.SPAWN_MAX_DISTANCE;
+        assertNotEquals(EnemyTierScheduler.Tier.DORMANT, tiers.classify(spawn * spawn));
+        assertNotEquals(EnemyTierScheduler.Tier.DORMANT, tiers.classify((spawn + 1) * (spawn + 1)),
+                "Leaves room for the enemy to drift outwards after spawning");
+    }
+
+    @Test
+    void testWakeHysteresis() {
+        EnemyTierScheduler tiers = new EnemyTierScheduler(20, 50, 45, 4);
+        // 刚冻结的敌人不会立刻被唤醒
+        assertFalse(tiers.shouldWake(50 * 50));
+        assertFalse(tiers.shouldWake(47 * 47));
+        assertTrue(tiers.shouldWake(44 * 44));
+    }
+
+    @Test
+    void testReducedTicksAreStaggered() {
+        int frames = 4;
+        int enemies = 103;
+        EnemyTierScheduler tiers = new EnemyTierScheduler(20, 50, 45, frames);
+        int[] ticks = new int[enemies];
+        for (int f = 0; f < frames * 10; f++) {
+            tiers.beginFrame();
+            for (int i = 0; i < enemies; i++) {
+                if (tiers.isReducedTick(i)) {
+                    ticks[i]++;
+                }
+            }
+            // 每帧只处理约 1/frames 的敌人
+            assertTrue(tiers.getReducedTicks() <= enemies / frames + 1);
+        }
+        for (int count : ticks) {
+            assertEquals(10, count, "Every enemy ticks once per period");
+        }
+    }
+
+    @Test
+    void testStaggerSurvivesRemovals() {
+        int frames = 4;
+        EnemyTierScheduler tiers = new EnemyTierScheduler(20, 50, 45, frames);
+        List<Enemy> enemies = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            enemies.add(new Enemy(i, 0));
+        }
+        Map<Enemy, Integer> lastTick = new HashMap<>();
+        for (int f = 0; f < 30; f++) {
+            tiers.beginFrame();
+            // 倒序遍历，与 EndlessGameScreen 相同；每帧移除一个敌人，下标随之移动
+            for (int i = enemies.size() - 1; i >= 0; i--) {
+                Enemy enemy = enemies.get(i);
+                if (tiers.isReducedTick(enemy.getTickPhase())) {
+                    Integer last = lastTick.put(enemy, f);
+                    if (last != null) {
+                        assertEquals(frames, f - last, "Exactly one tick per period");
+                    }
+                }
+            }
+            enemies.remove(f % enemies.size());
+        }
+    }
+}
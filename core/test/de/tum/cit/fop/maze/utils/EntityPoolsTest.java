@@ -0,0 +1,109 @@
+package de.tum.cit.fop.maze.utils;
+
+import de.tum.cit.fop.maze.model.DamageType;
+import de.tum.cit.fop.maze.model.Enemy;
+import de.tum.cit.fop.maze.model.Projectile;
+import de.tum.cit.fop.maze.model.items.DroppedItem;
+import de.tum.cit.fop.maze.model.weapons.WeaponEffect;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试 EntityPools 的复用与重置
+ */
+public class EntityPoolsTest {
+
+    @Test
+    void testFreedEnemyIsReusedAsFreshEnemy() {
+        Enemy enemy = EntityPools.obtainEnemy(3, 4, 10, DamageType.MAGICAL, DamageType.PHYSICAL, 5);
+        enemy.setType(Enemy.EnemyType.BOAR);
+        enemy.setCustomElementId("custom");
+        enemy.applyEffect(WeaponEffect.SLOW);
+        enemy.takeDamage(20, DamageType.MAGICAL);
+        assertTrue(enemy.isDead());
+        enemy.setDamageListener((x, y, amount, dirX, dirY, knockback) -> fail("Stale listener"));
+        EntityPools.freeEnemy(enemy);
+
+        Enemy reused = EntityPools.obtainEnemy(7, 8, 3, DamageType.PHYSICAL, null, 0);
+        assertSame(enemy, reused);
+        assertFalse(reused.isDead());
+        assertEquals(Enemy.EnemyState.PATROL, reused.getState());
+        assertEquals(Enemy.EnemyType.SLIME, reused.getType());
+        assertNull(reused.getCustomElementId());
+        assertEquals(-1, reused.getSpatialSlot());
+        assertEquals(7, reused.getX());
+        assertEquals(3, reused.getHealth());
+        assertEquals(3, reused.getMaxHealth());
+        assertNull(reused.getShieldType());
+        assertEquals(WeaponEffect.NONE, reused.getCurrentEffect());
+        assertEquals(1.0f, reused.getSlowMultiplier());
+        reused.takeDamage(1, DamageType.PHYSICAL); // 旧监听器已清除
+        EntityPools.freeEnemy(reused);
+    }
+
+    @Test
+    void testSteadyStateDoesNotAllocate() {
+        EntityPools.TrackedPool<Projectile> pool = EntityPools.projectiles();
+        Projectile[] live = new Projectile[8];
+        for (int i = 0; i < live.length; i++) {
+            live[i] = EntityPools.obtainProjectile(0, 0, 1, 0, 1, DamageType.PHYSICAL, WeaponEffect.NONE, true,
+                    "arrow", 1f);
+        }
+        for (Projectile p : live) {
+            EntityPools.freeProjectile(p);
+        }
+
+        int createdBefore = pool.getCreated();
+        int inUseBefore = pool.getInUse();
+        for (int wave = 0; wave < 50; wave++) {
+            for (int i = 0; i < live.length; i++) {
+                live[i] = EntityPools.obtainProjectile(i, wave, 0, 1, 2, DamageType.MAGICAL, WeaponEffect.BURN,
+                        false, "magic_bolt", 1f);
+                live[i].markHit();
+            }
+            for (Projectile p : live) {
+                EntityPools.freeProjectile(p);
+            }
+        }
+        assertEquals(createdBefore, pool.getCreated(), "Recycled projectiles need no new allocations");
+        assertEquals(inUseBefore, pool.getInUse());
+
+        Projectile p = EntityPools.obtainProjectile(5, 6, 3, 4, 7, DamageType.PHYSICAL, WeaponEffect.NONE, true,
+                "arrow", 2f);
+        assertFalse(p.isExpired(), "Expired flag is cleared on reuse");
+        assertEquals(5, p.getStartX());
+        assertEquals(3f, p.getLifeTimeRemaining());
+        assertEquals(2f, p.getSize());
+        EntityPools.freeProjectile(p);
+    }
+
+    @Test
+    void testResetStatsKeepsLiveObjectsInUse() {
+        EntityPools.TrackedPool<Enemy> pool = EntityPools.enemies();
+        int inUseBefore = pool.getInUse();
+        Enemy live = EntityPools.obtainEnemy(1, 1, 5, DamageType.PHYSICAL, null, 0);
+        EntityPools.resetStats();
+        assertEquals(inUseBefore + 1, pool.getInUse());
+
+        EntityPools.freeEnemy(live);
+        assertEquals(inUseBefore, pool.getInUse(), "Freeing an enemy obtained before the reset");
+        assertTrue(pool.getInUse() >= 0);
+    }
+
+    @Test
+    void testDroppedItemFactoriesUsePool() {
+        DroppedItem coin = DroppedItem.createCoinDrop(1, 2, 5);
+        assertEquals(DroppedItem.ItemType.COIN, coin.getType());
+        assertEquals(0.5f, coin.getWidth());
+        EntityPools.freeDroppedItem(coin);
+        assertNull(coin.getPayload(), "Freed items drop their payload");
+
+        DroppedItem again = DroppedItem.createCoinDrop(3, 4, 2);
+        assertSame(coin, again);
+        assertFalse(again.isPickedUp());
+        assertEquals(2, again.getPayload());
+        assertEquals("coin", again.getTextureKey());
+        EntityPools.freeDroppedItem(again);
+    }
+}
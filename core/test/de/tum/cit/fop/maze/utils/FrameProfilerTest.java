@@ -0,0 +1,95 @@
+package de.tum.cit.fop.maze.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试 FrameProfiler 的分段计时与环形缓冲区统计
+ */
+public class FrameProfilerTest {
+
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+
+    @BeforeEach
+    void setUp() {
+        profiler.setEnabled(true);
+        profiler.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        profiler.setEnabled(false);
+        profiler.reset();
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void testPhasesAccumulateWithinFrame() {
+        profiler.beginFrame();
+        profiler.begin(FrameProfiler.Phase.ENTITIES);
+        spin(1_000_000);
+        profiler.end(FrameProfiler.Phase.ENTITIES);
+        profiler.begin(FrameProfiler.Phase.ENTITIES);
+        spin(1_000_000);
+        profiler.end(FrameProfiler.Phase.ENTITIES);
+        profiler.endFrame(null);
+
+        float entities = profiler.getPhaseSeries(FrameProfiler.Phase.ENTITIES).latest();
+        assertTrue(entities >= 2f, "Both scopes are summed: " + entities);
+        assertTrue(profiler.getFrameSeries().latest() >= entities);
+        assertEquals(0f, profiler.getPhaseSeries(FrameProfiler.Phase.FOG).latest());
+        assertEquals(1, profiler.getFrameSeries().size());
+    }
+
+    @Test
+    void testDisabledProfilerRecordsNothing() {
+        profiler.setEnabled(false);
+        profiler.beginFrame();
+        profiler.begin(FrameProfiler.Phase.HUD);
+        profiler.end(FrameProfiler.Phase.HUD);
+        profiler.endFrame(null);
+        assertEquals(0, profiler.getFrameSeries().size());
+        assertFalse(profiler.isOverlayVisible());
+    }
+
+    @Test
+    void testRingBufferKeepsNewestFramesAndPercentiles() {
+        FrameProfiler.Series series = profiler.getPhaseSeries(FrameProfiler.Phase.PLAYER);
+        // 写入 HISTORY + 100 帧，只保留最新的 HISTORY 帧
+        for (int i = 0; i < FrameProfiler.HISTORY + 100; i++) {
+            profiler.beginFrame();
+            profiler.endFrame(null);
+        }
+        assertEquals(FrameProfiler.HISTORY, series.size());
+
+        FrameProfiler.Series values = new FrameProfiler.Series();
+        for (int i = 1; i <= FrameProfiler.HISTORY + 100; i++) {
+            values.add(i);
+        }
+        assertEquals(101f, values.get(0), "Oldest retained value");
+        assertEquals(FrameProfiler.HISTORY + 100f, values.latest());
+
+        float[] p = values.percentiles(0.5f, 0.95f, 0.99f);
+        assertEquals(250f, p[0]);
+        assertEquals(385f, p[1]);
+        assertEquals(397f, p[2]);
+    }
+
+    @Test
+    void testOverlayEnablesProfiler() {
+        profiler.setEnabled(false);
+        profiler.setOverlayVisible(true);
+        assertTrue(profiler.isEnabled());
+        profiler.setEnabled(false);
+        assertFalse(profiler.isOverlayVisible(), "Turning the profiler off hides the graph");
+    }
+}
@@ -0,0 +1,68 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.math.Vector2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HordeDistanceFieldTest {
+
+    private HordeDistanceField field;
+
+    /** 竖直墙 x=5, y=-3..3，玩家在墙左侧 */
+    private final HordeDistanceField.WallQuery wall = (x, y) -> x == 5 && y >= -3 && y <= 3;
+
+    @BeforeEach
+    public void setUp() {
+        field = new HordeDistanceField(10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        field.dispose();
+    }
+
+    @Test
+    public void testFrontBufferUnchangedUntilSwap() {
+        assertEquals(-1, field.getDistance(0, 0), "首次重算完成前没有可用数据");
+
+        field.update(0, 0, wall);
+        field.waitForRebuild();
+
+        assertEquals(0, field.getDistance(0, 0));
+        assertEquals(3, field.getDistance(2, 1));
+        assertEquals(-1, field.getDistance(5, 0), "墙体格子不可达");
+        assertEquals(-1, field.getDistance(11, 0), "半径外不可达");
+        assertEquals(1, field.getRebuildCount());
+    }
+
+    @Test
+    public void testPathGoesAroundWall() {
+        field.update(0, 0, wall);
+        field.waitForRebuild();
+
+        // (6,0) 在墙右侧：需绕过 y=4 或 y=-4
+        assertEquals(6 + 4 + 4, field.getDistance(6, 0));
+
+        Vector2 dir = new Vector2();
+        assertTrue(field.getDirection(6, 0, 0.9f, dir));
+        assertEquals(0f, dir.x, 0.001f, "紧贴墙体时应沿墙竖直移动而不是撞墙");
+        assertEquals(1f, Math.abs(dir.y), 0.001f);
+    }
+
+    @Test
+    public void testNoRebuildWhenTileUnchanged() {
+        field.update(0, 0, wall);
+        field.waitForRebuild();
+        field.update(0, 0, wall);
+        field.waitForRebuild();
+        assertEquals(1, field.getRebuildCount());
+
+        field.update(1, 0, wall);
+        field.waitForRebuild();
+        assertEquals(2, field.getRebuildCount());
+        assertEquals(0, field.getDistance(1, 0));
+    }
+}
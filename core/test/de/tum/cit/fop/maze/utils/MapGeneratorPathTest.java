@@ -3,11 +3,13 @@
 import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.model.GameMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.RepeatedTest;
 
 import java.io.File;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,6 +85,88 @@ void testSmallMapGeneration() {
         assertDoesNotThrow(() -> generator.generateAndSave(TEST_MAP_PATH));
     }
 
+    /**
+     * 增量连通性模式：所有地板格都应互相连通（不止起点-钥匙-出口）
+     */
+    @RepeatedTest(3)
+    void testIncrementalModeKeepsAllFloorConnected() throws Exception {
+        MapGenerator.MapConfig config = getNormalConfig();
+        config.incrementalConnectivity = true;
+        new MapGenerator(config).generateAndSave(TEST_MAP_PATH);
+
+        GameMap map = MapLoader.parseText(new FileHandle(new File(TEST_MAP_PATH)).readBytes()).map;
+        int width = map.getWidth();
+        int height = map.getHeight();
+        int floorCount = 0;
+        int startIndex = -1;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (!map.isOccupied(x, y)) {
+                    floorCount++;
+                    startIndex = x * height + y;
+                }
+            }
+        }
+        assertTrue(floorCount > 0);
+
+        boolean[] visited = new boolean[width * height];
+        int[] queue = new int[width * height];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startIndex;
+        visited[startIndex] = true;
+        int[][] dirs = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
+        while (head < tail) {
+            int cur = queue[head++];
+            for (int[] d : dirs) {
+                int nx = cur / height + d[0];
+                int ny = cur % height + d[1];
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height
+                        && !visited[nx * height + ny] && !map.isOccupied(nx, ny)) {
+                    visited[nx * height + ny] = true;
+                    queue[tail++] = nx * height + ny;
+                }
+            }
+        }
+        assertEquals(floorCount, tail, "Every floor cell should be reachable");
+    }
+
+    /**
+     * 大地图在增量模式下一次生成即可完成
+     */
+    @Test
+    void testVeryLargeMapGeneration() {
+        MapGenerator.MapConfig config = getNormalConfig();
+        config.width = 500;
+        config.height = 500;
+        MapGenerator generator = new MapGenerator(config);
+        assertTimeoutPreemptively(Duration.ofSeconds(20),
+                () -> generator.generateAndSave(TEST_MAP_PATH));
+        assertTrue(new File(TEST_MAP_PATH).exists());
+    }
+
+    /**
+     * 相同种子生成相同地图；关卡种子互不相同
+     */
+    @Test
+    void testSeededGenerationIsDeterministic() {
+        MapGenerator.MapConfig config = MapGenerationScript.configForLevel(6);
+        long seed = MapGenerator.levelSeed(42L, 6);
+
+        MapGenerator first = new MapGenerator(config, seed);
+        String a = first.generateText();
+        assertEquals(a, first.generateText(), "Regenerating with the same generator repeats the map");
+        assertEquals(a, new MapGenerator(config, seed).generateText());
+        assertNotEquals(a, new MapGenerator(config, MapGenerator.levelSeed(42L, 7)).generateText());
+
+        MapGenerator.GenerationStats stats = first.getLastStats();
+        assertTrue(stats.isFullyConnected());
+        assertTrue(stats.keyDistance > 0);
+        assertTrue(stats.exitDistance > 0);
+        assertNotEquals(MapGenerator.levelSeed(42L, 1), MapGenerator.levelSeed(43L, 1));
+        assertNotEquals(MapGenerator.levelSeed(42L, 1), MapGenerator.levelSeed(42L, 2));
+    }
+
     // Helper to create a normal config
     private MapGenerator.MapConfig getNormalConfig() {
         MapGenerator.MapConfig config = new MapGenerator.MapConfig();
@@ -0,0 +1,73 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import de.tum.cit.fop.maze.model.weapons.WeaponEffect;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试 ParticleEngine 的定长存储与回收
+ */
+public class ParticleEngineTest {
+
+    @Test
+    void testEmitRespectsCapacity() {
+        ParticleEngine engine = new ParticleEngine(300);
+        for (int i = 0; i < 10; i++) {
+            engine.emitBlood(5, 5, 100, 1, 0, 1f);
+        }
+        assertEquals(300, engine.getParticleCount(), "Emission stops at capacity instead of growing");
+    }
+
+    @Test
+    void testBurstSizeScalesWithDamage() {
+        ParticleEngine engine = new ParticleEngine();
+        engine.emitBlood(0, 0, 0, 1, 0, 0f);
+        assertEquals(5, engine.getParticleCount(), "At least five particles per hit");
+        engine.clear();
+        engine.emitBlood(0, 0, 3, 1, 0, 0f);
+        assertEquals(24, engine.getParticleCount());
+    }
+
+    @Test
+    void testDeadParticlesAreRecycled() {
+        ParticleEngine engine = new ParticleEngine(64);
+        engine.emitBlood(0, 0, 8, 0, 1, 0.5f, Color.BLUE);
+        engine.emitDust(0, 0, Color.BROWN);
+        engine.emitMagicHit(0, 0, WeaponEffect.FREEZE);
+        assertTrue(engine.getParticleCount() > 0);
+
+        // 所有粒子寿命都不超过约 1.1 秒
+        for (int i = 0; i < 120; i++) {
+            engine.update(1 / 60f);
+        }
+        assertEquals(0, engine.getParticleCount());
+
+        // 回收后的槽位可以再次使用
+        engine.emitBlood(0, 0, 8, 0, 1, 0.5f);
+        assertEquals(64, engine.getParticleCount());
+    }
+
+    @Test
+    void testMagicHitIgnoresNonMagicEffects() {
+        ParticleEngine engine = new ParticleEngine();
+        engine.emitMagicHit(0, 0, WeaponEffect.NONE);
+        assertEquals(0, engine.getParticleCount());
+        engine.emitMagicHit(0, 0, WeaponEffect.SLOW);
+        assertEquals(64, engine.getParticleCount());
+    }
+
+    @Test
+    void testSustainsThousandsOfParticles() {
+        ParticleEngine engine = new ParticleEngine();
+        for (int i = 0; i < 40; i++) {
+            engine.emitBlood(i, i, 25, 1, 0, 1f);
+        }
+        assertEquals(ParticleEngine.DEFAULT_CAPACITY, engine.getParticleCount());
+        for (int i = 0; i < 10; i++) {
+            engine.update(1 / 60f);
+        }
+        assertTrue(engine.getParticleCount() > 3000);
+    }
+}
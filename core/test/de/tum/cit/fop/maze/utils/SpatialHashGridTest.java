@@ -0,0 +1,105 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpatialHashGridTest {
+
+    static class Thing implements SpatialHashGrid.Entry {
+        final String name;
+        int slot = -1;
+
+        Thing(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public int getSpatialSlot() {
+            return slot;
+        }
+
+        @Override
+        public void setSpatialSlot(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    @Test
+    public void testInsertQueryRemove() {
+        SpatialHashGrid<Thing> grid = new SpatialHashGrid<>(16f);
+        Thing a = new Thing("a");
+        Thing b = new Thing("b");
+        Thing far = new Thing("far");
+        grid.insert(a, 1, 1);
+        grid.insert(b, -3, 2); // 负坐标单元格
+        grid.insert(far, 500, 500);
+        assertEquals(3, grid.size());
+
+        Array<Thing> out = new Array<>();
+        assertEquals(2, grid.getNearbyExact(0, 0, 5, out));
+        assertTrue(out.contains(a, true));
+        assertTrue(out.contains(b, true));
+
+        grid.remove(a);
+        assertEquals(-1, a.getSpatialSlot());
+        assertEquals(1, grid.getNearbyExact(0, 0, 5, out));
+        assertSame(b, out.first());
+        assertEquals(2, grid.size());
+    }
+
+    @Test
+    public void testUpdateMovesBetweenCells() {
+        SpatialHashGrid<Thing> grid = new SpatialHashGrid<>(16f);
+        Thing a = new Thing("a");
+        grid.insert(a, 1, 1);
+        grid.update(a, 100, 100);
+
+        Array<Thing> out = new Array<>();
+        assertEquals(0, grid.getNearby(0, 0, 1, out));
+        assertEquals(1, grid.getNearby(100, 100, 1, out));
+
+        // 同一单元格内移动：精确查询使用最新坐标
+        grid.update(a, 101, 100);
+        assertEquals(0, grid.getNearbyExact(100, 100, 0.5f, out));
+        assertEquals(1, grid.getNearbyExact(101, 100, 0.5f, out));
+    }
+
+    @Test
+    public void testVisitorCanStopEarly() {
+        SpatialHashGrid<Thing> grid = new SpatialHashGrid<>(4f);
+        for (int i = 0; i < 10; i++) {
+            grid.insert(new Thing("t" + i), i * 0.1f, 0);
+        }
+        int[] visited = { 0 };
+        grid.forEachWithin(0, 0, 10, (thing, x, y) -> ++visited[0] < 3);
+        assertEquals(3, visited[0]);
+    }
+
+    @Test
+    public void testManyEntitiesAndSlotReuse() {
+        SpatialHashGrid<Thing> grid = new SpatialHashGrid<>(2f);
+        Thing[] things = new Thing[500];
+        for (int i = 0; i < things.length; i++) {
+            things[i] = new Thing("t" + i);
+            grid.insert(things[i], i * 3f, (i % 7) * 3f); // 触发单元格表和槽位扩容
+        }
+        for (int i = 0; i < things.length; i += 2) {
+            grid.remove(things[i]);
+        }
+        assertEquals(250, grid.size());
+
+        Thing extra = new Thing("extra");
+        grid.insert(extra, 3f, 3f);
+        assertTrue(extra.getSpatialSlot() < 500, "应复用已释放的槽位");
+
+        Array<Thing> out = new Array<>();
+        grid.getNearbyExact(3f, 3f, 0.1f, out);
+        assertEquals(2, out.size, "t1 与 extra 位于同一点");
+
+        grid.clear();
+        assertEquals(0, grid.size());
+        assertEquals(-1, extra.getSpatialSlot());
+    }
+}
@@ -0,0 +1,128 @@
+package de.tum.cit.fop.maze.tools;
+
+import de.tum.cit.fop.maze.utils.GameLogger;
+import de.tum.cit.fop.maze.utils.MapGenerationScript;
+import de.tum.cit.fop.maze.utils.MapGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Headless batch map generator.
+ *
+ * Builds the campaign level set across a fork-join pool. Every level is seeded
+ * from (campaign seed, level index), so the same campaign seed always produces
+ * the same files regardless of thread count or scheduling.
+ *
+ * Usage: BatchMapGenerator [--seed N] [--count N] [--threads N] [--out DIR]
+ */
+public class BatchMapGenerator {
+    private static final String OUTPUT_DIR = "../assets/maps";
+
+    private static class LevelResult {
+        final int level;
+        final MapGenerator.MapConfig config;
+        final MapGenerator.GenerationStats stats;
+
+        LevelResult(int level, MapGenerator.MapConfig config, MapGenerator.GenerationStats stats) {
+            this.level = level;
+            this.config = config;
+            this.stats = stats;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long campaignSeed = 0L;
+        int count = MapGenerationScript.LEVEL_COUNT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outputDir = OUTPUT_DIR;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed":
+                    campaignSeed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--count":
+                    count = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Math.max(1, Integer.parseInt(args[i + 1]));
+                    break;
+                case "--out":
+                    outputDir = args[i + 1];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        File outDir = new File(outputDir);
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            System.err.println("Cannot create output directory: " + outDir.getAbsolutePath());
+            return;
+        }
+
+        // Per-attempt logging from every worker would drown the summary
+        GameLogger.setLogLevel(GameLogger.LogLevel.WARN);
+
+        System.out.println("Generating " + count + " maps with campaign seed " + campaignSeed
+                + " on " + threads + " threads -> " + outDir.getAbsolutePath());
+        long start = System.currentTimeMillis();
+
+        List<Callable<LevelResult>> tasks = new ArrayList<>();
+        for (int level = 1; level <= count; level++) {
+            final int lvl = level;
+            final long seed = campaignSeed;
+            tasks.add(() -> generateLevel(outDir, seed, lvl));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int failures = 0;
+        try {
+            for (Future<LevelResult> future : pool.invokeAll(tasks)) {
+                try {
+                    LevelResult result = future.get();
+                    printStats(result);
+                    if (result.stats.fallback || result.stats.keyDistance < 0 || result.stats.exitDistance < 0) {
+                        failures++;
+                    }
+                } catch (ExecutionException e) {
+                    failures++;
+                    System.err.println("Generation failed: " + e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Done in " + (System.currentTimeMillis() - start) + " ms, "
+                + failures + " level(s) need attention.");
+    }
+
+    private static LevelResult generateLevel(File outDir, long campaignSeed, int level) throws IOException {
+        MapGenerator.MapConfig config = MapGenerationScript.configForLevel(level);
+        MapGenerator generator = new MapGenerator(config, MapGenerator.levelSeed(campaignSeed, level));
+        String text = generator.generateText();
+        File target = new File(outDir, MapGenerationScript.fileNameForLevel(level));
+        Files.write(target.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        return new LevelResult(level, config, generator.getLastStats());
+    }
+
+    private static void printStats(LevelResult result) {
+        MapGenerator.GenerationStats s = result.stats;
+        System.out.println(String.format(
+                "level-%-3d %-9s %4dx%-4d seed=%016x walls=%-6d floor=%d/%d%s key=%d exit=%d attempts=%d%s %dms",
+                result.level, result.config.theme, s.totalWidth, s.totalHeight, s.seed, s.walls,
+                s.reachableFloorCells, s.floorCells, s.isFullyConnected() ? "" : " (split)",
+                s.keyDistance, s.exitDistance, s.attempts, s.fallback ? " FALLBACK" : "", s.generationMillis));
+    }
+}